@@ -17,7 +17,7 @@ import com.example.expenses.batch.processor.ExpenseCsvItemProcessor;
 import com.example.expenses.batch.tasklet.ErrorNotificationTasklet;
 import com.example.expenses.batch.tasklet.ReportTasklet;
 import com.example.expenses.batch.tasklet.WarningTasklet;
-import com.example.expenses.batch.writer.ExpenseCsvItemWriter;
+import com.example.expenses.batch.writer.ExpenseCsvBatchItemWriter;
 import com.example.expenses.domain.Expense;
 
 import lombok.RequiredArgsConstructor;
@@ -28,7 +28,7 @@ public class ConditionalFlowBatchConfiguration {
 
 	private final FlatFileItemReader<ExpenseCsvRow> expenseCsvReader;
 	private final ExpenseCsvItemProcessor expenseCsvProcessor;
-	private final ExpenseCsvItemWriter expenseCsvWriter;
+	private final ExpenseCsvBatchItemWriter expenseCsvWriter;
 	
 	@Bean
 	Step importStep(
@@ -1,5 +1,8 @@
 package com.example.expenses.batch.config;
 
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+
 import org.apache.ibatis.session.SqlSessionFactory;
 import org.mybatis.spring.batch.MyBatisCursorItemReader;
 import org.mybatis.spring.batch.builder.MyBatisCursorItemReaderBuilder;
@@ -11,16 +14,17 @@ import org.springframework.batch.core.job.builder.JobBuilder;
 import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.step.Step;
 import org.springframework.batch.core.step.builder.StepBuilder;
-import org.springframework.batch.infrastructure.item.file.FlatFileItemWriter;
+import org.springframework.batch.infrastructure.item.ItemStreamWriter;
 import org.springframework.batch.infrastructure.item.file.builder.FlatFileItemWriterBuilder;
-import org.springframework.batch.infrastructure.item.file.transform.BeanWrapperFieldExtractor;
-import org.springframework.batch.infrastructure.item.file.transform.DelimitedLineAggregator;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.transaction.PlatformTransactionManager;
 
+import com.example.expenses.batch.writer.ExpenseCsvLineAggregator;
+import com.example.expenses.batch.writer.ExportCompression;
+import com.example.expenses.batch.writer.GzipCsvItemWriter;
 import com.example.expenses.domain.Expense;
 
 import lombok.RequiredArgsConstructor;
@@ -44,25 +48,28 @@ public class CsvExportBatchConfiguration {
 	    return reader;
 	}
 	
+	/**
+	 * ジョブパラメータ compression（none / gzip / gzip-fast）を指定した場合は圧縮しながら出力する（ファイル名に .gz を付ける）
+	 */
 	@Bean
 	@StepScope
-	FlatFileItemWriter<Expense> expenseCsvWriter(
+	ItemStreamWriter<Expense> expenseCsvWriter(
 //			@Value("#{jobParameters['outputFile']}")String outputFile) {
-		@Value("#{jobParameters['outputFile'] ?: 'src/main/resources/csv/export/expenses.csv'}")String outputFile) {
-		
-		BeanWrapperFieldExtractor<Expense> fieldExtractor = new BeanWrapperFieldExtractor<>();
-		fieldExtractor.setNames(new String[] {"id", "applicantId", "title", "amount", "currency", "status", "createdAt"});
-		
-		DelimitedLineAggregator<Expense> lineAggregator = new DelimitedLineAggregator<>();
-		lineAggregator.setDelimiter(",");
-		lineAggregator.setFieldExtractor(fieldExtractor);
+		@Value("#{jobParameters['outputFile'] ?: 'src/main/resources/csv/export/expenses.csv'}")String outputFile,
+		@Value("#{jobParameters['compression']}") String compression) {
 		
+		String header = "id,applicantId,title,amount,currency,status,createdAt";
+		ExportCompression exportCompression = ExportCompression.of(compression);
+		if(exportCompression.isCompressed()) {
+			return new GzipCsvItemWriter<>("expenseCsvWriter", Path.of(exportCompression.fileName(outputFile)),
+					Charset.forName("MS932"), new ExpenseCsvLineAggregator(true), header, exportCompression);
+		}
 		return new FlatFileItemWriterBuilder<Expense>()
 				.name("expenseCsvWriter")
 				.resource(new FileSystemResource(outputFile))
 				.encoding("MS932")
-				.lineAggregator(lineAggregator)
-				.headerCallback(writer -> writer.write("id,applicantId,title,amount,currency,status,createdAt")) // ヘッダー行の追加
+				.lineAggregator(new ExpenseCsvLineAggregator(true))
+				.headerCallback(writer -> writer.write(header)) // ヘッダー行の追加
 				.build();
 		
 	}
@@ -71,7 +78,7 @@ public class CsvExportBatchConfiguration {
 			JobRepository jobRepository,
 			PlatformTransactionManager transactionManager,
 			MyBatisCursorItemReader<Expense> expenseDbReader,
-			FlatFileItemWriter<Expense> expenseCsvWriter) {
+			ItemStreamWriter<Expense> expenseCsvWriter) {
 		
 		return new StepBuilder("csvExportStep", jobRepository)
 				.<Expense, Expense>chunk(1000, transactionManager)
@@ -1,26 +1,35 @@
 package com.example.expenses.batch.config;
 
 import java.io.IOException;
+import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
 
 import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.core.job.Job;
 import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.job.flow.JobExecutionDecider;
 import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.step.Step;
+import org.springframework.batch.core.step.builder.ChunkOrientedStepBuilder;
 import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.infrastructure.item.ItemStreamReader;
 import org.springframework.batch.infrastructure.item.file.FlatFileItemReader;
 import org.springframework.batch.infrastructure.item.file.builder.FlatFileItemReaderBuilder;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.transaction.PlatformTransactionManager;
 
+import com.example.expenses.batch.decider.ImportModeDecider;
 import com.example.expenses.batch.dto.ExpenseCsvRow;
 import com.example.expenses.batch.processor.ExpenseCsvItemProcessor;
-import com.example.expenses.batch.writer.ExpenseCsvItemWriter;
+import com.example.expenses.batch.reader.MappedCsvItemReader;
+import com.example.expenses.batch.tasklet.ExpenseCsvBulkLoadTasklet;
+import com.example.expenses.batch.writer.ExpenseCsvBatchItemWriter;
 import com.example.expenses.domain.Expense;
 
 import lombok.RequiredArgsConstructor;
@@ -30,7 +39,7 @@ import lombok.RequiredArgsConstructor;
 public class CsvImportBatchConfiguration {
 
 	private final ExpenseCsvItemProcessor processor;
-	private final ExpenseCsvItemWriter writer;
+	private final ExpenseCsvBatchItemWriter writer;
 	
 	@Bean
 	@StepScope
@@ -67,16 +76,55 @@ public class CsvImportBatchConfiguration {
 				.targetType(ExpenseCsvRow.class)
 				.build();
 	}
+
+	/**
+	 * メモリマップでCSVを読み込むReader（batch.import.reader=mapped の場合に使用）
+	 */
+	@Bean
+	@StepScope
+	ItemStreamReader<ExpenseCsvRow> mappedCsvReader(
+			@Value("#{jobParameters['inputDir']}") String inputDir,
+			@Value("${batch.import.encoding:UTF-8}") Charset encoding) {
+		return new MappedCsvItemReader("mappedCsvReader", Path.of(inputDir, "sample.csv"), encoding, 1);
+	}
 	
+	/**
+	 * csvImportStepでchunk内の行を並列に変換（検証）するExecutor
+	 * 変換は1行ごとの短い処理のため仮想スレッドで実行し、同時実行数だけを制限する
+	 */
+	@Bean
+	AsyncTaskExecutor csvImportProcessorExecutor(@Value("${batch.import.threads:1}") int threads) {
+		SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("csv-process-");
+		executor.setVirtualThreads(true);
+		executor.setConcurrencyLimit(threads);
+		return executor;
+	}
+
+	/**
+	 * CSV取り込みステップ
+	 * -threadsが2以上の場合、読み込みは1スレッドのまま、chunk内の行の変換を並列に行う
+	 * -書き込みはchunkごとに読み込み順のまま1回（1トランザクション）で行うため、登録順と再開位置は変わらない
+	 * -readerTypeがmappedの場合はFlatFileItemReaderの代わりにMappedCsvItemReaderで読み込む
+	 */
 	@Bean
 	Step csvImportStep(JobRepository jobRepository,
 			PlatformTransactionManager transactionManager,
-			FlatFileItemReader<ExpenseCsvRow> expenseCsvReader) {
-		return new StepBuilder("csvImportStep", jobRepository)
+			FlatFileItemReader<ExpenseCsvRow> expenseCsvReader,
+			ItemStreamReader<ExpenseCsvRow> mappedCsvReader,
+			AsyncTaskExecutor csvImportProcessorExecutor,
+			@Value("${batch.import.reader:flat}") String readerType,
+			@Value("${batch.import.threads:1}") int threads) {
+
+		ChunkOrientedStepBuilder<ExpenseCsvRow, Expense> builder = new StepBuilder("csvImportStep", jobRepository)
 				.<ExpenseCsvRow, Expense>chunk(100)
-				.reader(expenseCsvReader)
+				.transactionManager(transactionManager)
+				.reader("mapped".equals(readerType) ? mappedCsvReader : expenseCsvReader)
 				.processor(processor)
-				.writer(writer)
+				.writer(writer);
+		if(threads > 1) {
+			builder.taskExecutor(csvImportProcessorExecutor);
+		}
+		return builder
 				.faultTolerant()
 				.skipLimit(1000)
 				.skip(Exception.class) // 例外が発生した行はスキップ
@@ -84,9 +132,31 @@ public class CsvImportBatchConfiguration {
 	}
 	
 	@Bean
-	Job csvImportJob(JobRepository jobRepository, Step csvImportStep) {
+	Step csvBulkLoadStep(JobRepository jobRepository,
+			PlatformTransactionManager transactionManager,
+			ExpenseCsvBulkLoadTasklet expenseCsvBulkLoadTasklet) {
+		return new StepBuilder("csvBulkLoadStep", jobRepository)
+				.tasklet(expenseCsvBulkLoadTasklet, transactionManager)
+				.build();
+	}
+
+	@Bean
+	JobExecutionDecider importModeDecider() {
+		return new ImportModeDecider();
+	}
+	
+	/**
+	 * CSV取り込みジョブ（ジョブパラメータ importMode=bulk-load の場合は一括ロード）
+	 */
+	@Bean
+	Job csvImportJob(JobRepository jobRepository,
+			Step csvImportStep,
+			Step csvBulkLoadStep,
+			JobExecutionDecider importModeDecider) {
 		return new JobBuilder("csvImportJob", jobRepository)
-				.start(csvImportStep)
+				.start(importModeDecider).on(ImportModeDecider.BULK_LOAD).to(csvBulkLoadStep)
+				.from(importModeDecider).on("*").to(csvImportStep)
+				.end()
 				.build();
 		
 	}
@@ -1,28 +1,28 @@
 package com.example.expenses.batch.config;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
 
-import org.apache.ibatis.session.SqlSessionFactory;
-import org.mybatis.spring.batch.MyBatisPagingItemReader;
-import org.mybatis.spring.batch.builder.MyBatisPagingItemReaderBuilder;
 import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.core.job.Job;
 import org.springframework.batch.core.job.builder.JobBuilder;
 import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.step.Step;
 import org.springframework.batch.core.step.builder.StepBuilder;
-import org.springframework.batch.infrastructure.item.file.FlatFileItemWriter;
+import org.springframework.batch.infrastructure.item.ItemStreamWriter;
 import org.springframework.batch.infrastructure.item.file.builder.FlatFileItemWriterBuilder;
-import org.springframework.batch.infrastructure.item.file.transform.BeanWrapperFieldExtractor;
-import org.springframework.batch.infrastructure.item.file.transform.DelimitedLineAggregator;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.transaction.PlatformTransactionManager;
 
+import com.example.expenses.batch.reader.ExpenseKeysetItemReader;
+import com.example.expenses.batch.writer.ExpenseCsvLineAggregator;
+import com.example.expenses.batch.writer.ExportCompression;
+import com.example.expenses.batch.writer.GzipCsvItemWriter;
 import com.example.expenses.domain.Expense;
+import com.example.expenses.repository.ExpenseMapper;
 
 import lombok.RequiredArgsConstructor;
 
@@ -30,52 +30,50 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class PagingBatchConfiguration {
 
-	private final SqlSessionFactory sqlSessionFactory;
+	private final ExpenseMapper expenseMapper;
 	
+	/**
+	 * maxId以下の経費をid順にキーセットページングで読み込む（最後に読んだidから再開可能）
+	 */
 	@Bean
 	@StepScope
-	MyBatisPagingItemReader<Expense> expensePagingReader(
+	ExpenseKeysetItemReader expensePagingReader(
 			@Value("#{jobParameters['pageSize'] ?: 10000}")Long pageSize,
 			@Value("#{jobParameters['maxId'] ?: 0}") Long maxId) {
 		
-		Map<String, Object> parameterValues = new HashMap<>();
-		parameterValues.put("maxId", maxId);
-		
-		return new MyBatisPagingItemReaderBuilder<Expense>() 
-				.sqlSessionFactory(sqlSessionFactory)
-				.queryId("com.example.expenses.repository.ExpenseMapper.findAllWithPaging")
-				.pageSize(Math.toIntExact(pageSize))
-				.parameterValues(parameterValues) 
-				.build();
+		return new ExpenseKeysetItemReader("expensePagingReader", expenseMapper, maxId, Math.toIntExact(pageSize));
 		
 	}
 	
+	/**
+	 * ジョブパラメータ compression（none / gzip / gzip-fast）を指定した場合は圧縮しながら出力する（ファイル名に .gz を付ける）
+	 */
 	@Bean
 	@StepScope
-	FlatFileItemWriter<Expense> expensePagingCsvWriter(
-			@Value("#{jobParameters['outputFile'] ?: 'src/main/resources/csv/export/expenses_paging.csv'}") String outputFile) {
-		
-		BeanWrapperFieldExtractor<Expense> fieldExtractor  = new BeanWrapperFieldExtractor<>();
-		fieldExtractor.setNames(new String[]{"id", "applicantId", "title", "amount", "currency", "status", "createdAt"});
-	
-		DelimitedLineAggregator<Expense> lineAggregator = new DelimitedLineAggregator<>();
-		lineAggregator.setDelimiter(",");
-		lineAggregator.setFieldExtractor(fieldExtractor);
+	ItemStreamWriter<Expense> expensePagingCsvWriter(
+			@Value("#{jobParameters['outputFile'] ?: 'src/main/resources/csv/export/expenses_paging.csv'}") String outputFile,
+			@Value("#{jobParameters['compression']}") String compression) {
 		
+		String header = "id,applicant_id,title,amount,currency,status,created_at";
+		ExportCompression exportCompression = ExportCompression.of(compression);
+		if(exportCompression.isCompressed()) {
+			return new GzipCsvItemWriter<>("expensePagingCsvWriter", Path.of(exportCompression.fileName(outputFile)),
+					Charset.forName("MS932"), new ExpenseCsvLineAggregator(true), header, exportCompression);
+		}
 		return new FlatFileItemWriterBuilder<Expense>()
 				.name("expensePagingCsvWriter")
 				.resource(new FileSystemResource(outputFile))
 				.encoding("MS932")
-				.lineAggregator(lineAggregator)
-				.headerCallback(writer -> writer.write("id,applicant_id,title,amount,currency,status,created_at"))
+				.lineAggregator(new ExpenseCsvLineAggregator(true))
+				.headerCallback(writer -> writer.write(header))
 				.build();
 	}
 	@Bean
 	Step pagingExportStep(
 			JobRepository jobRepository,
 			PlatformTransactionManager transactionManager,
-			MyBatisPagingItemReader<Expense> expensePagingReader,
-			FlatFileItemWriter<Expense> expensePagingCsvWriter) {
+			ExpenseKeysetItemReader expensePagingReader,
+			ItemStreamWriter<Expense> expensePagingCsvWriter) {
 		return new StepBuilder("pagingExportStep", jobRepository)
 				.<Expense, Expense>chunk(10000, transactionManager)
 				.reader(expensePagingReader)
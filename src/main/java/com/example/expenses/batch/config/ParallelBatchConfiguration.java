@@ -1,5 +1,7 @@
 package com.example.expenses.batch.config;
 
+import java.nio.charset.Charset;
+import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -9,15 +11,15 @@ import org.mybatis.spring.batch.builder.MyBatisCursorItemReaderBuilder;
 import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.core.job.Job;
 import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.partition.PartitionHandler;
 import org.springframework.batch.core.partition.support.TaskExecutorPartitionHandler;
 import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.step.Step;
 import org.springframework.batch.core.step.builder.ChunkOrientedStepBuilder;
 import org.springframework.batch.core.step.builder.StepBuilder;
-import org.springframework.batch.infrastructure.item.file.FlatFileItemWriter;
+import org.springframework.batch.infrastructure.item.ItemStreamWriter;
 import org.springframework.batch.infrastructure.item.file.builder.FlatFileItemWriterBuilder;
-import org.springframework.batch.infrastructure.item.file.transform.BeanWrapperFieldExtractor;
-import org.springframework.batch.infrastructure.item.file.transform.DelimitedLineAggregator;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -27,7 +29,13 @@ import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.transaction.PlatformTransactionManager;
 
 import com.example.expenses.batch.partitioner.RangePartitioner;
+import com.example.expenses.batch.remote.KafkaPartitionHandler;
+import com.example.expenses.batch.tasklet.PartitionFileMergeTasklet;
+import com.example.expenses.batch.writer.ExpenseCsvLineAggregator;
+import com.example.expenses.batch.writer.ExportCompression;
+import com.example.expenses.batch.writer.GzipCsvItemWriter;
 import com.example.expenses.domain.Expense;
+import com.example.expenses.repository.ExpenseMapper;
 
 import lombok.RequiredArgsConstructor;
 
@@ -36,12 +44,16 @@ import lombok.RequiredArgsConstructor;
 public class ParallelBatchConfiguration {
 
 	private final SqlSessionFactory sqlSessionFactory;
+	private final ExpenseMapper expenseMapper;
+	
+	//パーティション数の上限（＝並列数）はCPUコア数
+	private static final int GRID_SIZE = Math.max(2, Runtime.getRuntime().availableProcessors());
 	
 	@Bean
 	TaskExecutor taskExecutor() {
 		ThreadPoolTaskExecutor taskExecutor = new ThreadPoolTaskExecutor();
-		taskExecutor.setCorePoolSize(4);
-		taskExecutor.setMaxPoolSize(4);;
+		taskExecutor.setCorePoolSize(GRID_SIZE);
+		taskExecutor.setMaxPoolSize(GRID_SIZE);
 		taskExecutor.setQueueCapacity(10);
 		taskExecutor.setThreadNamePrefix("batch-");
 		taskExecutor.initialize();
@@ -67,27 +79,30 @@ public class ParallelBatchConfiguration {
 		
 	}
 	
+	/**
+	 * ジョブパラメータ compression（none / gzip / gzip-fast）を指定した場合はパーティションごとに圧縮しながら出力する
+	 */
 	@Bean
 	@StepScope
-	FlatFileItemWriter<Expense> parallelWriter(
+	ItemStreamWriter<Expense> parallelWriter(
 			@Value("#{stepExecutionContext['partition']}")String partition,
-			@Value("#{jobParameters['outputDir']}") String outputDir) {
-		
-		BeanWrapperFieldExtractor<Expense> fieldExtractor = new BeanWrapperFieldExtractor<>();
-		fieldExtractor.setNames(new String[] {"id", "applicantId", "title", "amount", "currency", "status"});
-		
-		DelimitedLineAggregator<Expense> lineAggregator = new DelimitedLineAggregator<>();
-		lineAggregator.setDelimiter(",");
-		lineAggregator.setFieldExtractor(fieldExtractor);
+			@Value("#{jobParameters['outputDir']}") String outputDir,
+			@Value("#{jobParameters['compression']}") String compression) {
 		
 		String fileName = outputDir + "/expenses_" + partition + ".csv";
+		String header = "id,applicant_id,title,amount,currency,status";
+		ExportCompression exportCompression = ExportCompression.of(compression);
+		if(exportCompression.isCompressed()) {
+			return new GzipCsvItemWriter<>("parallelWriter", Path.of(exportCompression.fileName(fileName)),
+					Charset.forName("MS932"), new ExpenseCsvLineAggregator(false), header, exportCompression);
+		}
 		
 		return new FlatFileItemWriterBuilder<Expense>()
 				.name("parallelWriter")
 				.resource(new FileSystemResource(fileName))
 				.encoding("MS932")
-				.lineAggregator(lineAggregator)
-				.headerCallback(writer -> writer.write("id,applicant_id,title,amount,currency,status"))
+				.lineAggregator(new ExpenseCsvLineAggregator(false))
+				.headerCallback(writer -> writer.write(header))
 				.build();
 	}
 	
@@ -96,7 +111,7 @@ public class ParallelBatchConfiguration {
 			JobRepository jobRepository,
 			PlatformTransactionManager transactionManager,
 			MyBatisCursorItemReader<Expense> parallelReader,
-			FlatFileItemWriter<Expense> parallelWriter) {
+			ItemStreamWriter<Expense> parallelWriter) {
 		return new ChunkOrientedStepBuilder<Expense, Expense>("workerStep", jobRepository, 100)
 				.transactionManager(transactionManager)
 				.reader(parallelReader)
@@ -104,33 +119,68 @@ public class ParallelBatchConfiguration {
 				.build();
 	}
 	
+	/**
+	 * 実データの最小ID・最大ID・件数から分割するPartitioner
+	 * @param minRowsPerPartition 1パーティションあたりの最小件数（件数が少ない場合は分割数を減らす）
+	 * @param balanceByRowCount trueの場合はidの欠番に関係なく件数が均等になるよう分割
+	 */
+	@Bean
+	RangePartitioner rangePartitioner(
+			@Value("${batch.partition.min-rows:1000}") long minRowsPerPartition,
+			@Value("${batch.partition.balance-by-row-count:true}") boolean balanceByRowCount) {
+		return new RangePartitioner(expenseMapper, minRowsPerPartition, balanceByRowCount);
+	}
+	
+	/**
+	 * batch.partition.mode=remote の場合はパーティションをKafka経由で各ノードに割り振る（RemotePartitioningConfiguration）
+	 * それ以外は従来どおりこのノードのスレッドで実行する
+	 */
 	@Bean
 	Step masterStep(JobRepository jobRepository,
 			Step workerStep,
-			TaskExecutor taskExecutor) {
+			TaskExecutor taskExecutor,
+			RangePartitioner rangePartitioner,
+			ObjectProvider<KafkaPartitionHandler> remotePartitionHandler) {
 		
-	TaskExecutorPartitionHandler partitionHandler =new TaskExecutorPartitionHandler();
-	partitionHandler.setGridSize(4);
-	partitionHandler.setTaskExecutor(taskExecutor);
-	partitionHandler.setStep(workerStep);
-	
-	try {
-		partitionHandler.afterPropertiesSet();
+	PartitionHandler partitionHandler = remotePartitionHandler.getIfAvailable();
+	if(partitionHandler == null) {
+		TaskExecutorPartitionHandler localPartitionHandler =new TaskExecutorPartitionHandler();
+		localPartitionHandler.setGridSize(GRID_SIZE);
+		localPartitionHandler.setTaskExecutor(taskExecutor);
+		localPartitionHandler.setStep(workerStep);
 		
-	}catch (Exception e) {
-		throw new RuntimeException(e);
+		try {
+			localPartitionHandler.afterPropertiesSet();
+			
+		}catch (Exception e) {
+			throw new RuntimeException(e);
+		}
+		partitionHandler = localPartitionHandler;
 	}
 	
 	return new StepBuilder("masterStep", jobRepository)
-			.partitioner("workerStep", new RangePartitioner())
+			.partitioner("workerStep", rangePartitioner)
 			.partitionHandler(partitionHandler)
 			.build();
 	}
 	
+	/**
+	 * パーティションごとのCSVを expenses.csv に結合するステップ
+	 */
+	@Bean
+	Step mergeStep(JobRepository jobRepository,
+			PlatformTransactionManager transactionManager,
+			PartitionFileMergeTasklet partitionFileMergeTasklet) {
+		return new StepBuilder("mergeStep", jobRepository)
+				.tasklet(partitionFileMergeTasklet, transactionManager)
+				.build();
+	}
+	
 	@Bean
-	Job parallelExportJob(JobRepository jobRepository, Step masterStep) {
+	Job parallelExportJob(JobRepository jobRepository, Step masterStep, Step mergeStep) {
 		return new JobBuilder("parallelExportJob", jobRepository)
 				.start(masterStep)
+				.next(mergeStep)
 				.build();
 		
 	}
@@ -0,0 +1,134 @@
+package com.example.expenses.batch.config;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+
+import org.springframework.batch.core.configuration.annotation.JobScope;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.job.Job;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.partition.support.MultiResourcePartitioner;
+import org.springframework.batch.core.partition.support.TaskExecutorPartitionHandler;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.Step;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.infrastructure.item.file.FlatFileItemReader;
+import org.springframework.batch.infrastructure.item.file.builder.FlatFileItemReaderBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.UrlResource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.example.expenses.batch.dto.ExpenseCsvRow;
+import com.example.expenses.batch.processor.ExpenseCsvItemProcessor;
+import com.example.expenses.batch.writer.ExpenseCsvBatchItemWriter;
+import com.example.expenses.domain.Expense;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 入力ディレクトリの複数CSVを並列に取り込むジョブ
+ * -MultiResourcePartitionerで1ファイル＝1パーティションとし、ワーカーステップを同時実行数の上限付きで実行する
+ * -ファイルごとの件数・スキップ数・読み込み位置はワーカーのStepExecutionとしてJobRepositoryに記録される
+ * -再実行時は失敗したファイル（パーティション）だけを、前回の読み込み位置から再開する
+ */
+@Configuration
+@RequiredArgsConstructor
+public class PartitionedCsvImportBatchConfiguration {
+
+	private static final String FILE_NAME_KEY = "fileName";
+
+	private final ExpenseCsvItemProcessor processor;
+	private final ExpenseCsvBatchItemWriter writer;
+
+	/**
+	 * inputDir内の取り込み対象ファイルを、ファイル名順にパーティションへ割り当てる
+	 */
+	@Bean
+	@JobScope
+	MultiResourcePartitioner csvFilePartitioner(
+			@Value("#{jobParameters['inputDir']}") String inputDir,
+			@Value("${batch.import.file-pattern:*.csv}") String filePattern) throws IOException {
+
+		Resource[] resources = new PathMatchingResourcePatternResolver()
+				.getResources("file:" + inputDir + "/" + filePattern);
+		Arrays.sort(resources, Comparator.comparing(Resource::getFilename));
+
+		MultiResourcePartitioner partitioner = new MultiResourcePartitioner();
+		partitioner.setKeyName(FILE_NAME_KEY);
+		partitioner.setResources(resources);
+		return partitioner;
+	}
+
+	@Bean
+	@StepScope
+	FlatFileItemReader<ExpenseCsvRow> partitionedCsvReader(
+			@Value("#{stepExecutionContext['fileName']}") String fileName) throws IOException {
+
+		return new FlatFileItemReaderBuilder<ExpenseCsvRow>()
+				.name("partitionedCsvReader")
+				.resource(new UrlResource(fileName))
+				.linesToSkip(1) // ヘッダー行をスキップ
+				.delimited()
+				.names("applicantId", "title", "amount", "currency")
+				.targetType(ExpenseCsvRow.class)
+				.build();
+	}
+
+	/**
+	 * ファイル取り込みの同時実行数を制限するExecutor
+	 * 上限に達している間は次のパーティションの投入を待つため、ファイル数が多くても拒否されない
+	 */
+	@Bean
+	TaskExecutor csvImportTaskExecutor(@Value("${batch.import.max-concurrency:4}") int maxConcurrency) {
+		SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("csv-import-");
+		executor.setConcurrencyLimit(maxConcurrency);
+		return executor;
+	}
+
+	@Bean
+	Step csvFileImportStep(JobRepository jobRepository,
+			PlatformTransactionManager transactionManager,
+			FlatFileItemReader<ExpenseCsvRow> partitionedCsvReader) {
+		return new StepBuilder("csvFileImportStep", jobRepository)
+				.<ExpenseCsvRow, Expense>chunk(100)
+				.transactionManager(transactionManager)
+				.reader(partitionedCsvReader)
+				.processor(processor)
+				.writer(writer)
+				.faultTolerant()
+				.skipLimit(1000)
+				.skip(Exception.class) // 例外が発生した行はスキップ（上限はファイルごと）
+				.build();
+	}
+
+	@Bean
+	Step partitionedCsvImportStep(JobRepository jobRepository,
+			Step csvFileImportStep,
+			MultiResourcePartitioner csvFilePartitioner,
+			TaskExecutor csvImportTaskExecutor) throws Exception {
+
+		TaskExecutorPartitionHandler partitionHandler = new TaskExecutorPartitionHandler();
+		partitionHandler.setTaskExecutor(csvImportTaskExecutor);
+		partitionHandler.setStep(csvFileImportStep);
+		partitionHandler.afterPropertiesSet();
+
+		return new StepBuilder("partitionedCsvImportStep", jobRepository)
+				.partitioner("csvFileImportStep", csvFilePartitioner)
+				.partitionHandler(partitionHandler)
+				.build();
+	}
+
+	@Bean
+	Job partitionedCsvImportJob(JobRepository jobRepository, Step partitionedCsvImportStep) {
+		return new JobBuilder("partitionedCsvImportJob", jobRepository)
+				.start(partitionedCsvImportStep)
+				.build();
+	}
+}
@@ -0,0 +1,118 @@
+package com.example.expenses.batch.config;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.Step;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ContainerProperties.AckMode;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import com.example.expenses.batch.remote.KafkaPartitionHandler;
+import com.example.expenses.batch.remote.PartitionRequestListener;
+import com.example.expenses.kafka.ExpenseTopics;
+import com.example.expenses.kafka.PartitionRequestMessage;
+
+/**
+ * parallelExportJob のリモートパーティショニング（batch.partition.mode=remote の場合のみ有効）
+ * -マネージャー：masterStep が KafkaPartitionHandler でパーティションの実行を依頼する
+ * -ワーカー：全ノードの PartitionRequestListener が依頼を受け取り workerStep を実行する
+ * -パーティションのファイルは各ノードで出力するため、outputDir は全ノードで共有するディレクトリを指定する
+ */
+@Configuration
+@ConditionalOnProperty(name = "batch.partition.mode", havingValue = "remote")
+public class RemotePartitioningConfiguration {
+
+	@Value("${spring.kafka.bootstrap-servers}")
+	private String bootstrapServers;
+
+	//依頼トピックのパーティション数（＝クラスタ全体で同時に実行できるパーティション数の上限）
+	@Value("${batch.partition.remote.partitions:8}")
+	private int topicPartitions;
+
+	//実行中のパーティションの更新がこの時間以上ない場合はワーカーが停止したとみなす（1チャンクの処理時間より長くする）
+	@Value("${batch.partition.remote.abandoned-after:10m}")
+	private Duration abandonedAfter;
+
+	@Bean
+	NewTopic partitionRequestTopic() {
+		return TopicBuilder.name(ExpenseTopics.BATCH_PARTITION_REQUEST)
+				.partitions(topicPartitions)
+				.replicas(1)
+				.build();
+	}
+
+	@Bean
+	KafkaTemplate<String, PartitionRequestMessage> partitionRequestKafkaTemplate() {
+		Map<String, Object> props = new HashMap<>();
+		props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+		props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+		props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+		return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(props));
+	}
+
+	/**
+	 * 1回のポーリングで受け取る依頼は1件（1件の実行に時間がかかるため、未処理の依頼を抱え込まず他のノードに回す）
+	 * オフセットはPartitionRequestListenerがステップの終了後にコミットする
+	 * @param concurrency 1ノードで同時に実行するパーティション数
+	 * @param maxPollInterval 1パーティションの実行にかかる時間の上限（超えるとリバランスされる）
+	 */
+	@Bean
+	ConcurrentKafkaListenerContainerFactory<String, PartitionRequestMessage> partitionRequestListenerContainerFactory(
+			@Value("${batch.partition.remote.worker-concurrency:2}") int concurrency,
+			@Value("${batch.partition.remote.max-poll-interval:30m}") Duration maxPollInterval) {
+		Map<String, Object> props = new HashMap<>();
+		props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+		props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+		props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+		props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 1);
+		props.put(ConsumerConfig.MAX_POLL_INTERVAL_MS_CONFIG, (int)maxPollInterval.toMillis());
+		props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+		props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
+		props.put(JsonDeserializer.TRUSTED_PACKAGES, "com.example.expenses.kafka");
+		props.put(JsonDeserializer.VALUE_DEFAULT_TYPE, PartitionRequestMessage.class.getName());
+
+		ConcurrentKafkaListenerContainerFactory<String, PartitionRequestMessage> factory =
+				new ConcurrentKafkaListenerContainerFactory<>();
+		factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(props));
+		factory.setConcurrency(concurrency);
+		factory.getContainerProperties().setAckMode(AckMode.MANUAL_IMMEDIATE);
+		return factory;
+	}
+
+	/**
+	 * @param pollInterval ワーカーの結果をジョブリポジトリに確認する間隔
+	 * @param timeout 全パーティションの終了を待つ時間の上限（超えると masterStep は失敗する）
+	 */
+	@Bean
+	KafkaPartitionHandler remotePartitionHandler(JobRepository jobRepository,
+			KafkaTemplate<String, PartitionRequestMessage> partitionRequestKafkaTemplate,
+			@Value("${batch.partition.remote.poll-interval:1s}") Duration pollInterval,
+			@Value("${batch.partition.remote.timeout:1h}") Duration timeout) {
+		KafkaPartitionHandler partitionHandler = new KafkaPartitionHandler(partitionRequestKafkaTemplate,
+				jobRepository, "workerStep", topicPartitions, pollInterval, timeout, abandonedAfter);
+		partitionHandler.setGridSize(topicPartitions);
+		return partitionHandler;
+	}
+
+	@Bean
+	PartitionRequestListener partitionRequestListener(JobRepository jobRepository, Step workerStep) {
+		return new PartitionRequestListener(jobRepository, workerStep, abandonedAfter);
+	}
+}
@@ -0,0 +1,39 @@
+package com.example.expenses.batch.config;
+
+import org.springframework.batch.core.job.Job;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.Step;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.example.expenses.batch.tasklet.ExpenseRollupRebuildTasklet;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 日別の経費集計（expense_daily_rollup）の再構築ジョブ
+ * 通常は状態遷移のたびに増分で更新されるため、初期投入・不整合時の作り直しに使う
+ */
+@Configuration
+@RequiredArgsConstructor
+public class RollupBatchConfiguration {
+
+	private final ExpenseRollupRebuildTasklet expenseRollupRebuildTasklet;
+
+	@Bean
+	Step rollupRebuildStep(JobRepository jobRepository, PlatformTransactionManager transactionManager) {
+		return new StepBuilder("rollupRebuildStep", jobRepository)
+				.tasklet(expenseRollupRebuildTasklet, transactionManager)
+				.build();
+	}
+
+	@Bean
+	Job expenseRollupRebuildJob(JobRepository jobRepository, Step rollupRebuildStep) {
+		return new JobBuilder("expenseRollupRebuildJob", jobRepository)
+				.start(rollupRebuildStep)
+				.build();
+	}
+}
@@ -1,6 +1,7 @@
 package com.example.expenses.batch.controller;
 
 
+import java.net.URI;
 import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -8,18 +9,25 @@ import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.BatchStatus;
 import org.springframework.batch.core.job.Job;
 import org.springframework.batch.core.job.JobExecution;
 import org.springframework.batch.core.job.parameters.JobParameters;
 import org.springframework.batch.core.job.parameters.JobParametersBuilder;
-import org.springframework.batch.core.launch.JobOperator;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.example.expenses.batch.dto.BatchJobProgress;
+import com.example.expenses.batch.service.BatchJobLaunchService;
 import com.example.expenses.repository.ExpenseMapper;
 
 import lombok.RequiredArgsConstructor;
@@ -41,13 +49,17 @@ public class BatchController {
 	private final Job parallelExportJob;
 	@Qualifier("conditionalFlowJob")
 	private final Job conditionalFlowJob;
+	@Qualifier("partitionedCsvImportJob")
+	private final Job partitionedCsvImportJob;
+	@Qualifier("expenseRollupRebuildJob")
+	private final Job expenseRollupRebuildJob;
 
 	@Value("${file.input-dir}")
 	private String inputdir;
 	
 	private final ExpenseMapper expenseMapper;
 	
-	private final JobOperator jobOperator;
+	private final BatchJobLaunchService batchJobLaunchService;
 
 //	public BatchController(Job csvImportJob, Job csvExportJob, Job pagingExportJob, JobLauncher jobLauncher, ExpenseMapper expenseMapper, Job parallelExportJob, JobOperator jobOperator) {
 //		this.csvImportJob = csvImportJob;
@@ -60,8 +72,12 @@ public class BatchController {
 //	}
 
 
+	/**
+	 * @param compression 圧縮形式（none / gzip / gzip-fast、未指定の場合は無圧縮）
+	 */
 	@GetMapping("/export")
-	public ResponseEntity<Map<String, String>> executeBatchJob() {
+	public ResponseEntity<Map<String, Object>> executeBatchJob(
+			@RequestParam(defaultValue = "none") String compression) {
 		
 		Long maxId = expenseMapper.findMaxId();
 		String outputFile = "src/main/resources/csv/export/expenses_"
@@ -73,69 +89,120 @@ public class BatchController {
 				.addLong("maxId", maxId)
 				.addString("outputFile", outputFile)
 				.addLong("pageSize", 1000L)
+				.addString("compression", compression)
 				.toJobParameters();
 		
-			JobExecution jobExecution = null;
+		return launch(pagingExportJob, param);
+	}
+	
+	/**
+	 * @param compression 圧縮形式（none / gzip / gzip-fast、未指定の場合は無圧縮）
+	 */
+	@GetMapping("/export-parallel")
+	public ResponseEntity<Map<String, Object>> executeparallelExportJob(
+			@RequestParam(defaultValue = "none") String compression) {
+		String outpuDir = "src/main/resources/csv/export/parallel";
 		
-		try {
-			jobExecution = jobOperator.start(pagingExportJob, param);
+		JobParameters jobParameters = new JobParametersBuilder()
+				.addLong("executionTime",  System.currentTimeMillis())
+				.addString("outputDir", outpuDir)
+				.addString("compression", compression)
+				.toJobParameters();
 		
-			return ResponseEntity.accepted().body(Map.of(
-					"status", jobExecution.getStatus().toString(),
-					"jobId", String.valueOf(jobExecution.getId())
-					));
-		} catch (Exception e) {
-			logger.error("バッチジョブの実行エラーが発生", e);
+		return launch(parallelExportJob, jobParameters);
+	}
+	
+	@GetMapping("/conditional-flow")
+	public ResponseEntity<Map<String, Object>> executteConditionalFlowJob() {
+		String inputDir = Path.of(inputdir).toAbsolutePath().normalize().toString();
 		
-			return ResponseEntity.internalServerError().body(
-					Map.of("status", jobExecution.getStatus().toString(),
-							"message", e.getMessage()));
-		}
+		JobParameters jobParameters = new JobParametersBuilder()
+				.addLong("executionTime", System.currentTimeMillis())
+				.addString("inputDir", inputDir)
+				.toJobParameters();
 		
+		logger.info("入力ディレクトリのパス: {}", inputDir);
+		return launch(conditionalFlowJob, jobParameters);
 	}
 	
-	@GetMapping("/export-parallel")
-	public ResponseEntity<String> executeparallelExportJob() {
-		try {
-			String outpuDir = "src/main/resources/csv/export/parallel";
-			
-			JobParameters jobParameters = new JobParametersBuilder()
-					.addLong("executionTime",  System.currentTimeMillis())
-					.addString("outputDir", outpuDir)
-					.toJobParameters();
-			JobExecution jobExecution = jobOperator.start(parallelExportJob, jobParameters);
-			
-			return ResponseEntity.ok().body("Parallel Export started: " + jobExecution.getId());
-			}catch (Exception e) {
-				logger.error("Paralel Export failed", e);
-				return ResponseEntity.internalServerError().body("Export failed: " + e.getMessage());
-				
-			}
+	/**
+	 * 入力ディレクトリ内のCSVをファイルごとに並列で取り込む
+	 */
+	@GetMapping("/import-partitioned")
+	public ResponseEntity<Map<String, Object>> executePartitionedCsvImportJob() {
+		String inputDir = Path.of(inputdir).toAbsolutePath().normalize().toString();
+
+		JobParameters jobParameters = new JobParametersBuilder()
+				.addLong("executionTime", System.currentTimeMillis())
+				.addString("inputDir", inputDir)
+				.toJobParameters();
+		
+		return launch(partitionedCsvImportJob, jobParameters);
+	}
+
+	/**
+	 * 日別の経費集計を経費テーブルから作り直す
+	 */
+	@GetMapping("/rollup-rebuild")
+	public ResponseEntity<Map<String, Object>> executeRollupRebuildJob() {
+		JobParameters jobParameters = new JobParametersBuilder()
+				.addLong("executionTime", System.currentTimeMillis())
+				.toJobParameters();
+		
+		return launch(expenseRollupRebuildJob, jobParameters);
 	}
 	
-	@GetMapping("/conditional-flow")
-	public ResponseEntity<String> executteConditionalFlowJob() {
+	/**
+	 * ジョブの実行の進捗（読み込み・書き込み・スキップ件数、件数/秒、ステップごとの進捗）
+	 */
+	@GetMapping("/executions/{executionId}")
+	public ResponseEntity<BatchJobProgress> getExecution(@PathVariable long executionId) {
+		BatchJobProgress progress = batchJobLaunchService.getProgress(executionId);
+		if(progress == null) {
+			return ResponseEntity.notFound().build();
+		}
+		return ResponseEntity.ok(progress);
+	}
+	
+	/**
+	 * ジョブの実行の進捗をSSEで受け取る（イベント名 progress、ジョブの終了で完了）
+	 */
+	@GetMapping(path = "/executions/{executionId}/progress", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public ResponseEntity<SseEmitter> streamExecutionProgress(@PathVariable long executionId) {
+		SseEmitter emitter = batchJobLaunchService.streamProgress(executionId);
+		if(emitter == null) {
+			return ResponseEntity.notFound().build();
+		}
+		return ResponseEntity.ok(emitter);
+	}
+	
+	/**
+	 * ジョブを非同期で起動し、202と実行IDを返す（進捗は Location の URL で取得する）
+	 * -スレッドプールが満杯で実行できない場合は503
+	 */
+	private ResponseEntity<Map<String, Object>> launch(Job job, JobParameters jobParameters) {
 		try {
-			String inputDir = Path.of(inputdir).toAbsolutePath().normalize().toString();
-			
-			JobParameters jobParameters = new JobParametersBuilder()
-					.addLong("executionTime", System.currentTimeMillis())
-					.addString("inputDir", inputDir)
-					.toJobParameters();
-			
-			
-			System.out.println("入力ディレクトリのパス: " + Path.of(inputDir).toAbsolutePath().normalize());
-			JobExecution jobExecution = jobOperator.start(conditionalFlowJob, jobParameters);
-			
-			return ResponseEntity.ok().body("Conditional Flow Job started: " + jobExecution.getId());
-		}catch(Exception e) {
-			
-			logger.error("Conditional Flow Job failed", e);
-			return ResponseEntity.internalServerError().body("Job failed: " + e.getMessage());
+			JobExecution jobExecution = batchJobLaunchService.launch(job, jobParameters);
+			Map<String, Object> body = Map.of(
+					"jobName", job.getName(),
+					"executionId", jobExecution.getId(),
+					"status", jobExecution.getStatus().toString());
 			
+			if(jobExecution.getStatus() == BatchStatus.FAILED) {
+				logger.warn("バッチジョブを起動できません（実行待ちが上限）: job={}", job.getName());
+				return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(body);
+			}
+			return ResponseEntity.accepted()
+					.location(URI.create("/api/batch/executions/" + jobExecution.getId()))
+					.body(body);
+		} catch (Exception e) {
+			logger.error("バッチジョブの起動エラーが発生: job={}", job.getName(), e);
+			return ResponseEntity.internalServerError().body(Map.of(
+					"jobName", job.getName(),
+					"message", String.valueOf(e.getMessage())));
 		}
 	}
-	
+
 //	@GetMapping("/export")
 //	public ResponseEntity<String> executeCsvExportJob() {
 //		try {
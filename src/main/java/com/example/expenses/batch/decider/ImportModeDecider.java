@@ -0,0 +1,25 @@
+package com.example.expenses.batch.decider;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.batch.core.job.JobExecution;
+import org.springframework.batch.core.job.flow.FlowExecutionStatus;
+import org.springframework.batch.core.job.flow.JobExecutionDecider;
+import org.springframework.batch.core.step.StepExecution;
+
+/**
+ * ジョブパラメータ importMode で csvImportJob の取り込み方法を切り替える
+ * -bulk-load：LOAD DATA LOCAL INFILE による一括ロード
+ * -指定なし・その他：chunk単位の取り込み（従来どおり）
+ */
+public class ImportModeDecider implements JobExecutionDecider {
+
+	public static final String BULK_LOAD = "BULK_LOAD";
+	public static final String CHUNK = "CHUNK";
+
+	@Override
+	public FlowExecutionStatus decide(JobExecution jobExecution, @Nullable StepExecution stepExecution) {
+
+		String mode = jobExecution.getJobParameters().getString("importMode");
+		return new FlowExecutionStatus("bulk-load".equals(mode) ? BULK_LOAD : CHUNK);
+	}
+}
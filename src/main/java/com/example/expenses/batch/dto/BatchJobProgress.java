@@ -0,0 +1,110 @@
+package com.example.expenses.batch.dto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.job.JobExecution;
+import org.springframework.batch.core.step.StepExecution;
+
+/**
+ * ジョブ実行の進捗（ステータスAPI・SSEのレスポンス）
+ * -件数はステップの各チャンクのコミット時点の値
+ * -パーティションのワーカー（ステップ名が「ステップ名:partitionN」）がある場合、ジョブの件数はワーカーのみを合計する
+ *  （マネージャーのステップは終了時にワーカーの件数を合算するため、二重に数えない）
+ * @param itemsPerSecond 開始から終了（実行中は現在）までの書き込み件数/秒
+ */
+public record BatchJobProgress(
+		Long executionId,
+		String jobName,
+		BatchStatus status,
+		String exitCode,
+		LocalDateTime startTime,
+		LocalDateTime endTime,
+		long readCount,
+		long writeCount,
+		long skipCount,
+		long filterCount,
+		double itemsPerSecond,
+		List<StepProgress> steps) {
+
+	public record StepProgress(
+			String stepName,
+			BatchStatus status,
+			long readCount,
+			long writeCount,
+			long skipCount,
+			long filterCount,
+			long commitCount,
+			double itemsPerSecond) {
+
+		static StepProgress of(StepExecution step, LocalDateTime now) {
+			return new StepProgress(
+					step.getStepName(),
+					step.getStatus(),
+					step.getReadCount(),
+					step.getWriteCount(),
+					step.getSkipCount(),
+					step.getFilterCount(),
+					step.getCommitCount(),
+					perSecond(step.getWriteCount(), step.getStartTime(), step.getEndTime(), now));
+		}
+	}
+
+	/**
+	 * 実行中・終了後のジョブから進捗を作成
+	 * @param now 実行中のステップ・ジョブの経過時間の基準
+	 */
+	public static BatchJobProgress of(JobExecution execution, LocalDateTime now) {
+
+		List<StepExecution> stepExecutions = execution.getStepExecutions().stream()
+				.sorted(Comparator.comparingLong(StepExecution::getId))
+				.toList();
+		boolean partitioned = stepExecutions.stream().anyMatch(BatchJobProgress::isPartitionWorker);
+		List<StepExecution> counted = partitioned
+				? stepExecutions.stream().filter(BatchJobProgress::isPartitionWorker).toList()
+				: stepExecutions;
+
+		long writeCount = counted.stream().mapToLong(StepExecution::getWriteCount).sum();
+		return new BatchJobProgress(
+				execution.getId(),
+				execution.getJobInstance().getJobName(),
+				execution.getStatus(),
+				execution.getExitStatus().getExitCode(),
+				execution.getStartTime(),
+				execution.getEndTime(),
+				counted.stream().mapToLong(StepExecution::getReadCount).sum(),
+				writeCount,
+				counted.stream().mapToLong(StepExecution::getSkipCount).sum(),
+				counted.stream().mapToLong(StepExecution::getFilterCount).sum(),
+				perSecond(writeCount, execution.getStartTime(), execution.getEndTime(), now),
+				stepExecutions.stream().map(step -> StepProgress.of(step, now)).toList());
+	}
+
+	/**
+	 * 実行中（開始待ちを含む）か。SSEはfalseになった時点で終了する
+	 */
+	public boolean running() {
+		return status.isRunning();
+	}
+
+	private static boolean isPartitionWorker(StepExecution step) {
+		return step.getStepName().contains(":");
+	}
+
+	/**
+	 * 件数/秒（小数1桁）。開始前・経過時間0の場合は0
+	 */
+	private static double perSecond(long count, LocalDateTime startTime, LocalDateTime endTime, LocalDateTime now) {
+		if(startTime == null) {
+			return 0;
+		}
+		long millis = Duration.between(startTime, endTime != null ? endTime : now).toMillis();
+		if(millis <= 0) {
+			return 0;
+		}
+		return Math.round(count * 10_000.0 / millis) / 10.0;
+	}
+}
@@ -1,43 +1,104 @@
 package com.example.expenses.batch.partitioner;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.springframework.batch.core.partition.Partitioner;
 import org.springframework.batch.infrastructure.item.ExecutionContext;
 
+import com.example.expenses.repository.ExpenseMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 経費をidの範囲で分割するPartitioner
+ * -DBから実際の最小ID・最大ID・件数を取得して分割する
+ * -分割数は gridSize（スレッド数）を上限に、1パーティションあたりの最小件数から決める
+ * -balanceByRowCount の場合は件数が均等になる境界を取得し、idに欠番が多くても偏らないようにする
+ */
+@Slf4j
 public class RangePartitioner implements Partitioner{
 
 	
 	private static final String PARTITION_KEY = "partition";
 
+	private final ExpenseMapper expenseMapper;
+	private final long minRowsPerPartition;
+	private final boolean balanceByRowCount;
+
+	public RangePartitioner(ExpenseMapper expenseMapper, long minRowsPerPartition, boolean balanceByRowCount) {
+		this.expenseMapper = expenseMapper;
+		this.minRowsPerPartition = Math.max(1, minRowsPerPartition);
+		this.balanceByRowCount = balanceByRowCount;
+	}
+
 	@Override
 	public Map<String, ExecutionContext> partition(int gridSize) {
 		
-		// gridSize 分割数（スレッド数）
-		 Map<String, ExecutionContext> result = new HashMap<>();
-		 
-		 //DBから最小IDと最大IDを取得する
-		 // ここでは簡易的に固定値を使用
-		 long minId = 1;
-		 long maxId = 1000;
-		 
-		 long rangeSize = (maxId - minId + 1) / gridSize; // 各パーティションの範囲
-		 for ( int i = 0; i < gridSize; i++) {
-			 ExecutionContext context = new ExecutionContext();
-			 
-			 long startId = minId + (rangeSize * i);
-			 long endId = (i == gridSize - 1) ? maxId : startId + rangeSize -1;
-			 
-			 context.putLong("minId", startId);
-			 context.putLong("maxId", endId);
-			 context.putString(PARTITION_KEY, PARTITION_KEY + i);
-			 
-			 result.put(PARTITION_KEY + i, context);
-			 
-			 System.out.println("Partition " + i + ": ID " + startId + " ~ " + endId);
-		 }
-		 return result;
+		// gridSize 分割数の上限（スレッド数）
+		Map<String, ExecutionContext> result = new HashMap<>();
+
+		long count = expenseMapper.countAll();
+		long minId = expenseMapper.findMinId();
+		long maxId = expenseMapper.findMaxId();
+
+		if(count == 0) {
+			//対象なし：空のファイル（ヘッダのみ）を出力するため1パーティションだけ作る
+			result.put(PARTITION_KEY + 0, context(0, 1, 0));
+			return result;
+		}
+
+		int partitions = (int)Math.min(Math.max(1, gridSize), ceilDiv(count, minRowsPerPartition));
+		List<long[]> ranges = balanceByRowCount
+				? rangesByRowCount(count, maxId, partitions)
+				: rangesById(minId, maxId, partitions);
+
+		for(int i = 0; i < ranges.size(); i++) {
+			long[] range = ranges.get(i);
+			result.put(PARTITION_KEY + i, context(i, range[0], range[1]));
+			log.info("Partition {}: ID {} ~ {}", i, range[0], range[1]);
+		}
+		log.info("Partitioned {} expenses (ID {} ~ {}) into {} partitions", count, minId, maxId, ranges.size());
+		return result;
+	}
+
+	/**
+	 * 件数が均等になるよう、id順にstep件ごとの境界で分割する
+	 */
+	private List<long[]> rangesByRowCount(long count, long maxId, int partitions) {
+		List<Long> starts = expenseMapper.findIdBoundaries(ceilDiv(count, partitions));
+		List<long[]> ranges = new ArrayList<>(starts.size());
+		for(int i = 0; i < starts.size(); i++) {
+			long end = (i == starts.size() - 1) ? maxId : starts.get(i + 1) - 1;
+			ranges.add(new long[] {starts.get(i), end});
+		}
+		return ranges;
+	}
+
+	/**
+	 * idの範囲を等分する（idが連番に近い場合）
+	 */
+	private List<long[]> rangesById(long minId, long maxId, int partitions) {
+		long rangeSize = ceilDiv(maxId - minId + 1, partitions); // 各パーティションの範囲
+		List<long[]> ranges = new ArrayList<>(partitions);
+		for(long start = minId; start <= maxId; start += rangeSize) {
+			ranges.add(new long[] {start, Math.min(start + rangeSize - 1, maxId)});
+		}
+		return ranges;
+	}
+
+	private ExecutionContext context(int index, long startId, long endId) {
+		ExecutionContext context = new ExecutionContext();
+		context.putLong("minId", startId);
+		context.putLong("maxId", endId);
+		context.putString(PARTITION_KEY, PARTITION_KEY + index);
+		return context;
+	}
+
+	private static long ceilDiv(long x, long y) {
+		return (x + y - 1) / y;
 	}
 	
 }
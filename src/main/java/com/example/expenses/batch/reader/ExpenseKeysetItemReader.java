@@ -0,0 +1,80 @@
+package com.example.expenses.batch.reader;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.batch.infrastructure.item.ExecutionContext;
+import org.springframework.batch.infrastructure.item.ItemStreamReader;
+
+import com.example.expenses.domain.Expense;
+import com.example.expenses.repository.ExpenseMapper;
+
+/**
+ * 経費をid順にキーセットページング（WHERE id > lastId ORDER BY id LIMIT pageSize）で読み込むItemReader
+ * -LIMIT/OFFSETと違い、後半のページでも読み飛ばす行がないため1ページあたりのコストが一定
+ * -最後に渡した経費のidをExecutionContextに保存し、再実行時はその続きから読み込む
+ */
+public class ExpenseKeysetItemReader implements ItemStreamReader<Expense> {
+
+	private final String name;
+	private final ExpenseMapper expenseMapper;
+	private final long maxId;
+	private final int pageSize;
+
+	/** 最後にread()で返した経費のid（chunkのコミット時にupdate()で保存される） */
+	private long lastId;
+	/** 最後に取得したページの末尾のid */
+	private long fetchedId;
+	private Iterator<Expense> page = Collections.emptyIterator();
+	private boolean exhausted;
+
+	public ExpenseKeysetItemReader(String name, ExpenseMapper expenseMapper, long maxId, int pageSize) {
+		this.name = name;
+		this.expenseMapper = expenseMapper;
+		this.maxId = maxId;
+		this.pageSize = pageSize;
+	}
+
+	@Override
+	public void open(ExecutionContext executionContext) {
+		lastId = executionContext.containsKey(key()) ? executionContext.getLong(key()) : 0L;
+		fetchedId = lastId;
+		page = Collections.emptyIterator();
+		exhausted = false;
+	}
+
+	@Override
+	public @Nullable Expense read() {
+		if(!page.hasNext()) {
+			if(exhausted) {
+				return null;
+			}
+			List<Expense> expenses = expenseMapper.findPageAfterId(fetchedId, maxId, pageSize);
+			exhausted = expenses.size() < pageSize;
+			if(expenses.isEmpty()) {
+				return null;
+			}
+			fetchedId = expenses.get(expenses.size() - 1).getId();
+			page = expenses.iterator();
+		}
+		Expense expense = page.next();
+		lastId = expense.getId();
+		return expense;
+	}
+
+	@Override
+	public void update(ExecutionContext executionContext) {
+		executionContext.putLong(key(), lastId);
+	}
+
+	@Override
+	public void close() {
+		page = Collections.emptyIterator();
+	}
+
+	private String key() {
+		return name + ".lastId";
+	}
+}
@@ -0,0 +1,323 @@
+package com.example.expenses.batch.reader;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.batch.infrastructure.item.ExecutionContext;
+import org.springframework.batch.infrastructure.item.ItemStreamException;
+import org.springframework.batch.infrastructure.item.ItemStreamReader;
+import org.springframework.batch.infrastructure.item.file.FlatFileParseException;
+
+import com.example.expenses.batch.dto.ExpenseCsvRow;
+
+/**
+ * 経費CSV（applicantId,title,amount,currency）をメモリマップして読み込むItemReader
+ * -FieldSet・BeanWrapperを使わず、バイト列のまま区切り・クォート（RFC 4180）を解析する
+ * -区切り文字・クォート・改行はASCIIのため、MS932・UTF-8のどちらもバイト単位で解析できる（文字列化は項目ごとに1回）
+ * -項目のバイト列は再利用するバッファに集め、ExpenseCsvRowだけを1行ごとに生成する
+ * -読み込み位置はバイトオフセットでExecutionContextに保存し、再開時はその位置から読む
+ * -ファイルはwindowSizeごとにマップし、行がマップの境界をまたぐ場合は行頭からマップし直す
+ */
+public class MappedCsvItemReader implements ItemStreamReader<ExpenseCsvRow> {
+
+	private static final long DEFAULT_WINDOW_SIZE = 64L * 1024 * 1024;
+	private static final int FIELD_COUNT = 4;
+
+	private static final byte COMMA = ',';
+	private static final byte QUOTE = '"';
+	private static final byte CR = '\r';
+	private static final byte LF = '\n';
+
+	private final String name;
+	private final Path file;
+	private final Charset charset;
+	private final int linesToSkip;
+	private final long windowSize;
+
+	private FileChannel channel;
+	private long fileSize;
+	private MappedByteBuffer window;
+	private long windowStart;
+
+	/** 次に読む行の先頭のバイトオフセット */
+	private long offset;
+	private int lineNumber;
+
+	//1行分の項目のバイト列（項目ごとの終了位置をfieldEndsに持つ）
+	private byte[] record = new byte[256];
+	private int recordLength;
+	private final int[] fieldEnds = new int[FIELD_COUNT + 1];
+	private int fieldCount;
+
+	public MappedCsvItemReader(String name, Path file, Charset charset, int linesToSkip) {
+		this(name, file, charset, linesToSkip, DEFAULT_WINDOW_SIZE);
+	}
+
+	MappedCsvItemReader(String name, Path file, Charset charset, int linesToSkip, long windowSize) {
+		this.name = name;
+		this.file = file;
+		this.charset = charset;
+		this.linesToSkip = linesToSkip;
+		this.windowSize = windowSize;
+	}
+
+	@Override
+	public void open(ExecutionContext executionContext) {
+		try {
+			channel = FileChannel.open(file, StandardOpenOption.READ);
+			fileSize = channel.size();
+		}catch(IOException e) {
+			throw new ItemStreamException("CSVファイルを開けません: " + file, e);
+		}
+
+		if(executionContext.containsKey(key("offset"))) {
+			offset = executionContext.getLong(key("offset"));
+			lineNumber = executionContext.getInt(key("line"));
+			return;
+		}
+
+		offset = 0;
+		lineNumber = 0;
+		skipBom();
+		for(int i = 0; i < linesToSkip && offset < fileSize; i++) {
+			nextRecord();
+		}
+	}
+
+	@Override
+	public @Nullable ExpenseCsvRow read() {
+		while(offset < fileSize) {
+			long start = offset;
+			nextRecord();
+
+			//空行は読み飛ばす
+			if(fieldCount == 1 && recordLength == 0) {
+				continue;
+			}
+			if(fieldCount != FIELD_COUNT) {
+				throw new FlatFileParseException(
+						"項目数が不正です（期待値: " + FIELD_COUNT + ", 実際: " + fieldCount + "）", rawLine(start), lineNumber);
+			}
+			return toRow(start);
+		}
+		return null;
+	}
+
+	@Override
+	public void update(ExecutionContext executionContext) {
+		executionContext.putLong(key("offset"), offset);
+		executionContext.putInt(key("line"), lineNumber);
+	}
+
+	@Override
+	public void close() {
+		window = null;
+		if(channel == null) {
+			return;
+		}
+		try {
+			channel.close();
+		}catch(IOException e) {
+			throw new ItemStreamException("CSVファイルを閉じられません: " + file, e);
+		}finally {
+			channel = null;
+		}
+	}
+
+	/**
+	 * 直前に読んだ行の行番号（ヘッダーを含む、1始まり）
+	 */
+	public int getLineNumber() {
+		return lineNumber;
+	}
+
+	/**
+	 * offsetから1行を解析してrecordに集め、offsetを次の行の先頭に進める
+	 * 行がマップの末尾で切れている場合は行頭からマップし直して解析し直す
+	 */
+	private void nextRecord() {
+		if(window == null || offset < windowStart || offset >= windowStart + window.limit()) {
+			map(offset);
+		}
+		int end = parse((int)(offset - windowStart));
+		if(end < 0 && windowStart != offset) {
+			map(offset);
+			end = parse(0);
+		}
+		if(end < 0) {
+			throw new ItemStreamException("1行の長さがマップサイズを超えています line=" + (lineNumber + 1));
+		}
+		offset = windowStart + end;
+		lineNumber++;
+	}
+
+	/**
+	 * マップ内の位置pから1行を解析する
+	 * @return 次の行の先頭の位置（行がマップの末尾で切れている場合は-1）
+	 */
+	private int parse(int p) {
+		int limit = window.limit();
+		boolean lastWindow = windowStart + limit >= fileSize;
+		recordLength = 0;
+		fieldCount = 0;
+
+		while(true) {
+			if(p < limit && window.get(p) == QUOTE) {
+				p++;
+				while(true) {
+					if(p >= limit) {
+						if(!lastWindow) {
+							return -1;
+						}
+						//閉じていないクォートはファイル末尾までを項目とする
+						endField();
+						return limit;
+					}
+					byte b = window.get(p++);
+					if(b != QUOTE) {
+						append(b);
+					}else if(p < limit && window.get(p) == QUOTE) {
+						append(QUOTE);
+						p++;
+					}else if(p >= limit && !lastWindow) {
+						return -1;
+					}else {
+						break;
+					}
+				}
+				//閉じクォートの後ろに区切りまでの文字があれば項目に含める
+				p = appendUnquoted(p, limit);
+			}else {
+				p = appendUnquoted(p, limit);
+			}
+			endField();
+
+			if(p >= limit) {
+				return lastWindow ? limit : -1;
+			}
+			byte b = window.get(p++);
+			if(b == COMMA) {
+				continue;
+			}
+			if(b == CR) {
+				if(p >= limit && !lastWindow) {
+					return -1;
+				}
+				if(p < limit && window.get(p) == LF) {
+					p++;
+				}
+			}
+			return p;
+		}
+	}
+
+	private int appendUnquoted(int p, int limit) {
+		while(p < limit) {
+			byte b = window.get(p);
+			if(b == COMMA || b == CR || b == LF) {
+				break;
+			}
+			append(b);
+			p++;
+		}
+		return p;
+	}
+
+	private void append(byte b) {
+		if(recordLength == record.length) {
+			record = Arrays.copyOf(record, record.length * 2);
+		}
+		record[recordLength++] = b;
+	}
+
+	private void endField() {
+		if(fieldCount < fieldEnds.length) {
+			fieldEnds[fieldCount] = recordLength;
+		}
+		fieldCount++;
+	}
+
+	private ExpenseCsvRow toRow(long start) {
+		ExpenseCsvRow row = new ExpenseCsvRow();
+		row.setApplicantId(parseLong(0, fieldEnds[0], start));
+		row.setTitle(field(1));
+		row.setAmount(field(2));
+		row.setCurrency(field(3));
+		return row;
+	}
+
+	private String field(int index) {
+		int from = fieldEnds[index - 1];
+		return new String(record, from, fieldEnds[index] - from, charset);
+	}
+
+	/**
+	 * 申請者IDを文字列を作らずに数値へ変換（空の場合はnull）
+	 */
+	private @Nullable Long parseLong(int from, int to, long start) {
+		while(from < to && record[from] == ' ') {
+			from++;
+		}
+		while(to > from && record[to - 1] == ' ') {
+			to--;
+		}
+		if(from == to) {
+			return null;
+		}
+		boolean negative = record[from] == '-';
+		int i = negative ? from + 1 : from;
+		if(i == to || to - i > 18) {
+			throw new FlatFileParseException("applicantIdが数値ではありません", rawLine(start), lineNumber);
+		}
+		long value = 0;
+		for(; i < to; i++) {
+			int digit = record[i] - '0';
+			if(digit < 0 || digit > 9) {
+				throw new FlatFileParseException("applicantIdが数値ではありません", rawLine(start), lineNumber);
+			}
+			value = value * 10 + digit;
+		}
+		return negative ? -value : value;
+	}
+
+	/**
+	 * エラー時に出力する行の内容（マップ内に残っている範囲）
+	 */
+	private String rawLine(long start) {
+		int from = (int)Math.max(0, start - windowStart);
+		int to = (int)Math.min(window.limit(), offset - windowStart);
+		byte[] bytes = new byte[Math.max(0, to - from)];
+		window.get(from, bytes);
+		return new String(bytes, charset).stripTrailing();
+	}
+
+	private void skipBom() {
+		if(!StandardCharsets.UTF_8.equals(charset) || fileSize < 3) {
+			return;
+		}
+		map(0);
+		if(window.get(0) == (byte)0xEF && window.get(1) == (byte)0xBB && window.get(2) == (byte)0xBF) {
+			offset = 3;
+		}
+	}
+
+	private void map(long position) {
+		try {
+			window = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(windowSize, fileSize - position));
+			windowStart = position;
+		}catch(IOException e) {
+			throw new ItemStreamException("CSVファイルをマップできません: " + file, e);
+		}
+	}
+
+	private String key(String suffix) {
+		return name + "." + suffix;
+	}
+}
@@ -0,0 +1,62 @@
+package com.example.expenses.batch.remote;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.StepExecution;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+/**
+ * 実行中（STARTED）のまま更新が止まったパーティションのステップ実行を失敗にする
+ * -ワーカーのノードが停止するとステップ実行は STARTED のまま残り、マネージャーは待ち時間の上限まで待ち続けるため
+ * -ステップ実行はチャンクのコミットごとに更新されるため、abandonedAfter は1チャンクの処理時間より長くする
+ * -失敗にしたパーティションはジョブの再実行で実行し直される
+ */
+class AbandonedPartitions {
+
+	private static final Logger logger = LoggerFactory.getLogger(AbandonedPartitions.class);
+
+	private final JobRepository jobRepository;
+	private final Duration abandonedAfter;
+
+	AbandonedPartitions(JobRepository jobRepository, Duration abandonedAfter) {
+		this.jobRepository = jobRepository;
+		this.abandonedAfter = abandonedAfter;
+	}
+
+	/**
+	 * 最後の更新から abandonedAfter 以上経過した実行中のステップ実行を失敗として保存する
+	 * @return 失敗にした場合はtrue
+	 */
+	boolean failIfAbandoned(StepExecution stepExecution) {
+
+		LocalDateTime lastUpdated = stepExecution.getLastUpdated();
+		if(stepExecution.getStatus() != BatchStatus.STARTED || lastUpdated == null) {
+			return false;
+		}
+		LocalDateTime now = LocalDateTime.now();
+		if(lastUpdated.isAfter(now.minus(abandonedAfter))) {
+			return false;
+		}
+
+		stepExecution.setStatus(BatchStatus.FAILED);
+		stepExecution.setExitStatus(ExitStatus.FAILED.addExitDescription(
+				"ワーカーからの更新が " + abandonedAfter + " 以上ないため中断とみなしました lastUpdated=" + lastUpdated));
+		stepExecution.setEndTime(now);
+		try {
+			jobRepository.update(stepExecution);
+		}catch(OptimisticLockingFailureException e) {
+			//確認の直後にワーカーが更新した（実行が続いている）
+			logger.info("パーティションは実行中のため失敗にしません: stepExecutionId={}", stepExecution.getId());
+			return false;
+		}
+		logger.warn("中断されたパーティションを失敗にしました: step={}, stepExecutionId={}, lastUpdated={}",
+				stepExecution.getStepName(), stepExecution.getId(), lastUpdated);
+		return true;
+	}
+}
@@ -0,0 +1,113 @@
+package com.example.expenses.batch.remote;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.partition.support.AbstractPartitionHandler;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.StepExecution;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import com.example.expenses.kafka.ExpenseTopics;
+import com.example.expenses.kafka.PartitionRequestMessage;
+
+/**
+ * パーティションの実行をKafka経由で各ノードのワーカー（PartitionRequestListener）に依頼するPartitionHandler
+ * -パーティションの内容はStepExecutionSplitterがジョブリポジトリに保存するため、送るのはステップ実行のIDだけ
+ * -ワーカーの結果はジョブリポジトリをポーリングして待ち合わせ、読み込み直したステップ実行を返す
+ *  （件数の合計・ステータスの集約はPartitionStepの既定の集約で行われる）
+ */
+public class KafkaPartitionHandler extends AbstractPartitionHandler {
+
+	private static final Logger logger = LoggerFactory.getLogger(KafkaPartitionHandler.class);
+
+	private final KafkaTemplate<String, PartitionRequestMessage> kafkaTemplate;
+	private final JobRepository jobRepository;
+	private final String stepName;
+	private final int topicPartitions;
+	private final Duration pollInterval;
+	private final Duration timeout;
+	private final AbandonedPartitions abandonedPartitions;
+
+	/**
+	 * @param stepName ワーカーが実行するステップのBean名
+	 * @param topicPartitions 依頼トピックのパーティション数（依頼を順番に割り振り、ワーカーに均等に行き渡らせる）
+	 * @param abandonedAfter 実行中のパーティションの更新がこの時間以上ない場合はワーカーが停止したとみなし、失敗にする
+	 */
+	public KafkaPartitionHandler(KafkaTemplate<String, PartitionRequestMessage> kafkaTemplate,
+			JobRepository jobRepository, String stepName, int topicPartitions,
+			Duration pollInterval, Duration timeout, Duration abandonedAfter) {
+		this.kafkaTemplate = kafkaTemplate;
+		this.jobRepository = jobRepository;
+		this.stepName = stepName;
+		this.topicPartitions = topicPartitions;
+		this.pollInterval = pollInterval;
+		this.timeout = timeout;
+		this.abandonedPartitions = new AbandonedPartitions(jobRepository, abandonedAfter);
+	}
+
+	@Override
+	protected Set<StepExecution> doHandle(StepExecution managerStepExecution,
+			Set<StepExecution> partitionStepExecutions) throws Exception {
+
+		//再実行時に完了済みのパーティションだけの場合は依頼するものがない
+		if(partitionStepExecutions.isEmpty()) {
+			return partitionStepExecutions;
+		}
+
+		long jobExecutionId = managerStepExecution.getJobExecutionId();
+		int index = 0;
+		for(StepExecution partition : partitionStepExecutions) {
+			PartitionRequestMessage request =
+					new PartitionRequestMessage(jobExecutionId, partition.getId(), stepName);
+			//送信できなかった依頼は待っても終わらないため、ここで失敗させる
+			kafkaTemplate.send(ExpenseTopics.BATCH_PARTITION_REQUEST, index++ % topicPartitions,
+					String.valueOf(partition.getId()), request).get(30, TimeUnit.SECONDS);
+		}
+		logger.info("パーティションの実行を依頼: jobExecutionId={}, partitions={}",
+				jobExecutionId, partitionStepExecutions.size());
+
+		return waitForResults(jobExecutionId, partitionStepExecutions);
+	}
+
+	/**
+	 * 全パーティションのステップ実行が終了するまでジョブリポジトリをポーリング
+	 * ワーカーの停止で更新が止まったパーティションは失敗にして待ち合わせを終える
+	 */
+	private Set<StepExecution> waitForResults(long jobExecutionId, Set<StepExecution> partitionStepExecutions)
+			throws InterruptedException, TimeoutException {
+
+		List<Long> pending = new ArrayList<>();
+		for(StepExecution partition : partitionStepExecutions) {
+			pending.add(partition.getId());
+		}
+		Set<StepExecution> results = new HashSet<>();
+		long deadline = System.nanoTime() + timeout.toNanos();
+
+		while(true) {
+			for(var it = pending.iterator(); it.hasNext();) {
+				StepExecution current = jobRepository.getStepExecution(jobExecutionId, it.next());
+				if(current != null
+						&& (!current.getStatus().isRunning() || abandonedPartitions.failIfAbandoned(current))) {
+					results.add(current);
+					it.remove();
+				}
+			}
+			if(pending.isEmpty()) {
+				return results;
+			}
+			if(System.nanoTime() - deadline > 0) {
+				throw new TimeoutException("パーティションの実行が " + timeout + " 以内に終了しませんでした: stepExecutionIds="
+						+ pending);
+			}
+			Thread.sleep(pollInterval.toMillis());
+		}
+	}
+}
@@ -0,0 +1,90 @@
+package com.example.expenses.batch.remote;
+
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.Step;
+import org.springframework.batch.core.step.StepExecution;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+
+import com.example.expenses.kafka.ExpenseTopics;
+import com.example.expenses.kafka.PartitionRequestMessage;
+
+/**
+ * KafkaPartitionHandler から依頼されたパーティションを実行するワーカー
+ * -全ノードが同じコンシューマーグループで受信するため、1つの依頼は1ノードだけが実行する
+ * -ステップの結果はステップ実行としてジョブリポジトリに保存され、マネージャーのステップが集約する
+ * -オフセットはステップの終了後にコミットする（実行中にノードが停止した依頼は他のノードに再配信される）
+ * -再配信された依頼（実行中・終了済みのステップ実行）は実行しない
+ *  実行中のまま更新が止まっているステップ実行は、ワーカーが停止したとみなして失敗にする
+ */
+public class PartitionRequestListener {
+
+	private static final Logger logger = LoggerFactory.getLogger(PartitionRequestListener.class);
+
+	private final JobRepository jobRepository;
+	private final Step workerStep;
+	private final AbandonedPartitions abandonedPartitions;
+
+	/**
+	 * @param abandonedAfter 実行中のパーティションの更新がこの時間以上ない場合はワーカーが停止したとみなす
+	 */
+	public PartitionRequestListener(JobRepository jobRepository, Step workerStep, Duration abandonedAfter) {
+		this.jobRepository = jobRepository;
+		this.workerStep = workerStep;
+		this.abandonedPartitions = new AbandonedPartitions(jobRepository, abandonedAfter);
+	}
+
+	@KafkaListener(topics = ExpenseTopics.BATCH_PARTITION_REQUEST, groupId = "expenses-batch-workers",
+			containerFactory = "partitionRequestListenerContainerFactory")
+	public void handle(PartitionRequestMessage request, Acknowledgment acknowledgment) {
+		try {
+			execute(request);
+		}finally {
+			//ステップの終了（失敗の保存）後にコミットする
+			acknowledgment.acknowledge();
+		}
+	}
+
+	private void execute(PartitionRequestMessage request) {
+
+		if(!workerStep.getName().equals(request.getStepName())) {
+			logger.warn("実行できないステップの依頼を無視: stepName={}, stepExecutionId={}",
+					request.getStepName(), request.getStepExecutionId());
+			return;
+		}
+		StepExecution stepExecution =
+				jobRepository.getStepExecution(request.getJobExecutionId(), request.getStepExecutionId());
+		if(stepExecution == null) {
+			logger.warn("パーティションのステップ実行が見つかりません: jobExecutionId={}, stepExecutionId={}",
+					request.getJobExecutionId(), request.getStepExecutionId());
+			return;
+		}
+		if(abandonedPartitions.failIfAbandoned(stepExecution)) {
+			return;
+		}
+		if(stepExecution.getStatus() != BatchStatus.STARTING) {
+			logger.info("実行済みのパーティションの依頼を無視: step={}, status={}",
+					stepExecution.getStepName(), stepExecution.getStatus());
+			return;
+		}
+
+		logger.info("パーティションを実行: step={}, stepExecutionId={}",
+				stepExecution.getStepName(), stepExecution.getId());
+		try {
+			workerStep.execute(stepExecution);
+		}catch(Exception e) {
+			//ステップ内で処理されなかった例外（中断など）も失敗として記録し、マネージャーの待ち合わせを終わらせる
+			logger.error("パーティションの実行に失敗: step={}", stepExecution.getStepName(), e);
+			stepExecution.setStatus(BatchStatus.FAILED);
+			stepExecution.setExitStatus(ExitStatus.FAILED.addExitDescription(e));
+			stepExecution.addFailureException(e);
+			jobRepository.update(stepExecution);
+		}
+	}
+}
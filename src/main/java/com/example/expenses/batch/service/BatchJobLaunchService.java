@@ -0,0 +1,154 @@
+package com.example.expenses.batch.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.configuration.JobRegistry;
+import org.springframework.batch.core.job.Job;
+import org.springframework.batch.core.job.JobExecution;
+import org.springframework.batch.core.job.parameters.JobParameters;
+import org.springframework.batch.core.launch.support.TaskExecutorJobOperator;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.expenses.batch.dto.BatchJobProgress;
+
+/**
+ * APIから起動するバッチジョブの非同期実行と進捗の取得
+ * -ジョブは専用のスレッドプール（batch.launch.pool-size、待ちは batch.launch.queue-capacity まで）で実行し、
+ *  起動したリクエストのスレッドはジョブの実行を作成した時点で返る
+ * -スケジューラなど同期実行が前提の起動は従来どおり JobOperator を使う
+ */
+@Service
+public class BatchJobLaunchService implements DisposableBean {
+
+	private static final Logger logger = LoggerFactory.getLogger(BatchJobLaunchService.class);
+
+	private final JobRepository jobRepository;
+	private final ThreadPoolTaskExecutor launchExecutor;
+	private final ThreadPoolTaskScheduler progressScheduler;
+	private final TaskExecutorJobOperator asyncJobOperator;
+	private final Duration progressInterval;
+
+	public BatchJobLaunchService(JobRepository jobRepository, JobRegistry jobRegistry,
+			@Value("${batch.launch.pool-size:2}") int poolSize,
+			@Value("${batch.launch.queue-capacity:10}") int queueCapacity,
+			@Value("${batch.launch.progress-interval:1s}") Duration progressInterval) throws Exception {
+
+		this.jobRepository = jobRepository;
+		this.progressInterval = progressInterval;
+
+		// 上限を超えた起動は TaskRejectedException（ジョブの実行は FAILED になる）
+		launchExecutor = new ThreadPoolTaskExecutor();
+		launchExecutor.setCorePoolSize(poolSize);
+		launchExecutor.setMaxPoolSize(poolSize);
+		launchExecutor.setQueueCapacity(queueCapacity);
+		launchExecutor.setThreadNamePrefix("batch-launch-");
+		launchExecutor.initialize();
+
+		progressScheduler = new ThreadPoolTaskScheduler();
+		progressScheduler.setPoolSize(1);
+		progressScheduler.setThreadNamePrefix("batch-progress-");
+		progressScheduler.initialize();
+
+		asyncJobOperator = new TaskExecutorJobOperator();
+		asyncJobOperator.setJobRepository(jobRepository);
+		asyncJobOperator.setJobRegistry(jobRegistry);
+		asyncJobOperator.setTaskExecutor(launchExecutor);
+		asyncJobOperator.afterPropertiesSet();
+	}
+
+	/**
+	 * ジョブを非同期で起動
+	 * @return 作成したジョブの実行（STARTING）。スレッドプールが満杯の場合は FAILED
+	 */
+	public JobExecution launch(Job job, JobParameters jobParameters) throws Exception {
+		JobExecution jobExecution = asyncJobOperator.start(job, jobParameters);
+		logger.info("バッチジョブを非同期で起動: job={}, executionId={}, status={}",
+				job.getName(), jobExecution.getId(), jobExecution.getStatus());
+		return jobExecution;
+	}
+
+	/**
+	 * ジョブの実行の進捗
+	 * @return 実行が存在しない場合はnull
+	 */
+	public BatchJobProgress getProgress(long executionId) {
+		JobExecution jobExecution = jobRepository.getJobExecution(executionId);
+		return jobExecution == null ? null : BatchJobProgress.of(jobExecution, LocalDateTime.now());
+	}
+
+	/**
+	 * ジョブの実行の進捗を batch.launch.progress-interval ごとにSSEで送信する（イベント名 progress）
+	 * -ジョブが終了したら最後の進捗を送信して完了する
+	 * -送信は進捗用のスレッドで行い、リクエストのスレッドは使わない
+	 * @return 実行が存在しない場合はnull
+	 */
+	public SseEmitter streamProgress(long executionId) {
+
+		if(getProgress(executionId) == null) {
+			return null;
+		}
+
+		// ジョブの終了時に完了するためタイムアウトなし
+		SseEmitter emitter = new SseEmitter(0L);
+		AtomicBoolean stopped = new AtomicBoolean();
+		AtomicReference<ScheduledFuture<?>> task = new AtomicReference<>();
+		Runnable stop = () -> {
+			stopped.set(true);
+			ScheduledFuture<?> future = task.get();
+			if(future != null) {
+				future.cancel(false);
+			}
+		};
+		emitter.onCompletion(stop);
+		emitter.onTimeout(stop);
+		emitter.onError(e -> stop.run());
+
+		task.set(progressScheduler.scheduleAtFixedRate(() -> {
+			if(stopped.get()) {
+				return;
+			}
+			try {
+				BatchJobProgress progress = getProgress(executionId);
+				emitter.send(SseEmitter.event()
+						.name("progress")
+						.data(progress, MediaType.APPLICATION_JSON));
+				if(!progress.running()) {
+					stop.run();
+					emitter.complete();
+				}
+			} catch(IOException | IllegalStateException e) {
+				// クライアントの切断
+				logger.debug("進捗の送信を終了: executionId={}", executionId, e);
+				stop.run();
+			} catch(RuntimeException e) {
+				logger.error("進捗の取得エラー: executionId={}", executionId, e);
+				stop.run();
+				emitter.completeWithError(e);
+			}
+		}, progressInterval));
+		if(stopped.get()) {
+			task.get().cancel(false);
+		}
+		return emitter;
+	}
+
+	@Override
+	public void destroy() {
+		progressScheduler.shutdown();
+		launchExecutor.shutdown();
+	}
+}
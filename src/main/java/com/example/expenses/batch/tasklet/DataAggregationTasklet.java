@@ -4,6 +4,7 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -16,10 +17,10 @@ import org.springframework.batch.core.step.tasklet.Tasklet;
 import org.springframework.batch.infrastructure.repeat.RepeatStatus;
 import org.springframework.stereotype.Component;
 
-import com.example.expenses.domain.Expense;
 import com.example.expenses.domain.ExpenseStatus;
+import com.example.expenses.dto.batch.ExpenseStatusTotal;
 import com.example.expenses.dto.batch.MonthlyExpenseReport;
-import com.example.expenses.repository.ExpenseMapper;
+import com.example.expenses.repository.ExpenseDailyRollupMapper;
 
 import lombok.RequiredArgsConstructor;
 
@@ -28,7 +29,7 @@ import lombok.RequiredArgsConstructor;
 public class DataAggregationTasklet implements Tasklet {
 
 	private static final  Logger logger = LoggerFactory.getLogger(DataAggregationTasklet.class);
-	private final ExpenseMapper expenseMapper;
+	private final ExpenseDailyRollupMapper rollupMapper;
 	
 	@Override
 	public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) throws Exception {
@@ -43,25 +44,42 @@ public class DataAggregationTasklet implements Tasklet {
 		
 		logger.info("集計期間:{} ～ {}", startDate, endDate);
 		
-		// 前月のExpenseデータ取得
+		// 前月の日別集計をステータスごとに合計（経費テーブルは走査しない）
+		List<ExpenseStatusTotal> totals = rollupMapper.sumByStatus(lastMonth.atDay(1), lastMonth.atEndOfMonth());
+		MonthlyExpenseReport report = buildReport(lastMonth, totals);
 		
-		List<Expense> expenses = expenseMapper.findByPeriod(startDate, endDate);
-		logger.info("取得件数:{}", expenses.size());
+		// ChunkContextにレポートを保存
+		chunkContext.getStepContext()
+		          .getStepExecution()
+		          .getJobExecution()
+		          .getExecutionContext()
+		          .put("monthlyReport", report);
+		logger.info("データ集計タスクレット完了: 合計{}件、合計金額{}", report.getTotalCount(), report.getTotalAmount());
+		
+		return RepeatStatus.FINISHED;
+	}
+	
+	/**
+	 * ステータスごとの集計結果からレポートを作成（経費がないステータスは件数0・金額0）
+	 */
+	static MonthlyExpenseReport buildReport(YearMonth targetMonth, List<ExpenseStatusTotal> totals) {
+		
+		Map<ExpenseStatus, ExpenseStatusTotal> totalsByStatus = new EnumMap<>(ExpenseStatus.class);
+		for(ExpenseStatusTotal total : totals) {
+			totalsByStatus.put(total.getStatus(), total);
+		}
 		
 		// ステータス別集計
 		Map<ExpenseStatus, MonthlyExpenseReport.StatusSummary> statusSummaries = new HashMap<>();
 		BigDecimal totalAmount = BigDecimal.ZERO;
+		int totalCount = 0;
 		
 		for(ExpenseStatus status : ExpenseStatus.values()) {
-			List<Expense> statusExpenses = expenses.stream()
-					.filter(e -> e.getStatus() == status)
-					.toList();
-			
-			BigDecimal statusAmount = statusExpenses.stream()
-					.map(Expense::getAmount)
-					.reduce(BigDecimal.ZERO, BigDecimal::add);
+			ExpenseStatusTotal total = totalsByStatus.get(status);
+			int count = total == null ? 0 : total.getCount();
+			BigDecimal statusAmount = total == null ? BigDecimal.ZERO : total.getAmount();
 			
-			int count = statusExpenses.size();
+			totalCount += count;
 			totalAmount = totalAmount.add(statusAmount);
 			
 			statusSummaries.put(status, MonthlyExpenseReport.StatusSummary.builder()
@@ -74,33 +92,19 @@ public class DataAggregationTasklet implements Tasklet {
 		for(MonthlyExpenseReport.StatusSummary summary : statusSummaries.values()) {
 			if(totalAmount.compareTo(BigDecimal.ZERO)> 0 ) {
 				double percentage = summary.getAmount()
-//						.divide(BigDecimal.valueOf(summary.getCount()), 4, RoundingMode.HALF_UP)// (件数、小数点桁数、丸め処理)
 						.divide(totalAmount, 6, RoundingMode.HALF_UP)// (合計、小数点桁数、丸め処理)
 						.multiply(BigDecimal.valueOf(100))
 						.doubleValue();
 				summary.setPercentage(percentage);
 			}
 		}
-		// レポート生成
-		MonthlyExpenseReport report = MonthlyExpenseReport.builder()
-				.targetMonth(lastMonth)
-				.totalCount(expenses.size())
+		
+		return MonthlyExpenseReport.builder()
+				.targetMonth(targetMonth)
+				.totalCount(totalCount)
 				.totalAmount(totalAmount)
 				.statusSummaries(statusSummaries)
 				.build();
-		
-		// ChunkContextにレポートを保存
-		chunkContext.getStepContext()
-		          .getStepExecution()
-		          .getJobExecution()
-		          .getExecutionContext()
-		          .put("monthlyReport", report);
-		logger.info("データ集計タスクレット完了: 合計{}件、合計金額{}", expenses.size(), totalAmount);
-		
-		
-		
-		
-		return RepeatStatus.FINISHED;
 	}
 
 }
@@ -0,0 +1,197 @@
+package com.example.expenses.batch.tasklet;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.StepContribution;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.infrastructure.item.ExecutionContext;
+import org.springframework.batch.infrastructure.item.file.FlatFileParseException;
+import org.springframework.batch.infrastructure.repeat.RepeatStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.expenses.batch.dto.ExpenseCsvRow;
+import com.example.expenses.batch.processor.ExpenseCsvItemProcessor;
+import com.example.expenses.batch.reader.MappedCsvItemReader;
+import com.example.expenses.domain.Expense;
+import com.example.expenses.repository.ExpenseImportStagingMapper;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * csvImportJob の一括ロードモード（importMode=bulk-load）
+ * 1. CSVを読み込み、ExpenseCsvItemProcessorと同じ検証を通った行をステージングファイル（タブ区切り）へ書き出す
+ *    検証で除外された行・解析できない行はエラーファイルへ書き出す
+ * 2. LOAD DATA LOCAL INFILE でステージングテーブルへロード
+ * 3. INSERT ... SELECT の1文で expenses へ登録し、ステージングの行を削除
+ * ロードから登録まではステップのトランザクション内で行うため、失敗時は何も登録されない
+ */
+@Component
+@RequiredArgsConstructor
+public class ExpenseCsvBulkLoadTasklet implements Tasklet {
+
+	private static final Logger logger = LoggerFactory.getLogger(ExpenseCsvBulkLoadTasklet.class);
+
+	/** expensesテーブルの列の長さ（文字数。超える行はロード全体を失敗させないよう事前に除外する） */
+	private static final int MAX_TITLE_LENGTH = 100;
+	private static final int MAX_CURRENCY_LENGTH = 3;
+
+	private final ExpenseCsvItemProcessor processor;
+	private final ExpenseImportStagingMapper stagingMapper;
+
+	@Value("${batch.import.bulk-load.work-dir:./import-work}")
+	private String workDir;
+
+	@Value("${batch.import.encoding:UTF-8}")
+	private Charset encoding;
+
+	@Override
+	public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) throws Exception {
+
+		String inputDir = (String)chunkContext.getStepContext().getJobParameters().get("inputDir");
+		long jobExecutionId = chunkContext.getStepContext().getStepExecution().getJobExecutionId();
+
+		Path dir = Files.createDirectories(Path.of(workDir)).toAbsolutePath().normalize();
+		Path stagingFile = dir.resolve("staging_" + jobExecutionId + ".tsv");
+		Path errorFile = dir.resolve("errors_" + jobExecutionId + ".csv");
+
+		logger.info("一括ロード開始 input={}, staging={}", inputDir, stagingFile);
+
+		try {
+			int staged = stage(Path.of(inputDir, "sample.csv"), stagingFile, errorFile, contribution);
+
+			int loaded = stagingMapper.load(stagingFile.toString(), jobExecutionId);
+			if(loaded != staged) {
+				throw new IllegalStateException("ステージングへのロード件数が一致しません staged=" + staged + ", loaded=" + loaded);
+			}
+			int merged = stagingMapper.mergeIntoExpenses(jobExecutionId);
+			stagingMapper.deleteByJobExecutionId(jobExecutionId);
+			contribution.incrementWriteCount(merged);
+
+			logger.info("一括ロード完了 登録={}件, 除外={}件, エラーファイル={}",
+					merged, contribution.getFilterCount() + contribution.getReadSkipCount(), errorFile);
+		}finally {
+			Files.deleteIfExists(stagingFile);
+		}
+		return RepeatStatus.FINISHED;
+	}
+
+	/**
+	 * CSVを検証してステージングファイル・エラーファイルへ振り分ける
+	 * @return ステージングファイルへ書き出した件数
+	 */
+	private int stage(Path csv, Path stagingFile, Path errorFile, StepContribution contribution) throws Exception {
+
+		MappedCsvItemReader reader = new MappedCsvItemReader("bulkLoadReader", csv, encoding, 1);
+		int staged = 0;
+		reader.open(new ExecutionContext());
+		try(BufferedWriter staging = Files.newBufferedWriter(stagingFile, StandardCharsets.UTF_8);
+				BufferedWriter errors = Files.newBufferedWriter(errorFile, StandardCharsets.UTF_8)) {
+
+			errors.write("line,reason,applicantId,title,amount,currency");
+			errors.newLine();
+
+			while(true) {
+				ExpenseCsvRow row;
+				try {
+					row = reader.read();
+				}catch(FlatFileParseException e) {
+					contribution.incrementReadSkipCount();
+					writeError(errors, e.getLineNumber(), e.getMessage(), e.getInput());
+					continue;
+				}
+				if(row == null) {
+					break;
+				}
+				contribution.incrementReadCount();
+
+				String reason = null;
+				Expense expense = null;
+				try {
+					expense = processor.process(row);
+					if(expense == null) {
+						reason = "入力チェックエラー";
+					}else if(length(expense.getTitle()) > MAX_TITLE_LENGTH
+							|| length(expense.getCurrency()) > MAX_CURRENCY_LENGTH) {
+						reason = "項目の長さが上限を超えています";
+					}
+				}catch(Exception e) {
+					reason = e.getMessage();
+				}
+
+				if(reason != null) {
+					contribution.incrementFilterCount(1);
+					writeError(errors, reader.getLineNumber(), reason,
+							row.getApplicantId(), row.getTitle(), row.getAmount(), row.getCurrency());
+					continue;
+				}
+				writeStaging(staging, reader.getLineNumber(), expense);
+				staged++;
+			}
+		}finally {
+			reader.close();
+		}
+		return staged;
+	}
+
+	/**
+	 * VARCHARの長さと同じく文字数で数える（サロゲートペアの絵文字なども1文字）
+	 */
+	private int length(String value) {
+		return value.codePointCount(0, value.length());
+	}
+
+	/**
+	 * LOAD DATA の既定形式（タブ区切り、バックスラッシュでエスケープ）で1行書き出す
+	 */
+	private void writeStaging(BufferedWriter out, int lineNumber, Expense expense) throws IOException {
+		out.write(Integer.toString(lineNumber));
+		out.write('\t');
+		out.write(expense.getApplicantId().toString());
+		out.write('\t');
+		writeEscaped(out, expense.getTitle());
+		out.write('\t');
+		out.write(expense.getAmount().toPlainString());
+		out.write('\t');
+		writeEscaped(out, expense.getCurrency());
+		out.write('\n');
+	}
+
+	private void writeEscaped(BufferedWriter out, String value) throws IOException {
+		for(int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch(c) {
+				case '\\' -> out.write("\\\\");
+				case '\t' -> out.write("\\t");
+				case '\n' -> out.write("\\n");
+				case '\r' -> out.write("\\r");
+				default -> out.write(c);
+			}
+		}
+	}
+
+	private void writeError(BufferedWriter out, int lineNumber, String reason, Object... values) throws IOException {
+		out.write(Integer.toString(lineNumber));
+		out.write(',');
+		writeQuoted(out, reason);
+		for(Object value : values) {
+			out.write(',');
+			writeQuoted(out, value == null ? "" : value.toString());
+		}
+		out.newLine();
+	}
+
+	private void writeQuoted(BufferedWriter out, String value) throws IOException {
+		out.write('"');
+		out.write(value == null ? "" : value.replace("\"", "\"\""));
+		out.write('"');
+	}
+}
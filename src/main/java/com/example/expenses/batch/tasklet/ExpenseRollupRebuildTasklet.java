@@ -0,0 +1,38 @@
+package com.example.expenses.batch.tasklet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.StepContribution;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.infrastructure.repeat.RepeatStatus;
+import org.springframework.stereotype.Component;
+
+import com.example.expenses.repository.ExpenseDailyRollupMapper;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 日別の経費集計（expense_daily_rollup）を経費テーブルから作り直すタスクレット
+ * -削除と再集計はステップの1トランザクションで行うため、途中の状態が他のトランザクションから見えることはない
+ * -実行中の状態遷移は集計テーブルの行ロックで待たされる
+ */
+@Component
+@RequiredArgsConstructor
+public class ExpenseRollupRebuildTasklet implements Tasklet {
+
+	private static final Logger logger = LoggerFactory.getLogger(ExpenseRollupRebuildTasklet.class);
+
+	private final ExpenseDailyRollupMapper rollupMapper;
+
+	@Override
+	public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) throws Exception {
+
+		int deleted = rollupMapper.deleteAll();
+		int rows = rollupMapper.rebuild();
+		contribution.incrementWriteCount(rows);
+
+		logger.info("日別集計を再構築 削除={}件, 登録={}件", deleted, rows);
+		return RepeatStatus.FINISHED;
+	}
+}
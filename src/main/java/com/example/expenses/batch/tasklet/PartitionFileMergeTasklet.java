@@ -0,0 +1,200 @@
+package com.example.expenses.batch.tasklet;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.StepContribution;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.infrastructure.repeat.RepeatStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.expenses.batch.writer.ExportCompression;
+
+/**
+ * parallelExportJob のパーティションごとのCSVを1ファイルに結合するタスクレット
+ * -今回のジョブで実行したworkerStepのパーティション（partition0..N）の順に、FileChannel.transferToで連結する
+ * -ヘッダー行は先頭のファイルのものだけを残し、2ファイル目以降はヘッダー行の後ろから連結する
+ * -一時ファイルに書き出してから置き換え、パーティションのファイルを削除する
+ * -checksum-manifestがtrueの場合は、結合したファイルのSHA-256を「<ファイル名>.sha256」に出力する
+ * -ジョブパラメータ compression でgzipを指定した場合は、各ファイルをgzipメンバーの単位で連結する（展開はしない）
+ */
+@Component
+public class PartitionFileMergeTasklet implements Tasklet {
+
+	private static final Logger logger = LoggerFactory.getLogger(PartitionFileMergeTasklet.class);
+
+	private static final String WORKER_STEP_PREFIX = "workerStep:";
+	private static final Pattern PARTITION_FILE = Pattern.compile("expenses_(partition\\d+)\\.csv(\\.gz)?");
+	/** GZIPOutputStreamが書くgzipヘッダー（ファイル名等のオプション項目なし）とtrailerのバイト数 */
+	private static final int GZIP_HEADER_LENGTH = 10;
+	private static final int GZIP_TRAILER_LENGTH = 8;
+
+	@Value("${batch.export.checksum-manifest:true}")
+	private boolean checksumManifest;
+
+	@Override
+	public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) throws Exception {
+
+		String outputDir = (String)chunkContext.getStepContext().getJobParameters().get("outputDir");
+		ExportCompression compression = ExportCompression.of(
+				(String)chunkContext.getStepContext().getJobParameters().get("compression"));
+		Path target = Path.of(outputDir, compression.fileName("expenses.csv"));
+
+		List<Path> partitionFiles = chunkContext.getStepContext().getStepExecution().getJobExecution()
+				.getStepExecutions().stream()
+				.filter(step -> step.getStepName().startsWith(WORKER_STEP_PREFIX))
+				.map(step -> step.getExecutionContext().getString("partition"))
+				.sorted(Comparator.comparingInt(PartitionFileMergeTasklet::partitionIndex))
+				.map(partition -> Path.of(outputDir, compression.fileName("expenses_" + partition + ".csv")))
+				.toList();
+		if(partitionFiles.isEmpty()) {
+			//結合だけを再実行した場合（workerStepは前回の実行で完了済み）は出力先に残っているファイルを結合する
+			partitionFiles = findPartitionFiles(Path.of(outputDir), compression);
+		}
+
+		if(partitionFiles.isEmpty()) {
+			throw new IllegalStateException("結合するパーティションのファイルがありません outputDir=" + outputDir);
+		}
+
+		Path temp = Files.createTempFile(target.getParent(), "expenses_", ".csv.tmp");
+		try {
+			long size = merge(partitionFiles, temp, compression);
+			Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			logger.info("パーティションのファイルを結合 files={}, size={}bytes, output={}", partitionFiles.size(), size, target);
+		}finally {
+			Files.deleteIfExists(temp);
+		}
+
+		if(checksumManifest) {
+			writeManifest(target);
+		}
+		for(Path file : partitionFiles) {
+			Files.deleteIfExists(file);
+		}
+		return RepeatStatus.FINISHED;
+	}
+
+	/**
+	 * ファイルを順に連結（2ファイル目以降はヘッダー行を除く）
+	 * @return 結合後のサイズ
+	 */
+	long merge(List<Path> files, Path output, ExportCompression compression) throws IOException {
+		try(FileChannel out = FileChannel.open(output, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			for(int i = 0; i < files.size(); i++) {
+				try(FileChannel in = FileChannel.open(files.get(i), StandardOpenOption.READ)) {
+					long position = i == 0 ? 0 : compression.isCompressed() ? gzipMemberLength(in) : headerLength(in);
+					long remaining = in.size() - position;
+					//transferToは一度に全量を転送しない場合があるため、転送しきるまで繰り返す
+					while(remaining > 0) {
+						long transferred = in.transferTo(position, remaining, out);
+						position += transferred;
+						remaining -= transferred;
+					}
+				}
+			}
+			out.force(true);
+			return out.size();
+		}
+	}
+
+	/**
+	 * 先頭行（ヘッダー）の改行までのバイト数
+	 */
+	private long headerLength(FileChannel in) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(1024);
+		long position = 0;
+		while(in.read(buffer, position) > 0) {
+			buffer.flip();
+			while(buffer.hasRemaining()) {
+				position++;
+				if(buffer.get() == '\n') {
+					return position;
+				}
+			}
+			buffer.clear();
+		}
+		return position;
+	}
+
+	/**
+	 * 先頭のgzipメンバー（GzipCsvItemWriterが書くヘッダー行のみのメンバー）のバイト数
+	 */
+	private long gzipMemberLength(FileChannel in) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(1024);
+		byte[] discard = new byte[1024];
+		Inflater inflater = new Inflater(true);
+		try {
+			long position = GZIP_HEADER_LENGTH;
+			while(!inflater.finished()) {
+				if(inflater.needsInput()) {
+					buffer.clear();
+					int read = in.read(buffer, position);
+					if(read <= 0) {
+						throw new IOException("gzipのヘッダー行が途中で終わっています");
+					}
+					buffer.flip();
+					inflater.setInput(buffer);
+					position += read;
+				}
+				inflater.inflate(discard);
+			}
+			return GZIP_HEADER_LENGTH + inflater.getBytesRead() + GZIP_TRAILER_LENGTH;
+		}catch(DataFormatException e) {
+			throw new IOException("gzipのヘッダー行を読み込めません", e);
+		}finally {
+			inflater.end();
+		}
+	}
+
+	/**
+	 * sha256sum と同じ形式（「ハッシュ値  ファイル名」）でマニフェストを出力
+	 */
+	private void writeManifest(Path file) throws Exception {
+		MessageDigest digest = MessageDigest.getInstance("SHA-256");
+		ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+		try(FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+			while(in.read(buffer) > 0) {
+				buffer.flip();
+				digest.update(buffer);
+				buffer.clear();
+			}
+		}
+		Path manifest = file.resolveSibling(file.getFileName() + ".sha256");
+		Files.writeString(manifest,
+				HexFormat.of().formatHex(digest.digest()) + "  " + file.getFileName() + "\n", StandardCharsets.US_ASCII);
+	}
+
+	private List<Path> findPartitionFiles(Path outputDir, ExportCompression compression) throws IOException {
+		try(Stream<Path> files = Files.list(outputDir)) {
+			return files
+					.map(file -> PARTITION_FILE.matcher(file.getFileName().toString()))
+					.filter(matcher -> matcher.matches() && (matcher.group(2) != null) == compression.isCompressed())
+					.sorted(Comparator.comparingInt((Matcher matcher) -> partitionIndex(matcher.group(1))))
+					.map(matcher -> outputDir.resolve(matcher.group()))
+					.toList();
+		}
+	}
+
+	private static int partitionIndex(String partition) {
+		return Integer.parseInt(partition.substring("partition".length()));
+	}
+}
@@ -1,9 +1,16 @@
 package com.example.expenses.batch.tasklet;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.apache.ibatis.session.ResultHandler;
 
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellStyle;
@@ -16,7 +23,7 @@ import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.VerticalAlignment;
 import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.batch.core.scope.context.ChunkContext;
@@ -26,16 +33,32 @@ import org.springframework.batch.infrastructure.repeat.RepeatStatus;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import com.example.expenses.domain.ExpenseStatus;
+import com.example.expenses.dto.batch.ExpenseGroupTotal;
 import com.example.expenses.dto.batch.MonthlyExpenseReport;
+import com.example.expenses.repository.ExpenseDailyRollupMapper;
+
+import lombok.RequiredArgsConstructor;
 
+@RequiredArgsConstructor
 @Component
 public class ReportGenerationTasklet implements Tasklet {
 
 	private static final Logger logger = LoggerFactory.getLogger(ReportGenerationTasklet.class);
 	
+	/** 集計シートの列幅（文字数）：ステータス、件数、合計金額、割合 */
+	private static final int[] SUMMARY_COLUMN_WIDTHS = {14, 10, 16, 10};
+	/** 明細シートの列幅（文字数）：ID、名称、ステータス、件数、合計金額 */
+	private static final int[] DETAIL_COLUMN_WIDTHS = {12, 32, 14, 10, 16};
+	
+	private final ExpenseDailyRollupMapper rollupMapper;
+	
 	@Value("${batch.report.output-dir}")
 	private String outputDir;
 	
+	@Value("${app.excel.row-access-window:100}")
+	private int rowAccessWindow;
+	
 	@Override
 	public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) throws Exception {
 		
@@ -79,77 +102,157 @@ public class ReportGenerationTasklet implements Tasklet {
 		
 		File file = new File(dir, filename);
 		
-		try (Workbook workbook = new XSSFWorkbook()) {
-			Sheet sheet = workbook.createSheet("月次レポート");
-			
-			CellStyle headerStyle = createHeaderStyle(workbook);
-			CellStyle dataStyle = createDataStyle(workbook);
-			CellStyle currencyStyle = createCurrencyStyle(workbook);
-			
-			int rowNum = 0;
-			
-			Row titleRow = sheet.createRow(rowNum++);
-			Cell titleCell = titleRow.createCell(0);
-			titleCell.setCellValue("月次経費レポート - " + 
-			   report.getTargetMonth().format(DateTimeFormatter.ofPattern("yyyy年MM月")));
-			
-			rowNum++; //　１行改行
-			
-			Row headerRow  = sheet.createRow(rowNum++);
-			String[] headers = {"ステータス", "件数", "合計金額", "割合"};
-			for(int i = 0; i < headers.length; i++) {
-				Cell cell = headerRow.createCell(i);
-				cell.setCellValue(headers[i]);
-				cell.setCellStyle(headerStyle);
-			}
-			
-			report.getStatusSummaries().forEach((status, summary) -> {
-				Row dataRow = sheet.createRow(sheet.getLastRowNum() + 1);
+		// 直近 rowAccessWindow 行だけをメモリに保持し、それより前の行は一時ファイルに書き出す
+		try (SXSSFWorkbook workbook = new SXSSFWorkbook(rowAccessWindow)) {
+			try {
+				CellStyle headerStyle = createHeaderStyle(workbook);
+				CellStyle dataStyle = createDataStyle(workbook);
+				CellStyle currencyStyle = createCurrencyStyle(workbook);
 				
-				Cell statusCell = dataRow.createCell(0);
-				statusCell.setCellValue(status.toString());
-				statusCell.setCellStyle(dataStyle);
+				writeSummarySheet(workbook.createSheet("月次レポート"), report, headerStyle, dataStyle, currencyStyle);
 				
-				Cell countCell = dataRow.createCell(1);
-				countCell.setCellValue(summary.getCount());
-				countCell.setCellStyle(dataStyle);
-			
+				LocalDate from = report.getTargetMonth().atDay(1);
+				LocalDate to = report.getTargetMonth().atEndOfMonth();
 				
-				Cell amountCell = dataRow.createCell(2);
-				amountCell.setCellValue(summary.getAmount().doubleValue());
-				amountCell.setCellStyle(currencyStyle);
+				int applicantRows = writeDetailSheet(workbook.createSheet("申請者別"), new String[] {"申請者ID", "申請者"},
+						handler -> rollupMapper.streamByApplicant(from, to, handler),
+						headerStyle, dataStyle, currencyStyle);
 				
+				int categoryRows = writeDetailSheet(workbook.createSheet("カテゴリ別"), new String[] {"カテゴリID", "カテゴリ"},
+						handler -> rollupMapper.streamByCategory(from, to, handler),
+						headerStyle, dataStyle, currencyStyle);
 				
-				Cell percentageCell = dataRow.createCell(3);
-				percentageCell.setCellValue(String.format("%.1f%%",  summary.getPercentage()));
-				percentageCell.setCellStyle(dataStyle);
+				logger.info("明細シート出力：申請者別{}行、カテゴリ別{}行", applicantRows, categoryRows);
 				
-			});
-			
-			Row totalRow = sheet.createRow(sheet.getLastRowNum() + 1);
-			Cell totalLabelCell = totalRow.createCell(0);
-			totalLabelCell.setCellValue("合計");
-			totalLabelCell.setCellStyle(headerStyle);
+				try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(file))) {
+					workbook.write(outputStream);
+				}
+			} finally {
+				// 一時ファイルを削除
+				workbook.dispose();
+			}
+		}
+		
+		return file;
+	}
+	
+	/**
+	 * ステータス別の集計シート
+	 */
+	private void writeSummarySheet(Sheet sheet, MonthlyExpenseReport report,
+			CellStyle headerStyle, CellStyle dataStyle, CellStyle currencyStyle) {
+		
+		setColumnWidths(sheet, SUMMARY_COLUMN_WIDTHS);
+		
+		int rowNum = 0;
+		
+		Row titleRow = sheet.createRow(rowNum++);
+		Cell titleCell = titleRow.createCell(0);
+		titleCell.setCellValue("月次経費レポート - " + 
+		   report.getTargetMonth().format(DateTimeFormatter.ofPattern("yyyy年MM月")));
+		
+		rowNum++; //　１行改行
+		
+		Row headerRow  = sheet.createRow(rowNum++);
+		String[] headers = {"ステータス", "件数", "合計金額", "割合"};
+		for(int i = 0; i < headers.length; i++) {
+			Cell cell = headerRow.createCell(i);
+			cell.setCellValue(headers[i]);
+			cell.setCellStyle(headerStyle);
+		}
+		
+		for(Map.Entry<ExpenseStatus, MonthlyExpenseReport.StatusSummary> entry : report.getStatusSummaries().entrySet()) {
+			MonthlyExpenseReport.StatusSummary summary = entry.getValue();
+			Row dataRow = sheet.createRow(rowNum++);
 			
-			Cell totalCountCell = totalRow.createCell(1);
-			totalCountCell.setCellValue(report.getTotalCount());
-			totalCountCell.setCellStyle(headerStyle);
+			Cell statusCell = dataRow.createCell(0);
+			statusCell.setCellValue(entry.getKey().toString());
+			statusCell.setCellStyle(dataStyle);
 			
-			Cell totalAmountCell = totalRow.createCell(2);
-			totalAmountCell.setCellValue(report.getTotalAmount().doubleValue());
-			totalAmountCell.setCellStyle(currencyStyle);
+			Cell countCell = dataRow.createCell(1);
+			countCell.setCellValue(summary.getCount());
+			countCell.setCellStyle(dataStyle);
 			
-			for(int i =0; i < headers.length; i++) {
-				sheet.autoSizeColumn(i);
-				sheet.setColumnWidth(i,  sheet.getColumnWidth(i) + 512);
-			}
+			Cell amountCell = dataRow.createCell(2);
+			amountCell.setCellValue(summary.getAmount().doubleValue());
+			amountCell.setCellStyle(currencyStyle);
 			
-			try (FileOutputStream outputStream = new FileOutputStream(file)) {
-				workbook.write(outputStream);
-			}
+			Cell percentageCell = dataRow.createCell(3);
+			percentageCell.setCellValue(String.format("%.1f%%",  summary.getPercentage()));
+			percentageCell.setCellStyle(dataStyle);
 		}
 		
-		return file;
+		Row totalRow = sheet.createRow(rowNum);
+		Cell totalLabelCell = totalRow.createCell(0);
+		totalLabelCell.setCellValue("合計");
+		totalLabelCell.setCellStyle(headerStyle);
+		
+		Cell totalCountCell = totalRow.createCell(1);
+		totalCountCell.setCellValue(report.getTotalCount());
+		totalCountCell.setCellStyle(headerStyle);
+		
+		Cell totalAmountCell = totalRow.createCell(2);
+		totalAmountCell.setCellValue(report.getTotalAmount().doubleValue());
+		totalAmountCell.setCellStyle(currencyStyle);
+	}
+	
+	/**
+	 * グループ（申請者・カテゴリ）× ステータスの明細シート
+	 * -集計結果はリストに保持せず、取得した行から順にシートへ書き込む
+	 * @param groupHeaders グループのID・名称の見出し
+	 * @param query 明細の行を handler に渡すクエリ
+	 * @return 出力した明細の行数
+	 */
+	private int writeDetailSheet(Sheet sheet, String[] groupHeaders, Consumer<ResultHandler<ExpenseGroupTotal>> query,
+			CellStyle headerStyle, CellStyle dataStyle, CellStyle currencyStyle) {
+		
+		setColumnWidths(sheet, DETAIL_COLUMN_WIDTHS);
+		
+		Row headerRow = sheet.createRow(0);
+		String[] headers = {groupHeaders[0], groupHeaders[1], "ステータス", "件数", "合計金額"};
+		for(int i = 0; i < headers.length; i++) {
+			Cell cell = headerRow.createCell(i);
+			cell.setCellValue(headers[i]);
+			cell.setCellStyle(headerStyle);
+		}
+		
+		int[] rowNum = {1};
+		query.accept(context -> {
+			ExpenseGroupTotal total = context.getResultObject();
+			Row dataRow = sheet.createRow(rowNum[0]++);
+			
+			Cell idCell = dataRow.createCell(0);
+			idCell.setCellValue(total.getGroupId());
+			idCell.setCellStyle(dataStyle);
+			
+			Cell nameCell = dataRow.createCell(1);
+			nameCell.setCellValue(total.getGroupName() != null ? total.getGroupName() : "未設定");
+			nameCell.setCellStyle(dataStyle);
+			
+			Cell statusCell = dataRow.createCell(2);
+			statusCell.setCellValue(total.getStatus().toString());
+			statusCell.setCellStyle(dataStyle);
+			
+			Cell countCell = dataRow.createCell(3);
+			countCell.setCellValue(total.getCount());
+			countCell.setCellStyle(dataStyle);
+			
+			Cell amountCell = dataRow.createCell(4);
+			amountCell.setCellValue(total.getAmount().doubleValue());
+			amountCell.setCellStyle(currencyStyle);
+		});
+		
+		return rowNum[0] - 1;
+	}
+	
+	/**
+	 * 列幅を設定（autoSizeColumnは全セルを測り直すため使わない）
+	 * @param widths 列ごとの幅（文字数）
+	 */
+	private void setColumnWidths(Sheet sheet, int[] widths) {
+		for(int i = 0; i < widths.length; i++) {
+			sheet.setColumnWidth(i, widths[i] * 256);
+		}
 	}
 	
 	private CellStyle createHeaderStyle(Workbook workbook) {
@@ -0,0 +1,89 @@
+package com.example.expenses.batch.writer;
+
+import org.springframework.batch.infrastructure.item.file.transform.LineAggregator;
+
+import com.example.expenses.domain.Expense;
+
+/**
+ * 経費をCSVの1行に変換するLineAggregator（BeanWrapperFieldExtractor + DelimitedLineAggregator の置き換え）
+ * -getterを直接呼び、再利用するバッファへ項目を書き込む（リフレクション・Object[]の生成なし）
+ * -カンマ・ダブルクォート・改行を含む項目はRFC 4180に従いダブルクォートで囲む（null は空欄）
+ * -項目：id, applicantId, title, amount, currency, status（includeCreatedAtの場合はcreatedAtも）
+ * -バッファを使い回すため、1つのWriter（1スレッド）ごとに生成すること
+ */
+public class ExpenseCsvLineAggregator implements LineAggregator<Expense> {
+
+	private final boolean includeCreatedAt;
+	private final StringBuilder buffer = new StringBuilder(128);
+
+	public ExpenseCsvLineAggregator(boolean includeCreatedAt) {
+		this.includeCreatedAt = includeCreatedAt;
+	}
+
+	@Override
+	public String aggregate(Expense item) {
+		StringBuilder line = buffer;
+		line.setLength(0);
+
+		appendNumber(line, item.getId());
+		line.append(',');
+		appendNumber(line, item.getApplicantId());
+		line.append(',');
+		appendText(line, item.getTitle());
+		line.append(',');
+		if(item.getAmount() != null) {
+			line.append(item.getAmount().toPlainString());
+		}
+		line.append(',');
+		appendText(line, item.getCurrency());
+		line.append(',');
+		if(item.getStatus() != null) {
+			line.append(item.getStatus().name());
+		}
+		if(includeCreatedAt) {
+			line.append(',');
+			if(item.getCreatedAt() != null) {
+				line.append(item.getCreatedAt());
+			}
+		}
+		return line.toString();
+	}
+
+	private static void appendNumber(StringBuilder line, Long value) {
+		if(value != null) {
+			line.append(value.longValue());
+		}
+	}
+
+	/**
+	 * 文字列項目を書き込む（区切り文字・クォート・改行を含む場合のみクォートする）
+	 */
+	private static void appendText(StringBuilder line, String value) {
+		if(value == null) {
+			return;
+		}
+		if(!needsQuote(value)) {
+			line.append(value);
+			return;
+		}
+		line.append('"');
+		for(int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if(c == '"') {
+				line.append('"');
+			}
+			line.append(c);
+		}
+		line.append('"');
+	}
+
+	private static boolean needsQuote(String value) {
+		for(int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if(c == ',' || c == '"' || c == '\n' || c == '\r') {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,66 @@
+package com.example.expenses.batch.writer;
+
+import java.util.Locale;
+import java.util.zip.Deflater;
+
+/**
+ * エクスポートの圧縮形式（ジョブパラメータ compression で指定）
+ * -none：無圧縮（従来どおり）
+ * -gzip：gzip（標準の圧縮レベル）
+ * -gzip-fast：gzip（圧縮率より速度を優先した圧縮レベル）
+ */
+public enum ExportCompression {
+
+	NONE("none", "", Deflater.NO_COMPRESSION),
+	GZIP("gzip", ".gz", Deflater.DEFAULT_COMPRESSION),
+	GZIP_FAST("gzip-fast", ".gz", Deflater.BEST_SPEED);
+
+	private final String parameterValue;
+	private final String extension;
+	private final int level;
+
+	ExportCompression(String parameterValue, String extension, int level) {
+		this.parameterValue = parameterValue;
+		this.extension = extension;
+		this.level = level;
+	}
+
+	/**
+	 * ジョブパラメータの値から取得（未指定の場合はNONE）
+	 */
+	public static ExportCompression of(String value) {
+		if(value == null || value.isBlank()) {
+			return NONE;
+		}
+		String normalized = value.trim().toLowerCase(Locale.ROOT);
+		for(ExportCompression compression : values()) {
+			if(compression.parameterValue.equals(normalized)) {
+				return compression;
+			}
+		}
+		throw new IllegalArgumentException("未対応の圧縮形式です: " + value);
+	}
+
+	public boolean isCompressed() {
+		return this != NONE;
+	}
+
+	/**
+	 * 出力ファイル名に圧縮形式の拡張子を付ける（既に付いている場合はそのまま）
+	 */
+	public String fileName(String fileName) {
+		return fileName.endsWith(extension) ? fileName : fileName + extension;
+	}
+
+	public String getParameterValue() {
+		return parameterValue;
+	}
+
+	public String getExtension() {
+		return extension;
+	}
+
+	int getLevel() {
+		return level;
+	}
+}
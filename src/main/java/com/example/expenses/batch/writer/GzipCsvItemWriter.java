@@ -0,0 +1,176 @@
+package com.example.expenses.batch.writer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.infrastructure.item.Chunk;
+import org.springframework.batch.infrastructure.item.ExecutionContext;
+import org.springframework.batch.infrastructure.item.ItemStreamException;
+import org.springframework.batch.infrastructure.item.ItemStreamWriter;
+import org.springframework.batch.infrastructure.item.file.transform.LineAggregator;
+
+/**
+ * CSVをgzipで圧縮しながら書き出すItemWriter（FlatFileItemWriter の圧縮版）
+ * -ヘッダー行と各chunkをそれぞれ1つのgzipメンバーとして追記する（連結したgzipはgunzip・GZIPInputStreamで1ファイルとして読める）
+ * -chunkのコミット時にupdate()でファイルの末尾位置をExecutionContextに保存し、再実行時はその位置まで切り詰めてから続きを追記する
+ */
+public class GzipCsvItemWriter<T> implements ItemStreamWriter<T> {
+
+	private static final Logger logger = LoggerFactory.getLogger(GzipCsvItemWriter.class);
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private final String name;
+	private final Path file;
+	private final Charset charset;
+	private final LineAggregator<T> lineAggregator;
+	private final String header;
+	private final ExportCompression compression;
+	private final String lineSeparator = System.lineSeparator();
+	private final StringBuilder lines = new StringBuilder(BUFFER_SIZE);
+
+	private FileChannel channel;
+	private long written;
+
+	/**
+	 * @param header ヘッダー行（nullの場合は出力しない）
+	 */
+	public GzipCsvItemWriter(String name, Path file, Charset charset, LineAggregator<T> lineAggregator,
+			String header, ExportCompression compression) {
+		if(!compression.isCompressed()) {
+			throw new IllegalArgumentException("圧縮形式を指定してください: " + compression);
+		}
+		this.name = name;
+		this.file = file;
+		this.charset = charset;
+		this.lineAggregator = lineAggregator;
+		this.header = header;
+		this.compression = compression;
+	}
+
+	@Override
+	public void open(ExecutionContext executionContext) {
+		try {
+			if(file.getParent() != null) {
+				Files.createDirectories(file.getParent());
+			}
+			if(executionContext.containsKey(offsetKey())) {
+				//前回コミットした位置より後ろ（コミットされなかったchunk）を切り捨てて追記する
+				long offset = executionContext.getLong(offsetKey());
+				written = executionContext.getLong(writtenKey(), 0L);
+				channel = FileChannel.open(file, StandardOpenOption.WRITE);
+				channel.truncate(offset);
+				channel.position(offset);
+				logger.info("圧縮出力を再開 file={}, offset={}, written={}", file, offset, written);
+				return;
+			}
+			written = 0;
+			channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+					StandardOpenOption.TRUNCATE_EXISTING);
+			if(header != null) {
+				writeMember(header + lineSeparator);
+			}
+		}catch(IOException e) {
+			throw new ItemStreamException("圧縮出力ファイルを開けません: " + file, e);
+		}
+	}
+
+	@Override
+	public void write(Chunk<? extends T> chunk) throws Exception {
+		if(chunk.isEmpty()) {
+			return;
+		}
+		lines.setLength(0);
+		for(T item : chunk) {
+			lines.append(lineAggregator.aggregate(item)).append(lineSeparator);
+		}
+		writeMember(lines);
+		written += chunk.size();
+	}
+
+	@Override
+	public void update(ExecutionContext executionContext) {
+		if(channel == null) {
+			return;
+		}
+		try {
+			executionContext.putLong(offsetKey(), channel.position());
+			executionContext.putLong(writtenKey(), written);
+		}catch(IOException e) {
+			throw new ItemStreamException("圧縮出力ファイルの位置を取得できません: " + file, e);
+		}
+	}
+
+	@Override
+	public void close() {
+		if(channel == null) {
+			return;
+		}
+		try {
+			logger.info("圧縮出力を終了 file={}, compression={}, written={}, size={}bytes",
+					file, compression.getParameterValue(), written, channel.size());
+			channel.close();
+		}catch(IOException e) {
+			throw new ItemStreamException("圧縮出力ファイルを閉じられません: " + file, e);
+		}finally {
+			channel = null;
+		}
+	}
+
+	/**
+	 * 1つのgzipメンバーとして書き出す（trailerまで書き切るため、この時点のファイル末尾は常に有効なgzipの境界）
+	 */
+	private void writeMember(CharSequence text) throws IOException {
+		MemberOutputStream out = new MemberOutputStream(Channels.newOutputStream(channel), compression.getLevel());
+		try {
+			out.write(charset.encode(CharBuffer.wrap(text)));
+			out.finish();
+		}finally {
+			out.end();
+		}
+	}
+
+	private String offsetKey() {
+		return name + ".offset";
+	}
+
+	private String writtenKey() {
+		return name + ".written";
+	}
+
+	/**
+	 * 圧縮レベルを指定できるGZIPOutputStream（下位のチャネルは閉じない）
+	 */
+	private static final class MemberOutputStream extends GZIPOutputStream {
+
+		MemberOutputStream(OutputStream out, int level) throws IOException {
+			super(out, BUFFER_SIZE);
+			def.setLevel(level);
+		}
+
+		void write(ByteBuffer bytes) throws IOException {
+			if(bytes.hasArray()) {
+				write(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining());
+				return;
+			}
+			byte[] array = new byte[bytes.remaining()];
+			bytes.get(array);
+			write(array);
+		}
+
+		void end() {
+			def.end();
+		}
+	}
+}
@@ -4,9 +4,11 @@ package com.example.expenses.controller;
 import java.math.BigDecimal;
 import java.net.URI;
 import java.time.LocalDate;
+import java.util.List;
 
 import jakarta.validation.Valid;
 
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -19,11 +21,17 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.example.expenses.config.LoginUser;
+import com.example.expenses.dto.request.BulkExpenseCreateRequest;
+import com.example.expenses.dto.request.BulkTransitionRequest;
 import com.example.expenses.dto.request.ExpenseCreateRequest;
 import com.example.expenses.dto.request.ExpenseSearchCriteria;
 import com.example.expenses.dto.request.RejectRequest;
+import com.example.expenses.dto.response.BulkTransitionResponse;
+import com.example.expenses.dto.response.CursorPageResponse;
+import com.example.expenses.dto.response.DailySpendResponse;
 import com.example.expenses.dto.response.ExpenseResponse;
 import com.example.expenses.dto.response.PaginationResponse;
+import com.example.expenses.dto.response.SliceResponse;
 import com.example.expenses.service.ExpenseService;
 
 import lombok.RequiredArgsConstructor;
@@ -46,6 +54,15 @@ public class ExpenseController {
 		return ResponseEntity.created(location).body(res);
 	}
 
+	/**
+	 * 経費一括登録（全件成功または全件失敗）
+	 */
+	@PostMapping("/bulk")
+	public ResponseEntity<List<ExpenseResponse>> createAll(
+			@Valid @RequestBody BulkExpenseCreateRequest request) {
+		return ResponseEntity.status(HttpStatus.CREATED).body(expenseService.createAll(request.items()));
+	}
+
 	@PostMapping("/{id}/submit")
 	public ResponseEntity<ExpenseResponse> submit(@PathVariable Long id,
 			@AuthenticationPrincipal LoginUser user) {
@@ -79,6 +96,100 @@ public class ExpenseController {
 				expenseService.search(criteria, page, size));
 	}
 
+	/**
+	 * 件数なし版の一覧取得（?paging=slice）
+	 * total/totalPagesの代わりにhasNextのみ返す
+	 */
+	@GetMapping(params = "paging=slice")
+	public ResponseEntity<SliceResponse<ExpenseResponse>> searchSlice(
+			@RequestParam(required = false)Long applicantId,
+			@RequestParam(required = false)String status,
+			@RequestParam(required = false)String title,
+			@RequestParam(required = false)BigDecimal amountMin,
+			@RequestParam(required = false)BigDecimal amountMax,
+			@RequestParam(required = false)LocalDate submittedFrom,
+			@RequestParam(required = false)LocalDate submittedTo,
+			@RequestParam(required = false)String sort,
+			@RequestParam(defaultValue = "1") int page,
+			@RequestParam(defaultValue = "5") int size) {
+
+		ExpenseSearchCriteria criteria = new ExpenseSearchCriteria(
+				applicantId,
+				status,
+				title,
+				sort,
+				amountMin,
+				amountMax,
+				submittedFrom,
+				submittedTo);
+
+		return ResponseEntity.ok().body(
+				expenseService.searchSlice(criteria, page, size));
+	}
+
+	/**
+	 * カーソルページング版の一覧取得（?paging=cursor）
+	 * 次ページはレスポンスのnextCursorをcursorに指定して取得する
+	 */
+	@GetMapping(params = "paging=cursor")
+	public ResponseEntity<CursorPageResponse<ExpenseResponse>> searchByCursor(
+			@RequestParam(required = false)Long applicantId,
+			@RequestParam(required = false)String status,
+			@RequestParam(required = false)String title,
+			@RequestParam(required = false)BigDecimal amountMin,
+			@RequestParam(required = false)BigDecimal amountMax,
+			@RequestParam(required = false)LocalDate submittedFrom,
+			@RequestParam(required = false)LocalDate submittedTo,
+			@RequestParam(required = false)String sort,
+			@RequestParam(required = false)String cursor,
+			@RequestParam(defaultValue = "5") int size) {
+
+		ExpenseSearchCriteria criteria = new ExpenseSearchCriteria(
+				applicantId,
+				status,
+				title,
+				sort,
+				amountMin,
+				amountMax,
+				submittedFrom,
+				submittedTo);
+
+		return ResponseEntity.ok().body(
+				expenseService.searchByCursor(criteria, cursor, size));
+	}
+
+	/**
+	 * 日別・ステータス別の経費の件数と金額（提出日で集計）
+	 */
+	@GetMapping("/statistics/daily")
+	public ResponseEntity<List<DailySpendResponse>> dailySpend(
+			@RequestParam LocalDate from,
+			@RequestParam LocalDate to,
+			@RequestParam(required = false) Long applicantId) {
+		return ResponseEntity.ok().body(expenseService.dailySpend(from, to, applicantId));
+	}
+
+	/**
+	 * 一括承認（承認者のみ）
+	 * 経費ごとの結果を返すため、一部が遷移できなくても200を返す
+	 */
+	@PostMapping("/bulk/approve")
+	public ResponseEntity<BulkTransitionResponse> approveAll(
+			@RequestBody @Valid BulkTransitionRequest req,
+			@AuthenticationPrincipal LoginUser user) {
+		return ResponseEntity.ok().body(expenseService.approveAll(req.items(), user.getUserId()));
+	}
+
+	/**
+	 * 一括却下（承認者のみ、却下理由は全件共通）
+	 */
+	@PostMapping("/bulk/reject")
+	public ResponseEntity<BulkTransitionResponse> rejectAll(
+			@RequestBody @Valid BulkTransitionRequest req,
+			@AuthenticationPrincipal LoginUser user) {
+		return ResponseEntity.ok().body(expenseService.rejectAll(req.items(), req.reason(), user.getUserId()));
+	}
+
 	@PostMapping("/{expenseId}/approve")
 	public ResponseEntity<ExpenseResponse> approve(
 			@PathVariable Long expenseId,
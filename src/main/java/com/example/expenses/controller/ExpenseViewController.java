@@ -30,6 +30,7 @@ import com.example.expenses.domain.ExpensesSort;
 import com.example.expenses.domain.Role;
 import com.example.expenses.dto.request.ExpenseSearchCriteria;
 import com.example.expenses.dto.request.RejectRequest;
+import com.example.expenses.dto.response.CursorPageResponse;
 import com.example.expenses.dto.response.ExpenseResponse;
 import com.example.expenses.dto.response.PaginationResponse;
 import com.example.expenses.service.ExpenseExportService;
@@ -115,6 +116,29 @@ public class ExpenseViewController {
 		return  "expenses/detail";
 	}
 	
+	@GetMapping(value = "/list", params = "paging=cursor")
+	public String initByCursor(
+			@ModelAttribute("searchRequest") ExpenseSearchCriteria criteria,
+			@RequestParam(required = false) String cursor,
+			@RequestParam(defaultValue="5") int pageSize,
+			@AuthenticationPrincipal LoginUser user,
+			Model model) {
+		
+		CursorPageResponse<ExpenseResponse> expenses = expenseService.searchByCursor(
+				criteria,
+				cursor,
+				pageSize);
+		
+		model.addAttribute("rejectRequest", new RejectRequest());
+		model.addAttribute("criteria", criteria);
+		model.addAttribute("expense", expenses);
+		model.addAttribute("cursorMode", true);
+		model.addAttribute("username", displayName(user.getUsername()));
+		model.addAttribute("actorId", user.getUserId());
+		model.addAttribute("roles", conversionType(user.getRoles()));
+		return  "expenses/detail";
+	}
+	
 	@PostMapping("/submit/{expenseId}")
 	public String submit(
 			@PathVariable long expenseId,
@@ -129,7 +153,10 @@ public class ExpenseViewController {
 		List<String> sortList = new ArrayList<>();
 			
 		for(var value : ExpensesSort.values()) {
-			sortList.add(value.toString().toLowerCase() + "," + "ASC");
+			//関連度順はスコアの高い順のみ
+			if(value != ExpensesSort.RELEVANCE) {
+				sortList.add(value.toString().toLowerCase() + "," + "ASC");
+			}
 			sortList.add(value.toString().toLowerCase() + "," + "DESC");
 		}
 		return sortList;
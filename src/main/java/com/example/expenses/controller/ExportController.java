@@ -20,6 +20,7 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.example.expenses.config.LoginUser;
 import com.example.expenses.domain.Expense;
@@ -44,55 +45,48 @@ public class ExportController {
 	private final ExpenseService expenseService;
 	private final ExcelExportImplService excelExportImplService;
 	
+	/**
+	 * 経費一覧のExcelを生成しながらレスポンスへ直接書き込む（ブック全体をbyte[]に保持しない）
+	 * 経費一覧もリストに保持せず、DBから取得した行から順にシートへ書き込む
+	 */
 	@GetMapping("/excel/expenses")
-	public ResponseEntity<byte[]> exportExpensesToExcel(
+	public ResponseEntity<StreamingResponseBody> exportExpensesToExcel(
 			@ModelAttribute ExpenseSearchCriteria criteria,
 			@AuthenticationPrincipal LoginUser loginUser) {
 		
 		logger.info("経費一覧Excelエクスポート開始：user={}, criteria={}", loginUser.getUsername(), criteria);
 		
-		try {
-			// 経費一覧を取得
-			List<Expense> expenses = expenseService.getAllExpenses(criteria, loginUser.getUserId());
-			
-			// Excelファイルを生成
-			byte[] excelData = excelExportService.exportExpenseList(expenses);
-			
-			// ファイル名生成
-			String filename = generateFilename("経費一覧", "xlsx");
-			
-			logger.info("経費一覧Excelエクスポート完了：user={},件数={}", loginUser.getUsername(), expenses.size());
-			
-			// レスポンスヘッダー設定
-			HttpHeaders headers = new HttpHeaders();
-			headers.setContentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spredsheetml.sheet"));
-			headers.setContentDisposition(ContentDisposition.parse("attachment; filename*=UTF-8''" + encodeFilename(filename)));
-			headers.setContentLength(excelData.length);
-			
-			return ResponseEntity.ok()
-					.headers(headers)
-					.body(excelData);
-			
-		} catch(IOException e) {
-			logger.error("経費一覧Excelエクスポートエラー：user={}", loginUser.getUsername(), e);
-			
-			return ResponseEntity.internalServerError().build();
+		// ファイル名生成
+		String filename = generateFilename("経費一覧", "xlsx");
 		
-		}
+		StreamingResponseBody body = outputStream -> {
+			try {
+				int count = excelExportService.exportExpenseList(
+						row -> expenseService.streamAllExpenses(criteria, loginUser.getUserId(),
+								context -> row.accept(context.getResultObject())),
+						outputStream);
+				logger.info("経費一覧Excelエクスポート完了：user={},件数={}", loginUser.getUsername(), count);
+			} catch(IOException e) {
+				logger.error("経費一覧Excelエクスポートエラー：user={}", loginUser.getUsername(), e);
+				throw e;
+			}
+		};
+		
+		return ResponseEntity.ok()
+				.headers(excelHeaders(filename))
+				.body(body);
 	}
 	
 	@GetMapping("/excel/expenses/loginuser")
-	public ResponseEntity<byte[]> gexportExpensesToExcelLoginUser() {
-		
-		byte[] excelData = excelExportImplService.exportExcelData();
+	public ResponseEntity<StreamingResponseBody> gexportExpensesToExcelLoginUser(
+			@AuthenticationPrincipal LoginUser loginUser) {
 		
 		String filename = generateFilename("経費一覧", "xlsx");
 		
-		HttpHeaders headers = new HttpHeaders();
-		headers.setContentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spredsheetml.sheet"));
-		headers.setContentDisposition(ContentDisposition.parse("attachment; filename*=UTF-8''" + encodeFilename(filename)));
+		StreamingResponseBody body = outputStream ->
+				excelExportImplService.exportExcelData(loginUser.getUserId(), outputStream);
 		
-		return ResponseEntity.ok().headers(headers).body(excelData);
+		return ResponseEntity.ok().headers(excelHeaders(filename)).body(body);
 	}
 	
 	@GetMapping("/pdf/expenses")
@@ -156,6 +150,16 @@ public class ExportController {
 		}
 	}
 	
+	/**
+	 * Excelのレスポンスヘッダー（生成しながら書き込むためContent-Lengthは設定しない）
+	 */
+	private HttpHeaders excelHeaders(String filename) {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
+		headers.setContentDisposition(ContentDisposition.parse("attachment; filename*=UTF-8''" + encodeFilename(filename)));
+		return headers;
+	}
+	
 	/**
 	 * 
 	 */
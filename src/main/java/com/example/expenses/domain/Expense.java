@@ -87,5 +87,24 @@ public class Expense {
 		return this.status == ExpenseStatus.SUBMITTED;
 	}
 	
+	/**
+	 * 状態遷移後の経費（UPDATEで更新した列のみ変更したコピー）
+	 * @param transition 遷移の種類
+	 * @param at 更新日時
+	 */
+	public Expense transitioned(ExpenseTransition transition, LocalDateTime at) {
+		return new Expense(
+				id,
+				applicantId,
+				title,
+				amount,
+				currency,
+				transition.getTo(),
+				transition.isStampsSubmittedAt() ? at : submittedAt,
+				createdAt,
+				at,
+				version + 1);
+	}
+	
 	
 }
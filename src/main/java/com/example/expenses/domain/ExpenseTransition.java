@@ -0,0 +1,25 @@
+package com.example.expenses.domain;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 経費の状態遷移表
+ * 遷移元・遷移先のステータスと、遷移時に更新する列を定義する
+ * （ExpenseTransitionEngine がこの定義から条件付きUPDATEを1回だけ発行する）
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ExpenseTransition {
+
+	/** 提出：下書き → 提出済み（本人のみ、提出日時を記録） */
+	SUBMIT(ExpenseStatus.DRAFT, ExpenseStatus.SUBMITTED, true),
+	/** 承認：提出済み → 承認済み */
+	APPROVE(ExpenseStatus.SUBMITTED, ExpenseStatus.APPROVED, false),
+	/** 却下：提出済み → 却下 */
+	REJECT(ExpenseStatus.SUBMITTED, ExpenseStatus.REJECTED, false);
+
+	private final ExpenseStatus from;
+	private final ExpenseStatus to;
+	private final boolean stampsSubmittedAt;
+}
@@ -6,7 +6,8 @@ public enum ExpensesSort {
 	STATUS,
 	SUBMITTED_AT,
 	CREATED_AT,
-	UPDATED_AT;
+	UPDATED_AT,
+	RELEVANCE;
 	
 	
 }
@@ -0,0 +1,22 @@
+package com.example.expenses.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import com.example.expenses.domain.ExpenseStatus;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 日別・ステータス別の経費の件数と金額（expense_daily_rollup の集計結果）
+ */
+@Data
+@NoArgsConstructor
+public class ExpenseDailySpend {
+
+	private LocalDate spendDay;
+	private ExpenseStatus status;
+	private int count;
+	private BigDecimal amount;
+}
@@ -0,0 +1,44 @@
+package com.example.expenses.dto;
+
+import java.time.LocalDateTime;
+
+import com.example.expenses.kafka.ExpenseEventMessage;
+import com.example.expenses.kafka.ExpenseEventMessage.EventType;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * アウトボックスに保存する経費イベント
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseOutboxEvent {
+
+	private Long id;
+	private EventType eventType;
+	private Long expenseId;
+	private Long actorId;
+	private Long applicantId;
+	private String reason;
+	private String traceId;
+	private LocalDateTime createdAt;
+
+	public static ExpenseOutboxEvent from(ExpenseEventMessage message) {
+		return new ExpenseOutboxEvent(
+				null,
+				message.getEventType(),
+				message.getExpenseId(),
+				message.getActorId(),
+				message.getApplicantId(),
+				message.getReason(),
+				message.getTraceId(),
+				null);
+	}
+
+	public ExpenseEventMessage toMessage() {
+		return new ExpenseEventMessage(eventType, expenseId, actorId, applicantId, reason, traceId);
+	}
+}
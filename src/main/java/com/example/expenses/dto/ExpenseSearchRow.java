@@ -0,0 +1,19 @@
+package com.example.expenses.dto;
+
+import com.example.expenses.domain.Expense;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 検索結果の1行と、検索条件に一致する全件数（COUNT(*) OVER()）
+ */
+@Data
+@NoArgsConstructor
+public class ExpenseSearchRow {
+
+	/** 行の識別用（ネストしたresultMapで行がまとめられないように） */
+	private Long id;
+	private Expense expense;
+	private long totalCount;
+}
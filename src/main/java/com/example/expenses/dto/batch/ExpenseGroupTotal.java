@@ -0,0 +1,24 @@
+package com.example.expenses.dto.batch;
+
+import java.math.BigDecimal;
+
+import com.example.expenses.domain.ExpenseStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 申請者・カテゴリなどのグループ × ステータスごとの件数・金額の合計（月次レポートの明細シート）
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseGroupTotal {
+
+	private Long groupId;
+	private String groupName;
+	private ExpenseStatus status;
+	private int count;
+	private BigDecimal amount;
+}
@@ -0,0 +1,22 @@
+package com.example.expenses.dto.batch;
+
+import java.math.BigDecimal;
+
+import com.example.expenses.domain.ExpenseStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * ステータスごとの件数・金額の合計（GROUP BY status の集計結果）
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseStatusTotal {
+
+	private ExpenseStatus status;
+	private int count;
+	private BigDecimal amount;
+}
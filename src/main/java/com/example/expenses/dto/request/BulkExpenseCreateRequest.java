@@ -0,0 +1,18 @@
+package com.example.expenses.dto.request;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+/**
+ * 経費一括登録のリクエスト（カード明細の取り込みなど）
+ */
+public record BulkExpenseCreateRequest(
+		@NotEmpty(message = "登録する経費を指定してください")
+		@Size(max = 1000, message = "一度に登録できるのは1000件までです")
+		List<@Valid @NotNull ExpenseCreateRequest> items) {
+
+}
@@ -0,0 +1,25 @@
+package com.example.expenses.dto.request;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+/**
+ * 一括承認・一括却下のリクエスト
+ * @param items 対象の経費IDと画面で取得したバージョン
+ * @param reason 却下理由（一括却下の場合は必須、全件共通）
+ */
+public record BulkTransitionRequest(
+		@NotEmpty(message = "対象の経費を指定してください")
+		@Size(max = 500, message = "一度に処理できるのは500件までです")
+		List<@Valid @NotNull Item> items,
+		@Size(max = 100, message = "却下理由は100文字以内です") String reason) {
+
+	public record Item(
+			@NotNull Long id,
+			@NotNull Integer version) {
+	}
+}
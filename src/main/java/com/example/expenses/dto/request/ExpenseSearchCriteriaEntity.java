@@ -2,6 +2,7 @@ package com.example.expenses.dto.request;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.regex.Pattern;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -12,6 +13,12 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 public class ExpenseSearchCriteriaEntity {
 
+	/** ngram_token_size（MySQLのデフォルト値）*/
+	private static final int NGRAM_TOKEN_SIZE = 2;
+
+	/** 全文検索（BOOLEAN MODE）の演算子 */
+	private static final Pattern BOOLEAN_OPERATORS = Pattern.compile("[\"*+\\-<>()~@]");
+
 	private Long applicantId;
 	private String status;
 	private String title;
@@ -20,5 +27,27 @@ public class ExpenseSearchCriteriaEntity {
 	private LocalDate submittedFrom;
 	private LocalDate submittedTo;
 	
+	/**
+	 * タイトル全文検索（BOOLEAN MODE）用のフレーズ
+	 * 次の場合は全文検索では取りこぼすため、nullを返してLIKE検索にフォールバックする
+	 * -BOOLEAN MODEの演算子（"A-1" "Wi-Fi" の - など）を含む：除去すると "A 1" のように短い語に分かれてしまう
+	 * -空白で区切った語のいずれかがngramのトークン長未満：その語からトークンが作られずヒットしない
+	 * @return "..."で囲んだフレーズ、全文検索を使わない場合はnull
+	 */
+	public String getTitleMatchQuery() {
+		if(title == null) {
+			return null;
+		}
+		String phrase = title.strip();
+		if(BOOLEAN_OPERATORS.matcher(phrase).find()) {
+			return null;
+		}
+		for(String token : phrase.split("\\s+")) {
+			if(token.codePointCount(0, token.length()) < NGRAM_TOKEN_SIZE) {
+				return null;
+			}
+		}
+		return "\"" + phrase + "\"";
+	}
 	
 }
@@ -0,0 +1,87 @@
+package com.example.expenses.dto.request;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import com.example.expenses.domain.Expense;
+import com.example.expenses.exception.BusinessException;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * キーセットページング用の継続トークン
+ * ソートキーの値とidを保持し、クライアントには不透明な文字列として渡す
+ */
+@Getter
+@AllArgsConstructor
+public class ExpenseSearchCursor {
+
+	private static final String SEPARATOR = "|";
+
+	private final String orderBy;
+	private final String direction;
+	/** ソート列の値（submitted_atは未提出の場合null） */
+	private final Object sortValue;
+	private final Long id;
+
+	/**
+	 * ページ最後の経費から次ページのカーソルを作成
+	 */
+	public static ExpenseSearchCursor of(Expense last, String orderBy, String direction) {
+		Object value = switch(orderBy) {
+		case "updated_at" -> last.getUpdatedAt();
+		case "submitted_at" -> last.getSubmittedAt();
+		case "amount" -> last.getAmount();
+		case "id" -> last.getId();
+		default -> last.getCreatedAt();
+		};
+		return new ExpenseSearchCursor(orderBy, direction, value, last.getId());
+	}
+
+	/**
+	 * トークン文字列へ変換
+	 */
+	public String encode() {
+		String value = sortValue == null ? ""
+				: sortValue instanceof BigDecimal d ? d.toPlainString() : sortValue.toString();
+		String raw = String.join(SEPARATOR, orderBy, direction, value, String.valueOf(id));
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * トークン文字列を復元
+	 * @param token クライアントから受け取ったトークン
+	 * @param orderBy 現在のリクエストのソート列
+	 * @param direction 現在のリクエストのソート方向
+	 * @throws BusinessException トークンが不正、またはソート条件が一致しない場合
+	 */
+	public static ExpenseSearchCursor decode(String token, String orderBy, String direction) {
+		try {
+			String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+			String[] parts = raw.split("\\" + SEPARATOR, -1);
+
+			if(parts.length != 4 || !parts[0].equals(orderBy) || !parts[1].equals(direction)) {
+				throw new BusinessException("INVALID_CURSOR", "ページングカーソルが検索条件と一致しません");
+			}
+
+			Object value = parts[2].isEmpty() ? null : switch(orderBy) {
+			case "amount" -> new BigDecimal(parts[2]);
+			case "id" -> Long.valueOf(parts[2]);
+			default -> LocalDateTime.parse(parts[2]);
+			};
+
+			if(value == null && !"submitted_at".equals(orderBy)) {
+				throw new BusinessException("INVALID_CURSOR", "ページングカーソルが不正です");
+			}
+
+			return new ExpenseSearchCursor(orderBy, direction, value, Long.valueOf(parts[3]));
+
+		}catch(IllegalArgumentException | DateTimeParseException e) {
+			throw new BusinessException("INVALID_CURSOR", "ページングカーソルが不正です", e);
+		}
+	}
+}
@@ -0,0 +1,26 @@
+package com.example.expenses.dto.response;
+
+import java.util.List;
+
+import com.example.expenses.service.ExpenseTransitionEngine.Outcome;
+
+/**
+ * 一括承認・一括却下の結果
+ * @param applied 遷移した件数
+ * @param results リクエストの順の経費ごとの結果
+ */
+public record BulkTransitionResponse(
+		int applied,
+		List<Item> results) {
+
+	/**
+	 * @param id 経費ID
+	 * @param result 結果（APPLIED / NOT_FOUND / INVALID_STATE / VERSION_CONFLICT）
+	 * @param version 処理後のバージョン（存在しない場合はnull）
+	 */
+	public record Item(
+			Long id,
+			Outcome result,
+			Integer version) {
+	}
+}
@@ -0,0 +1,11 @@
+package com.example.expenses.dto.response;
+
+import java.util.List;
+
+public record CursorPageResponse<T>(
+		List<T> items,
+		int pageSize,
+		String nextCursor,
+		boolean hasNext) {
+
+}
@@ -0,0 +1,21 @@
+package com.example.expenses.dto.response;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import com.example.expenses.domain.ExpenseStatus;
+import com.example.expenses.dto.ExpenseDailySpend;
+
+public record DailySpendResponse(
+		LocalDate day,
+		ExpenseStatus status,
+		int count,
+		BigDecimal amount) {
+
+	public static List<DailySpendResponse> fromList(List<ExpenseDailySpend> rows) {
+		return rows.stream()
+				.map(row -> new DailySpendResponse(row.getSpendDay(), row.getStatus(), row.getCount(), row.getAmount()))
+				.toList();
+	}
+}
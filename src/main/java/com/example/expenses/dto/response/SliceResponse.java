@@ -0,0 +1,11 @@
+package com.example.expenses.dto.response;
+
+import java.util.List;
+
+public record SliceResponse<T>(
+		List<T> items,
+		int currentPage,
+		int pageSize,
+		boolean hasNext) {
+
+}
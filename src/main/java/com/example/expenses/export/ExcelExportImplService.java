@@ -1,8 +1,8 @@
 package com.example.expenses.export;
 
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
@@ -18,14 +18,14 @@ import org.apache.poi.ss.usermodel.IndexedColors;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.example.expenses.domain.Expense;
 import com.example.expenses.repository.ExpenseMapper;
-import com.example.expenses.service.AuthenticationContext;
 
 import lombok.RequiredArgsConstructor;
 
@@ -34,20 +34,42 @@ import lombok.RequiredArgsConstructor;
 public class ExcelExportImplService {
 
 	private final Logger logger = LoggerFactory.getLogger(ExcelExportImplService.class);
+	/** 列幅（文字数）：No、title、金額、ステータス、作成日時、更新日時、通貨 */
+	private static final int[] COLUMN_WIDTHS = {10, 40, 14, 14, 18, 18, 8};
+	
 	private final ExpenseMapper expenseMapper;
-	private final AuthenticationContext authenticationContext;
 	
-	public byte[] exportExcelData() {
+	@Value("${app.excel.row-access-window:100}")
+	private int rowAccessWindow;
+	
+	/**
+	 * ログイン中ユーザーの経費一覧をExcelで出力
+	 * -経費はリストに保持せず、DBから取得した行から順にシートへ書き込む
+	 * -直近 rowAccessWindow 行だけをメモリに保持し、ブックはoutputStreamへ直接書き込む
+	 * @param applicantId 出力する申請者ID
+	 * @param outputStream 出力先（クローズしない）
+	 */
+	public void exportExcelData(Long applicantId, OutputStream outputStream) throws IOException {
 
-		//ログイン中ユーザーのデータ生成
-		Long userId = authenticationContext.getCurrentUserId();
-		
-		List<Expense> expenses = expenseMapper.findByUserId(userId);
 		logger.info("Excelのエクスポート処理を開始");
 		
-		Workbook workbook = new XSSFWorkbook();
-		String applicantId = expenses.get(0).getApplicantId().toString();
+		SXSSFWorkbook workbook = new SXSSFWorkbook(rowAccessWindow);
+		try {
+			writeSheet(workbook, applicantId);
+			workbook.write(outputStream);
+		} finally {
+			// 一時ファイルを削除
+			workbook.dispose();
+			workbook.close();
+		}
+	}
+	
+	private void writeSheet(Workbook workbook, Long applicantId) {
+		
 		Sheet sheet = workbook.createSheet("applicantId=" + applicantId);
+		for(int i = 0; i < COLUMN_WIDTHS.length; i++) {
+			sheet.setColumnWidth(i, COLUMN_WIDTHS[i] * 256);
+		}
 		CellStyle line = workbook.createCellStyle();
 		line.setBorderBottom(BorderStyle.THIN);
 		line.setBorderTop(BorderStyle.THIN);
@@ -89,7 +111,6 @@ public class ExcelExportImplService {
 		
 		
 		int startRow = 3;
-		int rowCnt = startRow;
 		// CurrencyStyle
 		DataFormat format = workbook.createDataFormat();
 		CellStyle currencyStyle = workbook.createCellStyle();
@@ -98,58 +119,53 @@ public class ExcelExportImplService {
 		//DateFormatter
 		DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy/MM/dd HH:mm");
 		
+		
 		// Data
-		for(Expense expense : expenses) {
-			Row dataRow = sheet.createRow(rowCnt++);
-			format.getFormat("#,##0");
-				Cell idCell = dataRow.createCell(0);
-				idCell.setCellValue(expense.getId());
-				idCell.setCellStyle(line);
-				
-				Cell titleCell = dataRow.createCell(1);
-				titleCell.setCellValue(expense.getTitle());
-				titleCell.setCellStyle(line);
-				
-				Cell amountCell = dataRow.createCell(2);
-				amountCell.setCellValue(expense.getAmount().doubleValue());
-				amountCell.setCellStyle(currencyStyle);
-				amountCell.setCellStyle(line);
-				
-				Cell statusCell = dataRow.createCell(3);
-				statusCell.setCellValue(expense.getStatus().toString());
-				statusCell.setCellStyle(line);
-				
-				Cell createdAtCell = dataRow.createCell(4);
-				createdAtCell.setCellValue(expense.getCreatedAt().format(DATE_TIME_FORMAT));
-				createdAtCell.setCellStyle(line);
-				
-				Cell updatedAtCell = dataRow.createCell(5);
-				updatedAtCell.setCellValue(expense.getUpdatedAt().format(DATE_TIME_FORMAT));
-				updatedAtCell.setCellStyle(line);
-				
-				Cell currencyCell = dataRow.createCell(6);
-				currencyCell.setCellValue(expense.getCurrency());
-				currencyCell.setCellStyle(line);
-		}
-		// 合計行
-		BigDecimal sum = expenses.stream().map(e -> e.getAmount()).reduce(BigDecimal.ZERO,BigDecimal::add);
-		Row totalRow = sheet.createRow(startRow + expenses.size() - 1);
+		int[] rowCnt = {startRow};
+		BigDecimal[] sum = {BigDecimal.ZERO};
+		expenseMapper.streamByUserId(applicantId, context -> {
+			Expense expense = context.getResultObject();
+			Row dataRow = sheet.createRow(rowCnt[0]++);
+			Cell idCell = dataRow.createCell(0);
+			idCell.setCellValue(expense.getId());
+			idCell.setCellStyle(line);
+			
+			Cell titleCell = dataRow.createCell(1);
+			titleCell.setCellValue(expense.getTitle());
+			titleCell.setCellStyle(line);
+			
+			Cell amountCell = dataRow.createCell(2);
+			amountCell.setCellValue(expense.getAmount().doubleValue());
+			amountCell.setCellStyle(currencyStyle);
+			amountCell.setCellStyle(line);
+			
+			Cell statusCell = dataRow.createCell(3);
+			statusCell.setCellValue(expense.getStatus().toString());
+			statusCell.setCellStyle(line);
+			
+			Cell createdAtCell = dataRow.createCell(4);
+			createdAtCell.setCellValue(expense.getCreatedAt().format(DATE_TIME_FORMAT));
+			createdAtCell.setCellStyle(line);
+			
+			Cell updatedAtCell = dataRow.createCell(5);
+			updatedAtCell.setCellValue(expense.getUpdatedAt().format(DATE_TIME_FORMAT));
+			updatedAtCell.setCellStyle(line);
+			
+			Cell currencyCell = dataRow.createCell(6);
+			currencyCell.setCellValue(expense.getCurrency());
+			currencyCell.setCellStyle(line);
+			
+			sum[0] = sum[0].add(expense.getAmount());
+		});
+		// 合計行（データ行の次の行）
+		Row totalRow = sheet.createRow(rowCnt[0]);
 		//
 		Cell total = totalRow.createCell(1);
 		total.setCellValue("合計");
 		//
 		Cell totalCell = totalRow.createCell(2);
-		totalCell.setCellValue(sum.doubleValue());
+		totalCell.setCellValue(sum[0].doubleValue());
 		totalCell.setCellStyle(currencyStyle);
-		
-		ByteArrayOutputStream excelData = new ByteArrayOutputStream();
-		try {
-			workbook.write(excelData);
-		} catch (IOException e) {
-			
-			logger.error("error 発生", e);
-		}
-		return  excelData.toByteArray();
 	}
 	
 	
@@ -1,10 +1,12 @@
 package com.example.expenses.export;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.apache.poi.ss.usermodel.BorderStyle;
 import org.apache.poi.ss.usermodel.Cell;
@@ -18,8 +20,8 @@ import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.VerticalAlignment;
 import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
-import org.apache.tomcat.util.http.fileupload.ByteArrayOutputStream;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.example.expenses.domain.Expense;
@@ -31,41 +33,66 @@ public class ExcelExportService {
 
 	private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
 	
+	/** 列幅（文字数）：空き、No、申請者ID、タイトル、金額、通貨、ステータス、提出日時、作成日時 */
+	private static final int[] COLUMN_WIDTHS = {0, 8, 12, 40, 14, 8, 14, 18, 18};
 	
-	public byte[] exportExpenseList(List<Expense> expenses) throws IOException {
+	@Value("${app.excel.row-access-window:100}")
+	private int rowAccessWindow;
+	
+	/**
+	 * 経費一覧をExcelで出力
+	 * -直近 rowAccessWindow 行だけをメモリに保持し、ブックはoutputStreamへ直接書き込む
+	 * @param outputStream 出力先（クローズしない）
+	 */
+	public void exportExpenseList(List<Expense> expenses, OutputStream outputStream) throws IOException {
+		exportExpenseList(expenses::forEach, outputStream);
+	}
+	
+	/**
+	 * 経費一覧をExcelで出力（経費はリストに保持せず、渡された順にシートへ書き込む）
+	 * @param source 経費を1件ずつ渡す処理（DBのResultHandlerなど）
+	 * @param outputStream 出力先（クローズしない）
+	 * @return 出力した件数
+	 */
+	public int exportExpenseList(Consumer<Consumer<Expense>> source, OutputStream outputStream) throws IOException {
 		
-		try (Workbook workbook = new XSSFWorkbook()) {
-			Sheet sheet = workbook.createSheet("経費一覧");
-			
-			// スタイルの作成
-			CellStyle headerStyle = createHeaderStyle(workbook);
-			CellStyle dataStyle = createDataStyle(workbook);
-			CellStyle currencyStyle = createCurrencyStyle(workbook);
-			CellStyle dateStyle  = createDateStyle(workbook);
-			
-			// タイトル行
-			createTitleRow(sheet, workbook);
-			
-			// ヘッダー行
-			createHeaderRow(sheet, headerStyle);
-			
-			// データ行
-			int rowNum = 3; // タイトル行(0)、空行(1)、ヘッダー行(2)の次
-			for(Expense expense : expenses) {
-				createDataRow(sheet, expense, rowNum++, dataStyle, currencyStyle, dateStyle);
+		try (SXSSFWorkbook workbook = new SXSSFWorkbook(rowAccessWindow)) {
+			try {
+				Sheet sheet = workbook.createSheet("経費一覧");
+				
+				// スタイルの作成
+				CellStyle headerStyle = createHeaderStyle(workbook);
+				CellStyle dataStyle = createDataStyle(workbook);
+				CellStyle currencyStyle = createCurrencyStyle(workbook);
+				CellStyle dateStyle  = createDateStyle(workbook);
+				
+				// 列幅（autoSizeColumnは全セルを測り直すため、固定幅を設定）
+				setColumnWidths(sheet);
+				
+				// タイトル行
+				createTitleRow(sheet, workbook);
+				
+				// ヘッダー行
+				createHeaderRow(sheet, headerStyle);
+				
+				// データ行
+				int[] rowNum = {3}; // タイトル行(0)、空行(1)、ヘッダー行(2)の次
+				BigDecimal[] totalAmount = {BigDecimal.ZERO};
+				source.accept(expense -> {
+					createDataRow(sheet, expense, rowNum[0]++, dataStyle, currencyStyle, dateStyle);
+					totalAmount[0] = totalAmount[0].add(expense.getAmount());
+				});
+				int count = rowNum[0] - 3;
+				
+				// 合計行
+				createTotalRow(sheet, count, totalAmount[0], rowNum[0], headerStyle, currencyStyle);
+				
+				workbook.write(outputStream);
+				return count;
+			} finally {
+				// 一時ファイルを削除
+				workbook.dispose();
 			}
-			
-			// 合計行
-			createTotalRow(sheet, expenses, rowNum, headerStyle, currencyStyle);
-			
-			
-			// 列幅の自動調整
-			autoSizeColumns(sheet, 9);
-			
-			// ByteArrayOutputStreamに書き込み
-			ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-			workbook.write(outputStream);
-			return outputStream.toByteArray();
 		}
 	}
 	
@@ -158,7 +185,7 @@ public class ExcelExportService {
 	/**
 	 * 合計行を作成
 	 */
-	private void createTotalRow(Sheet sheet, List<Expense> expenses, int rowNum, CellStyle headerStyle, CellStyle currencyStyle) {
+	private void createTotalRow(Sheet sheet, int count, BigDecimal totalAmount, int rowNum, CellStyle headerStyle, CellStyle currencyStyle) {
 		
 		Row totalRow = sheet.createRow(rowNum);
 		
@@ -169,14 +196,10 @@ public class ExcelExportService {
 		
 		// 件数
 		Cell  countCell = totalRow.createCell(2);
-		countCell.setCellValue("件数: " + expenses.size());
+		countCell.setCellValue("件数: " + count);
 		countCell.setCellStyle(headerStyle);
 		
 		// 合計金額
-		BigDecimal totalAmount = expenses.stream()
-				.map(Expense::getAmount)
-				.reduce(BigDecimal.ZERO, BigDecimal::add);
-		
 		Cell totalAmountCell = totalRow.createCell(4);
 		totalAmountCell.setCellValue(totalAmount.doubleValue());
 		totalAmountCell.setCellStyle(currencyStyle);
@@ -254,15 +277,11 @@ public class ExcelExportService {
 	}
 	
 	/**
-	 * 列幅を自動調整
+	 * 列幅を設定
 	 */
-	private void autoSizeColumns(Sheet sheet, int columnCount) {
-		for(int i = 1; i < columnCount; i++) {
-			sheet.autoSizeColumn(i);
-			// 少し余裕をもたせる
-			sheet.setColumnWidth(i, sheet.getColumnWidth(i) + 512);
+	private void setColumnWidths(Sheet sheet) {
+		for(int i = 1; i < COLUMN_WIDTHS.length; i++) {
+			sheet.setColumnWidth(i, COLUMN_WIDTHS[i] * 256);
 		}
-			
-		
 	}
 }
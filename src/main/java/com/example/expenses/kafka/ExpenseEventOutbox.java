@@ -0,0 +1,40 @@
+package com.example.expenses.kafka;
+
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.expenses.dto.ExpenseOutboxEvent;
+import com.example.expenses.repository.ExpenseEventOutboxMapper;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 経費イベントのアウトボックス
+ * -呼び出し元のトランザクション内でアウトボックステーブルに登録するだけで、Kafkaには送信しない
+ * -送信はコミット後に ExpenseOutboxRelay が行うため、ロールバックされたイベントは送信されない
+ */
+@Component
+@RequiredArgsConstructor
+public class ExpenseEventOutbox {
+
+	private final ExpenseEventOutboxMapper outboxMapper;
+
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void append(ExpenseEventMessage message) {
+		outboxMapper.insert(ExpenseOutboxEvent.from(message));
+	}
+
+	/**
+	 * 複数のイベントを1回のINSERTで登録（リストの順に送信される）
+	 */
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void appendAll(List<ExpenseEventMessage> messages) {
+		if(messages.isEmpty()) {
+			return;
+		}
+		outboxMapper.insertAll(messages.stream().map(ExpenseOutboxEvent::from).toList());
+	}
+}
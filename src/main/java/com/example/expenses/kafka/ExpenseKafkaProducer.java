@@ -1,7 +1,10 @@
 package com.example.expenses.kafka;
 
 
+import java.util.concurrent.CompletableFuture;
+
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
 
 import lombok.RequiredArgsConstructor;
@@ -15,9 +18,7 @@ public class ExpenseKafkaProducer {
 	private final KafkaTemplate<String, ExpenseEventMessage> kafkaTemplate;
 	
 	public void publish(ExpenseEventMessage message) {
-		// key expenseId
-		String key = String.valueOf(message.getExpenseId());
-		kafkaTemplate.send(ExpenseTopics.EXPENSE_EVENT, key, message)
+		send(message)
 		.whenComplete((result, ex) -> {
 			if(ex != null) {
 				log.error("Kafka publish failed expenseId={}",
@@ -30,4 +31,13 @@ public class ExpenseKafkaProducer {
 			}
 		});
 	}
+
+	/**
+	 * 送信結果を呼び出し元で確認する場合に使用（アウトボックスのリレーなど）
+	 */
+	public CompletableFuture<SendResult<String, ExpenseEventMessage>> send(ExpenseEventMessage message) {
+		// key expenseId（同じ経費のイベントは同じパーティションに入り順序が保たれる）
+		String key = String.valueOf(message.getExpenseId());
+		return kafkaTemplate.send(ExpenseTopics.EXPENSE_EVENT, key, message);
+	}
 }
@@ -0,0 +1,174 @@
+package com.example.expenses.kafka;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.expenses.dto.ExpenseOutboxEvent;
+import com.example.expenses.repository.ExpenseEventOutboxMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * アウトボックスのイベントを expense-events トピックへ送信するリレー
+ * -未送信のイベントを id 順にバッチで取得（行ロック）し、まとめて送信してから送信済みにする
+ * -途中で送信に失敗した場合は、失敗したイベント以降を未送信のまま残し次回に再送する（at-least-once）
+ * -キーはexpenseIdのため、同じ経費のイベントは登録順にパーティションへ書き込まれる
+ * -複数ノードで動いても行ロックにより同じイベントを同時に送信しない
+ */
+@Component
+@Slf4j
+public class ExpenseOutboxRelay {
+
+	private final ExpenseEventOutboxMapper outboxMapper;
+	private final ExpenseKafkaProducer producer;
+	private final TransactionTemplate transactionTemplate;
+
+	private final int batchSize;
+	private final long sendTimeoutMillis;
+	private final Duration retention;
+
+	//メトリクス（未送信件数・最古の未送信イベントの経過時間）
+	private final AtomicLong pending = new AtomicLong();
+	private final AtomicLong lagMillis = new AtomicLong();
+	private final Counter publishedCounter;
+	private final Counter failedCounter;
+	private final Timer batchTimer;
+
+	public ExpenseOutboxRelay(
+			ExpenseEventOutboxMapper outboxMapper,
+			ExpenseKafkaProducer producer,
+			PlatformTransactionManager transactionManager,
+			MeterRegistry meterRegistry,
+			@Value("${app.outbox.batch-size:100}") int batchSize,
+			@Value("${app.outbox.send-timeout:10s}") Duration sendTimeout,
+			@Value("${app.outbox.retention:7d}") Duration retention) {
+
+		this.outboxMapper = outboxMapper;
+		this.producer = producer;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.batchSize = batchSize;
+		this.sendTimeoutMillis = sendTimeout.toMillis();
+		this.retention = retention;
+
+		Gauge.builder("expense.outbox.pending", pending, AtomicLong::get)
+			.description("未送信のアウトボックスイベント数")
+			.register(meterRegistry);
+		Gauge.builder("expense.outbox.lag", lagMillis, v -> v.get() / 1000.0)
+			.description("最も古い未送信イベントの経過時間")
+			.baseUnit("seconds")
+			.register(meterRegistry);
+		this.publishedCounter = Counter.builder("expense.outbox.published")
+			.description("送信済みにしたイベント数")
+			.register(meterRegistry);
+		this.failedCounter = Counter.builder("expense.outbox.failed")
+			.description("送信に失敗したバッチ数")
+			.register(meterRegistry);
+		this.batchTimer = Timer.builder("expense.outbox.batch")
+			.description("1バッチの取得から送信済み更新までの時間")
+			.register(meterRegistry);
+	}
+
+	/**
+	 * 未送信がなくなるか送信に失敗するまでバッチ送信を繰り返す
+	 */
+	@Scheduled(fixedDelayString = "${app.outbox.relay-interval-ms:500}")
+	public void relay() {
+		try {
+			int published;
+			do {
+				Integer result = batchTimer.record(() -> transactionTemplate.execute(status -> relayBatch()));
+				published = result == null ? 0 : result;
+			} while(published == batchSize);
+		}catch(RuntimeException e) {
+			log.error("Outbox relay failed", e);
+		}finally {
+			refreshBacklog();
+		}
+	}
+
+	/**
+	 * 1バッチ分を送信する
+	 * @return 送信済みにした件数（失敗した場合はbatchSize未満）
+	 */
+	int relayBatch() {
+
+		List<ExpenseOutboxEvent> events = outboxMapper.lockUnpublished(batchSize);
+		if(events.isEmpty()) {
+			return 0;
+		}
+
+		//先にすべて送信してプロデューサー側でまとめて送らせ、その後で結果を待つ
+		List<CompletableFuture<?>> futures = new ArrayList<>(events.size());
+		try {
+			for(ExpenseOutboxEvent event : events) {
+				futures.add(producer.send(event.toMessage()));
+			}
+		}catch(RuntimeException e) {
+			log.warn("Outbox send failed outboxId={}", events.get(futures.size()).getId(), e);
+		}
+
+		//id順に確認し、最初の失敗より前のイベントだけを送信済みにする
+		List<Long> publishedIds = new ArrayList<>(futures.size());
+		for(int i = 0; i < futures.size(); i++) {
+			ExpenseOutboxEvent event = events.get(i);
+			try {
+				futures.get(i).get(sendTimeoutMillis, TimeUnit.MILLISECONDS);
+				publishedIds.add(event.getId());
+			}catch(InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			}catch(ExecutionException | TimeoutException e) {
+				log.warn("Outbox send failed outboxId={}, expenseId={}", event.getId(), event.getExpenseId(), e);
+				break;
+			}
+		}
+
+		if(publishedIds.size() < events.size()) {
+			failedCounter.increment();
+		}
+		if(!publishedIds.isEmpty()) {
+			outboxMapper.markPublished(publishedIds);
+			publishedCounter.increment(publishedIds.size());
+		}
+		return publishedIds.size();
+	}
+
+	/**
+	 * 保持期間を過ぎた送信済みイベントを削除
+	 */
+	@Scheduled(fixedDelayString = "${app.outbox.cleanup-interval-ms:3600000}")
+	public void purgePublished() {
+		LocalDateTime before = LocalDateTime.now().minus(retention);
+		int deleted;
+		do {
+			deleted = outboxMapper.deletePublishedBefore(before, 1000);
+		} while(deleted == 1000);
+	}
+
+	private void refreshBacklog() {
+		try {
+			pending.set(outboxMapper.countUnpublished());
+			Long age = outboxMapper.findOldestUnpublishedAgeMillis();
+			lagMillis.set(age == null ? 0 : age);
+		}catch(RuntimeException e) {
+			log.warn("Outbox backlog check failed", e);
+		}
+	}
+}
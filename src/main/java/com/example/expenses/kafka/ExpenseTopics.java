@@ -4,6 +4,9 @@ public final class ExpenseTopics {
 
 	public static final String EXPENSE_EVENT = "expense-events";
 	
+	/** リモートパーティショニングのパーティション実行依頼（全ノードが同じコンシューマーグループで受信する） */
+	public static final String BATCH_PARTITION_REQUEST = "batch-partition-requests";
+	
 	private ExpenseTopics() {
 
 	}
@@ -0,0 +1,19 @@
+package com.example.expenses.kafka;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * リモートパーティショニングでマネージャーのステップからワーカーへ送るパーティションの実行依頼
+ * -パーティションの内容（ExecutionContext）はジョブリポジトリに保存済みのため、IDだけを送る
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PartitionRequestMessage {
+
+	private Long jobExecutionId;
+	private Long stepExecutionId;
+	private String stepName;
+}
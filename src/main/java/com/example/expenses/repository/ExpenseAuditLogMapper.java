@@ -5,6 +5,7 @@ import java.util.List;
 import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 
 import com.example.expenses.dto.ExpenseAuditLog;
@@ -21,6 +22,21 @@ public interface ExpenseAuditLogMapper {
 	@Options(useGeneratedKeys = true, keyProperty="id")
 	void insert(ExpenseAuditLog log);
 	
+	/**
+	 * 監査ログを1回のINSERTでまとめて登録
+	 */
+	@Insert("""
+			<script>
+			INSERT INTO expense_audit_logs
+				(expense_id, actor_id, action, before_status, after_status, note, trace_id)
+				VALUES
+				<foreach collection="logs" item="log" separator=",">
+				(#{log.expenseId}, #{log.actorId}, #{log.action}, #{log.beforeStatus}, #{log.afterStatus}, #{log.note}, #{log.traceId})
+				</foreach>
+			</script>
+			""")
+	int insertAll(@Param("logs") List<ExpenseAuditLog> logs);
+	
 	@Select("""
 			SELECT  id, expense_id, actor_id, action, 
 				    before_status, after_status,
@@ -0,0 +1,154 @@
+package com.example.expenses.repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.ResultType;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.session.ResultHandler;
+
+import com.example.expenses.domain.ExpenseTransition;
+import com.example.expenses.dto.ExpenseDailySpend;
+import com.example.expenses.dto.batch.ExpenseGroupTotal;
+import com.example.expenses.dto.batch.ExpenseStatusTotal;
+
+/**
+ * 日別の経費集計（提出日 × 申請者 × ステータス × カテゴリ）
+ */
+@Mapper
+public interface ExpenseDailyRollupMapper {
+
+	/**
+	 * 状態遷移した経費を集計に反映（遷移後のステータスに加算し、遷移前のステータスから減算する）
+	 * -経費のUPDATEと同じトランザクションで、UPDATE後に呼び出すこと
+	 * -提出は遷移前に提出日がない（集計対象外）ため加算のみ
+	 * @param ids 遷移した経費のID
+	 */
+	@Insert("""
+			<script>
+			INSERT INTO expense_daily_rollup
+				(spend_day, applicant_id, status, category_id, expense_count, total_amount)
+			SELECT delta.spend_day, delta.applicant_id, delta.status, delta.category_id, delta.delta_count, delta.delta_amount
+			FROM (
+				SELECT DATE(submitted_at) AS spend_day, applicant_id, #{transition.to} AS status,
+					COALESCE(category_id, 0) AS category_id, COUNT(*) AS delta_count, SUM(amount) AS delta_amount
+				FROM expenses
+				WHERE status = #{transition.to}
+					AND id IN
+					<foreach collection="ids" item="id" open="(" separator="," close=")">#{id}</foreach>
+				GROUP BY DATE(submitted_at), applicant_id, COALESCE(category_id, 0)
+				<if test="!transition.stampsSubmittedAt">
+				UNION ALL
+				SELECT DATE(submitted_at), applicant_id, #{transition.from},
+					COALESCE(category_id, 0), -COUNT(*), -SUM(amount)
+				FROM expenses
+				WHERE status = #{transition.to}
+					AND id IN
+					<foreach collection="ids" item="id" open="(" separator="," close=")">#{id}</foreach>
+				GROUP BY DATE(submitted_at), applicant_id, COALESCE(category_id, 0)
+				</if>
+			) AS delta
+			ON DUPLICATE KEY UPDATE
+				expense_count = expense_count + delta.delta_count,
+				total_amount = total_amount + delta.delta_amount
+			</script>
+			""")
+	int applyTransition(@Param("transition") ExpenseTransition transition, @Param("ids") Collection<Long> ids);
+
+	@Delete("DELETE FROM expense_daily_rollup")
+	int deleteAll();
+
+	/**
+	 * 経費テーブルから集計を作り直す（deleteAll と同じトランザクションで呼び出すこと）
+	 * @return 登録した行数
+	 */
+	@Insert("""
+			INSERT INTO expense_daily_rollup
+				(spend_day, applicant_id, status, category_id, expense_count, total_amount)
+			SELECT DATE(submitted_at), applicant_id, status, COALESCE(category_id, 0), COUNT(*), SUM(amount)
+			FROM expenses
+			WHERE submitted_at IS NOT NULL
+			GROUP BY DATE(submitted_at), applicant_id, status, COALESCE(category_id, 0)
+			""")
+	int rebuild();
+
+	/**
+	 * 期間内に提出された経費のステータスごとの件数・金額の合計
+	 * @param from 提出日の開始（以上）
+	 * @param to 提出日の終了（以下）
+	 * @return 経費が存在するステータスのみ
+	 */
+	@Select("""
+			SELECT status, SUM(expense_count) AS count, SUM(total_amount) AS amount
+			FROM expense_daily_rollup
+			WHERE spend_day BETWEEN #{from} AND #{to}
+			GROUP BY status
+			HAVING SUM(expense_count) > 0
+			""")
+	List<ExpenseStatusTotal> sumByStatus(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+	/**
+	 * 期間内の日別・ステータス別の件数・金額
+	 * @param applicantId 申請者ID（nullの場合は全申請者）
+	 */
+	@Select("""
+			<script>
+			SELECT spend_day, status, SUM(expense_count) AS count, SUM(total_amount) AS amount
+			FROM expense_daily_rollup
+			WHERE spend_day BETWEEN #{from} AND #{to}
+				<if test="applicantId != null">
+				AND applicant_id = #{applicantId}
+				</if>
+			GROUP BY spend_day, status
+			HAVING SUM(expense_count) > 0
+			ORDER BY spend_day, status
+			</script>
+			""")
+	List<ExpenseDailySpend> sumByDay(@Param("from") LocalDate from, @Param("to") LocalDate to,
+			@Param("applicantId") Long applicantId);
+
+	/**
+	 * 期間内の申請者別・ステータス別の件数・金額（申請者IDの順）
+	 * -結果をリストに保持せず、1行ずつhandlerに渡す（MySQLのストリーミング取得）
+	 */
+	@Select("""
+			SELECT r.applicant_id AS group_id, u.email AS group_name, r.status,
+				SUM(r.expense_count) AS count, SUM(r.total_amount) AS amount
+			FROM expense_daily_rollup r
+			LEFT JOIN users u ON u.id = r.applicant_id
+			WHERE r.spend_day BETWEEN #{from} AND #{to}
+			GROUP BY r.applicant_id, u.email, r.status
+			HAVING SUM(r.expense_count) > 0
+			ORDER BY r.applicant_id, r.status
+			""")
+	@Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+	@ResultType(ExpenseGroupTotal.class)
+	void streamByApplicant(@Param("from") LocalDate from, @Param("to") LocalDate to,
+			ResultHandler<ExpenseGroupTotal> handler);
+
+	/**
+	 * 期間内のカテゴリ別・ステータス別の件数・金額（カテゴリIDの順、カテゴリ未設定はID 0・名称null）
+	 * -結果をリストに保持せず、1行ずつhandlerに渡す（MySQLのストリーミング取得）
+	 */
+	@Select("""
+			SELECT r.category_id AS group_id, c.name AS group_name, r.status,
+				SUM(r.expense_count) AS count, SUM(r.total_amount) AS amount
+			FROM expense_daily_rollup r
+			LEFT JOIN categories c ON c.id = r.category_id
+			WHERE r.spend_day BETWEEN #{from} AND #{to}
+			GROUP BY r.category_id, c.name, r.status
+			HAVING SUM(r.expense_count) > 0
+			ORDER BY r.category_id, r.status
+			""")
+	@Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+	@ResultType(ExpenseGroupTotal.class)
+	void streamByCategory(@Param("from") LocalDate from, @Param("to") LocalDate to,
+			ResultHandler<ExpenseGroupTotal> handler);
+}
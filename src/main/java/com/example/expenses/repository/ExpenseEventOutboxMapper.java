@@ -0,0 +1,89 @@
+package com.example.expenses.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import com.example.expenses.dto.ExpenseOutboxEvent;
+
+@Mapper
+public interface ExpenseEventOutboxMapper {
+
+	@Insert("""
+			INSERT INTO expense_event_outbox
+				(event_type, expense_id, actor_id, applicant_id, reason, trace_id)
+				VALUES
+				(#{eventType}, #{expenseId}, #{actorId}, #{applicantId}, #{reason}, #{traceId})
+			""")
+	@Options(useGeneratedKeys = true, keyProperty = "id")
+	void insert(ExpenseOutboxEvent event);
+
+	@Insert("""
+			<script>
+			INSERT INTO expense_event_outbox
+				(event_type, expense_id, actor_id, applicant_id, reason, trace_id)
+				VALUES
+				<foreach collection="events" item="e" separator=",">
+				(#{e.eventType}, #{e.expenseId}, #{e.actorId}, #{e.applicantId}, #{e.reason}, #{e.traceId})
+				</foreach>
+			</script>
+			""")
+	int insertAll(@Param("events") List<ExpenseOutboxEvent> events);
+
+	/**
+	 * 未送信のイベントを id 順に取得し行ロックする
+	 * 複数ノードのリレーが同じ行を同時に送信しないよう、ロックはトランザクション終了まで保持される
+	 */
+	@Select("""
+			SELECT id, event_type, expense_id, actor_id, applicant_id,
+				   reason, trace_id, created_at
+			FROM expense_event_outbox
+			WHERE published_at IS NULL
+			ORDER BY id ASC
+			LIMIT #{limit}
+			FOR UPDATE
+			""")
+	List<ExpenseOutboxEvent> lockUnpublished(int limit);
+
+	@Update("""
+			<script>
+			UPDATE expense_event_outbox
+			SET published_at = CURRENT_TIMESTAMP(3)
+			WHERE id IN
+			<foreach collection="ids" item="id" open="(" separator="," close=")">
+				#{id}
+			</foreach>
+			</script>
+			""")
+	int markPublished(@Param("ids") List<Long> ids);
+
+	@Select("SELECT COUNT(*) FROM expense_event_outbox WHERE published_at IS NULL")
+	long countUnpublished();
+
+	/**
+	 * 最も古い未送信イベントの経過時間（ミリ秒）
+	 * アプリとDBのタイムゾーン差の影響を受けないようDB側で計算する
+	 */
+	@Select("""
+			SELECT TIMESTAMPDIFF(MICROSECOND, created_at, CURRENT_TIMESTAMP(3)) DIV 1000
+			FROM expense_event_outbox
+			WHERE published_at IS NULL
+			ORDER BY id ASC
+			LIMIT 1
+			""")
+	Long findOldestUnpublishedAgeMillis();
+
+	@Delete("""
+			DELETE FROM expense_event_outbox
+			WHERE published_at < #{before}
+			LIMIT #{limit}
+			""")
+	int deletePublishedBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
+}
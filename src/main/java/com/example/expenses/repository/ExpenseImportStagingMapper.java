@@ -0,0 +1,45 @@
+package com.example.expenses.repository;
+
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+/**
+ * csvImportJob の一括ロードモード用のステージングテーブル
+ */
+@Mapper
+public interface ExpenseImportStagingMapper {
+
+	/**
+	 * ステージングファイル（タブ区切り：行番号, 申請者ID, タイトル, 金額, 通貨）をステージングテーブルへロード
+	 * 接続に allowLoadLocalInfileInPath、MySQLに local_infile=ON が必要
+	 * @return ロードした件数
+	 */
+	@Insert("""
+			LOAD DATA LOCAL INFILE #{file}
+				INTO TABLE expense_import_staging
+				CHARACTER SET utf8mb4
+				FIELDS TERMINATED BY '\\t' ESCAPED BY '\\\\'
+				LINES TERMINATED BY '\\n'
+				(line_no, applicant_id, title, amount, currency)
+				SET job_execution_id = #{jobExecutionId}
+			""")
+	int load(@Param("file") String file, @Param("jobExecutionId") long jobExecutionId);
+
+	/**
+	 * ステージングテーブルの行をファイルの行順に経費（DRAFT）として登録
+	 * @return 登録した件数
+	 */
+	@Insert("""
+			INSERT INTO expenses (applicant_id, title, amount, currency, status, version)
+			SELECT applicant_id, title, amount, currency, 'DRAFT', 0
+				FROM expense_import_staging
+				WHERE job_execution_id = #{jobExecutionId}
+				ORDER BY line_no
+			""")
+	int mergeIntoExpenses(@Param("jobExecutionId") long jobExecutionId);
+
+	@Delete("DELETE FROM expense_import_staging WHERE job_execution_id = #{jobExecutionId}")
+	int deleteByJobExecutionId(@Param("jobExecutionId") long jobExecutionId);
+}
@@ -2,6 +2,7 @@ package com.example.expenses.repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 import org.apache.ibatis.annotations.Arg;
@@ -10,12 +11,17 @@ import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Options;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.ResultType;
 import org.apache.ibatis.annotations.Select;
-import org.apache.ibatis.annotations.Update;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.session.ResultHandler;
 
 import com.example.expenses.domain.Expense;
 import com.example.expenses.domain.ExpenseStatus;
+import com.example.expenses.domain.ExpenseTransition;
+import com.example.expenses.dto.ExpenseSearchRow;
 import com.example.expenses.dto.request.ExpenseSearchCriteriaEntity;
+import com.example.expenses.dto.request.ExpenseSearchCursor;
 
 @Mapper
 public interface ExpenseMapper {
@@ -34,6 +40,25 @@ public interface ExpenseMapper {
 	@Options(useGeneratedKeys = true, keyProperty = "id")
 	void insert (Expense expense);
 	
+	/**
+	 *  経費の一括登録（複数行INSERT）
+	 *  生成されたIDは各経費のidに設定される
+	 * @param expenses
+	 * @return 登録数
+	 */
+	@Insert("""
+			<script>
+			INSERT INTO expenses
+				(applicant_id, title, amount, currency, status)
+				VALUES
+				<foreach collection="expenses" item="e" separator=",">
+				(#{e.applicantId}, #{e.title}, #{e.amount}, #{e.currency}, #{e.status})
+				</foreach>
+			</script>
+			""")
+	@Options(useGeneratedKeys = true, keyProperty = "expenses.id")
+	int insertAll(@Param("expenses") List<Expense> expenses);
+	
 	
 	/**
 	 *  expenseIdから経費を取得
@@ -60,20 +85,6 @@ public interface ExpenseMapper {
 			""")
 	Expense findById(Long expenseId);
 	
-	/**
-	 *  経費を提出
-	 * @param expenseId
-	 * @return
-	 */
-	@Update("""
-			UPDATE expenses
-			SET status = 'SUBMITTED',
-			    submitted_at = NOW()
-			WHERE id = #{expenseId}
-			    AND status = 'DRAFT'
-			""")
-	int submitDraft(@Param("expenseId")Long expenseId);
-	
 	/**
 	 * 経費を全件取得
 	 */
@@ -104,7 +115,14 @@ public interface ExpenseMapper {
 					AND status = #{criteria.status}
 				</if>
 				<if test="criteria.title != null and criteria.title != ''">
-					AND title LIKE CONCAT("%", #{criteria.title}, "%")
+					<choose>
+						<when test="criteria.titleMatchQuery != null">
+							AND MATCH(title) AGAINST(#{criteria.titleMatchQuery} IN BOOLEAN MODE)
+						</when>
+						<otherwise>
+							AND title LIKE CONCAT("%", #{criteria.title}, "%")
+						</otherwise>
+					</choose>
 				</if>
 				<if test="criteria.amountMin != null">
 					AND amount &gt;= #{criteria.amountMin}
@@ -140,6 +158,38 @@ public interface ExpenseMapper {
 			@Param("size") int size,
 			@Param("offset")int offset );
 	
+	/**
+	 * 条件で経費を取得し、各行に全件数を付与する（ページと件数を1回で取得）
+	 * @param criteria
+	 * @param orderBy
+	 * @param direction
+	 * @param size
+	 * @param offset
+	 * @return
+	 */
+	List<ExpenseSearchRow> searchWithTotal(
+			@Param("criteria") ExpenseSearchCriteriaEntity criteria,
+			@Param("orderBy") String orderBy,
+			@Param("direction") String direction,
+			@Param("size") int size,
+			@Param("offset") int offset);
+	
+	/**
+	 * 条件で経費をキーセットページングで取得
+	 * @param criteria
+	 * @param orderBy
+	 * @param direction
+	 * @param cursor 前ページ最後の行（先頭ページはnull）
+	 * @param size
+	 * @return
+	 */
+	List<Expense> searchByKeyset(
+			@Param("criteria") ExpenseSearchCriteriaEntity criteria,
+			@Param("orderBy") String orderBy,
+			@Param("direction") String direction,
+			@Param("cursor") ExpenseSearchCursor cursor,
+			@Param("size") int size);
+	
 	/**
 	 * 条件から経費の数を取得
 	 * @param criteria
@@ -148,20 +198,40 @@ public interface ExpenseMapper {
 	long count(@Param("criteria")ExpenseSearchCriteriaEntity criteria);
 	
 	/**
-	 *  経費を承認する
-	 * @param id
-	 * @param version
-	 * @return 更新数
+	 * 条件に一致する経費を作成日時順に1件ずつhandlerへ渡す（findAllと同じ条件、結果をリストに保持しない）
+	 * @param criteria
+	 * @param handler
 	 */
-	int approve(@Param("id")long id, @Param("version") int version);
+	void streamAll(@Param("criteria")ExpenseSearchCriteriaEntity criteria, ResultHandler<Expense> handler);
 	
 	/**
-	 * 経費を拒否する
-	 * @param id
-	 * @param version
+	 * 遷移元ステータス（・バージョン・申請者）を条件に状態遷移を実行
+	 * @param transition 遷移の種類（遷移元・遷移先ステータス）
+	 * @param id 経費ID
+	 * @param version バージョン（nullの場合は条件にしない）
+	 * @param applicantId 申請者ID（nullの場合は条件にしない）
+	 * @return 更新数（0:遷移できなかった、1:遷移した）
+	 */
+	int transition(
+			@Param("transition") ExpenseTransition transition,
+			@Param("id") long id,
+			@Param("version") Integer version,
+			@Param("applicantId") Long applicantId);
+	
+	/**
+	 * 経費をid順に行ロックして取得
+	 */
+	List<Expense> lockByIds(@Param("ids") Collection<Long> ids);
+	
+	/**
+	 * 複数の経費を1回のUPDATEで遷移させる
+	 * @param transition 遷移の種類
+	 * @param expenses 遷移元ステータス・バージョンを確認済みの経費
 	 * @return 更新数
 	 */
-	int reject(@Param("id")long id, @Param("version") int version);
+	int transitionAll(
+			@Param("transition") ExpenseTransition transition,
+			@Param("expenses") List<Expense> expenses);
 
 	
 	@ConstructorArgs({
@@ -184,6 +254,32 @@ public interface ExpenseMapper {
 			""")
 	List<Expense> findByUserId(@Param("applicantId")Long applicantId);
 	
+	/**
+	 * 申請者の経費をID順に1行ずつhandlerに渡す（Excel出力用。結果をリストに保持しない）
+	 */
+	@ConstructorArgs({
+		@Arg(column = "id", javaType = Long.class, id = true),
+		@Arg(column = "applicant_id", javaType = Long.class),
+		@Arg(column = "title", javaType = String.class),
+		@Arg(column = "amount", javaType = BigDecimal.class),
+		@Arg(column = "currency", javaType = String.class),
+		@Arg(column = "status", javaType = ExpenseStatus.class),
+		@Arg(column = "submitted_at", javaType = LocalDateTime.class),
+		@Arg(column = "created_at", javaType = LocalDateTime.class),
+		@Arg(column = "updated_at", javaType = LocalDateTime.class),
+		@Arg(column = "version", javaType = Integer.class)
+	})
+	@Select("""
+			SELECT id, applicant_id, title, amount, currency, status,
+			submitted_at, created_at, updated_at, version
+			FROM expenses
+			WHERE applicant_id = #{applicantId}
+			ORDER BY id ASC
+			""")
+	@Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+	@ResultType(Expense.class)
+	void streamByUserId(@Param("applicantId")Long applicantId, ResultHandler<Expense> handler);
+	
 	List<Expense> filter(
 			@Param("criteria")ExpenseSearchCriteriaEntity criteria,
 			@Param("orderBy")String orderBy,
@@ -199,12 +295,40 @@ public interface ExpenseMapper {
 			""")
 	List<Expense> findByPeriod(@Param("start")LocalDateTime start,@Param("end") LocalDateTime end);
 	
-	List<Expense> findAllWithPaging(@Param("maxId") Long maxId);
-	
 	@Select("""
 			SELECT COALESCE(MAX(id), 0) FROM expenses
 			""")
 	Long findMaxId();
 	
+	@Select("""
+			SELECT COALESCE(MIN(id), 0) FROM expenses
+			""")
+	Long findMinId();
+	
+	@Select("""
+			SELECT COUNT(*) FROM expenses
+			""")
+	long countAll();
+	
+	/**
+	 * id順にstep件ごとの先頭のidを取得（件数が均等になるパーティションの境界）
+	 * @param step 1パーティションあたりの件数
+	 */
+	@Select("""
+			SELECT id
+			FROM (
+				SELECT id, ROW_NUMBER() OVER (ORDER BY id) AS rn
+				FROM expenses
+			) t
+			WHERE MOD(rn - 1, #{step}) = 0
+			ORDER BY id
+			""")
+	List<Long> findIdBoundaries(@Param("step") long step);
+	
 	List<Expense> findByIdRange(@Param("minId")  Long minId, @Param("maxId") Long maxId);
+	
+	/**
+	 * lastIdより後（maxId以下）の経費をid順にpageSize件取得
+	 */
+	List<Expense> findPageAfterId(@Param("lastId") long lastId, @Param("maxId") long maxId, @Param("pageSize") int pageSize);
 }
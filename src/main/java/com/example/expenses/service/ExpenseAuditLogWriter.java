@@ -0,0 +1,267 @@
+package com.example.expenses.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.expenses.dto.ExpenseAuditLog;
+import com.example.expenses.repository.ExpenseAuditLogMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 監査ログの書き込み
+ * -トランザクション中に登録された監査ログはまとめて複数行INSERTで書き込む
+ * -TRANSACTIONAL（既定）：コミット直前に業務トランザクション内で書き込む（ロールバック時は書き込まない）
+ * -WRITE_BEHIND：コミット後にバッファへ積み、件数または時間で専用スレッドがまとめて書き込む
+ *   バッファが満杯の場合は呼び出し元のスレッドで別トランザクションとして書き込む（監査ログは捨てない）
+ *   停止時はバッファに残った監査ログを書き込んでから終了する
+ */
+@Component
+@Slf4j
+public class ExpenseAuditLogWriter implements SmartLifecycle {
+
+	public enum Mode {
+		TRANSACTIONAL,
+		WRITE_BEHIND
+	}
+
+	private final ExpenseAuditLogMapper auditLogMapper;
+	private final Mode mode;
+	private final int batchSize;
+	private final long flushIntervalNanos;
+	private final BlockingQueue<ExpenseAuditLog> buffer;
+	private final TransactionTemplate requiresNew;
+
+	private final Timer flushTimer;
+	private final Counter writtenCounter;
+	private final Counter fallbackCounter;
+	private final Counter failedCounter;
+
+	private volatile boolean running;
+	private Thread flusher;
+
+	public ExpenseAuditLogWriter(
+			ExpenseAuditLogMapper auditLogMapper,
+			PlatformTransactionManager transactionManager,
+			MeterRegistry meterRegistry,
+			@Value("${app.audit.write-mode:TRANSACTIONAL}") Mode mode,
+			@Value("${app.audit.buffer-capacity:10000}") int bufferCapacity,
+			@Value("${app.audit.batch-size:200}") int batchSize,
+			@Value("${app.audit.flush-interval:200ms}") Duration flushInterval) {
+
+		this.auditLogMapper = auditLogMapper;
+		this.mode = mode;
+		this.batchSize = batchSize;
+		this.flushIntervalNanos = flushInterval.toNanos();
+		this.buffer = new ArrayBlockingQueue<>(bufferCapacity);
+		this.requiresNew = new TransactionTemplate(transactionManager);
+		this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+		Gauge.builder("expense.audit.buffer.depth", buffer, BlockingQueue::size)
+			.description("書き込み待ちの監査ログ数")
+			.register(meterRegistry);
+		this.flushTimer = Timer.builder("expense.audit.flush")
+			.description("監査ログの複数行INSERT1回あたりの時間")
+			.register(meterRegistry);
+		this.writtenCounter = Counter.builder("expense.audit.written")
+			.description("書き込んだ監査ログ数")
+			.register(meterRegistry);
+		this.fallbackCounter = Counter.builder("expense.audit.fallback")
+			.description("バッファが満杯のため呼び出し元で書き込んだ監査ログ数")
+			.register(meterRegistry);
+		this.failedCounter = Counter.builder("expense.audit.failed")
+			.description("非同期の書き込みに失敗した監査ログ数")
+			.register(meterRegistry);
+	}
+
+	public void write(ExpenseAuditLog log) {
+		writeAll(List.of(log));
+	}
+
+	/**
+	 * 監査ログを登録
+	 * トランザクション中の場合はコミット時（WRITE_BEHINDはコミット後）にまとめて書き込む
+	 */
+	public void writeAll(List<ExpenseAuditLog> logs) {
+		if(logs.isEmpty()) {
+			return;
+		}
+		if(!TransactionSynchronizationManager.isSynchronizationActive()) {
+			dispatch(logs);
+			return;
+		}
+
+		@SuppressWarnings("unchecked")
+		List<ExpenseAuditLog> pending = (List<ExpenseAuditLog>)TransactionSynchronizationManager.getResource(this);
+		if(pending == null) {
+			List<ExpenseAuditLog> bound = new ArrayList<>();
+			TransactionSynchronizationManager.bindResource(this, bound);
+			TransactionSynchronizationManager.registerSynchronization(new PendingLogs(bound));
+			pending = bound;
+		}
+		pending.addAll(logs);
+	}
+
+	private void dispatch(List<ExpenseAuditLog> logs) {
+		if(mode == Mode.TRANSACTIONAL) {
+			insert(logs);
+			return;
+		}
+		int queued = 0;
+		while(running && queued < logs.size() && buffer.offer(logs.get(queued))) {
+			queued++;
+		}
+		if(queued < logs.size()) {
+			//コミット後（afterCommit）から呼ばれるため、終了済みのトランザクションに参加しないよう新しいトランザクションで書き込む
+			List<ExpenseAuditLog> rest = logs.subList(queued, logs.size());
+			fallbackCounter.increment(rest.size());
+			requiresNew.executeWithoutResult(status -> insert(rest));
+		}
+	}
+
+	/**
+	 * batchSize件ずつ複数行INSERTで書き込む
+	 */
+	private void insert(List<ExpenseAuditLog> logs) {
+		for(int from = 0; from < logs.size(); from += batchSize) {
+			List<ExpenseAuditLog> batch = logs.subList(from, Math.min(from + batchSize, logs.size()));
+			flushTimer.record(() -> auditLogMapper.insertAll(batch));
+			writtenCounter.increment(batch.size());
+		}
+	}
+
+	/**
+	 * WRITE_BEHINDの書き込みスレッド
+	 * 最初の1件からflush-intervalが経過するか、batchSize件たまった時点で書き込む
+	 */
+	private void runFlusher() {
+		List<ExpenseAuditLog> batch = new ArrayList<>(batchSize);
+		while(running || !buffer.isEmpty()) {
+			try {
+				ExpenseAuditLog first = buffer.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+				if(first == null) {
+					continue;
+				}
+				batch.add(first);
+				long deadline = System.nanoTime() + flushIntervalNanos;
+				while(batch.size() < batchSize) {
+					buffer.drainTo(batch, batchSize - batch.size());
+					long wait = deadline - System.nanoTime();
+					if(batch.size() >= batchSize || wait <= 0) {
+						break;
+					}
+					ExpenseAuditLog next = buffer.poll(wait, TimeUnit.NANOSECONDS);
+					if(next == null) {
+						break;
+					}
+					batch.add(next);
+				}
+			}catch(InterruptedException e) {
+				//停止時は残りを書き込んでから終了する
+				buffer.drainTo(batch);
+				running = false;
+			}
+			flushQuietly(batch);
+			batch.clear();
+		}
+	}
+
+	private void flushQuietly(List<ExpenseAuditLog> batch) {
+		if(batch.isEmpty()) {
+			return;
+		}
+		try {
+			insert(batch);
+		}catch(RuntimeException e) {
+			failedCounter.increment(batch.size());
+			log.error("Audit log write failed count={}, first expenseId={}, traceId={}",
+					batch.size(), batch.get(0).getExpenseId(), batch.get(0).getTraceId(), e);
+		}
+	}
+
+	@Override
+	public void start() {
+		if(mode != Mode.WRITE_BEHIND || running) {
+			return;
+		}
+		running = true;
+		flusher = Thread.ofPlatform().name("audit-log-writer").daemon(true).start(this::runFlusher);
+	}
+
+	@Override
+	public void stop() {
+		if(!running) {
+			return;
+		}
+		running = false;
+		try {
+			flusher.join(Duration.ofSeconds(30));
+		}catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		//書き込みスレッドが終了しきれなかった分は呼び出し元で書き込む
+		List<ExpenseAuditLog> rest = new ArrayList<>();
+		buffer.drainTo(rest);
+		flushQuietly(rest);
+	}
+
+	@Override
+	public boolean isRunning() {
+		return running;
+	}
+
+	/**
+	 * トランザクション中に登録された監査ログ
+	 * MyBatisのSqlSessionより先にbeforeCommitを実行させ、同じ接続・トランザクションで書き込む
+	 */
+	private class PendingLogs implements TransactionSynchronization {
+
+		private final List<ExpenseAuditLog> logs;
+
+		PendingLogs(List<ExpenseAuditLog> logs) {
+			this.logs = logs;
+		}
+
+		@Override
+		public int getOrder() {
+			return DataSourceUtils.CONNECTION_SYNCHRONIZATION_ORDER - 10;
+		}
+
+		@Override
+		public void beforeCommit(boolean readOnly) {
+			if(mode == Mode.TRANSACTIONAL) {
+				insert(logs);
+			}
+		}
+
+		@Override
+		public void afterCommit() {
+			if(mode == Mode.WRITE_BEHIND) {
+				dispatch(logs);
+			}
+		}
+
+		@Override
+		public void afterCompletion(int status) {
+			TransactionSynchronizationManager.unbindResourceIfPossible(ExpenseAuditLogWriter.this);
+		}
+	}
+}
@@ -0,0 +1,85 @@
+package com.example.expenses.service;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.expenses.dto.request.ExpenseSearchCriteriaEntity;
+
+/**
+ * 検索件数（count）の短期キャッシュ
+ * -キーは正規化済みのExpenseSearchCriteriaEntity（呼び出し後に変更しないこと）
+ * -経費の作成・状態変更のコミット後に全件破棄する
+ * -ノードごとのローカルキャッシュのため、他ノードの更新はTTL経過まで反映されない
+ */
+@Component
+public class ExpenseSearchCountCache {
+
+	private final long ttlNanos;
+	private final int maxEntries;
+	private final ConcurrentHashMap<ExpenseSearchCriteriaEntity, Entry> entries = new ConcurrentHashMap<>();
+
+	//破棄のたびに進める世代番号。読み込み中に破棄された件数はキャッシュしない
+	private final AtomicLong generation = new AtomicLong();
+
+	public ExpenseSearchCountCache(
+			@Value("${app.search.count-cache.ttl:30s}") Duration ttl,
+			@Value("${app.search.count-cache.max-entries:1000}") int maxEntries) {
+		this.ttlNanos = ttl.toNanos();
+		this.maxEntries = maxEntries;
+	}
+
+	/**
+	 * キャッシュから件数を取得し、なければloaderで取得して保存する
+	 */
+	public long get(ExpenseSearchCriteriaEntity criteria, LongSupplier loader) {
+
+		long now = System.nanoTime();
+		Entry entry = entries.get(criteria);
+		if(entry != null && entry.expiresAt() - now > 0) {
+			return entry.count();
+		}
+
+		long gen = generation.get();
+		long count = loader.getAsLong();
+
+		if(entries.size() >= maxEntries) {
+			entries.clear();
+		}
+		if(generation.get() == gen) {
+			entries.put(criteria, new Entry(count, now + ttlNanos));
+		}
+		return count;
+	}
+
+	/**
+	 * 全件破棄
+	 * トランザクション中はコミット後に破棄する（ロールバック時は破棄不要）
+	 */
+	public void invalidateAll() {
+		if(TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					clear();
+				}
+			});
+			return;
+		}
+		clear();
+	}
+
+	private void clear() {
+		generation.incrementAndGet();
+		entries.clear();
+	}
+
+	private record Entry(long count, long expiresAt) {
+	}
+}
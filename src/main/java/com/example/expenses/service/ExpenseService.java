@@ -1,26 +1,40 @@
 package com.example.expenses.service;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
 
+import org.apache.ibatis.session.ResultHandler;
 import org.slf4j.MDC;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.example.expenses.config.TraceIdFilter;
 import com.example.expenses.domain.Expense;
+import com.example.expenses.domain.ExpenseStatus;
+import com.example.expenses.domain.ExpenseTransition;
 import com.example.expenses.dto.ExpenseAuditLog;
+import com.example.expenses.dto.ExpenseSearchRow;
+import com.example.expenses.dto.request.BulkTransitionRequest;
 import com.example.expenses.dto.request.ExpenseCreateRequest;
 import com.example.expenses.dto.request.ExpenseSearchCriteria;
 import com.example.expenses.dto.request.ExpenseSearchCriteriaEntity;
+import com.example.expenses.dto.request.ExpenseSearchCursor;
+import com.example.expenses.dto.response.BulkTransitionResponse;
+import com.example.expenses.dto.response.CursorPageResponse;
+import com.example.expenses.dto.response.DailySpendResponse;
 import com.example.expenses.dto.response.ExpenseResponse;
 import com.example.expenses.dto.response.PaginationResponse;
+import com.example.expenses.dto.response.SliceResponse;
 import com.example.expenses.exception.BusinessException;
 import com.example.expenses.kafka.ExpenseEventMessage;
 import com.example.expenses.kafka.ExpenseEventMessage.EventType;
-import com.example.expenses.kafka.ExpenseKafkaProducer;
-import com.example.expenses.repository.ExpenseAuditLogMapper;
+import com.example.expenses.kafka.ExpenseEventOutbox;
+import com.example.expenses.repository.ExpenseDailyRollupMapper;
 import com.example.expenses.repository.ExpenseMapper;
 
 import lombok.RequiredArgsConstructor;
@@ -32,11 +46,17 @@ import lombok.extern.slf4j.Slf4j;
 public class ExpenseService {
 
 	private final ExpenseMapper expenseMapper;
-	private final ExpenseAuditLogMapper auditLogMapper;
+	private final ExpenseAuditLogWriter auditLogWriter;
 	private final AuthenticationContext authenticationContext;
-	private final ExpenseKafkaProducer expenseKafkaProducer;
+	private final ExpenseEventOutbox expenseEventOutbox;
+	private final ExpenseSearchCountCache countCache;
+	private final ExpenseTransitionEngine transitionEngine;
+	private final ExpenseDailyRollupMapper rollupMapper;
 	
-	private static final Set<String> ALLOWED_SORTS = Set.of("created_at", "updated_at", "submitted_at", "amount", "id");
+	/** 一括登録で1回のINSERTにまとめる件数 */
+	private static final int INSERT_CHUNK_SIZE = 500;
+	
+	private static final Set<String> ALLOWED_SORTS = Set.of("created_at", "updated_at", "submitted_at", "amount", "id", "relevance");
 	
 	/**
 	 * @param req
@@ -61,21 +81,65 @@ public class ExpenseService {
 
 		
         //監査ログを記録
-		auditLogMapper.insert(ExpenseAuditLog.create(
+		auditLogWriter.write(ExpenseAuditLog.create(
 				expense.getId(),
 				currentUserId,
 				traceId()
 		));
+		
+		countCache.invalidateAll();
 
 		
 		return ExpenseResponse.toResponse(expense);
 	}
+	
+	/**
+	 * 経費一括登録
+	 * -経費はINSERT_CHUNK_SIZE件ずつ複数行INSERTで登録し、生成されたIDを受け取る
+	 * -監査ログは同じトランザクションでまとめて書き込む
+	 * -1件でも不正な場合は全件登録しない
+	 * @return 登録した経費（リクエストの順）
+	 */
+	@Transactional
+	public List<ExpenseResponse> createAll(List<ExpenseCreateRequest> requests) {
+
+		Long currentUserId = authenticationContext.getCurrentUserId();
+		String traceId = traceId();
+
+		List<Expense> expenses = requests.stream()
+				.map(req -> Expense.create(currentUserId, req.title(), req.amount(), req.currency()))
+				.toList();
+
+		for(int from = 0; from < expenses.size(); from += INSERT_CHUNK_SIZE) {
+			expenseMapper.insertAll(expenses.subList(from, Math.min(from + INSERT_CHUNK_SIZE, expenses.size())));
+		}
+
+		auditLogWriter.writeAll(expenses.stream()
+				.map(expense -> ExpenseAuditLog.create(expense.getId(), currentUserId, traceId))
+				.toList());
+		countCache.invalidateAll();
+
+		return ExpenseResponse.toListResponse(expenses);
+	}
 	/**
 	 * 経費の全件取得
 	 * @param criteria
 	 * @return 経費の一覧
 	 */
 	public List<Expense> getAllExpenses(ExpenseSearchCriteria criteria, Long userId) {
+		return expenseMapper.findAll(toExportEntity(criteria, userId));
+	}
+	
+	/**
+	 * getAllExpensesと同じ条件の経費を作成日時順に1件ずつhandlerへ渡す（一覧をメモリに保持しない）
+	 * @param criteria
+	 * @param handler
+	 */
+	public void streamAllExpenses(ExpenseSearchCriteria criteria, Long userId, ResultHandler<Expense> handler) {
+		expenseMapper.streamAll(toExportEntity(criteria, userId), handler);
+	}
+	
+	private ExpenseSearchCriteriaEntity toExportEntity(ExpenseSearchCriteria criteria, Long userId) {
 
 		ExpenseSearchCriteriaEntity e = new ExpenseSearchCriteriaEntity();
 		
@@ -88,7 +152,7 @@ public class ExpenseService {
 			e.setStatus(criteria.status());
 			e.setApplicantId(userId);
 		}
-		return expenseMapper.findAll(e);
+		return e;
 	}
 	
 	public Expense getExpense(Long expenseId) {
@@ -100,13 +164,123 @@ public class ExpenseService {
 			ExpenseSearchCriteria criteria,
 			int currentPage,
 			int pageSize) {
-		Long userId = authenticationContext.getCurrentUserId();
+		ExpenseSearchCriteriaEntity e = toSearchEntity(criteria);
+		
+		String orderBy  = relevanceOrDefault(normalizedOrderBy(criteria.sort()), e);
+		String direction =  normalizedDirection(criteria.sort());
+
+		int offset = (currentPage - 1) * pageSize;
 		
+		List<Expense> rows = null;
+		long cnt;
+		
+		if(useWindowCount(e)) {
+			//件数がキャッシュになければ、ページと件数を1回のクエリで取得
+			List<List<Expense>> loaded = new ArrayList<>(1);
+			cnt = countCache.get(e, () -> {
+				List<ExpenseSearchRow> result = expenseMapper.searchWithTotal(e, orderBy, direction, pageSize, offset);
+				loaded.add(result.stream().map(ExpenseSearchRow::getExpense).toList());
+				//範囲外のページでは件数が取れないためcountで取得
+				return result.isEmpty() ? (offset == 0 ? 0 : expenseMapper.count(e)) : result.get(0).getTotalCount();
+			});
+			if(!loaded.isEmpty()) {
+				rows = loaded.get(0);
+			}
+		}else {
+			cnt = countCache.get(e, () -> expenseMapper.count(e));
+		}
+		
+		if(rows == null) {
+			rows = expenseMapper.search(e, orderBy, direction, pageSize, offset);
+		}
+		
+		int  totalPage = (int)Math.ceil((double) cnt / pageSize);
+		
+		List<Integer> pageList = pageList(currentPage, totalPage, 5);
+		
+		List<ExpenseResponse> items = ExpenseResponse.toListResponse(rows);
+		
+		return new PaginationResponse<>(items, currentPage, pageSize, (int)cnt, totalPage, pageList);
+	}
+	
+	/**
+	 * 件数を取得せずに経費を検索
+	 * size+1件取得して次ページの有無のみ返すため、countクエリが不要
+	 * @param criteria 検索条件
+	 * @param currentPage 現在のページ
+	 * @param pageSize 1ページの件数
+	 * @return 次ページの有無を含むレスポンス
+	 */
+	public SliceResponse<ExpenseResponse> searchSlice(
+			ExpenseSearchCriteria criteria,
+			int currentPage,
+			int pageSize) {
+		
+		ExpenseSearchCriteriaEntity e = toSearchEntity(criteria);
+		
+		String orderBy  = relevanceOrDefault(normalizedOrderBy(criteria.sort()), e);
+		String direction =  normalizedDirection(criteria.sort());
+		
+		int offset = (currentPage - 1) * pageSize;
+		
+		List<Expense> rows = expenseMapper.search(e, orderBy, direction, pageSize + 1, offset);
+		
+		boolean hasNext = rows.size() > pageSize;
+		List<Expense> page = hasNext ? rows.subList(0, pageSize) : rows;
+		
+		return new SliceResponse<>(ExpenseResponse.toListResponse(page), currentPage, pageSize, hasNext);
+	}
+	
+	/**
+	 * キーセット（カーソル）ページングで経費を検索
+	 * OFFSETを使わないため、深いページでも1ページあたりのコストは一定
+	 * @param criteria 検索条件
+	 * @param cursor 前ページのレスポンスで返したnextCursor（先頭ページはnull）
+	 * @param pageSize 1ページの件数
+	 * @return 次ページ用のカーソルを含むレスポンス
+	 */
+	public CursorPageResponse<ExpenseResponse> searchByCursor(
+			ExpenseSearchCriteria criteria,
+			String cursor,
+			int pageSize) {
+		
+		ExpenseSearchCriteriaEntity e = toSearchEntity(criteria);
+		
+		//スコア順はキーセットにできないため作成日時順で返す
+		String orderBy  = normalizedOrderBy(criteria.sort());
+		if("relevance".equals(orderBy)) {
+			orderBy = "created_at";
+		}
+		String direction =  normalizedDirection(criteria.sort());
+		
+		ExpenseSearchCursor after = (cursor == null || cursor.isBlank())
+				? null
+				: ExpenseSearchCursor.decode(cursor, orderBy, direction);
+		
+		//1件多く取得して次ページの有無を判定
+		List<Expense> rows = expenseMapper.searchByKeyset(e, orderBy, direction, after, pageSize + 1);
+		
+		boolean hasNext = rows.size() > pageSize;
+		List<Expense> page = hasNext ? rows.subList(0, pageSize) : rows;
+		
+		String nextCursor = hasNext
+				? ExpenseSearchCursor.of(page.get(page.size() - 1), orderBy, direction).encode()
+				: null;
+		
+		return new CursorPageResponse<>(ExpenseResponse.toListResponse(page), pageSize, nextCursor, hasNext);
+	}
+	
+	/**
+	 * 検索条件をMapper用のエンティティへ変換
+	 * ROLE_APPROVER以外は自分の経費のみに絞り込む
+	 */
+	private ExpenseSearchCriteriaEntity toSearchEntity(ExpenseSearchCriteria criteria) {
+		Long userId = authenticationContext.getCurrentUserId();
 		
 		ExpenseSearchCriteriaEntity e = new ExpenseSearchCriteriaEntity();
-		e.setTitle(criteria.title());
+		e.setTitle(blankToNull(criteria.title()));
 		e.setApplicantId(criteria.applicantId());
-		e.setStatus(criteria.status());
+		e.setStatus(blankToNull(criteria.status()));
 		e.setAmountMax(criteria.amountMax());
 		e.setAmountMin(criteria.amountMin());
 		e.setSubmittedFrom(criteria.submittedFrom());
@@ -116,23 +290,24 @@ public class ExpenseService {
 		if(!authenticationContext.isApprover()) {
 			e.setApplicantId(userId);
 		}
+		return e;
+	}
 	
+	/**
+	 * 日別・ステータス別の経費の件数と金額（提出日で集計、日別集計テーブルから取得）
+	 * ROLE_APPROVER以外は自分の経費のみに絞り込む
+	 * @param applicantId 申請者ID（nullの場合は全申請者、ROLE_APPROVER以外は無視する）
+	 */
+	public List<DailySpendResponse> dailySpend(LocalDate from, LocalDate to, Long applicantId) {
+		if(from.isAfter(to)) {
+			throw new BusinessException("INVALID_PERIOD", "期間の開始日は終了日以前を指定してください", traceId());
+		}
 		
-		String orderBy  = normalizedOrderBy(criteria.sort());
-		String direction =  normalizedDirection(criteria.sort());
-
-		int offset = (currentPage - 1) * pageSize;
-		
-		long cnt = expenseMapper.count(e);
-		
-		int  totalPage = (int)Math.ceil((double) cnt / pageSize);
-		
-		List<Integer> pageList = pageList(currentPage, totalPage, 5);
-		
-		List<ExpenseResponse> items = ExpenseResponse.toListResponse(
-				expenseMapper.search(e, orderBy, direction, pageSize, offset));
-		
-		return new PaginationResponse<>(items, currentPage, pageSize, (int)cnt, totalPage, pageList);
+		//ROLE_APPROVER以外は全て見れない
+		if(!authenticationContext.isApprover()) {
+			applicantId = authenticationContext.getCurrentUserId();
+		}
+		return DailySpendResponse.fromList(rollupMapper.sumByDay(from, to, applicantId));
 	}
 	
 	/**
@@ -141,38 +316,36 @@ public class ExpenseService {
 	@Transactional
 	public ExpenseResponse submit(Long expenseId, Long applicantId) {
 		
+		//提出処理（下書きかつ本人の場合のみ遷移する）
+		ExpenseTransitionEngine.Result result =
+				transitionEngine.apply(ExpenseTransition.SUBMIT, expenseId, null, applicantId);
 		
-		//経費申請の取得
-		Expense current =expenseMapper.findById(expenseId);
-		if(current == null) {
-			throw new NoSuchElementException("Expense not found: " + expenseId);
-		}
-		
-		if(!current.canBeSubmittedBy(applicantId)) {
-			throw new BusinessException("INVALID_STATUS_TRANSITION", "ステータスもしくは本人ではないため提出できません");
+		switch(result.outcome()) {
+		case NOT_FOUND -> throw new NoSuchElementException("Expense not found: " + expenseId);
+		case INVALID_STATE, VERSION_CONFLICT -> {
+			if(result.expense().getStatus() == ExpenseStatus.DRAFT) {
+				throw new BusinessException("INVALID_STATUS_TRANSITION", "ステータスもしくは本人ではないため提出できません");
+			}
+			throw new BusinessException("INVALID_STATUS_TRANSITION", "下書き以外提出できません");
 		}
-		
-		//提出処理
-		int updated = expenseMapper.submitDraft(expenseId);
-		
-		if(updated == 0) {
-			throw new BusinessException("INVALID_STATUS_TRANSITION",
-					"下書き以外提出できません");
+		case APPLIED -> { }
 		}
+		Expense expense = result.expense();
 		
 		//監査ログ登録
-		auditLogMapper.insert(ExpenseAuditLog.createDraft(expenseId, applicantId, traceId()));
+		auditLogWriter.write(ExpenseAuditLog.createDraft(expenseId, applicantId, traceId()));
+		countCache.invalidateAll();
 		
-		expenseKafkaProducer.publish(
+		expenseEventOutbox.append(
 				new ExpenseEventMessage(
-						com.example.expenses.kafka.ExpenseEventMessage.EventType.SUBMITTED,
-						current.getId(),
-						current.getApplicantId(),
-						current.getApplicantId(),
+						EventType.SUBMITTED,
+						expense.getId(),
+						expense.getApplicantId(),
+						expense.getApplicantId(),
 						null,
 						traceId()));
 
-		return ExpenseResponse.toResponse(expenseMapper.findById(expenseId));
+		return ExpenseResponse.toResponse(expense);
 	}
 	
 	/**
@@ -181,45 +354,26 @@ public class ExpenseService {
 	@Transactional
 	public ExpenseResponse approve(long expenseId, int version, Long approverId) {
 		
-
-		//経費取得
-		Expense expense = expenseMapper.findById(expenseId);
-		
-		//存在確認
-		if(expense == null) {
-			throw new BusinessException("NOT_FOUND", "経費申請が見つかりません: EXPENSEID ：" + expenseId, traceId());
-		}
-		
-		if(!expense.canBeApproved()) {
-			throw new BusinessException("INVALID_STATUS_TRANSITION", "提出済み以外は承認できません", traceId());	
-		}
-		
-		//二重更新チェック
-		if(expense.getVersion()!= version) {
-			throw new BusinessException("CONCURRENT_MODIFICATION", "他のユーザに更新されています", traceId());
-		}
-		//承認処理
-		int updated = expenseMapper.approve(expenseId, version);
-		if(updated == 0) {
-			throw new BusinessException("CONCURRENT_MODIFICATION", "他のユーザに更新されています", traceId());
-		}
+		String traceId = traceId();
+		//承認処理（提出済みかつバージョンが一致する場合のみ遷移する）
+		Expense expense = applyTransition(ExpenseTransition.APPROVE, expenseId, version,
+				"提出済み以外は承認できません", traceId);
 		
 		//監査ログ登録
-		auditLogMapper.insert(ExpenseAuditLog.createApprove(expenseId, approverId, traceId()));
+		auditLogWriter.write(ExpenseAuditLog.createApprove(expenseId, approverId, traceId));
+		countCache.invalidateAll();
 		
-		expenseKafkaProducer.publish(
+		expenseEventOutbox.append(
 				new ExpenseEventMessage(
 						EventType.APPROVED,
 						expense.getId(),
 						approverId,
 						expense.getApplicantId(),
 						null,
-						traceId()));
+						traceId));
 
-		//更新後の経費を取得して返す
-		return ExpenseResponse.toResponse(expenseMapper.findById(expenseId));
-		
-		
+		//UPDATE後の経費を返す
+		return ExpenseResponse.toResponse(expense);
 	}
 	
 	/**
@@ -229,32 +383,15 @@ public class ExpenseService {
 	public ExpenseResponse reject(long expenseId, String reason, int version, Long rejectorId) {
 		
 		String traceId = traceId();
-		//経費取得
-		Expense expense = expenseMapper.findById(expenseId);	
-		//存在確認
-		if(expense == null) {
-			throw new BusinessException("NOT_FOUND", "経費申請が見つかりません: EXPENSEID ：" + expenseId, traceId);
-		}
-		//ビジネスルールチェック
-		if(!expense.canBeRejected()) {
-			throw new BusinessException("INVALID_STATUS_TRANSITION", "提出済み以外は却下できません", traceId);	
-		}
-		//二重更新チェック
-		if(expense.getVersion() != version) {
-			throw new BusinessException("CONCURRENT_MODIFICATION", "他のユーザに更新されています", traceId);
-		}
-		//却下処理
-		int updated = expenseMapper.reject(expenseId, version);
-		
-		
-		if(updated == 0) {
-			throw new BusinessException("CONCURRENT_MODIFICATION", "他のユーザに更新されています", traceId);
-		}
+		//却下処理（提出済みかつバージョンが一致する場合のみ遷移する）
+		Expense expense = applyTransition(ExpenseTransition.REJECT, expenseId, version,
+				"提出済み以外は却下できません", traceId);
 
 		//監査ログ登録
-		auditLogMapper.insert(ExpenseAuditLog.createReject(expenseId, rejectorId, traceId, reason));
+		auditLogWriter.write(ExpenseAuditLog.createReject(expenseId, rejectorId, traceId, reason));
+		countCache.invalidateAll();
 		
-		expenseKafkaProducer.publish(
+		expenseEventOutbox.append(
 				new ExpenseEventMessage(
 						EventType.REJECTED,
 						expense.getId(),
@@ -262,10 +399,118 @@ public class ExpenseService {
 						expense.getApplicantId(),
 						reason,
 						traceId));
-		//更新後の経費を取得して返す
-		return ExpenseResponse.toResponse(expenseMapper.findById(expenseId));
+		//UPDATE後の経費を返す
+		return ExpenseResponse.toResponse(expense);
 	}
 	
+	/**
+	 * 経費一括承認
+	 * 遷移できない経費があっても他の経費は承認し、経費ごとの結果を返す
+	 */
+	@Transactional
+	public BulkTransitionResponse approveAll(List<BulkTransitionRequest.Item> items, Long approverId) {
+		return applyAll(ExpenseTransition.APPROVE, items, null, approverId);
+	}
+	
+	/**
+	 * 経費一括却下（却下理由は全件共通）
+	 */
+	@Transactional
+	public BulkTransitionResponse rejectAll(List<BulkTransitionRequest.Item> items, String reason, Long rejectorId) {
+		if(reason == null || reason.isBlank()) {
+			throw new BusinessException("REASON_REQUIRED", "却下理由は必須です", traceId());
+		}
+		return applyAll(ExpenseTransition.REJECT, items, reason, rejectorId);
+	}
+	
+	/**
+	 * 一括遷移の共通処理
+	 * 遷移した経費の監査ログ・イベントはそれぞれ1回のINSERTでまとめて登録する
+	 */
+	private BulkTransitionResponse applyAll(ExpenseTransition transition, List<BulkTransitionRequest.Item> items,
+			String reason, Long actorId) {
+		
+		String traceId = traceId();
+		Map<Long, Integer> versions = new LinkedHashMap<>();
+		for(BulkTransitionRequest.Item item : items) {
+			if(versions.putIfAbsent(item.id(), item.version()) != null) {
+				throw new BusinessException("DUPLICATE_EXPENSE", "同じ経費が複数指定されています: EXPENSEID ：" + item.id(), traceId);
+			}
+		}
+		
+		Map<Long, ExpenseTransitionEngine.Result> results = transitionEngine.applyAll(transition, versions);
+		
+		List<ExpenseAuditLog> logs = new ArrayList<>();
+		List<ExpenseEventMessage> events = new ArrayList<>();
+		List<BulkTransitionResponse.Item> responseItems = new ArrayList<>(results.size());
+		
+		for(Map.Entry<Long, ExpenseTransitionEngine.Result> entry : results.entrySet()) {
+			ExpenseTransitionEngine.Result result = entry.getValue();
+			Expense expense = result.expense();
+			responseItems.add(new BulkTransitionResponse.Item(
+					entry.getKey(), result.outcome(), expense == null ? null : expense.getVersion()));
+			
+			if(result.outcome() != ExpenseTransitionEngine.Outcome.APPLIED) {
+				continue;
+			}
+			if(transition == ExpenseTransition.APPROVE) {
+				logs.add(ExpenseAuditLog.createApprove(expense.getId(), actorId, traceId));
+				events.add(new ExpenseEventMessage(EventType.APPROVED, expense.getId(), actorId, expense.getApplicantId(), null, traceId));
+			}else {
+				logs.add(ExpenseAuditLog.createReject(expense.getId(), actorId, traceId, reason));
+				events.add(new ExpenseEventMessage(EventType.REJECTED, expense.getId(), actorId, expense.getApplicantId(), reason, traceId));
+			}
+		}
+		
+		if(!logs.isEmpty()) {
+			auditLogWriter.writeAll(logs);
+			countCache.invalidateAll();
+			expenseEventOutbox.appendAll(events);
+		}
+		log.info("Bulk {} applied={}/{}", transition, logs.size(), items.size());
+		
+		return new BulkTransitionResponse(logs.size(), responseItems);
+	}
+	
+	/**
+	 * 承認・却下の状態遷移を実行し、遷移できなかった場合は原因に応じた例外を投げる
+	 */
+	private Expense applyTransition(ExpenseTransition transition, long expenseId, int version,
+			String invalidStateMessage, String traceId) {
+
+		ExpenseTransitionEngine.Result result = transitionEngine.apply(transition, expenseId, version, null);
+
+		return switch(result.outcome()) {
+		case APPLIED -> result.expense();
+		case NOT_FOUND -> throw new BusinessException("NOT_FOUND", "経費申請が見つかりません: EXPENSEID ：" + expenseId, traceId);
+		case INVALID_STATE -> throw new BusinessException("INVALID_STATUS_TRANSITION", invalidStateMessage, traceId);
+		case VERSION_CONFLICT -> throw new BusinessException("CONCURRENT_MODIFICATION", "他のユーザに更新されています", traceId);
+		};
+	}
+	
+	
+	/**
+	 * COUNT(*) OVER()でページと件数を同時に取得するか
+	 * COUNT(*) OVER()はLIMITで打ち切れず条件に一致する全行を評価するため、
+	 * 申請者で絞り込んだ小さな結果のみ1往復にまとめ、
+	 * 承認者の全件表示など大きな結果はインデックスだけで済むcountを別に実行する
+	 */
+	private boolean useWindowCount(ExpenseSearchCriteriaEntity e) {
+		return e.getApplicantId() != null;
+	}
+	
+	//関連度順はタイトルを全文検索する場合のみ有効
+	private String relevanceOrDefault(String orderBy, ExpenseSearchCriteriaEntity e) {
+		if("relevance".equals(orderBy) && e.getTitleMatchQuery() == null) {
+			return "created_at";
+		}
+		return orderBy;
+	}
+	
+	//件数キャッシュのキーを揃えるため、空文字は未指定として扱う
+	private String blankToNull(String value) {
+		return value == null || value.isBlank() ? null : value;
+	}
 	
 	private String traceId() {
 		String tid = MDC.get(TraceIdFilter.TRACE_ID_KEY);
@@ -293,6 +538,8 @@ public class ExpenseService {
 			yield "amount";
 		case "id":
 			yield "id";
+		case "relevance":
+			yield "relevance";
 		default :
 			yield "created_at";
 		};
@@ -312,6 +559,8 @@ public class ExpenseService {
 		String[] parts = sort.split(",");
 		
 		if(parts.length < 2) return "DESC";
+		//関連度順はスコアの高い順のみ（ASCは指定できない）
+		if("relevance".equals(parts[0].trim())) return "DESC";
 		String dir = parts[1].trim();
 		
 		return "asc".equalsIgnoreCase(dir) ? "ASC" : "DESC";
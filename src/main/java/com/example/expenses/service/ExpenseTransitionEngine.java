@@ -0,0 +1,126 @@
+package com.example.expenses.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import com.example.expenses.domain.Expense;
+import com.example.expenses.domain.ExpenseTransition;
+import com.example.expenses.repository.ExpenseDailyRollupMapper;
+import com.example.expenses.repository.ExpenseMapper;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 経費の状態遷移を実行する
+ * -事前の取得（findById）を行わず、遷移元ステータス・バージョンを条件にしたUPDATEを1回だけ発行する
+ * -遷移できなかった場合（更新数0）のみ行を取得して原因を判定する
+ * -遷移した場合はレスポンス・イベント用にUPDATE後の行を主キーで取得する（UPDATEでロック済みの行）
+ * -遷移した経費は同じトランザクションで日別集計（expense_daily_rollup）に反映する
+ */
+@Component
+@RequiredArgsConstructor
+public class ExpenseTransitionEngine {
+
+	private final ExpenseMapper expenseMapper;
+	private final ExpenseDailyRollupMapper rollupMapper;
+
+	public enum Outcome {
+		/** 遷移した */
+		APPLIED,
+		/** 経費が存在しない */
+		NOT_FOUND,
+		/** 遷移元のステータスではない（提出の場合は本人でない場合も含む） */
+		INVALID_STATE,
+		/** バージョンが一致しない（他のユーザーに更新された） */
+		VERSION_CONFLICT
+	}
+
+	/**
+	 * @param outcome 遷移結果
+	 * @param expense 遷移後（遷移できなかった場合は現在）の経費。存在しない場合はnull
+	 */
+	public record Result(Outcome outcome, Expense expense) {
+	}
+
+	/**
+	 * 状態遷移を実行
+	 * @param transition 遷移の種類
+	 * @param expenseId 経費ID
+	 * @param version 画面で取得したバージョン（nullの場合は確認しない）
+	 * @param applicantId 本人確認する申請者ID（nullの場合は確認しない）
+	 */
+	public Result apply(ExpenseTransition transition, long expenseId, Integer version, Long applicantId) {
+
+		int updated = expenseMapper.transition(transition, expenseId, version, applicantId);
+
+		if(updated > 0) {
+			rollupMapper.applyTransition(transition, List.of(expenseId));
+			return new Result(Outcome.APPLIED, expenseMapper.findById(expenseId));
+		}
+
+		//遷移できなかった原因を現在の行から判定する
+		Expense current = expenseMapper.findById(expenseId);
+		if(current == null) {
+			return new Result(Outcome.NOT_FOUND, null);
+		}
+		if(current.getStatus() != transition.getFrom()
+				|| (applicantId != null && !applicantId.equals(current.getApplicantId()))) {
+			return new Result(Outcome.INVALID_STATE, current);
+		}
+		return new Result(Outcome.VERSION_CONFLICT, current);
+	}
+
+	/**
+	 * 複数の経費の状態遷移を実行（一括承認・一括却下）
+	 * -対象を行ロックして取得し、遷移できる経費だけを1回のUPDATEで遷移させる
+	 * -遷移できない経費があっても他の経費は遷移させる
+	 * @param transition 遷移の種類
+	 * @param versions 経費IDと画面で取得したバージョン
+	 * @return 経費IDごとの結果（versionsの順）
+	 */
+	public Map<Long, Result> applyAll(ExpenseTransition transition, Map<Long, Integer> versions) {
+
+		Map<Long, Expense> current = new HashMap<>();
+		for(Expense expense : expenseMapper.lockByIds(versions.keySet())) {
+			current.put(expense.getId(), expense);
+		}
+
+		Map<Long, Result> results = new LinkedHashMap<>();
+		List<Expense> targets = new ArrayList<>();
+		for(Map.Entry<Long, Integer> entry : versions.entrySet()) {
+			Expense expense = current.get(entry.getKey());
+			if(expense == null) {
+				results.put(entry.getKey(), new Result(Outcome.NOT_FOUND, null));
+			}else if(expense.getStatus() != transition.getFrom()) {
+				results.put(entry.getKey(), new Result(Outcome.INVALID_STATE, expense));
+			}else if(!expense.getVersion().equals(entry.getValue())) {
+				results.put(entry.getKey(), new Result(Outcome.VERSION_CONFLICT, expense));
+			}else {
+				//結果の順序を保つため先に枠を確保する
+				results.put(entry.getKey(), null);
+				targets.add(expense);
+			}
+		}
+
+		if(!targets.isEmpty()) {
+			//行ロック済みのため、確認した件数と更新数は一致する
+			int updated = expenseMapper.transitionAll(transition, targets);
+			if(updated != targets.size()) {
+				throw new IllegalStateException(
+						"一括更新の件数が一致しません: expected=" + targets.size() + ", updated=" + updated);
+			}
+			rollupMapper.applyTransition(transition, targets.stream().map(Expense::getId).toList());
+			LocalDateTime now = LocalDateTime.now();
+			for(Expense expense : targets) {
+				results.put(expense.getId(), new Result(Outcome.APPLIED, expense.transitioned(transition, now)));
+			}
+		}
+		return results;
+	}
+}
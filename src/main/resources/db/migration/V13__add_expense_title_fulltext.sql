@@ -0,0 +1,4 @@
+-- タイトル検索用の全文検索インデックス（日本語のため ngram パーサーを使用）
+-- LIKE '%...%' はインデックスを使えず全件走査になるため、MATCH ... AGAINST で検索する
+ALTER TABLE expenses
+ADD FULLTEXT INDEX ft_expense_title (title) WITH PARSER ngram;
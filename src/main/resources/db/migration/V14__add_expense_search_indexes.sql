@@ -0,0 +1,19 @@
+-- ExpenseService.search が発行する検索条件 + 並び順の組み合わせ用の複合インデックス
+-- InnoDBのセカンダリインデックスは末尾に主キー(id)を含むため、ORDER BY ..., id もインデックス順で読める
+
+-- 一般ユーザー：自分の経費（applicant_id）を各ソート列で表示
+CREATE INDEX idx_expense_applicant_created ON expenses(applicant_id, created_at);
+CREATE INDEX idx_expense_applicant_updated ON expenses(applicant_id, updated_at);
+CREATE INDEX idx_expense_applicant_submitted ON expenses(applicant_id, submitted_at);
+CREATE INDEX idx_expense_applicant_amount ON expenses(applicant_id, amount);
+
+-- 一般ユーザー：ステータスで絞り込み
+CREATE INDEX idx_expense_applicant_status_created ON expenses(applicant_id, status, created_at);
+
+-- 承認者：ステータス（SUBMITTEDなど）で絞り込み
+CREATE INDEX idx_expense_status_created ON expenses(status, created_at);
+CREATE INDEX idx_expense_status_submitted ON expenses(status, submitted_at);
+
+-- 承認者：絞り込みなしの一覧、提出日の期間指定
+CREATE INDEX idx_expense_created ON expenses(created_at);
+CREATE INDEX idx_expense_submitted ON expenses(submitted_at);
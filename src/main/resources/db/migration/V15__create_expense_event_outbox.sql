@@ -0,0 +1,16 @@
+-- Kafkaへ送信する経費イベントのアウトボックス
+-- 経費の状態変更と同じトランザクションで登録し、ExpenseOutboxRelay が id 順に送信する
+CREATE TABLE expense_event_outbox (
+  id BIGINT NOT NULL AUTO_INCREMENT,
+  event_type VARCHAR(20) NOT NULL,
+  expense_id BIGINT NOT NULL,
+  actor_id BIGINT NULL,
+  applicant_id BIGINT NULL,
+  reason VARCHAR(255) NULL,
+  trace_id VARCHAR(64) NULL,
+  created_at DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+  published_at DATETIME(3) NULL,
+  PRIMARY KEY (id),
+  -- 未送信（published_at IS NULL）の id 順取得・件数取得用
+  KEY idx_outbox_published (published_at, id)
+) ENGINE=InnoDB;
@@ -0,0 +1,12 @@
+-- csvImportJob の一括ロードモード（importMode=bulk-load）用のステージングテーブル
+-- 検証済みの行を LOAD DATA LOCAL INFILE で投入し、1回の INSERT ... SELECT で expenses に登録する
+-- 同時に実行されたジョブの行を区別するため job_execution_id を持つ
+CREATE TABLE expense_import_staging (
+  job_execution_id BIGINT NOT NULL,
+  line_no BIGINT NOT NULL,
+  applicant_id BIGINT NOT NULL,
+  title VARCHAR(100) NOT NULL,
+  amount DECIMAL(12,2) NOT NULL,
+  currency VARCHAR(3) NOT NULL,
+  PRIMARY KEY (job_execution_id, line_no)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
@@ -0,0 +1,23 @@
+-- 日別の経費集計（提出日 × 申請者 × ステータス × カテゴリ）
+-- 提出済みの経費（submitted_at があるもの）のみを集計し、状態遷移と同じトランザクションで増減させる
+-- 月次レポート・統計APIは expenses を走査せずこのテーブルを読む（expenseRollupRebuildJob で再構築できる）
+-- category_id はカテゴリ未設定を 0 とする（主キーに含めるため）
+CREATE TABLE expense_daily_rollup (
+  spend_day DATE NOT NULL,
+  applicant_id BIGINT NOT NULL,
+  status VARCHAR(20) NOT NULL,
+  category_id BIGINT NOT NULL,
+  expense_count INT NOT NULL,
+  total_amount DECIMAL(15,2) NOT NULL,
+  PRIMARY KEY (spend_day, applicant_id, status, category_id),
+  -- 申請者ごとの期間集計用
+  KEY idx_rollup_applicant_day (applicant_id, spend_day)
+) ENGINE=InnoDB;
+
+-- 既存の経費から初期データを作成
+INSERT INTO expense_daily_rollup
+  (spend_day, applicant_id, status, category_id, expense_count, total_amount)
+SELECT DATE(submitted_at), applicant_id, status, COALESCE(category_id, 0), COUNT(*), SUM(amount)
+FROM expenses
+WHERE submitted_at IS NOT NULL
+GROUP BY DATE(submitted_at), applicant_id, status, COALESCE(category_id, 0);
@@ -0,0 +1,13 @@
+-- 承認者の一覧で選べる並び順（金額・更新日時）用の複合インデックス（V14の補完）
+-- 承認者の検索は全申請者が対象のため、インデックス順で読めないと全件を並べ替えることになる
+
+-- 承認者：絞り込みなしの一覧を金額・更新日時で表示
+CREATE INDEX idx_expense_amount ON expenses(amount);
+CREATE INDEX idx_expense_updated ON expenses(updated_at);
+
+-- 承認者：ステータスで絞り込み、金額・更新日時で表示
+CREATE INDEX idx_expense_status_amount ON expenses(status, amount);
+CREATE INDEX idx_expense_status_updated ON expenses(status, updated_at);
+
+-- 一般ユーザーのステータス指定 + 作成日時以外の並び順はインデックスを追加しない
+-- 対象は本人の1ステータス分の行だけのため、idx_expense_applicant_status_created で絞り込んだ後の並べ替えは少量で済む
@@ -0,0 +1,11 @@
+-- タイトルの全文検索インデックス（V13）をストップワードなしで作り直す
+-- ngram パーサーはストップワード（a, i, be, to, in など）を含むトークンを登録しないため、
+-- 既定のストップワードのままでは "Taxi" "Uber" "Amazon" のような英字のタイトルが MATCH でヒットしない（LIKE ではヒットしていた）
+-- ストップワードの設定はインデックスの作成時に適用されるため、このセッションで無効にしてから作り直す
+-- 検索時も同じ設定になるよう、MySQL は innodb_ft_enable_stopword=0 で起動する（docker-compose・テストのコンテナ）
+SET SESSION innodb_ft_enable_stopword = 0;
+
+ALTER TABLE expenses DROP INDEX ft_expense_title;
+ALTER TABLE expenses ADD FULLTEXT INDEX ft_expense_title (title) WITH PARSER ngram;
+
+SET SESSION innodb_ft_enable_stopword = 1;
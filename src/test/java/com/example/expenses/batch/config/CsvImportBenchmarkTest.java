@@ -0,0 +1,217 @@
+package com.example.expenses.batch.config;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.BufferedWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.job.Job;
+import org.springframework.batch.core.job.JobExecution;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.job.parameters.JobParametersBuilder;
+import org.springframework.batch.core.launch.JobOperator;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.Step;
+import org.springframework.batch.infrastructure.item.Chunk;
+import org.springframework.batch.infrastructure.item.ExecutionContext;
+import org.springframework.batch.infrastructure.item.ItemStreamReader;
+import org.springframework.batch.infrastructure.item.ItemWriter;
+import org.springframework.batch.infrastructure.item.file.builder.FlatFileItemReaderBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.expenses.batch.dto.ExpenseCsvRow;
+import com.example.expenses.batch.processor.ExpenseCsvItemProcessor;
+import com.example.expenses.batch.reader.MappedCsvItemReader;
+import com.example.expenses.batch.writer.ExpenseCsvBatchItemWriter;
+import com.example.expenses.batch.writer.ExpenseCsvItemWriter;
+import com.example.expenses.benchmark.Benchmark;
+import com.example.expenses.benchmark.BenchmarkTest;
+import com.example.expenses.domain.Expense;
+
+/**
+ * CSV取り込み（csvImportJob）のベンチマーク
+ * -読み込み：FlatFileItemReader / MappedCsvItemReader
+ * -書き込み：1行ずつINSERT（ExpenseCsvItemWriter） / 複数行INSERT（ExpenseCsvBatchItemWriter）
+ * -csvImportStep の変換スレッド数：1〜CPUコア数
+ */
+@BenchmarkTest
+@SpringBootTest
+@Import(TestcontainersConfiguration.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("CSV取り込みベンチマーク")
+class CsvImportBenchmarkTest {
+
+	private static final int ROWS = 500_000;
+	private static final int CHUNK = 100;
+
+	@TempDir
+	Path inputDir;
+
+	private Path csv;
+
+	@Autowired
+	private ExpenseCsvItemProcessor processor;
+	@Autowired
+	private ExpenseCsvItemWriter singleRowWriter;
+	@Autowired
+	private ExpenseCsvBatchItemWriter batchWriter;
+	@Autowired
+	private JobRepository jobRepository;
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+	@Autowired
+	private JobOperator jobOperator;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeAll
+	void createCsv() throws Exception {
+		csv = inputDir.resolve("sample.csv");
+		try(BufferedWriter out = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+			out.write("applicantId,title,amount,currency");
+			out.newLine();
+			for(int i = 0; i < ROWS; i++) {
+				out.write((i % 500 + 1) + ",交通費" + i + "," + (i % 10_000 + 100) + ",JPY");
+				out.newLine();
+			}
+		}
+	}
+
+	@Test
+	@DisplayName("MappedCsvItemReader は FlatFileItemReader より速く、1行あたりの割り当てが少ない")
+	void readerの比較() throws Exception {
+
+		Benchmark.Result flat = Benchmark.measure("FlatFileItemReader", ROWS, 1, 5, () -> read(flatReader()));
+		Benchmark.Result mapped = Benchmark.measure("MappedCsvItemReader", ROWS, 1, 5, () -> read(mappedReader()));
+
+		Benchmark.assertFaster(mapped, flat, 1.5);
+		assertThat(mapped.bytesPerOperation()).isLessThan(flat.bytesPerOperation());
+	}
+
+	@Test
+	@DisplayName("複数行INSERT は 1行ずつのINSERT より速い")
+	void writerの比較() throws Exception {
+
+		Benchmark.Result single = Benchmark.measure("single-row insert", ROWS, 0, 1, this::clear, () -> write(singleRowWriter));
+		Benchmark.Result multiRow = Benchmark.measure("multi-row insert", ROWS, 0, 1, this::clear, () -> write(batchWriter));
+
+		Benchmark.assertFaster(multiRow, single, 2.0);
+	}
+
+	@Test
+	@DisplayName("変換スレッド数を増やしても1スレッドより遅くならない")
+	void スレッド数の比較() throws Exception {
+
+		int max = Runtime.getRuntime().availableProcessors();
+		Benchmark.Result baseline = null;
+		for(int threads = 1; threads <= max; threads = threads < max ? Math.min(threads * 2, max) : max + 1) {
+			int n = threads;
+			Benchmark.Result result = Benchmark.measure("threads=" + n, ROWS, 0, 1, this::clear, () -> runStep(n));
+			if(baseline == null) {
+				baseline = result;
+			}else {
+				Benchmark.assertFaster(result, baseline, 0.9);
+			}
+		}
+	}
+
+	private void clear() {
+		jdbcTemplate.update("DELETE FROM expenses");
+	}
+
+	private void read(ItemStreamReader<ExpenseCsvRow> reader) throws Exception {
+		int count = 0;
+		reader.open(new ExecutionContext());
+		try {
+			while(reader.read() != null) {
+				count++;
+			}
+		}finally {
+			reader.close();
+		}
+		assertThat(count).isEqualTo(ROWS);
+	}
+
+	private ItemStreamReader<ExpenseCsvRow> flatReader() {
+		return new FlatFileItemReaderBuilder<ExpenseCsvRow>()
+				.name("flatReader")
+				.resource(new FileSystemResource(csv))
+				.linesToSkip(1)
+				.delimited()
+				.names("applicantId", "title", "amount", "currency")
+				.targetType(ExpenseCsvRow.class)
+				.build();
+	}
+
+	private ItemStreamReader<ExpenseCsvRow> mappedReader() {
+		return new MappedCsvItemReader("mappedReader", csv, StandardCharsets.UTF_8, 1);
+	}
+
+	/**
+	 * csvImportStep と同じ reader → processor → writer を chunk(100) ごとのトランザクションで実行する
+	 */
+	private void write(ItemWriter<Expense> writer) throws Exception {
+
+		ItemStreamReader<ExpenseCsvRow> reader = mappedReader();
+		reader.open(new ExecutionContext());
+		try {
+			boolean more = true;
+			while(more) {
+				List<Expense> items = new ArrayList<>(CHUNK);
+				ExpenseCsvRow row = null;
+				while(items.size() < CHUNK && (row = reader.read()) != null) {
+					Expense expense = processor.process(row);
+					if(expense != null) {
+						items.add(expense);
+					}
+				}
+				more = row != null;
+				transactionTemplate.executeWithoutResult(status -> {
+					try {
+						writer.write(new Chunk<>(items));
+					}catch(Exception e) {
+						throw new IllegalStateException(e);
+					}
+				});
+			}
+		}finally {
+			reader.close();
+		}
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM expenses", Long.class)).isEqualTo(ROWS);
+	}
+
+	private void runStep(int threads) throws Exception {
+
+		CsvImportBatchConfiguration config = new CsvImportBatchConfiguration(processor, batchWriter);
+		Step step = config.csvImportStep(jobRepository, transactionManager,
+				config.expenseCsvReader(inputDir.toString()), null, config.csvImportProcessorExecutor(threads),
+				"flat", threads);
+		Job job = new JobBuilder("csvImportBenchmark", jobRepository).start(step).build();
+
+		JobExecution execution = jobOperator.start(job, new JobParametersBuilder()
+				.addLong("executionTime", System.currentTimeMillis())
+				.addLong("threads", (long)threads)
+				.toJobParameters());
+
+		assertThat(execution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM expenses", Long.class)).isEqualTo(ROWS);
+	}
+}
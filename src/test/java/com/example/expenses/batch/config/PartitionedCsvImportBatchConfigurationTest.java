@@ -0,0 +1,68 @@
+package com.example.expenses.batch.config;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.core.partition.support.MultiResourcePartitioner;
+import org.springframework.batch.infrastructure.item.ExecutionContext;
+import org.springframework.batch.infrastructure.item.file.FlatFileItemReader;
+
+import com.example.expenses.batch.dto.ExpenseCsvRow;
+
+@DisplayName("PartitionedCsvImportBatchConfigurationのユニットテスト")
+class PartitionedCsvImportBatchConfigurationTest {
+
+	private final PartitionedCsvImportBatchConfiguration config = new PartitionedCsvImportBatchConfiguration(null, null);
+
+	@TempDir
+	Path inputDir;
+
+	@Test
+	@DisplayName("パターンに一致するファイルごとに、ファイル名順でパーティションを作る")
+	void ファイルごとにパーティションを作る() throws Exception {
+
+		Files.writeString(inputDir.resolve("b.csv"), "header\n");
+		Files.writeString(inputDir.resolve("a.csv"), "header\n");
+		Files.writeString(inputDir.resolve("memo.txt"), "ignored\n");
+
+		MultiResourcePartitioner partitioner = config.csvFilePartitioner(inputDir.toString(), "*.csv");
+		Map<String, ExecutionContext> partitions = partitioner.partition(1);
+
+		assertThat(partitions).hasSize(2);
+		assertThat(partitions.get("partition0").getString("fileName")).endsWith("/a.csv");
+		assertThat(partitions.get("partition1").getString("fileName")).endsWith("/b.csv");
+	}
+
+	@Test
+	@DisplayName("ワーカーのReaderは割り当てられたファイルを読み、読み込み位置を保存する")
+	void 割り当てられたファイルを読む() throws Exception {
+
+		Files.writeString(inputDir.resolve("a.csv"),
+				"applicantId,title,amount,currency\n1,交通費,1000,JPY\n2,書籍,2500,JPY\n");
+		String fileName = config.csvFilePartitioner(inputDir.toString(), "*.csv")
+				.partition(1).get("partition0").getString("fileName");
+
+		FlatFileItemReader<ExpenseCsvRow> reader = config.partitionedCsvReader(fileName);
+		ExecutionContext context = new ExecutionContext();
+		reader.open(context);
+		ExpenseCsvRow first = reader.read();
+		reader.update(context);
+		reader.close();
+
+		assertThat(first.getTitle()).isEqualTo("交通費");
+		assertThat(context.getInt("partitionedCsvReader.read.count")).isEqualTo(1);
+
+		//再開時は保存した位置の次の行から読む
+		FlatFileItemReader<ExpenseCsvRow> restarted = config.partitionedCsvReader(fileName);
+		restarted.open(context);
+		assertThat(restarted.read().getTitle()).isEqualTo("書籍");
+		assertThat(restarted.read()).isNull();
+		restarted.close();
+	}
+}
@@ -0,0 +1,122 @@
+package com.example.expenses.batch.config;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.job.Job;
+import org.springframework.batch.core.job.JobExecution;
+import org.springframework.batch.core.job.parameters.JobParametersBuilder;
+import org.springframework.batch.core.launch.JobOperator;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.StepExecution;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.KafkaContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * parallelExportJob のリモートパーティショニング（単一ブローカー）
+ * マネージャーとワーカーを同じアプリで動かし、Kafka経由で依頼したパーティションの結果が
+ * ジョブリポジトリを通してマネージャーのステップに集約されることを確認する
+ */
+@SpringBootTest(properties = {
+		"batch.partition.mode=remote",
+		"batch.partition.remote.partitions=4",
+		"batch.partition.remote.worker-concurrency=2",
+		"batch.partition.remote.poll-interval=100ms",
+		"batch.partition.min-rows=10"})
+@Import(TestcontainersConfiguration.class)
+@Testcontainers
+@DisplayName("parallelExportJobのリモートパーティショニング")
+class RemotePartitioningConfigurationTest {
+
+	private static final int ROWS = 200;
+
+	@Container
+	static final KafkaContainer kafka = new KafkaContainer(DockerImageName.parse("confluentinc/cp-kafka:7.6.0")).withKraft();
+
+	@DynamicPropertySource
+	static void kafkaProperties(DynamicPropertyRegistry registry) {
+		registry.add("spring.kafka.bootstrap-servers", kafka::getBootstrapServers);
+	}
+
+	@TempDir
+	Path outputDir;
+
+	@Autowired
+	private JobOperator jobOperator;
+	@Autowired
+	private JobRepository jobRepository;
+	@Autowired
+	@Qualifier("parallelExportJob")
+	private Job parallelExportJob;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void seed() {
+		jdbcTemplate.update("DELETE FROM expenses");
+
+		LocalDateTime now = LocalDateTime.of(2025, 4, 1, 9, 0);
+		List<Object[]> rows = new ArrayList<>();
+		for(int i = 0; i < ROWS; i++) {
+			rows.add(new Object[] {(long)(i % 5) + 1, "経費" + i, new BigDecimal(1000 + i), "SUBMITTED", now, now});
+		}
+		jdbcTemplate.batchUpdate("""
+				INSERT INTO expenses
+					(applicant_id, title, amount, currency, status, created_at, updated_at)
+				VALUES (?, ?, ?, 'JPY', ?, ?, ?)
+				""", rows);
+	}
+
+	@Test
+	@DisplayName("Kafka経由でワーカーが実行したパーティションの件数がmasterStepに集約され、結合したCSVに全件が出力される")
+	void リモートのワーカーでパーティションを実行する() throws Exception {
+
+		JobExecution jobExecution = jobOperator.start(parallelExportJob, new JobParametersBuilder()
+				.addLong("executionTime", System.currentTimeMillis())
+				.addString("outputDir", outputDir.toString())
+				.addString("compression", "none")
+				.toJobParameters());
+
+		assertThat(jobExecution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+
+		//ワーカーが保存したステップ実行をジョブリポジトリから読み込み直す
+		List<StepExecution> steps = new ArrayList<>(jobRepository.getJobExecution(jobExecution.getId()).getStepExecutions());
+		List<StepExecution> workers = steps.stream()
+				.filter(step -> step.getStepName().startsWith("workerStep:"))
+				.toList();
+		assertThat(workers).hasSize(4);
+		assertThat(workers).extracting(StepExecution::getStatus).containsOnly(BatchStatus.COMPLETED);
+		assertThat(workers.stream().mapToLong(StepExecution::getWriteCount).sum()).isEqualTo(ROWS);
+
+		StepExecution masterStep = steps.stream()
+				.filter(step -> step.getStepName().equals("masterStep"))
+				.findFirst()
+				.orElseThrow();
+		assertThat(masterStep.getReadCount()).isEqualTo(ROWS);
+		assertThat(masterStep.getWriteCount()).isEqualTo(ROWS);
+
+		//ヘッダー1行＋全件
+		assertThat(Files.readAllLines(outputDir.resolve("expenses.csv"), Charset.forName("MS932"))).hasSize(ROWS + 1);
+	}
+}
@@ -15,6 +15,8 @@ public class TestcontainersConfiguration {
         return new MySQLContainer<>(DockerImageName.parse("mysql:latest"))
         		.withDatabaseName("testDb")
         		.withUsername("test")
-        		.withPassword("test");
+        		.withPassword("test")
+        		//docker-compose と同じくタイトルの全文検索でストップワードを使わない（V19）
+        		.withCommand("--innodb-ft-enable-stopword=0");
     }
 }
@@ -0,0 +1,93 @@
+package com.example.expenses.batch.dto;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.job.JobExecution;
+import org.springframework.batch.core.step.StepExecution;
+
+@DisplayName("BatchJobProgressのユニットテスト")
+class BatchJobProgressTest {
+
+	private static final LocalDateTime START = LocalDateTime.of(2025, 3, 1, 10, 0, 0);
+
+	@Test
+	@DisplayName("パーティションのワーカーがある場合はワーカーの件数だけを合計し、実行中は現在までの件数/秒を返す")
+	void パーティションのワーカーだけを合計する() {
+
+		//マネージャーのステップは終了時にワーカーの件数を合算している
+		JobExecution execution = job(BatchStatus.STARTED, null, List.of(
+				step(4L, "mergeStep", 0, 0, 0, BatchStatus.STARTED, START.plusSeconds(9), null),
+				step(1L, "masterStep", 100, 100, 1, BatchStatus.COMPLETED, START, START.plusSeconds(9)),
+				step(3L, "workerStep:partition1", 40, 40, 0, BatchStatus.COMPLETED, START, START.plusSeconds(4)),
+				step(2L, "workerStep:partition0", 61, 60, 1, BatchStatus.COMPLETED, START, START.plusSeconds(8))));
+
+		BatchJobProgress progress = BatchJobProgress.of(execution, START.plusSeconds(10));
+
+		assertThat(progress.executionId()).isEqualTo(42L);
+		assertThat(progress.jobName()).isEqualTo("parallelExportJob");
+		assertThat(progress.running()).isTrue();
+		assertThat(progress.readCount()).isEqualTo(101);
+		assertThat(progress.writeCount()).isEqualTo(100);
+		assertThat(progress.skipCount()).isEqualTo(1);
+		assertThat(progress.itemsPerSecond()).isEqualTo(10.0);
+		//ステップは実行順
+		assertThat(progress.steps()).extracting(BatchJobProgress.StepProgress::stepName)
+				.containsExactly("masterStep", "workerStep:partition0", "workerStep:partition1", "mergeStep");
+		assertThat(progress.steps().get(1).itemsPerSecond()).isEqualTo(7.5);
+		assertThat(progress.steps().get(3).itemsPerSecond()).isZero();
+	}
+
+	@Test
+	@DisplayName("パーティションがない場合は全ステップを合計し、終了したジョブは終了時刻までの件数/秒を返す")
+	void 全ステップを合計する() {
+
+		JobExecution execution = job(BatchStatus.COMPLETED, START.plusSeconds(3), List.of(
+				step(1L, "csvImportStep", 10, 7, 3, BatchStatus.COMPLETED, START, START.plusSeconds(2)),
+				step(2L, "reportStep", 5, 5, 0, BatchStatus.COMPLETED, START.plusSeconds(2), START.plusSeconds(3))));
+
+		BatchJobProgress progress = BatchJobProgress.of(execution, START.plusSeconds(100));
+
+		assertThat(progress.running()).isFalse();
+		assertThat(progress.readCount()).isEqualTo(15);
+		assertThat(progress.writeCount()).isEqualTo(12);
+		assertThat(progress.skipCount()).isEqualTo(3);
+		assertThat(progress.itemsPerSecond()).isEqualTo(4.0);
+	}
+
+	private JobExecution job(BatchStatus status, LocalDateTime endTime, List<StepExecution> steps) {
+		JobExecution execution = mock(JobExecution.class, Answers.RETURNS_DEEP_STUBS);
+		when(execution.getId()).thenReturn(42L);
+		when(execution.getJobInstance().getJobName()).thenReturn("parallelExportJob");
+		when(execution.getStatus()).thenReturn(status);
+		when(execution.getExitStatus()).thenReturn(status.isRunning() ? ExitStatus.EXECUTING : ExitStatus.COMPLETED);
+		when(execution.getStartTime()).thenReturn(START);
+		when(execution.getEndTime()).thenReturn(endTime);
+		when(execution.getStepExecutions()).thenReturn(steps);
+		return execution;
+	}
+
+	private StepExecution step(Long id, String name, long read, long write, long skip, BatchStatus status,
+			LocalDateTime startTime, LocalDateTime endTime) {
+		StepExecution step = mock(StepExecution.class);
+		when(step.getId()).thenReturn(id);
+		when(step.getStepName()).thenReturn(name);
+		when(step.getStatus()).thenReturn(status);
+		when(step.getReadCount()).thenReturn(read);
+		when(step.getWriteCount()).thenReturn(write);
+		when(step.getSkipCount()).thenReturn(skip);
+		when(step.getFilterCount()).thenReturn(0L);
+		when(step.getCommitCount()).thenReturn(1L);
+		when(step.getStartTime()).thenReturn(startTime);
+		when(step.getEndTime()).thenReturn(endTime);
+		return step;
+	}
+}
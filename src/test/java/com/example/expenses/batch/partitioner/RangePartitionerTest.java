@@ -0,0 +1,92 @@
+package com.example.expenses.batch.partitioner;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.batch.infrastructure.item.ExecutionContext;
+
+import com.example.expenses.repository.ExpenseMapper;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RangePartitionerのユニットテスト")
+class RangePartitionerTest {
+
+	@Mock
+	private ExpenseMapper expenseMapper;
+
+	@Test
+	@DisplayName("件数で分割：idに欠番があっても境界は件数で決まり、最大IDまで含む")
+	void 件数で均等に分割する() {
+
+		//id 1〜300 と 1,000,001〜1,000,100 の400件
+		when(expenseMapper.countAll()).thenReturn(400L);
+		when(expenseMapper.findMinId()).thenReturn(1L);
+		when(expenseMapper.findMaxId()).thenReturn(1_000_100L);
+		when(expenseMapper.findIdBoundaries(100L)).thenReturn(List.of(1L, 101L, 201L, 1_000_001L));
+
+		Map<String, ExecutionContext> partitions = new RangePartitioner(expenseMapper, 10, true).partition(4);
+
+		assertThat(partitions).hasSize(4);
+		assertRange(partitions.get("partition0"), 1L, 100L);
+		assertRange(partitions.get("partition2"), 201L, 1_000_000L);
+		assertRange(partitions.get("partition3"), 1_000_001L, 1_000_100L);
+	}
+
+	@Test
+	@DisplayName("idで分割：実際の最小ID〜最大IDを等分する")
+	void idの範囲を等分する() {
+
+		when(expenseMapper.countAll()).thenReturn(5_000L);
+		when(expenseMapper.findMinId()).thenReturn(1_001L);
+		when(expenseMapper.findMaxId()).thenReturn(6_000L);
+
+		Map<String, ExecutionContext> partitions = new RangePartitioner(expenseMapper, 1, false).partition(4);
+
+		assertThat(partitions).hasSize(4);
+		assertRange(partitions.get("partition0"), 1_001L, 2_250L);
+		assertRange(partitions.get("partition3"), 4_751L, 6_000L);
+	}
+
+	@Test
+	@DisplayName("件数が少ない場合は分割数を減らす")
+	void 件数が少ない場合は分割数を減らす() {
+
+		when(expenseMapper.countAll()).thenReturn(1_500L);
+		when(expenseMapper.findMinId()).thenReturn(1L);
+		when(expenseMapper.findMaxId()).thenReturn(1_500L);
+		when(expenseMapper.findIdBoundaries(750L)).thenReturn(List.of(1L, 751L));
+
+		Map<String, ExecutionContext> partitions = new RangePartitioner(expenseMapper, 1_000, true).partition(8);
+
+		assertThat(partitions).hasSize(2);
+		assertRange(partitions.get("partition1"), 751L, 1_500L);
+	}
+
+	@Test
+	@DisplayName("経費がない場合は空の範囲を1つだけ作る")
+	void 経費がない場合() {
+
+		when(expenseMapper.countAll()).thenReturn(0L);
+		when(expenseMapper.findMinId()).thenReturn(0L);
+		when(expenseMapper.findMaxId()).thenReturn(0L);
+
+		Map<String, ExecutionContext> partitions = new RangePartitioner(expenseMapper, 1_000, true).partition(4);
+
+		assertThat(partitions).hasSize(1);
+		assertThat(partitions.get("partition0").getLong("minId"))
+			.isGreaterThan(partitions.get("partition0").getLong("maxId"));
+	}
+
+	private void assertRange(ExecutionContext context, long minId, long maxId) {
+		assertThat(context.getLong("minId")).isEqualTo(minId);
+		assertThat(context.getLong("maxId")).isEqualTo(maxId);
+	}
+}
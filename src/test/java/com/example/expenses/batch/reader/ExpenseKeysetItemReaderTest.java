@@ -0,0 +1,84 @@
+package com.example.expenses.batch.reader;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.batch.infrastructure.item.ExecutionContext;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.expenses.domain.Expense;
+import com.example.expenses.repository.ExpenseMapper;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ExpenseKeysetItemReaderのユニットテスト")
+class ExpenseKeysetItemReaderTest {
+
+	@Mock
+	private ExpenseMapper expenseMapper;
+
+	@Test
+	@DisplayName("前のページの末尾のidを条件に次のページを取得し、件数がpageSize未満のページで終了する")
+	void 末尾のidから次のページを取得する() {
+
+		when(expenseMapper.findPageAfterId(0L, 100L, 2)).thenReturn(expenses(1, 3));
+		when(expenseMapper.findPageAfterId(3L, 100L, 2)).thenReturn(expenses(7));
+
+		ExpenseKeysetItemReader reader = new ExpenseKeysetItemReader("reader", expenseMapper, 100L, 2);
+		reader.open(new ExecutionContext());
+
+		assertThat(readAll(reader)).containsExactly(1L, 3L, 7L);
+		//最後のページが pageSize 未満のため、空のページを取得しに行かない
+		verify(expenseMapper, times(2)).findPageAfterId(anyLong(), anyLong(), anyInt());
+	}
+
+	@Test
+	@DisplayName("保存した最後のidの続きから再開する")
+	void 保存したidから再開する() {
+
+		when(expenseMapper.findPageAfterId(0L, 100L, 3)).thenReturn(expenses(1, 2, 3));
+
+		ExpenseKeysetItemReader reader = new ExpenseKeysetItemReader("reader", expenseMapper, 100L, 3);
+		ExecutionContext context = new ExecutionContext();
+		reader.open(context);
+		reader.read();
+		reader.read();
+		reader.update(context);
+		reader.close();
+
+		assertThat(context.getLong("reader.lastId")).isEqualTo(2L);
+
+		when(expenseMapper.findPageAfterId(2L, 100L, 3)).thenReturn(expenses(3));
+		ExpenseKeysetItemReader restarted = new ExpenseKeysetItemReader("reader", expenseMapper, 100L, 3);
+		restarted.open(context);
+
+		assertThat(readAll(restarted)).containsExactly(3L);
+	}
+
+	private List<Long> readAll(ExpenseKeysetItemReader reader) {
+		List<Long> ids = new ArrayList<>();
+		Expense expense;
+		while((expense = reader.read()) != null) {
+			ids.add(expense.getId());
+		}
+		return ids;
+	}
+
+	private List<Expense> expenses(long... ids) {
+		return LongStream.of(ids).mapToObj(id -> {
+			Expense expense = Expense.create(1L, "交通費", new BigDecimal("1000"), "JPY");
+			ReflectionTestUtils.setField(expense, "id", id);
+			return expense;
+		}).toList();
+	}
+}
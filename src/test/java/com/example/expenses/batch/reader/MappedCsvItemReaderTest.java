@@ -0,0 +1,138 @@
+package com.example.expenses.batch.reader;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.infrastructure.item.ExecutionContext;
+import org.springframework.batch.infrastructure.item.file.FlatFileParseException;
+
+import com.example.expenses.batch.dto.ExpenseCsvRow;
+
+@DisplayName("MappedCsvItemReaderのユニットテスト")
+class MappedCsvItemReaderTest {
+
+	private static final String HEADER = "applicantId,title,amount,currency\n";
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	@DisplayName("ヘッダーを読み飛ばし、各項目をExpenseCsvRowに設定する")
+	void 各項目を読み込む() throws Exception {
+
+		Path csv = write(HEADER + "1,交通費,1000,JPY\n2,書籍,2500,USD\n", StandardCharsets.UTF_8);
+
+		List<ExpenseCsvRow> rows = readAll(new MappedCsvItemReader("reader", csv, StandardCharsets.UTF_8, 1));
+
+		assertThat(rows).extracting(ExpenseCsvRow::getApplicantId, ExpenseCsvRow::getTitle,
+				ExpenseCsvRow::getAmount, ExpenseCsvRow::getCurrency)
+			.containsExactly(tuple(1L, "交通費", "1000", "JPY"), tuple(2L, "書籍", "2500", "USD"));
+	}
+
+	@Test
+	@DisplayName("クォートされた項目の区切り文字・改行・エスケープされたクォートを扱う")
+	void クォートされた項目を扱う() throws Exception {
+
+		Path csv = write(HEADER + "1,\"会食,\"\"二次会\"\"\",3000,JPY\r\n2,\"複数\n行\",100,JPY", StandardCharsets.UTF_8);
+
+		List<ExpenseCsvRow> rows = readAll(new MappedCsvItemReader("reader", csv, StandardCharsets.UTF_8, 1));
+
+		assertThat(rows).extracting(ExpenseCsvRow::getTitle).containsExactly("会食,\"二次会\"", "複数\n行");
+		assertThat(rows.get(1).getCurrency()).isEqualTo("JPY");
+	}
+
+	@Test
+	@DisplayName("MS932のファイルを読み込める")
+	void MS932を読み込む() throws Exception {
+
+		Charset ms932 = Charset.forName("MS932");
+		Path csv = write(HEADER + "1,ソフトウェア購入（表計算）,9800,JPY\n", ms932);
+
+		List<ExpenseCsvRow> rows = readAll(new MappedCsvItemReader("reader", csv, ms932, 1));
+
+		assertThat(rows).extracting(ExpenseCsvRow::getTitle).containsExactly("ソフトウェア購入（表計算）");
+	}
+
+	@Test
+	@DisplayName("マップの境界をまたぐ行は行頭からマップし直して読み込む")
+	void マップの境界をまたぐ行を読む() throws Exception {
+
+		StringBuilder content = new StringBuilder(HEADER);
+		for(int i = 0; i < 200; i++) {
+			content.append(i + 1).append(",\"タイトル").append(i).append("\",").append(100 + i).append(",JPY\n");
+		}
+		Path csv = write(content.toString(), StandardCharsets.UTF_8);
+
+		List<ExpenseCsvRow> rows = readAll(new MappedCsvItemReader("reader", csv, StandardCharsets.UTF_8, 1, 64));
+
+		assertThat(rows).hasSize(200);
+		assertThat(rows.get(199).getTitle()).isEqualTo("タイトル199");
+		assertThat(rows.get(199).getAmount()).isEqualTo("299");
+	}
+
+	@Test
+	@DisplayName("保存したバイトオフセットから再開する")
+	void 保存した位置から再開する() throws Exception {
+
+		Path csv = write(HEADER + "1,交通費,1000,JPY\n2,書籍,2500,JPY\n3,宿泊,8000,JPY\n", StandardCharsets.UTF_8);
+
+		MappedCsvItemReader reader = new MappedCsvItemReader("reader", csv, StandardCharsets.UTF_8, 1);
+		ExecutionContext context = new ExecutionContext();
+		reader.open(context);
+		reader.read();
+		reader.update(context);
+		reader.close();
+
+		MappedCsvItemReader restarted = new MappedCsvItemReader("reader", csv, StandardCharsets.UTF_8, 1);
+		restarted.open(context);
+		assertThat(restarted.read().getTitle()).isEqualTo("書籍");
+		assertThat(restarted.read().getTitle()).isEqualTo("宿泊");
+		assertThat(restarted.read()).isNull();
+		restarted.close();
+	}
+
+	@Test
+	@DisplayName("不正な行はFlatFileParseExceptionとなり、次の行から読み続けられる")
+	void 不正な行の後も読み続ける() throws Exception {
+
+		Path csv = write(HEADER + "abc,交通費,1000,JPY\n2,書籍\n\n3,宿泊,8000,JPY\n", StandardCharsets.UTF_8);
+
+		MappedCsvItemReader reader = new MappedCsvItemReader("reader", csv, StandardCharsets.UTF_8, 1);
+		reader.open(new ExecutionContext());
+
+		assertThatThrownBy(reader::read).isInstanceOf(FlatFileParseException.class)
+			.hasMessageContaining("applicantId");
+		assertThatThrownBy(reader::read).isInstanceOf(FlatFileParseException.class)
+			.hasMessageContaining("項目数");
+		assertThat(reader.read().getApplicantId()).isEqualTo(3L);
+		assertThat(reader.read()).isNull();
+		reader.close();
+	}
+
+	private Path write(String content, Charset charset) throws Exception {
+		return Files.writeString(tempDir.resolve("sample.csv"), content, charset);
+	}
+
+	private List<ExpenseCsvRow> readAll(MappedCsvItemReader reader) throws Exception {
+		List<ExpenseCsvRow> rows = new ArrayList<>();
+		reader.open(new ExecutionContext());
+		try {
+			ExpenseCsvRow row;
+			while((row = reader.read()) != null) {
+				rows.add(row);
+			}
+		}finally {
+			reader.close();
+		}
+		return rows;
+	}
+}
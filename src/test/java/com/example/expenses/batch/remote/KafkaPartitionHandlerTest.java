@@ -0,0 +1,151 @@
+package com.example.expenses.batch.remote;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.partition.StepExecutionSplitter;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.StepExecution;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import com.example.expenses.kafka.ExpenseTopics;
+import com.example.expenses.kafka.PartitionRequestMessage;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("KafkaPartitionHandlerのユニットテスト")
+class KafkaPartitionHandlerTest {
+
+	@Mock
+	private KafkaTemplate<String, PartitionRequestMessage> kafkaTemplate;
+	@Mock
+	private JobRepository jobRepository;
+	@Mock
+	private StepExecutionSplitter splitter;
+	@Mock
+	private StepExecution managerStep;
+
+	private KafkaPartitionHandler handler;
+
+	@BeforeEach
+	void setUp() {
+		handler = new KafkaPartitionHandler(kafkaTemplate, jobRepository, "workerStep", 2,
+				Duration.ofMillis(10), Duration.ofMillis(200), Duration.ofMinutes(1));
+		handler.setGridSize(4);
+	}
+
+	@Test
+	@DisplayName("パーティションごとに依頼をトピックのパーティションへ順番に送信し、終了したステップ実行をジョブリポジトリから読み込んで返す")
+	void 依頼を送信して結果を待つ() throws Exception {
+
+		StepExecution partition0 = partition(11L);
+		StepExecution partition1 = partition(12L);
+		StepExecution partition2 = partition(13L);
+		when(splitter.split(managerStep, 4)).thenReturn(new LinkedHashSet<>(List.of(partition0, partition1, partition2)));
+		when(managerStep.getJobExecutionId()).thenReturn(1L);
+		when(kafkaTemplate.send(eq(ExpenseTopics.BATCH_PARTITION_REQUEST), anyInt(), anyString(), any()))
+				.thenReturn(CompletableFuture.completedFuture(null));
+
+		StepExecution done0 = result(BatchStatus.COMPLETED);
+		StepExecution done1 = result(BatchStatus.FAILED);
+		StepExecution done2 = result(BatchStatus.COMPLETED);
+		StepExecution running = result(BatchStatus.STARTED);
+		StepExecution waiting = result(BatchStatus.STARTING);
+		//1回目の確認ではまだ実行中・実行待ち
+		when(jobRepository.getStepExecution(1L, 11L)).thenReturn(running, done0);
+		when(jobRepository.getStepExecution(1L, 12L)).thenReturn(done1);
+		when(jobRepository.getStepExecution(1L, 13L)).thenReturn(waiting, done2);
+
+		assertThat(handler.handle(splitter, managerStep)).containsExactlyInAnyOrder(done0, done1, done2);
+
+		ArgumentCaptor<Integer> topicPartitions = ArgumentCaptor.forClass(Integer.class);
+		ArgumentCaptor<PartitionRequestMessage> requests = ArgumentCaptor.forClass(PartitionRequestMessage.class);
+		verify(kafkaTemplate, times(3)).send(eq(ExpenseTopics.BATCH_PARTITION_REQUEST), topicPartitions.capture(),
+				anyString(), requests.capture());
+		assertThat(topicPartitions.getAllValues()).containsExactly(0, 1, 0);
+		assertThat(requests.getAllValues()).containsExactly(
+				new PartitionRequestMessage(1L, 11L, "workerStep"),
+				new PartitionRequestMessage(1L, 12L, "workerStep"),
+				new PartitionRequestMessage(1L, 13L, "workerStep"));
+	}
+
+	@Test
+	@DisplayName("待ち時間の上限までに終了しないパーティションがある場合は例外をスローする")
+	void 終了しない場合はタイムアウト() throws Exception {
+
+		StepExecution partition0 = partition(11L);
+		when(splitter.split(managerStep, 4)).thenReturn(Set.of(partition0));
+		when(managerStep.getJobExecutionId()).thenReturn(1L);
+		when(kafkaTemplate.send(anyString(), anyInt(), anyString(), any()))
+				.thenReturn(CompletableFuture.completedFuture(null));
+		StepExecution running = result(BatchStatus.STARTED);
+		//更新が続いている（ワーカーは停止していない）
+		when(running.getLastUpdated()).thenAnswer(inv -> LocalDateTime.now());
+		when(jobRepository.getStepExecution(1L, 11L)).thenReturn(running);
+
+		assertThatThrownBy(() -> handler.handle(splitter, managerStep))
+				.isInstanceOf(TimeoutException.class)
+				.hasMessageContaining("11");
+	}
+
+	@Test
+	@DisplayName("実行中のまま更新が止まったパーティションは失敗にして、待ち時間の上限まで待たずに返す")
+	void 停止したワーカーのパーティションは失敗にする() throws Exception {
+
+		StepExecution partition0 = partition(11L);
+		StepExecution partition1 = partition(12L);
+		when(splitter.split(managerStep, 4)).thenReturn(new LinkedHashSet<>(List.of(partition0, partition1)));
+		when(managerStep.getJobExecutionId()).thenReturn(1L);
+		when(kafkaTemplate.send(anyString(), anyInt(), anyString(), any()))
+				.thenReturn(CompletableFuture.completedFuture(null));
+		StepExecution done = result(BatchStatus.COMPLETED);
+		StepExecution abandoned = result(BatchStatus.STARTED);
+		when(abandoned.getLastUpdated()).thenReturn(LocalDateTime.now().minusMinutes(5));
+		when(jobRepository.getStepExecution(1L, 11L)).thenReturn(done);
+		when(jobRepository.getStepExecution(1L, 12L)).thenReturn(abandoned);
+
+		assertThat(handler.handle(splitter, managerStep)).containsExactlyInAnyOrder(done, abandoned);
+
+		verify(abandoned).setStatus(BatchStatus.FAILED);
+		verify(jobRepository).update(abandoned);
+		verify(jobRepository, never()).update(done);
+	}
+
+	@Test
+	@DisplayName("再実行で実行するパーティションがない場合は依頼を送信しない")
+	void パーティションがない場合は送信しない() throws Exception {
+
+		when(splitter.split(managerStep, 4)).thenReturn(Set.of());
+
+		assertThat(handler.handle(splitter, managerStep)).isEmpty();
+		verifyNoInteractions(kafkaTemplate, jobRepository);
+	}
+
+	private StepExecution partition(Long id) {
+		StepExecution step = mock(StepExecution.class);
+		when(step.getId()).thenReturn(id);
+		return step;
+	}
+
+	private StepExecution result(BatchStatus status) {
+		StepExecution step = mock(StepExecution.class);
+		when(step.getStatus()).thenReturn(status);
+		return step;
+	}
+}
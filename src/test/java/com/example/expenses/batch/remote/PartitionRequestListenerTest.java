@@ -0,0 +1,137 @@
+package com.example.expenses.batch.remote;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.Step;
+import org.springframework.batch.core.step.StepExecution;
+import org.springframework.kafka.support.Acknowledgment;
+
+import com.example.expenses.kafka.PartitionRequestMessage;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PartitionRequestListenerのユニットテスト")
+class PartitionRequestListenerTest {
+
+	@Mock
+	private JobRepository jobRepository;
+	@Mock
+	private Step workerStep;
+	@Mock
+	private StepExecution stepExecution;
+	@Mock
+	private Acknowledgment acknowledgment;
+
+	private PartitionRequestListener listener;
+
+	private final PartitionRequestMessage request = new PartitionRequestMessage(1L, 11L, "workerStep");
+
+	@BeforeEach
+	void setUp() {
+		listener = new PartitionRequestListener(jobRepository, workerStep, Duration.ofMinutes(10));
+		when(workerStep.getName()).thenReturn("workerStep");
+	}
+
+	@Test
+	@DisplayName("実行待ちのパーティションはワーカーのステップで実行し、終了後にオフセットをコミットする")
+	void 実行待ちのパーティションを実行する() throws Exception {
+
+		when(jobRepository.getStepExecution(1L, 11L)).thenReturn(stepExecution);
+		when(stepExecution.getStatus()).thenReturn(BatchStatus.STARTING);
+
+		listener.handle(request, acknowledgment);
+
+		InOrder inOrder = inOrder(workerStep, acknowledgment);
+		inOrder.verify(workerStep).execute(stepExecution);
+		inOrder.verify(acknowledgment).acknowledge();
+		verify(jobRepository, never()).update(any(StepExecution.class));
+	}
+
+	@Test
+	@DisplayName("再配信された依頼（実行中・終了済み）は実行しない")
+	void 再配信された依頼は実行しない() throws Exception {
+
+		when(jobRepository.getStepExecution(1L, 11L)).thenReturn(stepExecution);
+		when(stepExecution.getStatus()).thenReturn(BatchStatus.COMPLETED);
+
+		listener.handle(request, acknowledgment);
+
+		verify(workerStep, never()).execute(any());
+		verify(acknowledgment).acknowledge();
+	}
+
+	@Test
+	@DisplayName("再配信された依頼のステップ実行が実行中で更新が続いている場合は何もしない")
+	void 実行中のパーティションは失敗にしない() throws Exception {
+
+		when(jobRepository.getStepExecution(1L, 11L)).thenReturn(stepExecution);
+		when(stepExecution.getStatus()).thenReturn(BatchStatus.STARTED);
+		when(stepExecution.getLastUpdated()).thenReturn(LocalDateTime.now().minusMinutes(1));
+
+		listener.handle(request, acknowledgment);
+
+		verify(workerStep, never()).execute(any());
+		verify(stepExecution, never()).setStatus(any());
+		verify(jobRepository, never()).update(any(StepExecution.class));
+		verify(acknowledgment).acknowledge();
+	}
+
+	@Test
+	@DisplayName("再配信された依頼のステップ実行が実行中のまま更新が止まっている場合は失敗として保存する")
+	void 停止したワーカーのパーティションは失敗にする() throws Exception {
+
+		when(jobRepository.getStepExecution(1L, 11L)).thenReturn(stepExecution);
+		when(stepExecution.getStatus()).thenReturn(BatchStatus.STARTED);
+		when(stepExecution.getLastUpdated()).thenReturn(LocalDateTime.now().minusMinutes(30));
+
+		listener.handle(request, acknowledgment);
+
+		verify(workerStep, never()).execute(any());
+		verify(stepExecution).setStatus(BatchStatus.FAILED);
+		verify(stepExecution).setEndTime(any());
+		verify(jobRepository).update(stepExecution);
+		verify(acknowledgment).acknowledge();
+	}
+
+	@Test
+	@DisplayName("ワーカーのステップ以外の依頼とステップ実行が見つからない依頼は無視する")
+	void 実行できない依頼は無視する() throws Exception {
+
+		listener.handle(new PartitionRequestMessage(1L, 11L, "otherStep"), acknowledgment);
+		verifyNoInteractions(jobRepository);
+
+		listener.handle(request, acknowledgment);
+		verify(workerStep, never()).execute(any());
+		verify(acknowledgment, times(2)).acknowledge();
+	}
+
+	@Test
+	@DisplayName("ステップの外に例外が出た場合はステップ実行を失敗として保存してからオフセットをコミットする")
+	void 例外の場合は失敗として保存する() throws Exception {
+
+		when(jobRepository.getStepExecution(1L, 11L)).thenReturn(stepExecution);
+		when(stepExecution.getStatus()).thenReturn(BatchStatus.STARTING);
+		IllegalStateException failure = new IllegalStateException("中断");
+		doThrow(failure).when(workerStep).execute(stepExecution);
+
+		listener.handle(request, acknowledgment);
+
+		verify(stepExecution).setStatus(BatchStatus.FAILED);
+		verify(stepExecution).addFailureException(failure);
+		InOrder inOrder = inOrder(jobRepository, acknowledgment);
+		inOrder.verify(jobRepository).update(stepExecution);
+		inOrder.verify(acknowledgment).acknowledge();
+	}
+}
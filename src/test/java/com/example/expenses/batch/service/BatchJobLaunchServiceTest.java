@@ -0,0 +1,67 @@
+package com.example.expenses.batch.service;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.job.Job;
+import org.springframework.batch.core.job.JobExecution;
+import org.springframework.batch.core.job.parameters.JobParametersBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import com.example.expenses.batch.config.TestcontainersConfiguration;
+import com.example.expenses.batch.dto.BatchJobProgress;
+
+@SpringBootTest
+@Import(TestcontainersConfiguration.class)
+@DisplayName("バッチジョブの非同期起動")
+class BatchJobLaunchServiceTest {
+
+	@Autowired
+	private BatchJobLaunchService batchJobLaunchService;
+	@Autowired
+	@Qualifier("expenseRollupRebuildJob")
+	private Job expenseRollupRebuildJob;
+
+	@Test
+	@DisplayName("起動したスレッドは実行IDを受け取って戻り、ジョブは専用のスレッドで完了まで実行される")
+	void 非同期で起動して進捗を取得する() throws Exception {
+
+		JobExecution jobExecution = batchJobLaunchService.launch(expenseRollupRebuildJob, new JobParametersBuilder()
+				.addLong("executionTime", System.currentTimeMillis())
+				.toJobParameters());
+
+		assertThat(jobExecution.getId()).isNotNull();
+		assertThat(jobExecution.getStatus()).isIn(BatchStatus.STARTING, BatchStatus.STARTED, BatchStatus.COMPLETED);
+
+		BatchJobProgress progress = awaitFinished(jobExecution.getId(), Duration.ofSeconds(30));
+		assertThat(progress.status()).isEqualTo(BatchStatus.COMPLETED);
+		assertThat(progress.jobName()).isEqualTo("expenseRollupRebuildJob");
+		assertThat(progress.steps()).extracting(BatchJobProgress.StepProgress::stepName)
+				.containsExactly("rollupRebuildStep");
+	}
+
+	@Test
+	@DisplayName("存在しない実行IDの進捗はnull")
+	void 存在しない実行ID() {
+
+		assertThat(batchJobLaunchService.getProgress(Long.MAX_VALUE)).isNull();
+		assertThat(batchJobLaunchService.streamProgress(Long.MAX_VALUE)).isNull();
+	}
+
+	private BatchJobProgress awaitFinished(long executionId, Duration timeout) throws InterruptedException {
+		long deadline = System.nanoTime() + timeout.toNanos();
+		BatchJobProgress progress = batchJobLaunchService.getProgress(executionId);
+		while(progress.running() && System.nanoTime() < deadline) {
+			Thread.sleep(100);
+			progress = batchJobLaunchService.getProgress(executionId);
+		}
+		return progress;
+	}
+}
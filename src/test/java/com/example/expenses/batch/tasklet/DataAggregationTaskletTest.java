@@ -0,0 +1,165 @@
+package com.example.expenses.batch.tasklet;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Answers;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.StepContribution;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.expenses.batch.config.TestcontainersConfiguration;
+import com.example.expenses.domain.Expense;
+import com.example.expenses.domain.ExpenseStatus;
+import com.example.expenses.dto.batch.MonthlyExpenseReport;
+import com.example.expenses.repository.ExpenseDailyRollupMapper;
+import com.example.expenses.repository.ExpenseMapper;
+
+/**
+ * DataAggregationTasklet の日別集計テーブルからの集計が、
+ * 従来の明細を全件取得してステータスごとに合計する集計と同じレポートになることを確認する
+ */
+@SpringBootTest
+@Import(TestcontainersConfiguration.class)
+@DisplayName("DataAggregationTaskletの集計")
+class DataAggregationTaskletTest {
+
+	private static final String[] STATUSES = {"DRAFT", "SUBMITTED", "APPROVED", "REJECTED"};
+
+	@Autowired
+	private DataAggregationTasklet dataAggregationTasklet;
+	@Autowired
+	private ExpenseMapper expenseMapper;
+	@Autowired
+	private ExpenseDailyRollupMapper rollupMapper;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private final YearMonth lastMonth = YearMonth.now().minusMonths(1);
+
+	@BeforeEach
+	void seed() {
+		jdbcTemplate.update("DELETE FROM expenses");
+
+		LocalDateTime start = lastMonth.atDay(1).atStartOfDay();
+		List<Object[]> rows = new ArrayList<>();
+		for(int i = 0; i < 1_000; i++) {
+			rows.add(row(i, STATUSES[i % STATUSES.length], new BigDecimal((i * 37) % 100_000 + 100).movePointLeft(2),
+					start.plusMinutes(i * 41L)));
+		}
+		//集計期間の境界（前月の初日0時・末日23:59:59は含み、前後の月は含まない）
+		rows.add(row(1_000, "APPROVED", new BigDecimal("1.01"), start));
+		rows.add(row(1_001, "APPROVED", new BigDecimal("2.02"), lastMonth.atEndOfMonth().atTime(23, 59, 59)));
+		rows.add(row(1_002, "APPROVED", new BigDecimal("999.99"), start.minusSeconds(1)));
+		rows.add(row(1_003, "APPROVED", new BigDecimal("999.99"), lastMonth.plusMonths(1).atDay(1).atStartOfDay()));
+		jdbcTemplate.batchUpdate("""
+				INSERT INTO expenses
+					(applicant_id, title, amount, currency, status, submitted_at, created_at, updated_at)
+				VALUES (?, ?, ?, 'JPY', ?, ?, ?, ?)
+				""", rows);
+		//JDBCで直接登録したため、日別集計を作り直す
+		rebuildRollup();
+	}
+
+	@Test
+	@DisplayName("日別集計からの集計と明細を全件取得する集計で同じレポートになる")
+	void 明細を集計した場合と同じレポートになる() throws Exception {
+
+		MonthlyExpenseReport report = execute();
+
+		LocalDateTime startDate = lastMonth.atDay(1).atStartOfDay();
+		LocalDateTime endDate = lastMonth.atEndOfMonth().atTime(23, 59, 59);
+		MonthlyExpenseReport expected = aggregateDetails(expenseMapper.findByPeriod(startDate, endDate));
+
+		assertThat(report).isEqualTo(expected);
+		assertThat(report.getTotalCount()).isEqualTo(1_002);
+		//データのないステータスも件数0・金額0で含まれる
+		assertThat(report.getStatusSummaries()).containsOnlyKeys(ExpenseStatus.values());
+	}
+
+	@Test
+	@DisplayName("期間内に経費がない場合は全ステータスが0件、割合は0のレポートになる")
+	void 経費がない場合() throws Exception {
+
+		jdbcTemplate.update("DELETE FROM expenses");
+		rebuildRollup();
+
+		MonthlyExpenseReport report = execute();
+
+		assertThat(report).isEqualTo(aggregateDetails(List.of()));
+		assertThat(report.getTotalAmount()).isEqualByComparingTo(BigDecimal.ZERO);
+	}
+
+	private void rebuildRollup() {
+		rollupMapper.deleteAll();
+		rollupMapper.rebuild();
+	}
+
+	private MonthlyExpenseReport execute() throws Exception {
+		ChunkContext chunkContext = mock(ChunkContext.class, Answers.RETURNS_DEEP_STUBS);
+		dataAggregationTasklet.execute(mock(StepContribution.class), chunkContext);
+
+		ArgumentCaptor<Object> report = ArgumentCaptor.forClass(Object.class);
+		verify(chunkContext.getStepContext().getStepExecution().getJobExecution().getExecutionContext())
+				.put(eq("monthlyReport"), report.capture());
+		return (MonthlyExpenseReport)report.getValue();
+	}
+
+	/**
+	 * 変更前の集計（期間内の明細を全件取得し、ステータスごとにストリームで合計する）
+	 */
+	private MonthlyExpenseReport aggregateDetails(List<Expense> expenses) {
+		Map<ExpenseStatus, MonthlyExpenseReport.StatusSummary> statusSummaries = new HashMap<>();
+		BigDecimal totalAmount = BigDecimal.ZERO;
+
+		for(ExpenseStatus status : ExpenseStatus.values()) {
+			List<Expense> statusExpenses = expenses.stream()
+					.filter(e -> e.getStatus() == status)
+					.toList();
+			BigDecimal statusAmount = statusExpenses.stream()
+					.map(Expense::getAmount)
+					.reduce(BigDecimal.ZERO, BigDecimal::add);
+			totalAmount = totalAmount.add(statusAmount);
+			statusSummaries.put(status, MonthlyExpenseReport.StatusSummary.builder()
+					.count(statusExpenses.size())
+					.amount(statusAmount)
+					.build());
+		}
+		for(MonthlyExpenseReport.StatusSummary summary : statusSummaries.values()) {
+			if(totalAmount.compareTo(BigDecimal.ZERO) > 0) {
+				summary.setPercentage(summary.getAmount()
+						.divide(totalAmount, 6, RoundingMode.HALF_UP)
+						.multiply(BigDecimal.valueOf(100))
+						.doubleValue());
+			}
+		}
+		return MonthlyExpenseReport.builder()
+				.targetMonth(lastMonth)
+				.totalCount(expenses.size())
+				.totalAmount(totalAmount)
+				.statusSummaries(statusSummaries)
+				.build();
+	}
+
+	private Object[] row(int i, String status, BigDecimal amount, LocalDateTime submittedAt) {
+		return new Object[] {(long)(i % 50) + 1, "経費" + i, amount, status, submittedAt,
+				submittedAt.minusHours(1), submittedAt};
+	}
+}
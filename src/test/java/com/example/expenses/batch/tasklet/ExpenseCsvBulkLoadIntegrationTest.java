@@ -0,0 +1,173 @@
+package com.example.expenses.batch.tasklet;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Answers;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.StepContribution;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import com.example.expenses.repository.ExpenseImportStagingMapper;
+
+/**
+ * 一括ロード（importMode=bulk-load）をMySQL（local_infile=ON）で実行するテスト
+ * LOAD DATA LOCAL INFILE のエスケープ、allowLoadLocalInfileInPath による制限、
+ * ロード件数の確認、INSERT ... SELECT による登録を確認する
+ */
+@SpringBootTest
+@Import(ExpenseCsvBulkLoadIntegrationTest.LocalInfileMySqlConfiguration.class)
+@DisplayName("一括ロード（MySQL）")
+class ExpenseCsvBulkLoadIntegrationTest {
+
+	private static final long JOB_EXECUTION_ID = 9_001L;
+
+	@TestConfiguration(proxyBeanMethods = false)
+	static class LocalInfileMySqlConfiguration {
+
+		@Bean
+		@ServiceConnection
+		MySQLContainer<?> mysqlContainer() {
+			//docker-compose と同じく LOAD DATA LOCAL INFILE を許可する
+			return new MySQLContainer<>(DockerImageName.parse("mysql:latest"))
+					.withDatabaseName("testDb")
+					.withUsername("test")
+					.withPassword("test")
+					.withCommand("--local-infile=1", "--innodb-ft-enable-stopword=0");
+		}
+	}
+
+	@TempDir
+	static Path workDir;
+
+	@DynamicPropertySource
+	static void bulkLoadProperties(DynamicPropertyRegistry registry) {
+		//接続の allowLoadLocalInfileInPath もこのディレクトリになる
+		registry.add("batch.import.bulk-load.work-dir", () -> workDir.toAbsolutePath().toString());
+	}
+
+	@TempDir
+	Path inputDir;
+
+	@Autowired
+	private ExpenseCsvBulkLoadTasklet tasklet;
+	@Autowired
+	private ExpenseImportStagingMapper stagingMapper;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@BeforeEach
+	void setUp() {
+		jdbcTemplate.update("DELETE FROM expenses");
+		jdbcTemplate.update("DELETE FROM expense_import_staging");
+	}
+
+	@Test
+	@DisplayName("タブ・バックスラッシュ・マルチバイト文字を含むタイトルをそのまま登録し、ステージングの行を削除する")
+	void 特殊文字を含む行をロードして登録する() throws Exception {
+
+		List<String> titles = List.of(
+				"出張\t交通費",
+				"C:\\経費\\領収書.pdf",
+				"改行ではない\\n文字",
+				"寿司🍣と㈱",
+				"末尾のバックスラッシュ\\",
+				//VARCHAR(100)に収まる100文字（UTF-16では200）
+				"🍣".repeat(100));
+		StringBuilder csv = new StringBuilder("applicantId,title,amount,currency\n");
+		for(int i = 0; i < titles.size(); i++) {
+			csv.append(i + 1).append(",\"").append(titles.get(i)).append("\",").append(1000 + i).append(".50,JPY\n");
+		}
+		//検証で除外される行
+		csv.append("9,,100,JPY\n");
+		Files.writeString(inputDir.resolve("sample.csv"), csv, StandardCharsets.UTF_8);
+
+		StepContribution contribution = mock(StepContribution.class);
+		transactionTemplate.executeWithoutResult(status -> execute(contribution));
+
+		List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+				"SELECT applicant_id, title, amount, currency, status FROM expenses ORDER BY id");
+		assertThat(rows).extracting(row -> row.get("title")).containsExactlyElementsOf(titles);
+		assertThat(rows).extracting(row -> ((Number)row.get("applicant_id")).longValue()).containsExactly(1L, 2L, 3L, 4L, 5L, 6L);
+		assertThat((BigDecimal)rows.get(4).get("amount")).isEqualByComparingTo("1004.50");
+		assertThat(rows).extracting(row -> row.get("status")).containsOnly("DRAFT");
+
+		verify(contribution).incrementWriteCount(6);
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM expense_import_staging", Long.class)).isZero();
+		//ステージングファイルは削除し、エラーファイルは残す
+		assertThat(workDir.resolve("staging_" + JOB_EXECUTION_ID + ".tsv")).doesNotExist();
+		assertThat(Files.readAllLines(workDir.resolve("errors_" + JOB_EXECUTION_ID + ".csv"))).hasSize(2);
+	}
+
+	@Test
+	@DisplayName("ロードできた件数がステージングファイルの件数と異なる場合は失敗し、何も登録しない")
+	void ロード件数が一致しない場合は失敗する() throws Exception {
+
+		Files.writeString(inputDir.resolve("sample.csv"), """
+				applicantId,title,amount,currency
+				1,交通費,1000,JPY
+				2,書籍,500,JPY
+				""", StandardCharsets.UTF_8);
+		//同じジョブ・行番号の行が残っていると、LOCAL のロードは重複行を警告にして読み飛ばす
+		jdbcTemplate.update("""
+				INSERT INTO expense_import_staging (job_execution_id, line_no, applicant_id, title, amount, currency)
+				VALUES (?, 2, 1, '残っていた行', 1, 'JPY')
+				""", JOB_EXECUTION_ID);
+
+		assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status -> execute(mock(StepContribution.class))))
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("staged=2, loaded=1");
+
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM expenses", Long.class)).isZero();
+	}
+
+	@Test
+	@DisplayName("作業ディレクトリ（allowLoadLocalInfileInPath）以外のファイルはロードできない")
+	void 作業ディレクトリ以外のファイルはロードできない() throws Exception {
+
+		Path outside = inputDir.resolve("outside.tsv");
+		Files.writeString(outside, "2\t1\t交通費\t1000\tJPY\n", StandardCharsets.UTF_8);
+
+		assertThatThrownBy(() -> stagingMapper.load(outside.toAbsolutePath().toString(), JOB_EXECUTION_ID))
+				.isInstanceOf(DataAccessException.class);
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM expense_import_staging", Long.class)).isZero();
+	}
+
+	private void execute(StepContribution contribution) {
+		ChunkContext chunkContext = mock(ChunkContext.class, Answers.RETURNS_DEEP_STUBS);
+		when(chunkContext.getStepContext().getJobParameters()).thenReturn(Map.of("inputDir", inputDir.toString()));
+		when(chunkContext.getStepContext().getStepExecution().getJobExecutionId()).thenReturn(JOB_EXECUTION_ID);
+		try {
+			tasklet.execute(contribution, chunkContext);
+		}catch(RuntimeException e) {
+			throw e;
+		}catch(Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,134 @@
+package com.example.expenses.batch.tasklet;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.StepContribution;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.expenses.batch.processor.ExpenseCsvItemProcessor;
+import com.example.expenses.repository.ExpenseImportStagingMapper;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ExpenseCsvBulkLoadTaskletのユニットテスト")
+class ExpenseCsvBulkLoadTaskletTest {
+
+	@Mock
+	private ExpenseImportStagingMapper stagingMapper;
+	@Mock
+	private StepContribution contribution;
+	@Mock(answer = Answers.RETURNS_DEEP_STUBS)
+	private ChunkContext chunkContext;
+
+	@TempDir
+	Path inputDir;
+	@TempDir
+	Path workDir;
+
+	private ExpenseCsvBulkLoadTasklet tasklet;
+
+	@BeforeEach
+	void setUp() {
+		tasklet = new ExpenseCsvBulkLoadTasklet(new ExpenseCsvItemProcessor(), stagingMapper);
+		ReflectionTestUtils.setField(tasklet, "workDir", workDir.toString());
+		ReflectionTestUtils.setField(tasklet, "encoding", StandardCharsets.UTF_8);
+		when(chunkContext.getStepContext().getJobParameters()).thenReturn(Map.of("inputDir", inputDir.toString()));
+		when(chunkContext.getStepContext().getStepExecution().getJobExecutionId()).thenReturn(42L);
+	}
+
+	@Test
+	@DisplayName("検証を通った行だけをステージングファイルに書き出してロードし、除外した行はエラーファイルに書き出す")
+	void 有効な行をロードし無効な行をエラーファイルに書き出す() throws Exception {
+
+		Files.writeString(inputDir.resolve("sample.csv"), """
+				applicantId,title,amount,currency
+				1,交通費,1000,JPY
+				2,,500,JPY
+				x,書籍,200,JPY
+				3,"タブ\t入り",abc,JPY
+				4,"会食""二次会""\",3000.50,USD
+				""");
+
+		AtomicReference<List<String>> staged = new AtomicReference<>();
+		when(stagingMapper.load(anyString(), eq(42L))).thenAnswer(invocation -> {
+			staged.set(Files.readAllLines(Path.of(invocation.<String>getArgument(0))));
+			return 2;
+		});
+		when(stagingMapper.mergeIntoExpenses(42L)).thenReturn(2);
+
+		tasklet.execute(contribution, chunkContext);
+
+		//行番号（ヘッダーを含む）, 申請者ID, タイトル, 金額, 通貨
+		assertThat(staged.get()).containsExactly(
+				"2\t1\t交通費\t1000\tJPY",
+				"6\t4\t会食\"二次会\"\t3000.50\tUSD");
+		assertThat(Files.readAllLines(workDir.resolve("errors_42.csv")))
+			.hasSize(4)
+			.anySatisfy(line -> assertThat(line).startsWith("3,\"入力チェックエラー\""))
+			.anySatisfy(line -> assertThat(line).startsWith("4,\"applicantId"))
+			.anySatisfy(line -> assertThat(line).startsWith("5,\"入力チェックエラー\",\"3\",\"タブ\t入り\""));
+
+		verify(stagingMapper).deleteByJobExecutionId(42L);
+		verify(contribution).incrementWriteCount(2);
+		verify(contribution, times(2)).incrementFilterCount(1);
+		verify(contribution).incrementReadSkipCount();
+		//ステージングファイルは削除する
+		assertThat(workDir.resolve("staging_42.tsv")).doesNotExist();
+	}
+
+	@Test
+	@DisplayName("ロード件数がステージングの件数と一致しない場合は登録せずに失敗する")
+	void ロード件数が一致しなければ失敗する() throws Exception {
+
+		Files.writeString(inputDir.resolve("sample.csv"), "applicantId,title,amount,currency\n1,交通費,1000,JPY\n");
+		when(stagingMapper.load(anyString(), eq(42L))).thenReturn(0);
+
+		assertThatThrownBy(() -> tasklet.execute(contribution, chunkContext))
+			.isInstanceOf(IllegalStateException.class);
+		verify(stagingMapper, never()).mergeIntoExpenses(anyLong());
+		assertThat(workDir.resolve("staging_42.tsv")).doesNotExist();
+	}
+
+	@Test
+	@DisplayName("タイトルの長さは文字数で判定し、サロゲートペアの文字も1文字として数える")
+	void タイトルの長さは文字数で判定する() throws Exception {
+
+		//100文字（UTF-16では200）は登録でき、101文字は除外する
+		String fits = "🍣".repeat(100);
+		String tooLong = "𠮷".repeat(101);
+		Files.writeString(inputDir.resolve("sample.csv"),
+				"applicantId,title,amount,currency\n1," + fits + ",1000,JPY\n2," + tooLong + ",500,JPY\n");
+
+		AtomicReference<List<String>> staged = new AtomicReference<>();
+		when(stagingMapper.load(anyString(), eq(42L))).thenAnswer(invocation -> {
+			staged.set(Files.readAllLines(Path.of(invocation.<String>getArgument(0))));
+			return 1;
+		});
+		when(stagingMapper.mergeIntoExpenses(42L)).thenReturn(1);
+
+		tasklet.execute(contribution, chunkContext);
+
+		assertThat(staged.get()).containsExactly("2\t1\t" + fits + "\t1000\tJPY");
+		assertThat(Files.readAllLines(workDir.resolve("errors_42.csv")))
+			.hasSize(2)
+			.anySatisfy(line -> assertThat(line).startsWith("3,\"項目の長さが上限を超えています\""));
+		verify(contribution).incrementFilterCount(1);
+	}
+}
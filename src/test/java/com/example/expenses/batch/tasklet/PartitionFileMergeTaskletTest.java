@@ -0,0 +1,190 @@
+package com.example.expenses.batch.tasklet;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.StepContribution;
+import org.springframework.batch.core.step.StepExecution;
+import org.springframework.batch.infrastructure.item.Chunk;
+import org.springframework.batch.infrastructure.item.ExecutionContext;
+import org.springframework.batch.infrastructure.repeat.RepeatStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.expenses.batch.writer.ExpenseCsvLineAggregator;
+import com.example.expenses.batch.writer.ExportCompression;
+import com.example.expenses.batch.writer.GzipCsvItemWriter;
+import com.example.expenses.domain.Expense;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PartitionFileMergeTaskletのユニットテスト")
+class PartitionFileMergeTaskletTest {
+
+	private static final Charset MS932 = Charset.forName("MS932");
+	private static final String HEADER = "id,applicant_id,title,amount,currency,status\r\n";
+
+	@Mock
+	private StepContribution contribution;
+	@Mock(answer = Answers.RETURNS_DEEP_STUBS)
+	private ChunkContext chunkContext;
+
+	@TempDir
+	Path outputDir;
+
+	private PartitionFileMergeTasklet tasklet;
+
+	@BeforeEach
+	void setUp() {
+		tasklet = new PartitionFileMergeTasklet();
+		ReflectionTestUtils.setField(tasklet, "checksumManifest", true);
+		when(chunkContext.getStepContext().getJobParameters()).thenReturn(Map.of("outputDir", outputDir.toString()));
+	}
+
+	@Test
+	@DisplayName("パーティションの番号順に連結してヘッダーを1行にし、マニフェストを出力してパーティションのファイルを削除する")
+	void パーティションの順に結合する() throws Exception {
+
+		//partition10 が partition2 より後ろになること（文字列順ではなく番号順）
+		writePartition("partition0", "1,1,交通費,1000,JPY,DRAFT\r\n2,1,書籍,500,JPY,SUBMITTED\r\n");
+		writePartition("partition2", "3,2,会食,3000.50,USD,APPROVED\r\n");
+		writePartition("partition10", "4,3,宿泊費,12000,JPY,REJECTED\r\n");
+		when(chunkContext.getStepContext().getStepExecution().getJobExecution().getStepExecutions())
+				.thenReturn(List.of(
+						workerStep("partition10"),
+						workerStep("partition0"),
+						masterStep(),
+						workerStep("partition2")));
+
+		RepeatStatus status = tasklet.execute(contribution, chunkContext);
+
+		assertThat(status).isEqualTo(RepeatStatus.FINISHED);
+		Path merged = outputDir.resolve("expenses.csv");
+		assertThat(Files.readString(merged, MS932)).isEqualTo(HEADER
+				+ "1,1,交通費,1000,JPY,DRAFT\r\n2,1,書籍,500,JPY,SUBMITTED\r\n"
+				+ "3,2,会食,3000.50,USD,APPROVED\r\n"
+				+ "4,3,宿泊費,12000,JPY,REJECTED\r\n");
+
+		String sha256 = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(merged)));
+		assertThat(Files.readString(outputDir.resolve("expenses.csv.sha256"))).isEqualTo(sha256 + "  expenses.csv\n");
+		//結合後は expenses.csv とマニフェストだけが残る
+		try(var files = Files.list(outputDir)) {
+			assertThat(files.map(file -> file.getFileName().toString()))
+					.containsExactlyInAnyOrder("expenses.csv", "expenses.csv.sha256");
+		}
+	}
+
+	@Test
+	@DisplayName("結合だけを再実行した場合は出力先に残っているパーティションのファイルを結合する")
+	void 再実行時は出力先のファイルを結合する() throws Exception {
+
+		ReflectionTestUtils.setField(tasklet, "checksumManifest", false);
+		writePartition("partition1", "2,1,書籍,500,JPY,SUBMITTED\r\n");
+		writePartition("partition0", "1,1,交通費,1000,JPY,DRAFT\r\n");
+		//ヘッダーのみ（0件）のパーティション
+		writePartition("partition2", "");
+		when(chunkContext.getStepContext().getStepExecution().getJobExecution().getStepExecutions())
+				.thenReturn(List.of());
+
+		tasklet.execute(contribution, chunkContext);
+
+		assertThat(Files.readString(outputDir.resolve("expenses.csv"), MS932)).isEqualTo(HEADER
+				+ "1,1,交通費,1000,JPY,DRAFT\r\n"
+				+ "2,1,書籍,500,JPY,SUBMITTED\r\n");
+		assertThat(outputDir.resolve("expenses.csv.sha256")).doesNotExist();
+		assertThat(outputDir.resolve("expenses_partition0.csv")).doesNotExist();
+	}
+
+	@Test
+	@DisplayName("gzipの場合は2ファイル目以降のヘッダー行のgzipメンバーを除いて連結し、1つのgzipとして展開できる")
+	void gzipのファイルを結合する() throws Exception {
+
+		ReflectionTestUtils.setField(tasklet, "checksumManifest", false);
+		when(chunkContext.getStepContext().getJobParameters())
+				.thenReturn(Map.of("outputDir", outputDir.toString(), "compression", "gzip"));
+		writeGzipPartition("partition0", 1, 2);
+		writeGzipPartition("partition1", 3);
+		writeGzipPartition("partition2");
+		when(chunkContext.getStepContext().getStepExecution().getJobExecution().getStepExecutions())
+				.thenReturn(List.of(workerStep("partition0"), workerStep("partition1"), workerStep("partition2")));
+
+		tasklet.execute(contribution, chunkContext);
+
+		String nl = System.lineSeparator();
+		try(InputStream in = new GZIPInputStream(Files.newInputStream(outputDir.resolve("expenses.csv.gz")))) {
+			assertThat(new String(in.readAllBytes(), MS932)).isEqualTo("id,applicant_id,title,amount,currency,status" + nl
+					+ "1,1,交通費1,1000,JPY,DRAFT" + nl
+					+ "2,1,交通費2,1000,JPY,DRAFT" + nl
+					+ "3,1,交通費3,1000,JPY,DRAFT" + nl);
+		}
+		assertThat(outputDir.resolve("expenses_partition0.csv.gz")).doesNotExist();
+	}
+
+	@Test
+	@DisplayName("結合するファイルがない場合は例外をスローする")
+	void 結合するファイルがない場合は例外() {
+
+		when(chunkContext.getStepContext().getStepExecution().getJobExecution().getStepExecutions())
+				.thenReturn(List.of());
+
+		assertThatThrownBy(() -> tasklet.execute(contribution, chunkContext))
+				.isInstanceOf(IllegalStateException.class);
+		assertThat(outputDir.resolve("expenses.csv")).doesNotExist();
+	}
+
+	private void writePartition(String partition, String rows) throws Exception {
+		Files.writeString(outputDir.resolve("expenses_" + partition + ".csv"), HEADER + rows, MS932);
+	}
+
+	private void writeGzipPartition(String partition, long... ids) {
+		GzipCsvItemWriter<Expense> writer = new GzipCsvItemWriter<>("parallelWriter",
+				outputDir.resolve("expenses_" + partition + ".csv.gz"), MS932, new ExpenseCsvLineAggregator(false),
+				"id,applicant_id,title,amount,currency,status", ExportCompression.GZIP);
+		writer.open(new ExecutionContext());
+		try {
+			writer.write(new Chunk<>(LongStream.of(ids).mapToObj(id -> {
+				Expense expense = Expense.create(1L, "交通費" + id, new BigDecimal("1000"), "JPY");
+				ReflectionTestUtils.setField(expense, "id", id);
+				return expense;
+			}).toList()));
+		}catch(Exception e) {
+			throw new IllegalStateException(e);
+		}finally {
+			writer.close();
+		}
+	}
+
+	private StepExecution workerStep(String partition) {
+		StepExecution step = mock(StepExecution.class);
+		ExecutionContext context = new ExecutionContext();
+		context.putString("partition", partition);
+		when(step.getStepName()).thenReturn("workerStep:" + partition);
+		when(step.getExecutionContext()).thenReturn(context);
+		return step;
+	}
+
+	private StepExecution masterStep() {
+		StepExecution step = mock(StepExecution.class);
+		when(step.getStepName()).thenReturn("masterStep");
+		return step;
+	}
+}
@@ -0,0 +1,162 @@
+package com.example.expenses.batch.tasklet;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import org.apache.ibatis.executor.result.DefaultResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Answers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Stubber;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.StepContribution;
+import org.springframework.batch.infrastructure.item.ExecutionContext;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.expenses.domain.ExpenseStatus;
+import com.example.expenses.dto.batch.ExpenseGroupTotal;
+import com.example.expenses.dto.batch.MonthlyExpenseReport;
+import com.example.expenses.repository.ExpenseDailyRollupMapper;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ReportGenerationTaskletのユニットテスト")
+class ReportGenerationTaskletTest {
+
+	private static final YearMonth TARGET_MONTH = YearMonth.of(2025, 3);
+
+	@Mock
+	private ExpenseDailyRollupMapper rollupMapper;
+	@Mock
+	private StepContribution contribution;
+	@Mock(answer = Answers.RETURNS_DEEP_STUBS)
+	private ChunkContext chunkContext;
+
+	@InjectMocks
+	private ReportGenerationTasklet tasklet;
+
+	@TempDir
+	Path outputDir;
+
+	private final ExecutionContext jobContext = new ExecutionContext();
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(tasklet, "outputDir", outputDir.toString());
+		//メモリに保持する行数を小さくして、一時ファイルへの書き出しを発生させる
+		ReflectionTestUtils.setField(tasklet, "rowAccessWindow", 10);
+		when(chunkContext.getStepContext().getStepExecution().getJobExecution().getExecutionContext())
+				.thenReturn(jobContext);
+	}
+
+	@Test
+	@DisplayName("集計シートと申請者別・カテゴリ別の明細シートを出力し、ファイルパスをジョブに保存する")
+	void 集計シートと明細シートを出力する() throws Exception {
+
+		jobContext.put("monthlyReport", report());
+		List<ExpenseGroupTotal> applicants = IntStream.rangeClosed(1, 1_000)
+				.mapToObj(i -> new ExpenseGroupTotal((long)i, "user" + i + "@example.com", ExpenseStatus.APPROVED,
+						i % 5 + 1, new BigDecimal(i * 100)))
+				.toList();
+		stream(applicants).when(rollupMapper).streamByApplicant(eq(LocalDate.of(2025, 3, 1)), eq(LocalDate.of(2025, 3, 31)), any());
+		stream(List.of(
+				new ExpenseGroupTotal(0L, null, ExpenseStatus.SUBMITTED, 2, new BigDecimal("3000.50")),
+				new ExpenseGroupTotal(1L, "交通費", ExpenseStatus.APPROVED, 4, new BigDecimal("12000"))))
+				.when(rollupMapper).streamByCategory(eq(LocalDate.of(2025, 3, 1)), eq(LocalDate.of(2025, 3, 31)), any());
+
+		tasklet.execute(contribution, chunkContext);
+
+		File file = outputDir.resolve("monthly_report_202503.xlsx").toFile();
+		assertThat(jobContext.getString("reportFilePath")).isEqualTo(file.getAbsolutePath());
+
+		try(XSSFWorkbook workbook = new XSSFWorkbook(file)) {
+			assertThat(workbook.getNumberOfSheets()).isEqualTo(3);
+
+			Sheet summary = workbook.getSheet("月次レポート");
+			assertThat(summary.getRow(0).getCell(0).getStringCellValue()).isEqualTo("月次経費レポート - 2025年03月");
+			assertThat(summary.getRow(2).getCell(0).getStringCellValue()).isEqualTo("ステータス");
+			Row totalRow = summary.getRow(3 + ExpenseStatus.values().length);
+			assertThat(totalRow.getCell(0).getStringCellValue()).isEqualTo("合計");
+			assertThat(totalRow.getCell(1).getNumericCellValue()).isEqualTo(3);
+			//列幅は固定値（文字数 × 256）
+			assertThat(summary.getColumnWidth(2)).isEqualTo(16 * 256);
+
+			//ウィンドウより多い行も、すべて取得順に出力される
+			Sheet applicantSheet = workbook.getSheet("申請者別");
+			assertThat(applicantSheet.getLastRowNum()).isEqualTo(1_000);
+			assertThat(applicantSheet.getRow(0).getCell(1).getStringCellValue()).isEqualTo("申請者");
+			assertThat(applicantSheet.getRow(1).getCell(1).getStringCellValue()).isEqualTo("user1@example.com");
+			assertThat(applicantSheet.getRow(1_000).getCell(0).getNumericCellValue()).isEqualTo(1_000);
+			assertThat(applicantSheet.getRow(1_000).getCell(4).getNumericCellValue()).isEqualTo(100_000);
+
+			Sheet categorySheet = workbook.getSheet("カテゴリ別");
+			assertThat(categorySheet.getLastRowNum()).isEqualTo(2);
+			assertThat(categorySheet.getRow(1).getCell(1).getStringCellValue()).isEqualTo("未設定");
+			assertThat(categorySheet.getRow(1).getCell(2).getStringCellValue()).isEqualTo("SUBMITTED");
+			assertThat(categorySheet.getRow(1).getCell(4).getNumericCellValue()).isEqualTo(3000.5);
+			assertThat(categorySheet.getRow(2).getCell(1).getStringCellValue()).isEqualTo("交通費");
+		}
+	}
+
+	@Test
+	@DisplayName("月次レポートがない場合は例外をスローする")
+	void 月次レポートがない場合は例外() {
+
+		assertThatThrownBy(() -> tasklet.execute(contribution, chunkContext))
+				.isInstanceOf(IllegalStateException.class);
+		verifyNoInteractions(rollupMapper);
+	}
+
+	/**
+	 * 引数の handler に1行ずつ渡すスタブ
+	 */
+	@SuppressWarnings("unchecked")
+	private Stubber stream(List<ExpenseGroupTotal> rows) {
+		return doAnswer(invocation -> {
+			ResultHandler<ExpenseGroupTotal> handler = invocation.getArgument(2, ResultHandler.class);
+			DefaultResultContext<ExpenseGroupTotal> context = new DefaultResultContext<>();
+			for(ExpenseGroupTotal row : rows) {
+				context.nextResultObject(row);
+				handler.handleResult(context);
+			}
+			return null;
+		});
+	}
+
+	private MonthlyExpenseReport report() {
+		Map<ExpenseStatus, MonthlyExpenseReport.StatusSummary> summaries = new EnumMap<>(ExpenseStatus.class);
+		for(ExpenseStatus status : ExpenseStatus.values()) {
+			summaries.put(status, MonthlyExpenseReport.StatusSummary.builder()
+					.count(status == ExpenseStatus.APPROVED ? 3 : 0)
+					.amount(status == ExpenseStatus.APPROVED ? new BigDecimal("4500") : BigDecimal.ZERO)
+					.percentage(status == ExpenseStatus.APPROVED ? 100.0 : 0.0)
+					.build());
+		}
+		return MonthlyExpenseReport.builder()
+				.targetMonth(TARGET_MONTH)
+				.totalCount(3)
+				.totalAmount(new BigDecimal("4500"))
+				.statusSummaries(summaries)
+				.build();
+	}
+}
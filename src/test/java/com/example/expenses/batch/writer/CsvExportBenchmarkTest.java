@@ -0,0 +1,137 @@
+package com.example.expenses.batch.writer;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.infrastructure.item.Chunk;
+import org.springframework.batch.infrastructure.item.ExecutionContext;
+import org.springframework.batch.infrastructure.item.ItemStreamWriter;
+import org.springframework.batch.infrastructure.item.file.builder.FlatFileItemWriterBuilder;
+import org.springframework.batch.infrastructure.item.file.transform.BeanWrapperFieldExtractor;
+import org.springframework.batch.infrastructure.item.file.transform.DelimitedLineAggregator;
+import org.springframework.batch.infrastructure.item.file.transform.LineAggregator;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.expenses.benchmark.Benchmark;
+import com.example.expenses.benchmark.BenchmarkTest;
+import com.example.expenses.domain.Expense;
+
+/**
+ * CSVエクスポートのベンチマーク
+ * -1行の変換：BeanWrapperFieldExtractor + DelimitedLineAggregator / ExpenseCsvLineAggregator
+ * -圧縮形式：none（FlatFileItemWriter） / gzip / gzip-fast（GzipCsvItemWriter）
+ */
+@BenchmarkTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("CSVエクスポートベンチマーク")
+class CsvExportBenchmarkTest {
+
+	private static final int ROWS = 200_000;
+	private static final int CHUNK_SIZE = 1000;
+	private static final String HEADER = "id,applicantId,title,amount,currency,status,createdAt";
+
+	@TempDir
+	Path outputDir;
+
+	private final List<Expense> expenses = new ArrayList<>(ROWS);
+
+	@BeforeAll
+	void createExpenses() {
+		for(int i = 0; i < ROWS; i++) {
+			Expense expense = Expense.create((long)(i % 500) + 1, "交通費" + (i % 1000), new BigDecimal(i % 10_000 + 100), "JPY");
+			ReflectionTestUtils.setField(expense, "id", (long)i + 1);
+			ReflectionTestUtils.setField(expense, "createdAt", LocalDateTime.of(2025, 1, 1, 0, 0).plusMinutes(i));
+			expenses.add(expense);
+		}
+	}
+
+	@Test
+	@DisplayName("ExpenseCsvLineAggregator は BeanWrapper より速く、1行あたりの割り当てが少ない")
+	void 行変換の比較() throws Exception {
+
+		BeanWrapperFieldExtractor<Expense> fieldExtractor = new BeanWrapperFieldExtractor<>();
+		fieldExtractor.setNames(new String[] {"id", "applicantId", "title", "amount", "currency", "status", "createdAt"});
+		DelimitedLineAggregator<Expense> beanWrapper = new DelimitedLineAggregator<>();
+		beanWrapper.setDelimiter(",");
+		beanWrapper.setFieldExtractor(fieldExtractor);
+		ExpenseCsvLineAggregator compiled = new ExpenseCsvLineAggregator(true);
+
+		//同じ行になること
+		assertThat(compiled.aggregate(expenses.get(0))).isEqualTo(beanWrapper.aggregate(expenses.get(0)));
+
+		Benchmark.Result before = Benchmark.measure("BeanWrapper", ROWS, 2, 10, () -> aggregate(beanWrapper));
+		Benchmark.Result after = Benchmark.measure("ExpenseCsvLineAggregator", ROWS, 2, 10, () -> aggregate(compiled));
+
+		Benchmark.assertFaster(after, before, 1.5);
+		assertThat(after.bytesPerOperation()).isLessThan(before.bytesPerOperation());
+	}
+
+	@Test
+	@DisplayName("gzip は出力サイズを半分以下にし、gzip-fast は gzip より遅くならない")
+	void 圧縮形式の比較() throws Exception {
+
+		List<Chunk<Expense>> chunks = new ArrayList<>();
+		for(int from = 0; from < ROWS; from += CHUNK_SIZE) {
+			chunks.add(new Chunk<>(expenses.subList(from, Math.min(from + CHUNK_SIZE, ROWS))));
+		}
+
+		Map<ExportCompression, Benchmark.Result> results = new EnumMap<>(ExportCompression.class);
+		Map<ExportCompression, Long> sizes = new EnumMap<>(ExportCompression.class);
+		for(ExportCompression compression : ExportCompression.values()) {
+			Path[] file = new Path[1];
+			results.put(compression, Benchmark.measure("compression=" + compression.getParameterValue(), ROWS, 1, 3,
+					() -> file[0] = write(compression, chunks)));
+			sizes.put(compression, Files.size(file[0]));
+		}
+
+		long plain = sizes.get(ExportCompression.NONE);
+		assertThat(sizes.get(ExportCompression.GZIP)).isLessThan(plain / 2);
+		assertThat(sizes.get(ExportCompression.GZIP_FAST)).isLessThan(plain / 2);
+		assertThat(sizes.get(ExportCompression.GZIP)).isLessThanOrEqualTo(sizes.get(ExportCompression.GZIP_FAST));
+		Benchmark.assertFaster(results.get(ExportCompression.GZIP_FAST), results.get(ExportCompression.GZIP), 0.9);
+	}
+
+	private long aggregate(LineAggregator<Expense> aggregator) {
+		long length = 0;
+		for(Expense expense : expenses) {
+			length += aggregator.aggregate(expense).length();
+		}
+		return length;
+	}
+
+	private Path write(ExportCompression compression, List<Chunk<Expense>> chunks) throws Exception {
+		Path file = outputDir.resolve(compression.fileName("expenses_" + compression.getParameterValue() + ".csv"));
+		ItemStreamWriter<Expense> writer = compression.isCompressed()
+				? new GzipCsvItemWriter<>("writer", file, Charset.forName("MS932"), new ExpenseCsvLineAggregator(true), HEADER, compression)
+				: new FlatFileItemWriterBuilder<Expense>()
+						.name("writer")
+						.resource(new FileSystemResource(file))
+						.encoding("MS932")
+						.lineAggregator(new ExpenseCsvLineAggregator(true))
+						.headerCallback(w -> w.write(HEADER))
+						.build();
+		ExecutionContext context = new ExecutionContext();
+		writer.open(context);
+		for(Chunk<Expense> chunk : chunks) {
+			writer.write(chunk);
+			writer.update(context);
+		}
+		writer.close();
+		return file;
+	}
+}
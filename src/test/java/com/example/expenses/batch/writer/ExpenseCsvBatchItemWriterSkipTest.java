@@ -0,0 +1,105 @@
+package com.example.expenses.batch.writer;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.BufferedWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.job.Job;
+import org.springframework.batch.core.job.JobExecution;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.job.parameters.JobParametersBuilder;
+import org.springframework.batch.core.launch.JobOperator;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.Step;
+import org.springframework.batch.core.step.StepExecution;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.example.expenses.batch.config.CsvImportBatchConfiguration;
+import com.example.expenses.batch.config.TestcontainersConfiguration;
+import com.example.expenses.batch.processor.ExpenseCsvItemProcessor;
+
+/**
+ * csvImportStep で複数行INSERTが失敗した場合のスキップ
+ * chunkを1件ずつ書き直し、INSERTできない行だけをスキップして他の行は登録されることを確認する
+ */
+@SpringBootTest
+@Import(TestcontainersConfiguration.class)
+@DisplayName("ExpenseCsvBatchItemWriterの書き込み失敗時のスキップ")
+class ExpenseCsvBatchItemWriterSkipTest {
+
+	private static final int ROWS = 10;
+
+	@TempDir
+	Path inputDir;
+
+	@Autowired
+	private ExpenseCsvItemProcessor processor;
+	@Autowired
+	private ExpenseCsvBatchItemWriter writer;
+	@Autowired
+	private JobRepository jobRepository;
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+	@Autowired
+	private JobOperator jobOperator;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void setUp() {
+		jdbcTemplate.update("DELETE FROM expenses");
+	}
+
+	@Test
+	@DisplayName("title が長すぎる行だけをスキップし、同じchunkの他の行は登録する")
+	void INSERTできない行だけをスキップする() throws Exception {
+
+		//5行目は title（VARCHAR(100)）を超える101文字
+		List<String> titles = new ArrayList<>();
+		for(int i = 0; i < ROWS; i++) {
+			titles.add(i == 4 ? "あ".repeat(101) : "交通費" + i);
+		}
+		try(BufferedWriter out = Files.newBufferedWriter(inputDir.resolve("sample.csv"), StandardCharsets.UTF_8)) {
+			out.write("applicantId,title,amount,currency");
+			out.newLine();
+			for(int i = 0; i < ROWS; i++) {
+				out.write((i + 1) + "," + titles.get(i) + "," + (1000 + i) + ",JPY");
+				out.newLine();
+			}
+		}
+
+		CsvImportBatchConfiguration config = new CsvImportBatchConfiguration(processor, writer);
+		Step step = config.csvImportStep(jobRepository, transactionManager,
+				config.expenseCsvReader(inputDir.toString()), null, config.csvImportProcessorExecutor(1), "flat", 1);
+		Job job = new JobBuilder("csvImportSkipTest", jobRepository).start(step).build();
+
+		JobExecution execution = jobOperator.start(job, new JobParametersBuilder()
+				.addLong("executionTime", System.currentTimeMillis())
+				.toJobParameters());
+
+		assertThat(execution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+		StepExecution stepExecution = execution.getStepExecutions().iterator().next();
+		assertThat(stepExecution.getSkipCount()).isEqualTo(1);
+		assertThat(stepExecution.getWriteSkipCount()).isEqualTo(1);
+		assertThat(stepExecution.getWriteCount()).isEqualTo(ROWS - 1);
+
+		List<String> expected = new ArrayList<>(titles);
+		expected.remove(4);
+		assertThat(jdbcTemplate.queryForList("SELECT title FROM expenses ORDER BY applicant_id", String.class))
+				.containsExactlyElementsOf(expected);
+	}
+}
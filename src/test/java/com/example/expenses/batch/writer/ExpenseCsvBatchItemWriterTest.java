@@ -0,0 +1,58 @@
+package com.example.expenses.batch.writer;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.batch.infrastructure.item.Chunk;
+
+import com.example.expenses.domain.Expense;
+import com.example.expenses.repository.ExpenseMapper;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ExpenseCsvBatchItemWriterのユニットテスト")
+class ExpenseCsvBatchItemWriterTest {
+
+	@Mock
+	private ExpenseMapper expenseMapper;
+	@InjectMocks
+	private ExpenseCsvBatchItemWriter writer;
+
+	@Test
+	@DisplayName("chunkを1回の複数行INSERTで登録する")
+	void chunkを1回のINSERTで登録する() throws Exception {
+
+		Expense expense1 = Expense.create(1L, "交通費", new BigDecimal(1000), "JPY");
+		Expense expense2 = Expense.create(2L, "食費", new BigDecimal(2000), "JPY");
+		Expense expense3 = Expense.create(3L, "宿泊費", new BigDecimal(3000), "JPY");
+
+		writer.write(new Chunk<>(List.of(expense1, expense2, expense3)));
+
+		verify(expenseMapper, times(1)).insertAll(List.of(expense1, expense2, expense3));
+		verify(expenseMapper, never()).insert(any());
+	}
+
+	@Test
+	@DisplayName("500件を超えるchunkは分割して登録する")
+	void 大きなchunkは分割して登録する() throws Exception {
+
+		List<Expense> items = IntStream.range(0, 1_200)
+				.mapToObj(i -> Expense.create(1L, "明細" + i, new BigDecimal(100), "JPY"))
+				.toList();
+
+		writer.write(new Chunk<>(items));
+
+		verify(expenseMapper).insertAll(items.subList(0, 500));
+		verify(expenseMapper).insertAll(items.subList(500, 1_000));
+		verify(expenseMapper).insertAll(items.subList(1_000, 1_200));
+	}
+}
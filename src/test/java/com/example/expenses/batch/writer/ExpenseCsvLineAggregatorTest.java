@@ -0,0 +1,61 @@
+package com.example.expenses.batch.writer;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.expenses.domain.Expense;
+
+@DisplayName("ExpenseCsvLineAggregatorのユニットテスト")
+class ExpenseCsvLineAggregatorTest {
+
+	@Test
+	@DisplayName("id, applicantId, title, amount, currency, status, createdAt の順に出力する")
+	void 項目を順に出力する() {
+
+		Expense expense = expense("交通費", new BigDecimal("1000.00"));
+
+		assertThat(new ExpenseCsvLineAggregator(true).aggregate(expense))
+			.isEqualTo("10,1,交通費,1000.00,JPY,DRAFT,2025-01-31T09:30");
+		assertThat(new ExpenseCsvLineAggregator(false).aggregate(expense))
+			.isEqualTo("10,1,交通費,1000.00,JPY,DRAFT");
+	}
+
+	@Test
+	@DisplayName("カンマ・ダブルクォート・改行を含む項目はRFC 4180に従ってクォートする")
+	void 区切り文字を含む項目をクォートする() {
+
+		ExpenseCsvLineAggregator aggregator = new ExpenseCsvLineAggregator(false);
+
+		assertThat(aggregator.aggregate(expense("会食,\"二次会\"", BigDecimal.TEN)))
+			.isEqualTo("10,1,\"会食,\"\"二次会\"\"\",10,JPY,DRAFT");
+		assertThat(aggregator.aggregate(expense("1行目\r\n2行目", BigDecimal.TEN)))
+			.isEqualTo("10,1,\"1行目\r\n2行目\",10,JPY,DRAFT");
+		//バッファを使い回しても前の行の内容が残らない
+		assertThat(aggregator.aggregate(expense("書籍", BigDecimal.ONE)))
+			.isEqualTo("10,1,書籍,1,JPY,DRAFT");
+	}
+
+	@Test
+	@DisplayName("nullの項目は空欄にする")
+	void nullは空欄にする() {
+
+		Expense expense = expense("書籍", BigDecimal.ONE);
+		ReflectionTestUtils.setField(expense, "id", null);
+		ReflectionTestUtils.setField(expense, "createdAt", null);
+
+		assertThat(new ExpenseCsvLineAggregator(true).aggregate(expense)).isEqualTo(",1,書籍,1,JPY,DRAFT,");
+	}
+
+	private Expense expense(String title, BigDecimal amount) {
+		Expense expense = Expense.create(1L, title, amount, "JPY");
+		ReflectionTestUtils.setField(expense, "id", 10L);
+		ReflectionTestUtils.setField(expense, "createdAt", LocalDateTime.of(2025, 1, 31, 9, 30));
+		return expense;
+	}
+}
@@ -0,0 +1,109 @@
+package com.example.expenses.batch.writer;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.infrastructure.item.Chunk;
+import org.springframework.batch.infrastructure.item.ExecutionContext;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.expenses.domain.Expense;
+
+@DisplayName("GzipCsvItemWriterのユニットテスト")
+class GzipCsvItemWriterTest {
+
+	private static final Charset MS932 = Charset.forName("MS932");
+	private static final String HEADER = "id,applicant_id,title,amount,currency,status";
+	private static final String NL = System.lineSeparator();
+
+	@TempDir
+	Path outputDir;
+
+	@Test
+	@DisplayName("ヘッダーとchunkを圧縮して書き出し、1つのgzipとして展開できる")
+	void 圧縮して書き出す() throws Exception {
+
+		Path file = outputDir.resolve("expenses.csv.gz");
+		GzipCsvItemWriter<Expense> writer = writer(file, ExportCompression.GZIP);
+		writer.open(new ExecutionContext());
+		writer.write(new Chunk<>(expenses(1, 2)));
+		writer.write(new Chunk<>(expenses(3)));
+		writer.close();
+
+		assertThat(gunzip(file)).isEqualTo(HEADER + NL
+				+ "1,1,交通費1,1000,JPY,DRAFT" + NL
+				+ "2,1,交通費2,1000,JPY,DRAFT" + NL
+				+ "3,1,交通費3,1000,JPY,DRAFT" + NL);
+	}
+
+	@Test
+	@DisplayName("再実行時はコミットされなかったchunkを切り捨て、保存した位置から続きを書き出す")
+	void 保存した位置から再開する() throws Exception {
+
+		Path file = outputDir.resolve("expenses.csv.gz");
+		ExecutionContext context = new ExecutionContext();
+		GzipCsvItemWriter<Expense> writer = writer(file, ExportCompression.GZIP_FAST);
+		writer.open(context);
+		writer.write(new Chunk<>(expenses(1, 2)));
+		writer.update(context);
+		//コミット前に失敗したchunk（update()が呼ばれない）
+		writer.write(new Chunk<>(expenses(3, 4)));
+		writer.close();
+
+		assertThat(context.getLong("writer.written")).isEqualTo(2L);
+
+		GzipCsvItemWriter<Expense> restarted = writer(file, ExportCompression.GZIP_FAST);
+		restarted.open(context);
+		restarted.write(new Chunk<>(expenses(3, 4)));
+		restarted.update(context);
+		restarted.close();
+
+		assertThat(gunzip(file).lines()).containsExactly(HEADER,
+				"1,1,交通費1,1000,JPY,DRAFT",
+				"2,1,交通費2,1000,JPY,DRAFT",
+				"3,1,交通費3,1000,JPY,DRAFT",
+				"4,1,交通費4,1000,JPY,DRAFT");
+		assertThat(context.getLong("writer.written")).isEqualTo(4L);
+	}
+
+	@Test
+	@DisplayName("ジョブパラメータの値から圧縮形式を取得し、ファイル名に拡張子を付ける")
+	void 圧縮形式の指定() {
+
+		assertThat(ExportCompression.of(null)).isEqualTo(ExportCompression.NONE);
+		assertThat(ExportCompression.of("GZIP")).isEqualTo(ExportCompression.GZIP);
+		assertThat(ExportCompression.of("gzip-fast").fileName("expenses.csv")).isEqualTo("expenses.csv.gz");
+		assertThat(ExportCompression.of("gzip").fileName("expenses.csv.gz")).isEqualTo("expenses.csv.gz");
+		assertThat(ExportCompression.NONE.fileName("expenses.csv")).isEqualTo("expenses.csv");
+		assertThatThrownBy(() -> ExportCompression.of("zip")).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private GzipCsvItemWriter<Expense> writer(Path file, ExportCompression compression) {
+		return new GzipCsvItemWriter<>("writer", file, MS932, new ExpenseCsvLineAggregator(false), HEADER, compression);
+	}
+
+	private String gunzip(Path file) throws Exception {
+		try(InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+			return new String(in.readAllBytes(), MS932);
+		}
+	}
+
+	private List<Expense> expenses(long... ids) {
+		return LongStream.of(ids).mapToObj(id -> {
+			Expense expense = Expense.create(1L, "交通費" + id, new BigDecimal("1000"), "JPY");
+			ReflectionTestUtils.setField(expense, "id", id);
+			return expense;
+		}).toList();
+	}
+}
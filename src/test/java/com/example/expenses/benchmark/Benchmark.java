@@ -0,0 +1,95 @@
+package com.example.expenses.benchmark;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.lang.management.ManagementFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * ベンチマークの計測と比較（@BenchmarkTest のクラスで使う）
+ * -ウォームアップの後に指定回数実行し、1秒あたりの件数と1件あたりの時間・割り当てバイト数を計測する
+ * -準備処理（テーブルの削除など）は計測に含めない
+ * -割り当てバイト数は計測したスレッドの分のみ（別スレッドで処理する場合は参考値）
+ * -比較は相対値（速度の比）で検証し、結果はログに [benchmark] で出力する
+ */
+public final class Benchmark {
+
+	private static final Logger logger = LoggerFactory.getLogger(Benchmark.class);
+
+	private static final com.sun.management.ThreadMXBean THREADS =
+			(com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+
+	private Benchmark() {
+	}
+
+	@FunctionalInterface
+	public interface Task {
+		void run() throws Exception;
+	}
+
+	/**
+	 * @param label 計測対象の名前
+	 * @param operations 計測した件数（1回の実行の件数 × 実行回数）
+	 */
+	public record Result(String label, long operations, long elapsedNanos, long allocatedBytes) {
+
+		public double perSecond() {
+			return operations * 1_000_000_000.0 / elapsedNanos;
+		}
+
+		public long nanosPerOperation() {
+			return elapsedNanos / operations;
+		}
+
+		public long bytesPerOperation() {
+			return allocatedBytes / operations;
+		}
+
+		public double millisPerRun(int runs) {
+			return elapsedNanos / 1_000_000.0 / runs;
+		}
+	}
+
+	public static Result measure(String label, long operationsPerRun, int warmups, int runs, Task task) throws Exception {
+		return measure(label, operationsPerRun, warmups, runs, () -> { }, task);
+	}
+
+	/**
+	 * @param setup 毎回の実行前の準備（計測しない）
+	 */
+	public static Result measure(String label, long operationsPerRun, int warmups, int runs, Task setup, Task task)
+			throws Exception {
+
+		for(int i = 0; i < warmups; i++) {
+			setup.run();
+			task.run();
+		}
+		long elapsed = 0;
+		long allocated = 0;
+		for(int i = 0; i < runs; i++) {
+			setup.run();
+			long bytes = THREADS.getCurrentThreadAllocatedBytes();
+			long start = System.nanoTime();
+			task.run();
+			elapsed += System.nanoTime() - start;
+			allocated += THREADS.getCurrentThreadAllocatedBytes() - bytes;
+		}
+		Result result = new Result(label, operationsPerRun * runs, elapsed, allocated);
+		logger.info("[benchmark] {}: {} ops/s, {} ns/op, {} B/op", label,
+				(long)result.perSecond(), result.nanosPerOperation(), result.bytesPerOperation());
+		return result;
+	}
+
+	/**
+	 * candidate が baseline の minSpeedup 倍以上の速さであることを検証
+	 */
+	public static void assertFaster(Result candidate, Result baseline, double minSpeedup) {
+		double speedup = candidate.perSecond() / baseline.perSecond();
+		logger.info("[benchmark] {} / {} = {}x", candidate.label(), baseline.label(), String.format("%.2f", speedup));
+		assertThat(speedup)
+				.as("%s は %s の %.1f 倍以上の速さであること", candidate.label(), baseline.label(), minSpeedup)
+				.isGreaterThanOrEqualTo(minSpeedup);
+	}
+}
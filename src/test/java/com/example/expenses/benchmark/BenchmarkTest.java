@@ -0,0 +1,20 @@
+package com.example.expenses.benchmark;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+/**
+ * ベンチマークのテストクラス（通常のテストでは実行しない）
+ * 実行: ./mvnw test -Dgroups=benchmark -Dbenchmark=true
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public @interface BenchmarkTest {
+}
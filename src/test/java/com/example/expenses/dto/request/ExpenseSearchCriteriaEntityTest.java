@@ -0,0 +1,53 @@
+package com.example.expenses.dto.request;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+@DisplayName("ExpenseSearchCriteriaEntity：タイトル全文検索のフレーズ")
+class ExpenseSearchCriteriaEntityTest {
+
+	@Test
+	@DisplayName("ngramのトークン長以上の語はフレーズで全文検索する")
+	void トークン長以上の語は全文検索する() {
+
+		assertThat(matchQuery("交通費")).isEqualTo("\"交通費\"");
+		assertThat(matchQuery("Taxi")).isEqualTo("\"Taxi\"");
+		assertThat(matchQuery("  Uber Eats ")).isEqualTo("\"Uber Eats\"");
+		//サロゲートペアは1文字として数える
+		assertThat(matchQuery("🍣🍣")).isEqualTo("\"🍣🍣\"");
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@ValueSource(strings = {"A-1", "Wi-Fi", "In-N-Out", "東京-大阪", "C++", "\"交通費\"", "(株)", "user@example.com"})
+	@DisplayName("BOOLEAN MODEの演算子を含む語はLIKE検索にフォールバックする")
+	void 演算子を含む語はLIKE検索にする(String title) {
+
+		assertThat(matchQuery(title)).isNull();
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@ValueSource(strings = {"A", "費", "🍣", "A 会議室", "Plan B", "交通費 x"})
+	@DisplayName("ngramのトークン長未満の語を含む場合はLIKE検索にフォールバックする")
+	void 短い語を含む場合はLIKE検索にする(String title) {
+
+		assertThat(matchQuery(title)).isNull();
+	}
+
+	@Test
+	@DisplayName("タイトルの指定がない場合は全文検索しない")
+	void タイトルなしは全文検索しない() {
+
+		assertThat(matchQuery(null)).isNull();
+		assertThat(matchQuery("  ")).isNull();
+	}
+
+	private String matchQuery(String title) {
+		ExpenseSearchCriteriaEntity criteria = new ExpenseSearchCriteriaEntity();
+		criteria.setTitle(title);
+		return criteria.getTitleMatchQuery();
+	}
+}
@@ -0,0 +1,83 @@
+package com.example.expenses.export;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.expenses.domain.Expense;
+
+@DisplayName("ExcelExportServiceのユニットテスト")
+class ExcelExportServiceTest {
+
+	@Test
+	@DisplayName("メモリに保持する行数を超える件数でも全行と合計行を出力し、列幅は固定値になる")
+	void 全行と合計行を出力する() throws Exception {
+
+		ExcelExportService service = new ExcelExportService();
+		ReflectionTestUtils.setField(service, "rowAccessWindow", 10);
+		List<Expense> expenses = IntStream.rangeClosed(1, 500)
+				.mapToObj(i -> {
+					Expense expense = Expense.create((long)(i % 7) + 1, "交通費" + i, new BigDecimal(i), "JPY");
+					ReflectionTestUtils.setField(expense, "id", (long)i);
+					return expense;
+				})
+				.toList();
+
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		service.exportExpenseList(expenses, outputStream);
+
+		try(XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(outputStream.toByteArray()))) {
+			Sheet sheet = workbook.getSheet("経費一覧");
+			assertThat(sheet.getRow(2).getCell(3).getStringCellValue()).isEqualTo("タイトル");
+			assertThat(sheet.getRow(3).getCell(3).getStringCellValue()).isEqualTo("交通費1");
+			assertThat(sheet.getRow(502).getCell(1).getNumericCellValue()).isEqualTo(500);
+			assertThat(sheet.getRow(502).getCell(6).getStringCellValue()).isEqualTo("未提出");
+
+			Row totalRow = sheet.getRow(503);
+			assertThat(totalRow.getCell(1).getStringCellValue()).isEqualTo("合計");
+			assertThat(totalRow.getCell(2).getStringCellValue()).isEqualTo("件数: 500");
+			//1 + 2 + ... + 500
+			assertThat(totalRow.getCell(4).getNumericCellValue()).isEqualTo(125_250);
+			assertThat(sheet.getLastRowNum()).isEqualTo(503);
+
+			assertThat(sheet.getColumnWidth(3)).isEqualTo(40 * 256);
+		}
+	}
+
+	@Test
+	@DisplayName("経費を1件ずつ渡す処理から出力し、出力した件数を返す")
+	void 渡された経費を順に出力する() throws Exception {
+
+		ExcelExportService service = new ExcelExportService();
+		ReflectionTestUtils.setField(service, "rowAccessWindow", 10);
+
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		//DBのResultHandlerと同じく、リストを作らずに1件ずつ渡す
+		int count = service.exportExpenseList(row -> IntStream.rangeClosed(1, 300)
+				.mapToObj(i -> Expense.create(1L, "書籍" + i, new BigDecimal(i), "JPY"))
+				.forEach(row), outputStream);
+
+		assertThat(count).isEqualTo(300);
+		try(XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(outputStream.toByteArray()))) {
+			Sheet sheet = workbook.getSheet("経費一覧");
+			assertThat(sheet.getRow(3).getCell(3).getStringCellValue()).isEqualTo("書籍1");
+			assertThat(sheet.getRow(302).getCell(3).getStringCellValue()).isEqualTo("書籍300");
+
+			Row totalRow = sheet.getRow(303);
+			assertThat(totalRow.getCell(2).getStringCellValue()).isEqualTo("件数: 300");
+			//1 + 2 + ... + 300
+			assertThat(totalRow.getCell(4).getNumericCellValue()).isEqualTo(45_150);
+		}
+	}
+}
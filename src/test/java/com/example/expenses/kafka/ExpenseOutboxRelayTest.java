@@ -0,0 +1,110 @@
+package com.example.expenses.kafka;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.example.expenses.dto.ExpenseOutboxEvent;
+import com.example.expenses.kafka.ExpenseEventMessage.EventType;
+import com.example.expenses.repository.ExpenseEventOutboxMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ExpenseOutboxRelayのユニットテスト")
+class ExpenseOutboxRelayTest {
+
+	@Mock
+	private ExpenseEventOutboxMapper outboxMapper;
+	@Mock
+	private ExpenseKafkaProducer producer;
+	@Mock
+	private PlatformTransactionManager transactionManager;
+
+	private SimpleMeterRegistry meterRegistry;
+	private ExpenseOutboxRelay relay;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		relay = new ExpenseOutboxRelay(outboxMapper, producer, transactionManager, meterRegistry,
+				3, Duration.ofSeconds(1), Duration.ofDays(7));
+	}
+
+	@Test
+	@DisplayName("すべて送信できたバッチは送信済みにする")
+	void すべて送信できたら送信済みにする() {
+
+		when(outboxMapper.lockUnpublished(3)).thenReturn(List.of(event(1L, 10L), event(2L, 11L)));
+		when(producer.send(any())).thenReturn(CompletableFuture.completedFuture(null));
+
+		int published = relay.relayBatch();
+
+		assertThat(published).isEqualTo(2);
+		verify(outboxMapper).markPublished(List.of(1L, 2L));
+		assertThat(meterRegistry.counter("expense.outbox.published").count()).isEqualTo(2.0);
+	}
+
+	@Test
+	@DisplayName("途中で失敗した場合は失敗したイベント以降を未送信のまま残す")
+	void 失敗以降は未送信のまま残す() {
+
+		when(outboxMapper.lockUnpublished(3)).thenReturn(List.of(event(1L, 10L), event(2L, 10L), event(3L, 10L)));
+		when(producer.send(any())).thenReturn(
+				CompletableFuture.completedFuture(null),
+				CompletableFuture.failedFuture(new IllegalStateException("broker down")),
+				CompletableFuture.completedFuture(null));
+
+		int published = relay.relayBatch();
+
+		//同じ経費（expenseId=10）のイベントの順序を守るため、3件目が成功していても送信済みにしない
+		assertThat(published).isEqualTo(1);
+		verify(outboxMapper).markPublished(List.of(1L));
+		assertThat(meterRegistry.counter("expense.outbox.failed").count()).isEqualTo(1.0);
+	}
+
+	@Test
+	@DisplayName("未送信がなければ何もしない")
+	void 未送信がなければ何もしない() {
+
+		when(outboxMapper.lockUnpublished(3)).thenReturn(List.of());
+
+		assertThat(relay.relayBatch()).isZero();
+		verify(producer, never()).send(any());
+		verify(outboxMapper, never()).markPublished(any());
+	}
+
+	@Test
+	@DisplayName("満杯のバッチが続く間は繰り返し送信し、未送信件数と経過時間を更新する")
+	void 満杯のバッチが続く間は繰り返す() {
+
+		when(outboxMapper.lockUnpublished(3)).thenReturn(
+				List.of(event(1L, 10L), event(2L, 11L), event(3L, 12L)),
+				List.of(event(4L, 13L)));
+		when(producer.send(any())).thenReturn(CompletableFuture.completedFuture(null));
+		when(outboxMapper.countUnpublished()).thenReturn(5L);
+		when(outboxMapper.findOldestUnpublishedAgeMillis()).thenReturn(2_500L);
+
+		relay.relay();
+
+		verify(outboxMapper, times(2)).lockUnpublished(3);
+		assertThat(meterRegistry.get("expense.outbox.pending").gauge().value()).isEqualTo(5.0);
+		assertThat(meterRegistry.get("expense.outbox.lag").gauge().value()).isEqualTo(2.5);
+	}
+
+	private ExpenseOutboxEvent event(Long id, Long expenseId) {
+		return new ExpenseOutboxEvent(id, EventType.APPROVED, expenseId, 2L, 1L, null, "trace", null);
+	}
+}
@@ -0,0 +1,188 @@
+package com.example.expenses.repository;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.expenses.batch.config.TestcontainersConfiguration;
+import com.example.expenses.domain.ExpenseStatus;
+import com.example.expenses.domain.ExpenseTransition;
+import com.example.expenses.dto.ExpenseDailySpend;
+import com.example.expenses.dto.batch.ExpenseGroupTotal;
+import com.example.expenses.service.ExpenseTransitionEngine;
+import com.example.expenses.service.ExpenseTransitionEngine.Outcome;
+
+/**
+ * 日別集計の増分更新のテスト
+ * 状態遷移ごとに増減させた集計が、経費テーブルから作り直した集計と一致することを確認する
+ */
+@SpringBootTest
+@Import(TestcontainersConfiguration.class)
+@DisplayName("日別集計（expense_daily_rollup）")
+class ExpenseDailyRollupMapperTest {
+
+	@Autowired
+	private ExpenseDailyRollupMapper rollupMapper;
+	@Autowired
+	private ExpenseMapper expenseMapper;
+	@Autowired
+	private ExpenseTransitionEngine transitionEngine;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private final List<Long> drafts = new ArrayList<>();
+
+	@BeforeEach
+	void seed() {
+		jdbcTemplate.update("DELETE FROM expenses");
+		drafts.clear();
+
+		LocalDateTime base = LocalDateTime.of(2025, 3, 1, 9, 0);
+		List<Object[]> rows = new ArrayList<>();
+		for(int i = 0; i < 30; i++) {
+			//提出済みの経費（カテゴリ未設定を含む）
+			rows.add(new Object[] {(long)(i % 3) + 1, "経費" + i, new BigDecimal(100 + i).movePointLeft(1),
+					i % 2 == 0 ? "SUBMITTED" : "APPROVED", base.plusHours(i * 7L), i % 4 == 0 ? null : (long)(i % 3) + 1});
+		}
+		jdbcTemplate.batchUpdate("""
+				INSERT INTO expenses
+					(applicant_id, title, amount, currency, status, submitted_at, category_id, created_at, updated_at, version)
+				VALUES (?, ?, ?, 'JPY', ?, ?, ?, NOW(), NOW(), 0)
+				""", rows);
+		for(int i = 0; i < 10; i++) {
+			jdbcTemplate.update("""
+					INSERT INTO expenses
+						(applicant_id, title, amount, currency, status, category_id, created_at, updated_at, version)
+					VALUES (?, ?, ?, 'JPY', 'DRAFT', ?, NOW(), NOW(), 0)
+					""", 7L, "下書き" + i, new BigDecimal("1234.50"), i % 2 == 0 ? null : 2L);
+		}
+		drafts.addAll(jdbcTemplate.queryForList("SELECT id FROM expenses WHERE status = 'DRAFT' ORDER BY id", Long.class));
+
+		rollupMapper.deleteAll();
+		rollupMapper.rebuild();
+	}
+
+	@Test
+	@DisplayName("提出・承認・却下・一括承認を増分で反映した集計が、作り直した集計と一致する")
+	void 増分更新と再構築が一致する() {
+
+		List<Long> submitted = jdbcTemplate.queryForList(
+				"SELECT id FROM expenses WHERE status = 'SUBMITTED' ORDER BY id", Long.class);
+
+		transactionTemplate.executeWithoutResult(status -> {
+			//下書きの提出（提出日が記録され、集計対象になる）
+			for(Long id : drafts.subList(0, 6)) {
+				assertThat(transitionEngine.apply(ExpenseTransition.SUBMIT, id, null, 7L).outcome()).isEqualTo(Outcome.APPLIED);
+			}
+			//提出済みの承認・却下
+			assertThat(transitionEngine.apply(ExpenseTransition.APPROVE, submitted.get(0), 0, null).outcome())
+					.isEqualTo(Outcome.APPLIED);
+			assertThat(transitionEngine.apply(ExpenseTransition.REJECT, submitted.get(1), 0, null).outcome())
+					.isEqualTo(Outcome.APPLIED);
+			//一括承認（今回提出した経費を含む）
+			Map<Long, Integer> versions = new LinkedHashMap<>();
+			for(Long id : submitted.subList(2, 8)) {
+				versions.put(id, 0);
+			}
+			for(Long id : drafts.subList(0, 3)) {
+				versions.put(id, expenseMapper.findById(id).getVersion());
+			}
+			assertThat(transitionEngine.applyAll(ExpenseTransition.APPROVE, versions).values())
+					.allMatch(result -> result.outcome() == Outcome.APPLIED);
+		});
+
+		List<Map<String, Object>> incremental = snapshot();
+
+		rollupMapper.deleteAll();
+		rollupMapper.rebuild();
+
+		assertThat(incremental).isEqualTo(snapshot());
+	}
+
+	@Test
+	@DisplayName("期間内の日別・ステータス別の件数と金額を取得する")
+	void 日別に集計する() {
+
+		List<ExpenseDailySpend> days = rollupMapper.sumByDay(LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 1), null);
+
+		//2025-03-01 9時から7時間ごと：0, 7, 14時（i=0, 1, 2）
+		assertThat(days).extracting(ExpenseDailySpend::getStatus)
+				.containsExactly(ExpenseStatus.APPROVED, ExpenseStatus.SUBMITTED);
+		assertThat(days.get(0).getCount()).isEqualTo(1);
+		assertThat(days.get(0).getAmount()).isEqualByComparingTo("10.1");
+		assertThat(days.get(1).getCount()).isEqualTo(2);
+		assertThat(days.get(1).getAmount()).isEqualByComparingTo("20.2");
+
+		assertThat(rollupMapper.sumByDay(LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 31), 1L))
+				.extracting(ExpenseDailySpend::getCount)
+				.containsOnly(1);
+	}
+
+	@Test
+	@DisplayName("期間内のカテゴリ別・申請者別の集計を1行ずつ取得する（カテゴリ未設定はID 0・名称なし）")
+	void カテゴリ別と申請者別に集計する() {
+
+		LocalDate from = LocalDate.of(2025, 3, 1);
+		LocalDate to = LocalDate.of(2025, 3, 31);
+
+		List<ExpenseGroupTotal> categories = new ArrayList<>();
+		rollupMapper.streamByCategory(from, to, context -> categories.add(context.getResultObject()));
+
+		List<Map<String, Object>> expected = jdbcTemplate.queryForList("""
+				SELECT COALESCE(category_id, 0) AS group_id, status, COUNT(*) AS count, SUM(amount) AS amount
+				FROM expenses
+				WHERE submitted_at IS NOT NULL
+				GROUP BY COALESCE(category_id, 0), status
+				ORDER BY group_id, status
+				""");
+		assertThat(categories).hasSize(expected.size());
+		for(int i = 0; i < expected.size(); i++) {
+			ExpenseGroupTotal total = categories.get(i);
+			assertThat(total.getGroupId()).isEqualTo(((Number)expected.get(i).get("group_id")).longValue());
+			assertThat(total.getStatus().name()).isEqualTo(expected.get(i).get("status"));
+			assertThat(total.getCount()).isEqualTo(((Number)expected.get(i).get("count")).intValue());
+			assertThat(total.getAmount()).isEqualByComparingTo((BigDecimal)expected.get(i).get("amount"));
+		}
+		assertThat(categories.get(0).getGroupId()).isZero();
+		assertThat(categories.get(0).getGroupName()).isNull();
+		assertThat(categories).filteredOn(total -> total.getGroupId() == 1L)
+				.extracting(ExpenseGroupTotal::getGroupName)
+				.containsOnly("交通費");
+
+		List<ExpenseGroupTotal> applicants = new ArrayList<>();
+		rollupMapper.streamByApplicant(from, to, context -> applicants.add(context.getResultObject()));
+
+		//申請者1〜3 × SUBMITTED・APPROVED、各5件（下書きの申請者7は対象外）
+		assertThat(applicants).extracting(ExpenseGroupTotal::getGroupId).containsExactly(1L, 1L, 2L, 2L, 3L, 3L);
+		assertThat(applicants).extracting(ExpenseGroupTotal::getCount).containsOnly(5);
+	}
+
+	/**
+	 * 件数が0になった行（遷移で減算しきった行）を除いた集計テーブルの内容
+	 */
+	private List<Map<String, Object>> snapshot() {
+		return jdbcTemplate.queryForList("""
+				SELECT spend_day, applicant_id, status, category_id, expense_count, total_amount
+				FROM expense_daily_rollup
+				WHERE expense_count <> 0
+				ORDER BY spend_day, applicant_id, status, category_id
+				""");
+	}
+}
@@ -0,0 +1,195 @@
+package com.example.expenses.repository;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.expenses.batch.config.TestcontainersConfiguration;
+import com.example.expenses.benchmark.Benchmark;
+import com.example.expenses.benchmark.BenchmarkTest;
+import com.example.expenses.domain.Expense;
+
+/**
+ * 経費テーブルのベンチマーク
+ * -登録：1行ずつのINSERT / ExecutorType.BATCH / 複数行INSERT
+ * -タイトル検索：LIKE / FULLTEXT(ngram)
+ * -ページ+件数：count + search の2往復 / COUNT(*) OVER()
+ * 検索は20万件（通貨JPY）、登録は別の通貨（USD）の行で計測し、登録した行は計測後に削除する
+ */
+@BenchmarkTest
+@SpringBootTest
+@Import(TestcontainersConfiguration.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("経費テーブルベンチマーク")
+class ExpenseRepositoryBenchmarkTest {
+
+	private static final int SEARCH_ROWS = 200_000;
+	private static final int INSERT_ROWS = 20_000;
+	private static final int CHUNK = 500;
+	private static final String[] WORDS = {"交通費", "出張", "会食", "宿泊", "書籍", "タクシー", "新幹線", "備品"};
+
+	private static final String PAGE = """
+			SELECT id, applicant_id, title, amount, currency, status,
+			       submitted_at, created_at, updated_at, version
+			FROM expenses WHERE %s ORDER BY created_at DESC LIMIT 5 OFFSET 0
+			""";
+	private static final String WINDOW = """
+			SELECT id, applicant_id, title, amount, currency, status,
+			       submitted_at, created_at, updated_at, version, COUNT(*) OVER() AS total_count
+			FROM expenses WHERE %s ORDER BY created_at DESC LIMIT 5 OFFSET 0
+			""";
+
+	@Autowired
+	private ExpenseMapper expenseMapper;
+	@Autowired
+	private SqlSessionFactory sqlSessionFactory;
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeAll
+	void seed() {
+		jdbcTemplate.update("DELETE FROM expenses");
+
+		List<Object[]> batch = new ArrayList<>();
+		for(int i = 0; i < SEARCH_ROWS; i++) {
+			String title = WORDS[i % WORDS.length] + "_" + WORDS[(i / 7) % WORDS.length] + i;
+			batch.add(new Object[] {(long)(i % 500) + 1, title, (i % 10_000) + 100, "JPY", "DRAFT"});
+			if(batch.size() == 5_000) {
+				insert(batch);
+			}
+		}
+		insert(batch);
+		jdbcTemplate.execute("ANALYZE TABLE expenses");
+	}
+
+	@AfterEach
+	void deleteInserted() {
+		jdbcTemplate.update("DELETE FROM expenses WHERE currency = 'USD'");
+	}
+
+	@Test
+	@DisplayName("複数行INSERT は 1行ずつのINSERT より速い")
+	void 登録方法の比較() throws Exception {
+
+		Benchmark.Result single = measureInsert("single-row insert", expenses ->
+				transactionTemplate.executeWithoutResult(status -> expenses.forEach(expenseMapper::insert)));
+
+		Benchmark.Result batch = measureInsert("ExecutorType.BATCH", expenses -> {
+			try(SqlSession session = sqlSessionFactory.openSession(ExecutorType.BATCH, false)) {
+				ExpenseMapper mapper = session.getMapper(ExpenseMapper.class);
+				for(int i = 0; i < expenses.size(); i++) {
+					mapper.insert(expenses.get(i));
+					if((i + 1) % CHUNK == 0) {
+						session.flushStatements();
+					}
+				}
+				session.flushStatements();
+				session.commit();
+			}
+		});
+
+		Benchmark.Result multiRow = measureInsert("multi-row insert", expenses ->
+				transactionTemplate.executeWithoutResult(status -> {
+					for(int from = 0; from < expenses.size(); from += CHUNK) {
+						expenseMapper.insertAll(expenses.subList(from, Math.min(from + CHUNK, expenses.size())));
+					}
+				}));
+
+		Benchmark.assertFaster(multiRow, single, 2.0);
+		Benchmark.assertFaster(batch, single, 1.0);
+	}
+
+	@Test
+	@DisplayName("タイトル検索は FULLTEXT(ngram) が LIKE と同じ件数を返し、LIKE より速い")
+	void タイトル検索の比較() throws Exception {
+
+		String keyword = "新幹線";
+		String like = "SELECT COUNT(*) FROM expenses WHERE title LIKE CONCAT('%', ?, '%')";
+		String match = "SELECT COUNT(*) FROM expenses WHERE MATCH(title) AGAINST(? IN BOOLEAN MODE)";
+
+		long likeCount = jdbcTemplate.queryForObject(like, Long.class, keyword);
+		long matchCount = jdbcTemplate.queryForObject(match, Long.class, "\"" + keyword + "\"");
+		assertThat(matchCount).isEqualTo(likeCount).isPositive();
+
+		Benchmark.Result likeResult = Benchmark.measure("LIKE", 1, 3, 20,
+				() -> jdbcTemplate.queryForObject(like, Long.class, keyword));
+		Benchmark.Result matchResult = Benchmark.measure("FULLTEXT", 1, 3, 20,
+				() -> jdbcTemplate.queryForObject(match, Long.class, "\"" + keyword + "\""));
+
+		Benchmark.assertFaster(matchResult, likeResult, 1.0);
+	}
+
+	@Test
+	@DisplayName("ページ+件数は COUNT(*) OVER() が count + search と同じ件数を返し、絞り込み時は2往復より速い")
+	void ページと件数の比較() throws Exception {
+
+		// 申請者で絞り込み（結果が小さい）と絞り込みなし（全件）
+		for(String where : List.of("applicant_id = 7", "1 = 1")) {
+			long total = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM expenses WHERE " + where, Long.class);
+			long windowTotal = ((Number)jdbcTemplate.queryForList(WINDOW.formatted(where)).get(0).get("total_count"))
+					.longValue();
+			assertThat(windowTotal).isEqualTo(total);
+
+			Benchmark.Result separate = Benchmark.measure("count+search where " + where, 1, 3, 20, () -> {
+				jdbcTemplate.queryForObject("SELECT COUNT(*) FROM expenses WHERE " + where, Long.class);
+				jdbcTemplate.queryForList(PAGE.formatted(where));
+			});
+			Benchmark.Result single = Benchmark.measure("COUNT(*) OVER() where " + where, 1, 3, 20,
+					() -> jdbcTemplate.queryForList(WINDOW.formatted(where)));
+
+			// 全件の場合はウィンドウ関数が全行をソートするため、比較は絞り込み時のみ検証する
+			if(!where.equals("1 = 1")) {
+				Benchmark.assertFaster(single, separate, 1.0);
+			}
+		}
+	}
+
+	/**
+	 * 登録して計測する（生成されたIDが全件に設定されることも確認する）
+	 */
+	private Benchmark.Result measureInsert(String label, Consumer<List<Expense>> insert) throws Exception {
+
+		List<List<Expense>> expenses = new ArrayList<>(1);
+		Benchmark.Result result = Benchmark.measure(label, INSERT_ROWS, 0, 1,
+				() -> {
+					deleteInserted();
+					expenses.clear();
+					expenses.add(IntStream.range(0, INSERT_ROWS)
+							.mapToObj(i -> Expense.create((long)(i % 100) + 1, label + i, BigDecimal.valueOf(1000 + i), "USD"))
+							.toList());
+				},
+				() -> insert.accept(expenses.get(0)));
+
+		assertThat(expenses.get(0)).allSatisfy(e -> assertThat(e.getId()).isNotNull());
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM expenses WHERE currency = 'USD'", Long.class))
+				.isEqualTo(INSERT_ROWS);
+		return result;
+	}
+
+	private void insert(List<Object[]> batch) {
+		jdbcTemplate.batchUpdate(
+				"INSERT INTO expenses (applicant_id, title, amount, currency, status) VALUES (?, ?, ?, ?, ?)",
+				batch);
+		batch.clear();
+	}
+}
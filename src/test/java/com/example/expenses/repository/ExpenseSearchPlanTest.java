@@ -0,0 +1,246 @@
+package com.example.expenses.repository;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import org.apache.ibatis.executor.parameter.ParameterHandler;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.scripting.defaults.DefaultParameterHandler;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.expenses.batch.config.TestcontainersConfiguration;
+import com.example.expenses.dto.request.ExpenseSearchCriteriaEntity;
+import com.example.expenses.dto.request.ExpenseSearchCursor;
+
+/**
+ * 検索クエリの実行計画のリグレッションテスト
+ * ExpenseService.search が発行する条件ごとにEXPLAINを実行し、
+ * 全件走査（type=ALL）やfilesortになった場合は失敗させる
+ */
+@SpringBootTest
+@Import(TestcontainersConfiguration.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("検索クエリの実行計画")
+class ExpenseSearchPlanTest {
+
+	private static final String NAMESPACE = "com.example.expenses.repository.ExpenseMapper.";
+	private static final String[] STATUSES = {"DRAFT", "SUBMITTED", "APPROVED", "REJECTED"};
+
+	@Autowired
+	private SqlSessionFactory sqlSessionFactory;
+	@Autowired
+	private DataSource dataSource;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeAll
+	void seed() {
+		// 件数が少ないとオプティマイザが全件走査を選ぶため、実運用に近い分布でデータを用意する
+		jdbcTemplate.update("DELETE FROM expenses");
+
+		LocalDateTime base = LocalDateTime.of(2025, 1, 1, 0, 0);
+		List<Object[]> rows = new ArrayList<>();
+		for(int i = 0; i < 20_000; i++) {
+			String status = STATUSES[i % STATUSES.length];
+			LocalDateTime createdAt = base.plusMinutes(i * 13L);
+			rows.add(new Object[] {
+					(long)(i % 200) + 1,
+					"経費" + i,
+					(i * 37) % 100_000 + 100,
+					status,
+					"DRAFT".equals(status) ? null : createdAt.plusHours(3),
+					createdAt,
+					createdAt.plusHours(5)});
+		}
+		jdbcTemplate.batchUpdate("""
+				INSERT INTO expenses
+					(applicant_id, title, amount, currency, status, submitted_at, created_at, updated_at)
+				VALUES (?, ?, ?, 'JPY', ?, ?, ?, ?)
+				""", rows);
+		jdbcTemplate.execute("ANALYZE TABLE expenses");
+	}
+
+	Stream<Arguments> searchShapes() {
+		return Stream.of(
+				Arguments.of("一般ユーザー：作成日時順", criteria(7L, null, null, null), "created_at", "DESC"),
+				Arguments.of("一般ユーザー：更新日時順", criteria(7L, null, null, null), "updated_at", "DESC"),
+				Arguments.of("一般ユーザー：提出日時順", criteria(7L, null, null, null), "submitted_at", "DESC"),
+				Arguments.of("一般ユーザー：金額順", criteria(7L, null, null, null), "amount", "ASC"),
+				Arguments.of("一般ユーザー：ステータス指定", criteria(7L, "DRAFT", null, null), "created_at", "DESC"),
+				Arguments.of("一般ユーザー：提出日の期間指定", criteria(7L, null,
+						LocalDate.of(2025, 2, 1), LocalDate.of(2025, 3, 1)), "submitted_at", "DESC"),
+				Arguments.of("承認者：提出済みを作成日時順", criteria(null, "SUBMITTED", null, null), "created_at", "ASC"),
+				Arguments.of("承認者：提出済みを提出日時順", criteria(null, "SUBMITTED", null, null), "submitted_at", "DESC"),
+				Arguments.of("承認者：提出済みを金額順", criteria(null, "SUBMITTED", null, null), "amount", "DESC"),
+				Arguments.of("承認者：提出済みを更新日時順", criteria(null, "SUBMITTED", null, null), "updated_at", "DESC"),
+				Arguments.of("承認者：絞り込みなし", criteria(null, null, null, null), "created_at", "DESC"),
+				Arguments.of("承認者：絞り込みなしを金額順", criteria(null, null, null, null), "amount", "ASC"),
+				Arguments.of("承認者：絞り込みなしを更新日時順", criteria(null, null, null, null), "updated_at", "DESC"),
+				Arguments.of("承認者：提出日の期間指定", criteria(null, null,
+						LocalDate.of(2025, 2, 1), LocalDate.of(2025, 2, 3)), "submitted_at", "DESC"));
+	}
+
+	/**
+	 * 一般ユーザーのステータス指定 + 作成日時以外の並び順
+	 * 本人の1ステータス分の行に絞り込んでから並べ替えるため、filesortは許容してインデックスを追加しない（V18）
+	 */
+	Stream<Arguments> applicantStatusShapes() {
+		return Stream.of(
+				Arguments.of("一般ユーザー：ステータス指定を更新日時順", criteria(7L, "SUBMITTED", null, null), "updated_at", "DESC"),
+				Arguments.of("一般ユーザー：ステータス指定を提出日時順", criteria(7L, "SUBMITTED", null, null), "submitted_at", "DESC"),
+				Arguments.of("一般ユーザー：ステータス指定を金額順", criteria(7L, "SUBMITTED", null, null), "amount", "ASC"));
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("applicantStatusShapes")
+	@DisplayName("search・searchByKeyset：本人の経費に絞り込んだ並べ替えは全件走査にならない")
+	void searchByApplicantAndStatus(String shape, ExpenseSearchCriteriaEntity criteria, String orderBy, String direction)
+			throws Exception {
+
+		Map<String, Object> params = params(criteria, orderBy, direction);
+		params.put("size", 5);
+		params.put("offset", 0);
+		assertPlan("search", params, true);
+
+		Object sortValue = "amount".equals(orderBy) ? BigDecimal.valueOf(5_000) : LocalDateTime.of(2025, 2, 2, 0, 0);
+		Map<String, Object> keysetParams = params(criteria, orderBy, direction);
+		keysetParams.put("cursor", new ExpenseSearchCursor(orderBy, direction, sortValue, 10_000L));
+		keysetParams.put("size", 6);
+		assertPlan("searchByKeyset", keysetParams, true);
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("searchShapes")
+	@DisplayName("search：全件走査・filesortにならない")
+	void search(String shape, ExpenseSearchCriteriaEntity criteria, String orderBy, String direction) throws Exception {
+
+		Map<String, Object> params = params(criteria, orderBy, direction);
+		params.put("size", 5);
+		params.put("offset", 0);
+
+		assertPlan("search", params);
+	}
+
+	/**
+	 * searchWithTotal は一般ユーザー（applicant_id 指定）の検索でのみ使う（ExpenseService.useWindowCount）
+	 */
+	Stream<Arguments> windowCountShapes() {
+		return Stream.concat(searchShapes(), applicantStatusShapes())
+				.filter(args -> ((ExpenseSearchCriteriaEntity)args.get()[1]).getApplicantId() != null);
+	}
+
+	/**
+	 * COUNT(*) OVER() は条件に一致する全行を読むため、並べ替えは本人の経費の件数分になる（filesortは許容）
+	 */
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("windowCountShapes")
+	@DisplayName("searchWithTotal：本人の経費をインデックスで絞り込み、全件走査にならない")
+	void searchWithTotal(String shape, ExpenseSearchCriteriaEntity criteria, String orderBy, String direction) throws Exception {
+
+		Map<String, Object> params = params(criteria, orderBy, direction);
+		params.put("size", 5);
+		params.put("offset", 0);
+
+		assertPlan("searchWithTotal", params, true);
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("searchShapes")
+	@DisplayName("searchByKeyset：2ページ目以降も全件走査・filesortにならない")
+	void searchByKeyset(String shape, ExpenseSearchCriteriaEntity criteria, String orderBy, String direction) throws Exception {
+
+		Object sortValue = switch(orderBy) {
+		case "amount" -> BigDecimal.valueOf(5_000);
+		default -> LocalDateTime.of(2025, 2, 2, 0, 0);
+		};
+
+		Map<String, Object> params = params(criteria, orderBy, direction);
+		params.put("cursor", new ExpenseSearchCursor(orderBy, direction, sortValue, 10_000L));
+		params.put("size", 6);
+
+		assertPlan("searchByKeyset", params);
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("searchShapes")
+	@DisplayName("count：全件走査にならない")
+	void count(String shape, ExpenseSearchCriteriaEntity criteria, String orderBy, String direction) throws Exception {
+
+		assertPlan("count", params(criteria, orderBy, direction));
+	}
+
+	private void assertPlan(String statementId, Map<String, Object> params) throws Exception {
+		assertPlan(statementId, params, false);
+	}
+
+	private void assertPlan(String statementId, Map<String, Object> params, boolean allowFilesort) throws Exception {
+
+		MappedStatement ms = sqlSessionFactory.getConfiguration().getMappedStatement(NAMESPACE + statementId);
+		BoundSql boundSql = ms.getBoundSql(params);
+
+		try(Connection con = dataSource.getConnection();
+			PreparedStatement ps = con.prepareStatement("EXPLAIN " + boundSql.getSql())) {
+
+			ParameterHandler handler = new DefaultParameterHandler(ms, params, boundSql);
+			handler.setParameters(ps);
+
+			try(ResultSet rs = ps.executeQuery()) {
+				while(rs.next()) {
+					String type = rs.getString("type");
+					String key = rs.getString("key");
+					String extra = rs.getString("Extra");
+
+					assertThat(type)
+						.as("full scan: %s key=%s extra=%s%n%s", statementId, key, extra, boundSql.getSql())
+						.isNotEqualTo("ALL");
+					if(!allowFilesort) {
+						assertThat(extra == null ? "" : extra)
+							.as("filesort: %s key=%s%n%s", statementId, key, boundSql.getSql())
+							.doesNotContain("Using filesort");
+					}
+				}
+			}
+		}
+	}
+
+	private Map<String, Object> params(ExpenseSearchCriteriaEntity criteria, String orderBy, String direction) {
+		Map<String, Object> params = new HashMap<>();
+		params.put("criteria", criteria);
+		params.put("orderBy", orderBy);
+		params.put("direction", direction);
+		return params;
+	}
+
+	private static ExpenseSearchCriteriaEntity criteria(Long applicantId, String status, LocalDate from, LocalDate to) {
+		ExpenseSearchCriteriaEntity e = new ExpenseSearchCriteriaEntity();
+		e.setApplicantId(applicantId);
+		e.setStatus(status);
+		e.setSubmittedFrom(from);
+		e.setSubmittedTo(to);
+		return e;
+	}
+}
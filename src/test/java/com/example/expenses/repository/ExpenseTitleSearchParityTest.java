@@ -0,0 +1,93 @@
+package com.example.expenses.repository;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.expenses.batch.config.TestcontainersConfiguration;
+import com.example.expenses.domain.Expense;
+import com.example.expenses.dto.request.ExpenseSearchCriteriaEntity;
+
+/**
+ * タイトル検索（MATCH ... AGAINST）が LIKE '%...%' と同じ経費を返すことのテスト
+ * 英字・日本語の混在したタイトルで、ストップワードやngramのトークン長による取りこぼしがないことを確認する
+ */
+@SpringBootTest
+@Import(TestcontainersConfiguration.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("タイトル検索（全文検索とLIKEの一致）")
+class ExpenseTitleSearchParityTest {
+
+	private static final List<String> TITLES = List.of(
+			"Taxi 羽田空港まで",
+			"Uber Eats 会議の昼食",
+			"Amazon 書籍購入",
+			"amazon prime 年会費",
+			"Wi-Fi ルーター",
+			"A-1 会議室 利用料",
+			"Apple Music",
+			"Zoom subscription",
+			"In-N-Out 出張中の夕食",
+			"to be determined",
+			"タクシー代（深夜）",
+			"新幹線 東京-大阪",
+			"東京出張 宿泊費",
+			"書籍「Java入門」",
+			"交通費");
+
+	@Autowired
+	private ExpenseMapper expenseMapper;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeAll
+	void seed() {
+		jdbcTemplate.update("DELETE FROM expenses");
+		for(String title : TITLES) {
+			jdbcTemplate.update("""
+					INSERT INTO expenses (applicant_id, title, amount, currency, status)
+					VALUES (1, ?, 1000, 'JPY', 'DRAFT')
+					""", title);
+		}
+	}
+
+	Stream<String> keywords() {
+		return Stream.of(
+				//ストップワード（a, i, in, to, be など）を含む英字の語
+				"Taxi", "Uber", "Amazon", "amazon", "Apple", "Music", "Zoom", "subscription", "prime",
+				"in", "to", "be", "determined",
+				//日本語・英字と日本語の混在
+				"タクシー", "東京", "書籍", "会議", "Java入門", "出張",
+				//演算子・トークン長未満の語を含む（LIKE検索にフォールバック）
+				"A-1", "Wi-Fi", "In-N-Out", "東京-大阪", "A", "費", "Apple M");
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("keywords")
+	@DisplayName("全文検索とLIKEで同じ経費がヒットする")
+	void 全文検索とLIKEの結果が一致する(String keyword) {
+
+		ExpenseSearchCriteriaEntity criteria = new ExpenseSearchCriteriaEntity();
+		criteria.setTitle(keyword);
+
+		List<Long> found = expenseMapper.search(criteria, "id", "ASC", 100, 0).stream()
+				.map(Expense::getId)
+				.toList();
+		List<Long> expected = jdbcTemplate.queryForList(
+				"SELECT id FROM expenses WHERE title LIKE CONCAT('%', ?, '%') ORDER BY id", Long.class, keyword);
+
+		assertThat(expected).as("LIKEでヒットする経費があること").isNotEmpty();
+		assertThat(found).containsExactlyElementsOf(expected);
+	}
+}
@@ -0,0 +1,115 @@
+package com.example.expenses.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.expenses.dto.ExpenseAuditLog;
+import com.example.expenses.repository.ExpenseAuditLogMapper;
+import com.example.expenses.service.ExpenseAuditLogWriter.Mode;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ExpenseAuditLogWriterのユニットテスト")
+class ExpenseAuditLogWriterTest {
+
+	@Mock
+	private ExpenseAuditLogMapper auditLogMapper;
+	@Mock
+	private PlatformTransactionManager transactionManager;
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private ExpenseAuditLogWriter writer;
+
+	@AfterEach
+	void tearDown() {
+		if(TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+		TransactionSynchronizationManager.unbindResourceIfPossible(writer);
+		writer.stop();
+	}
+
+	@Test
+	@DisplayName("TRANSACTIONAL：トランザクション中の監査ログはコミット直前に1回のINSERTで書き込む")
+	void トランザクション中はコミット直前にまとめて書き込む() {
+
+		writer = writer(Mode.TRANSACTIONAL, 100, 10);
+		TransactionSynchronizationManager.initSynchronization();
+
+		writer.write(log(1L));
+		writer.writeAll(List.of(log(2L), log(3L)));
+		verify(auditLogMapper, never()).insertAll(any());
+
+		for(TransactionSynchronization sync : TransactionSynchronizationManager.getSynchronizations()) {
+			sync.beforeCommit(false);
+		}
+
+		verify(auditLogMapper, times(1)).insertAll(argThat(logs -> logs.size() == 3));
+	}
+
+	@Test
+	@DisplayName("TRANSACTIONAL：batch-sizeを超える場合は分割して書き込む")
+	void batchSizeごとに分割して書き込む() {
+
+		writer = writer(Mode.TRANSACTIONAL, 100, 2);
+
+		writer.writeAll(List.of(log(1L), log(2L), log(3L), log(4L), log(5L)));
+
+		verify(auditLogMapper, times(3)).insertAll(any());
+		assertThat(meterRegistry.counter("expense.audit.written").count()).isEqualTo(5.0);
+	}
+
+	@Test
+	@DisplayName("WRITE_BEHIND：バッファに積んだ監査ログは書き込みスレッドがまとめて書き込む")
+	void 書き込みスレッドがまとめて書き込む() {
+
+		writer = writer(Mode.WRITE_BEHIND, 100, 50);
+		writer.start();
+
+		writer.writeAll(List.of(log(1L), log(2L), log(3L)));
+		writer.stop();
+
+		verify(auditLogMapper, atLeastOnce()).insertAll(any());
+		assertThat(meterRegistry.counter("expense.audit.written").count()).isEqualTo(3.0);
+		assertThat(meterRegistry.get("expense.audit.buffer.depth").gauge().value()).isZero();
+	}
+
+	@Test
+	@DisplayName("WRITE_BEHIND：バッファに積めない場合は呼び出し元で書き込む")
+	void バッファに積めない場合は呼び出し元で書き込む() {
+
+		//書き込みスレッドの停止後はバッファに積まない
+		writer = writer(Mode.WRITE_BEHIND, 2, 50);
+		writer.start();
+		writer.stop();
+
+		writer.writeAll(List.of(log(1L), log(2L), log(3L)));
+
+		assertThat(meterRegistry.counter("expense.audit.fallback").count()).isEqualTo(3.0);
+		verify(auditLogMapper).insertAll(argThat(logs -> logs.size() == 3));
+	}
+
+	private ExpenseAuditLogWriter writer(Mode mode, int capacity, int batchSize) {
+		return new ExpenseAuditLogWriter(auditLogMapper, transactionManager, meterRegistry,
+				mode, capacity, batchSize, Duration.ofMillis(20));
+	}
+
+	private ExpenseAuditLog log(Long expenseId) {
+		return ExpenseAuditLog.createApprove(expenseId, 1L, "trace");
+	}
+}
@@ -0,0 +1,117 @@
+package com.example.expenses.service;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.expenses.dto.request.ExpenseSearchCriteriaEntity;
+
+@DisplayName("ExpenseSearchCountCacheのユニットテスト")
+class ExpenseSearchCountCacheTest {
+
+	private final AtomicInteger loads = new AtomicInteger();
+
+	@AfterEach
+	void clearSynchronization() {
+		if(TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	@DisplayName("TTL内は同じ条件の件数をキャッシュから返し、条件が異なれば取得する")
+	void TTL内はキャッシュから返す() {
+
+		ExpenseSearchCountCache cache = new ExpenseSearchCountCache(Duration.ofMinutes(5), 100);
+
+		assertThat(cache.get(criteria(1L), () -> load(10))).isEqualTo(10);
+		assertThat(cache.get(criteria(1L), () -> load(20))).isEqualTo(10);
+		assertThat(cache.get(criteria(2L), () -> load(30))).isEqualTo(30);
+		assertThat(loads).hasValue(2);
+	}
+
+	@Test
+	@DisplayName("TTLを過ぎた件数は取得し直す")
+	void TTLを過ぎたら取得し直す() {
+
+		ExpenseSearchCountCache cache = new ExpenseSearchCountCache(Duration.ZERO, 100);
+
+		assertThat(cache.get(criteria(1L), () -> load(10))).isEqualTo(10);
+		assertThat(cache.get(criteria(1L), () -> load(20))).isEqualTo(20);
+		assertThat(loads).hasValue(2);
+	}
+
+	@Test
+	@DisplayName("トランザクション中の破棄はコミット後に行い、ロールバックした場合は破棄しない")
+	void コミット後に破棄する() {
+
+		ExpenseSearchCountCache cache = new ExpenseSearchCountCache(Duration.ofMinutes(5), 100);
+		cache.get(criteria(1L), () -> load(10));
+
+		//ロールバック
+		TransactionSynchronizationManager.initSynchronization();
+		cache.invalidateAll();
+		TransactionSynchronizationManager.getSynchronizations()
+				.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+		TransactionSynchronizationManager.clearSynchronization();
+		assertThat(cache.get(criteria(1L), () -> load(20))).isEqualTo(10);
+
+		//コミット前はまだ破棄されない
+		TransactionSynchronizationManager.initSynchronization();
+		cache.invalidateAll();
+		assertThat(cache.get(criteria(1L), () -> load(30))).isEqualTo(10);
+		TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+		TransactionSynchronizationManager.clearSynchronization();
+
+		assertThat(cache.get(criteria(1L), () -> load(40))).isEqualTo(40);
+		assertThat(loads).hasValue(2);
+	}
+
+	@Test
+	@DisplayName("取得中に破棄された件数はキャッシュしない（古い件数を戻さない）")
+	void 取得中に破棄された件数はキャッシュしない() {
+
+		ExpenseSearchCountCache cache = new ExpenseSearchCountCache(Duration.ofMinutes(5), 100);
+
+		//countの実行中に別のリクエストが経費を登録して破棄した場合
+		assertThat(cache.get(criteria(1L), () -> {
+			cache.invalidateAll();
+			return load(10);
+		})).isEqualTo(10);
+
+		assertThat(cache.get(criteria(1L), () -> load(11))).isEqualTo(11);
+		assertThat(cache.get(criteria(1L), () -> load(12))).isEqualTo(11);
+		assertThat(loads).hasValue(2);
+	}
+
+	@Test
+	@DisplayName("上限件数に達した場合は全件破棄してから保存する")
+	void 上限件数に達したら全件破棄する() {
+
+		ExpenseSearchCountCache cache = new ExpenseSearchCountCache(Duration.ofMinutes(5), 2);
+		cache.get(criteria(1L), () -> load(1));
+		cache.get(criteria(2L), () -> load(2));
+		cache.get(criteria(3L), () -> load(3));
+
+		assertThat(cache.get(criteria(3L), () -> load(30))).isEqualTo(3);
+		assertThat(cache.get(criteria(1L), () -> load(10))).isEqualTo(10);
+	}
+
+	private long load(long count) {
+		loads.incrementAndGet();
+		return count;
+	}
+
+	private ExpenseSearchCriteriaEntity criteria(Long applicantId) {
+		ExpenseSearchCriteriaEntity e = new ExpenseSearchCriteriaEntity();
+		e.setApplicantId(applicantId);
+		return e;
+	}
+}
@@ -0,0 +1,106 @@
+package com.example.expenses.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.example.expenses.domain.Expense;
+import com.example.expenses.domain.ExpenseStatus;
+import com.example.expenses.dto.request.ExpenseSearchCriteria;
+import com.example.expenses.dto.request.ExpenseSearchCursor;
+import com.example.expenses.dto.response.CursorPageResponse;
+import com.example.expenses.dto.response.ExpenseResponse;
+import com.example.expenses.exception.BusinessException;
+import com.example.expenses.repository.ExpenseMapper;
+
+/**
+ * カーソルページングのユニットテスト
+ */
+@ExtendWith(MockitoExtension.class)
+class ExpenseServiceCursorTest {
+
+	@Mock
+	private ExpenseMapper expenseMapper;
+	@Mock
+	private AuthenticationContext authenticationContext;
+
+	@InjectMocks
+	private ExpenseService expenseService;
+
+	@Test
+	@DisplayName("カーソルは同じソート条件で復元できる")
+	void カーソルを復元できる() {
+
+		LocalDateTime createdAt = LocalDateTime.of(2026, 4, 1, 10, 30, 15);
+		Expense expense = expense(42L, createdAt, null);
+
+		String token = ExpenseSearchCursor.of(expense, "created_at", "DESC").encode();
+		ExpenseSearchCursor decoded = ExpenseSearchCursor.decode(token, "created_at", "DESC");
+
+		assertThat(decoded.getSortValue()).isEqualTo(createdAt);
+		assertThat(decoded.getId()).isEqualTo(42L);
+	}
+
+	@Test
+	@DisplayName("未提出（submitted_atがnull）の行もカーソルにできる")
+	void submittedAtがnullでもカーソルにできる() {
+
+		Expense expense = expense(7L, LocalDateTime.now(), null);
+
+		String token = ExpenseSearchCursor.of(expense, "submitted_at", "ASC").encode();
+		ExpenseSearchCursor decoded = ExpenseSearchCursor.decode(token, "submitted_at", "ASC");
+
+		assertThat(decoded.getSortValue()).isNull();
+		assertThat(decoded.getId()).isEqualTo(7L);
+	}
+
+	@Test
+	@DisplayName("ソート条件が異なるカーソルはエラー")
+	void ソート条件が異なるカーソルはエラー() {
+
+		Expense expense = expense(1L, LocalDateTime.now(), new BigDecimal("1000"));
+		String token = ExpenseSearchCursor.of(expense, "amount", "ASC").encode();
+
+		assertThatThrownBy(() -> ExpenseSearchCursor.decode(token, "created_at", "DESC"))
+			.isInstanceOf(BusinessException.class);
+		assertThatThrownBy(() -> ExpenseSearchCursor.decode("not-a-cursor", "amount", "ASC"))
+			.isInstanceOf(BusinessException.class);
+	}
+
+	@Test
+	@DisplayName("size+1件取得できた場合は次ページのカーソルを返す")
+	void 次ページがある場合はカーソルを返す() {
+
+		ExpenseSearchCriteria criteria = new ExpenseSearchCriteria(
+				null, null, null, "id,ASC", null, null, null, null);
+		when(authenticationContext.getCurrentUserId()).thenReturn(1L);
+		when(authenticationContext.isApprover()).thenReturn(true);
+		when(expenseMapper.searchByKeyset(any(), eq("id"), eq("ASC"), isNull(), eq(3)))
+			.thenReturn(List.of(
+					expense(1L, LocalDateTime.now(), null),
+					expense(2L, LocalDateTime.now(), null),
+					expense(3L, LocalDateTime.now(), null)));
+
+		CursorPageResponse<ExpenseResponse> page = expenseService.searchByCursor(criteria, null, 2);
+
+		assertThat(page.items()).hasSize(2);
+		assertThat(page.hasNext()).isTrue();
+		assertThat(ExpenseSearchCursor.decode(page.nextCursor(), "id", "ASC").getId()).isEqualTo(2L);
+	}
+
+	private Expense expense(Long id, LocalDateTime createdAt, BigDecimal amount) {
+		return new Expense(id, 1L, "交通費", amount == null ? BigDecimal.TEN : amount, "JPY",
+				ExpenseStatus.DRAFT, null, createdAt, createdAt, 0);
+	}
+}
@@ -18,7 +18,6 @@ import org.springframework.dao.DataAccessResourceFailureException;
 import com.example.expenses.domain.Expense;
 import com.example.expenses.dto.ExpenseAuditLog;
 import com.example.expenses.dto.request.ExpenseCreateRequest;
-import com.example.expenses.repository.ExpenseAuditLogMapper;
 import com.example.expenses.repository.ExpenseMapper;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,7 +27,7 @@ public class ExpenseServiceExceptionTest {
 	private ExpenseMapper expenseMapper;
 	
 	@Mock
-	private ExpenseAuditLogMapper auditLogMapper;
+	private ExpenseAuditLogWriter auditLogWriter;
 	
 	@Mock
 	private AuthenticationContext authenticationContext;
@@ -56,7 +55,7 @@ public class ExpenseServiceExceptionTest {
 		   .hasMessage("未認証のユーザーです");
 			
 		verify(expenseMapper, never()).insert(any(Expense.class));
-		verify(auditLogMapper, never()).insert(any(ExpenseAuditLog.class));
+		verify(auditLogWriter, never()).write(any(ExpenseAuditLog.class));
 		
 	}
 	
@@ -104,7 +103,7 @@ public class ExpenseServiceExceptionTest {
 		verify(authenticationContext,times(1)).getCurrentUserId();
 		verify(expenseMapper, times(1)).insert(any(Expense.class));
 		//メソッドが呼ばれていないことを確認
-		verify(auditLogMapper, never()).insert(any(ExpenseAuditLog.class));
+		verify(auditLogWriter, never()).write(any(ExpenseAuditLog.class));
 	}
 	
 	@Test
@@ -121,7 +120,7 @@ public class ExpenseServiceExceptionTest {
 			invocation.getArgument(0);
 			throw new DataAccessResourceFailureException ("logの登録に失敗しました");
 		}).
-		when(auditLogMapper).insert(any(ExpenseAuditLog.class));
+		when(auditLogWriter).write(any(ExpenseAuditLog.class));
 		
 		assertThatThrownBy(() -> expenseService.create(request))
 		.isInstanceOf(DataAccessException.class).hasMessage("logの登録に失敗しました");
@@ -17,7 +17,7 @@ public class ExpenseServiceNormalizedOrderByTest {
 	
 	@BeforeEach
 	void setUp() throws Exception{
-		service = new ExpenseService(null, null, null, null);
+		service = new ExpenseService(null, null, null, null, null, null, null);
 		method = ExpenseService.class.getDeclaredMethod("normalizedOrderBy", String.class);
 		normalizedDirectionMethod = ExpenseService.class.getDeclaredMethod("normalizedDirection", String.class);
 		method.setAccessible(true);
@@ -223,6 +223,15 @@ public class ExpenseServiceNormalizedOrderByTest {
 		
 	}
 	
+	@Test
+	@DisplayName("relevance,ascの場合も関連度の高い順（DESC）を返す")
+	void relevance_and_ascの場合はDESCを返す() throws Exception {
+		
+		var result = (String)normalizedDirectionMethod.invoke(service, "relevance,ASC");
+		
+		assertThat(result).isEqualTo("DESC");
+	}
+	
 	@Test
 	@DisplayName("created_at,invalidの場合はDESCを返す")
 	void created_at_and_invalidの場合はDESCを返す() throws Exception {
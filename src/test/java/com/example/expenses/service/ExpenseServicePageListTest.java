@@ -20,7 +20,7 @@ public class ExpenseServicePageListTest {
 	@BeforeEach
 	void setUp() throws  Exception {
 
-		service = new ExpenseService(null, null, null, null);
+		service = new ExpenseService(null, null, null, null, null, null, null);
 	
 		pageListMethod = ExpenseService.class.getDeclaredMethod("pageList", int.class, int.class, int.class);
 		pageListMethod.setAccessible(true);
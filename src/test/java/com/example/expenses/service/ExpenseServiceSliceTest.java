@@ -0,0 +1,82 @@
+package com.example.expenses.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.example.expenses.domain.Expense;
+import com.example.expenses.domain.ExpenseStatus;
+import com.example.expenses.dto.request.ExpenseSearchCriteria;
+import com.example.expenses.dto.response.ExpenseResponse;
+import com.example.expenses.dto.response.SliceResponse;
+import com.example.expenses.repository.ExpenseMapper;
+
+/**
+ * 件数を取得しないページング（searchSlice）のユニットテスト
+ */
+@ExtendWith(MockitoExtension.class)
+class ExpenseServiceSliceTest {
+
+	@Mock
+	private ExpenseMapper expenseMapper;
+	@Mock
+	private AuthenticationContext authenticationContext;
+	@Mock
+	private ExpenseSearchCountCache countCache;
+
+	@InjectMocks
+	private ExpenseService expenseService;
+
+	private final ExpenseSearchCriteria criteria = new ExpenseSearchCriteria(
+			null, null, null, "amount,ASC", null, null, null, null);
+
+	@Test
+	@DisplayName("size+1件取得できた場合は size件だけ返し、次ページありとする")
+	void 次ページがある場合() {
+
+		when(authenticationContext.isApprover()).thenReturn(true);
+		when(expenseMapper.search(any(), eq("amount"), eq("ASC"), eq(3), eq(4))).thenReturn(expenses(5, 6, 7, 8));
+
+		SliceResponse<ExpenseResponse> slice = expenseService.searchSlice(criteria, 3, 2);
+
+		assertThat(slice.items()).extracting(ExpenseResponse::id).containsExactly(5L, 6L);
+		assertThat(slice.hasNext()).isTrue();
+		//件数は取得しない
+		verify(expenseMapper, never()).count(any());
+		verifyNoInteractions(countCache);
+	}
+
+	@Test
+	@DisplayName("size件以下の場合は全件返し、次ページなしとする")
+	void 最後のページ() {
+
+		when(authenticationContext.getCurrentUserId()).thenReturn(9L);
+		when(authenticationContext.isApprover()).thenReturn(false);
+		when(expenseMapper.search(argThat(e -> e.getApplicantId() == 9L), eq("amount"), eq("ASC"), eq(3), eq(0)))
+				.thenReturn(expenses(1, 2));
+
+		SliceResponse<ExpenseResponse> slice = expenseService.searchSlice(criteria, 1, 2);
+
+		assertThat(slice.items()).hasSize(2);
+		assertThat(slice.hasNext()).isFalse();
+	}
+
+	private List<Expense> expenses(long... ids) {
+		LocalDateTime now = LocalDateTime.now();
+		return LongStream.of(ids)
+				.mapToObj(id -> new Expense(id, 1L, "交通費", BigDecimal.TEN, "JPY", ExpenseStatus.DRAFT, null, now, now, 0))
+				.toList();
+	}
+}
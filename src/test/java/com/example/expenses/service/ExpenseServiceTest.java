@@ -5,6 +5,12 @@ import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -13,13 +19,17 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import com.example.expenses.domain.Expense;
+import com.example.expenses.domain.ExpenseStatus;
 import com.example.expenses.dto.ExpenseAuditLog;
+import com.example.expenses.dto.ExpenseSearchRow;
 import com.example.expenses.dto.request.ExpenseCreateRequest;
 import com.example.expenses.dto.request.ExpenseSearchCriteria;
 import com.example.expenses.dto.response.ExpenseResponse;
-import com.example.expenses.repository.ExpenseAuditLogMapper;
+import com.example.expenses.dto.response.PaginationResponse;
+import com.example.expenses.repository.ExpenseDailyRollupMapper;
 import com.example.expenses.repository.ExpenseMapper;
 
 /**
@@ -32,9 +42,13 @@ class ExpenseServiceTest {
 	@Mock
 	private ExpenseMapper expenseMapper;
 	@Mock
-	private ExpenseAuditLogMapper auditLogMapper;
+	private ExpenseAuditLogWriter auditLogWriter;
 	@Mock
 	private AuthenticationContext authenticationContext;
+	@Mock
+	private ExpenseSearchCountCache countCache;
+	@Mock
+	private ExpenseDailyRollupMapper rollupMapper;
 	
 	@InjectMocks
 	private ExpenseService expenseService;
@@ -63,7 +77,7 @@ class ExpenseServiceTest {
 
 			return null;
 		}).
-		when(auditLogMapper).insert(any(ExpenseAuditLog.class));
+		when(auditLogWriter).write(any(ExpenseAuditLog.class));
 		
 		
 		//  when テスト対象のメソッドを呼び出す
@@ -78,8 +92,34 @@ class ExpenseServiceTest {
 		// then 必要なメソッドが呼び出されたか
 		verify(authenticationContext).getCurrentUserId();
 		verify(expenseMapper).insert(any(Expense.class));
-		verify(auditLogMapper).insert(any(ExpenseAuditLog.class));
+		verify(auditLogWriter).write(any(ExpenseAuditLog.class));
+
+	}
+	
+	@Test
+	@DisplayName("正常系：経費を一括登録し、生成されたIDで監査ログをまとめて書き込む")
+	void 経費を一括登録できる() {
+
+		when(authenticationContext.getCurrentUserId()).thenReturn(123L);
+		AtomicLong ids = new AtomicLong(100);
+		doAnswer(inv -> {
+			List<Expense> expenses = inv.getArgument(0);
+			expenses.forEach(e -> ReflectionTestUtils.setField(e, "id", ids.incrementAndGet()));
+			return expenses.size();
+		}).when(expenseMapper).insertAll(anyList());
 
+		List<ExpenseCreateRequest> requests = IntStream.range(0, 501)
+				.mapToObj(i -> new ExpenseCreateRequest("明細" + i, new BigDecimal("1000"), "JPY"))
+				.toList();
+
+		List<ExpenseResponse> responses = expenseService.createAll(requests);
+
+		//500件ごとに複数行INSERT
+		verify(expenseMapper, times(2)).insertAll(anyList());
+		assertThat(responses).hasSize(501);
+		assertThat(responses.get(0).id()).isEqualTo(101L);
+		assertThat(responses.get(500).id()).isEqualTo(601L);
+		verify(auditLogWriter).writeAll(argThat(logs -> logs.size() == 501 && logs.get(0).getExpenseId() == 101L));
 	}
 	
 	@Nested
@@ -87,7 +127,7 @@ class ExpenseServiceTest {
 	class SearchTest {
 		
 		@Test
-		@DisplayName("一般ユーザー：自分の経費のみ取得できる")
+		@DisplayName("一般ユーザー：自分の経費のみ、ページと件数を1回のクエリ（searchWithTotal）で取得できる")
 		void 自分の経費の未取得できる() {
 			
 			//Given 一般ユーザー
@@ -99,20 +139,60 @@ class ExpenseServiceTest {
 			//モックの振る舞いを定義
 			when(authenticationContext.getCurrentUserId()).thenReturn(userId);
 			when(authenticationContext.isApprover()).thenReturn(false);
+			loadCountOnMiss();
+			when(expenseMapper.searchWithTotal(
+					argThat(c -> userId.equals(c.getApplicantId())), anyString(), anyString(), eq(10), eq(0)))
+				.thenReturn(List.of(row(1L, 42), row(2L, 42)));
 			
 			//when テスト対象のメソッドを呼び出す
-			expenseService.search(criteria, 1, 10);
+			PaginationResponse<ExpenseResponse> response = expenseService.search(criteria, 1, 10);
 			
-			//then 必要なメソッドが呼ばれたか
-			verify(expenseMapper).search(
-					argThat(c -> c.getApplicantId().equals(userId))
-					,anyString()
-					,anyString()
-					,anyInt()
-					,anyInt()
-					);
+			//then 件数は COUNT(*) OVER() の値、search・count は呼ばれない
+			assertThat(response.items()).extracting(ExpenseResponse::id).containsExactly(1L, 2L);
+			assertThat(response.total()).isEqualTo(42);
+			assertThat(response.totalPages()).isEqualTo(5);
+			verify(expenseMapper, never()).search(any(), anyString(), anyString(), anyInt(), anyInt());
+			verify(expenseMapper, never()).count(any());
+			
+		}
+		
+		@Test
+		@DisplayName("一般ユーザー：範囲外のページで行がない場合は件数をcountで取得する")
+		void 範囲外のページはcountで件数を取得する() {
+			
+			when(authenticationContext.getCurrentUserId()).thenReturn(123L);
+			when(authenticationContext.isApprover()).thenReturn(false);
+			loadCountOnMiss();
+			when(expenseMapper.searchWithTotal(any(), anyString(), anyString(), eq(10), eq(40)))
+				.thenReturn(List.of());
+			when(expenseMapper.count(argThat(c -> c.getApplicantId() == 123L))).thenReturn(12L);
+			
+			PaginationResponse<ExpenseResponse> response = expenseService.search(
+					new ExpenseSearchCriteria(null, null, null, null, null, null, null, null), 5, 10);
 			
+			assertThat(response.items()).isEmpty();
+			assertThat(response.total()).isEqualTo(12);
+			assertThat(response.totalPages()).isEqualTo(2);
+			verify(expenseMapper, never()).search(any(), anyString(), anyString(), anyInt(), anyInt());
 		}
+		
+		@Test
+		@DisplayName("一般ユーザー：件数がキャッシュにある場合はsearchでページのみ取得する")
+		void 件数がキャッシュにある場合はsearchのみ() {
+			
+			when(authenticationContext.getCurrentUserId()).thenReturn(123L);
+			when(authenticationContext.isApprover()).thenReturn(false);
+			when(countCache.get(any(), any())).thenReturn(42L);
+			when(expenseMapper.search(any(), anyString(), anyString(), eq(10), eq(0))).thenReturn(List.of(expense(1L)));
+			
+			PaginationResponse<ExpenseResponse> response = expenseService.search(
+					new ExpenseSearchCriteria(null, null, null, null, null, null, null, null), 1, 10);
+			
+			assertThat(response.items()).hasSize(1);
+			assertThat(response.total()).isEqualTo(42);
+			verify(expenseMapper, never()).searchWithTotal(any(), anyString(), anyString(), anyInt(), anyInt());
+		}
+		
 		@Test
 		@DisplayName("承認者：すべての経費を取得できる")
 		void 承認者はすべての経費を取得できる() { 
@@ -138,6 +218,72 @@ class ExpenseServiceTest {
 					);
 			
 		}
+		
+		//キャッシュにない場合と同じく、件数の取得処理（loader）を実行する
+		private void loadCountOnMiss() {
+			when(countCache.get(any(), any())).thenAnswer(inv -> inv.<LongSupplier>getArgument(1).getAsLong());
+		}
+		
+		private ExpenseSearchRow row(Long id, long totalCount) {
+			ExpenseSearchRow row = new ExpenseSearchRow();
+			row.setId(id);
+			row.setExpense(expense(id));
+			row.setTotalCount(totalCount);
+			return row;
+		}
+		
+		private Expense expense(Long id) {
+			LocalDateTime now = LocalDateTime.now();
+			return new Expense(id, 123L, "交通費", BigDecimal.TEN, "JPY", ExpenseStatus.DRAFT, null, now, now, 0);
+		}
+	}
+
+	@Nested
+	@DisplayName("日別集計")
+	class DailySpendTest {
+		
+		private final LocalDate from = LocalDate.of(2026, 4, 1);
+		private final LocalDate to = LocalDate.of(2026, 4, 30);
+		
+		@Test
+		@DisplayName("一般ユーザー：指定した申請者IDに関わらず自分の経費のみ集計する")
+		void 一般ユーザーは自分の経費のみ集計する() {
+			
+			when(authenticationContext.getCurrentUserId()).thenReturn(123L);
+			when(authenticationContext.isApprover()).thenReturn(false);
+			
+			//他人の申請者IDを指定
+			expenseService.dailySpend(from, to, 999L);
+			
+			verify(rollupMapper).sumByDay(from, to, 123L);
+			verify(rollupMapper, never()).sumByDay(any(), any(), eq(999L));
+		}
+		
+		@Test
+		@DisplayName("一般ユーザー：申請者IDを指定しない場合も自分の経費のみ集計する")
+		void 一般ユーザーは申請者IDなしでも自分の経費のみ集計する() {
+			
+			when(authenticationContext.getCurrentUserId()).thenReturn(123L);
+			when(authenticationContext.isApprover()).thenReturn(false);
+			
+			expenseService.dailySpend(from, to, null);
+			
+			verify(rollupMapper).sumByDay(from, to, 123L);
+		}
+		
+		@Test
+		@DisplayName("承認者：指定した申請者ID（未指定なら全申請者）で集計する")
+		void 承認者は申請者IDを指定して集計できる() {
+			
+			when(authenticationContext.isApprover()).thenReturn(true);
+			
+			expenseService.dailySpend(from, to, 999L);
+			expenseService.dailySpend(from, to, null);
+			
+			verify(rollupMapper).sumByDay(from, to, 999L);
+			verify(rollupMapper).sumByDay(from, to, null);
+			verify(authenticationContext, never()).getCurrentUserId();
+		}
 	}
 
 }
@@ -5,6 +5,8 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.NoSuchElementException;
 
 import org.junit.jupiter.api.DisplayName;
@@ -15,16 +17,20 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.context.ApplicationEventPublisher;
+import org.slf4j.MDC;
 
+import com.example.expenses.config.TraceIdFilter;
 import com.example.expenses.domain.Expense;
 import com.example.expenses.domain.ExpenseStatus;
+import com.example.expenses.domain.ExpenseTransition;
 import com.example.expenses.dto.ExpenseAuditLog;
 import com.example.expenses.dto.response.ExpenseResponse;
-import com.example.expenses.event.ExpenseSubmittedEvent;
 import com.example.expenses.exception.BusinessException;
-import com.example.expenses.repository.ExpenseAuditLogMapper;
-import com.example.expenses.repository.ExpenseMapper;
+import com.example.expenses.kafka.ExpenseEventMessage;
+import com.example.expenses.kafka.ExpenseEventMessage.EventType;
+import com.example.expenses.kafka.ExpenseEventOutbox;
+import com.example.expenses.service.ExpenseTransitionEngine.Outcome;
+import com.example.expenses.service.ExpenseTransitionEngine.Result;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("経費申請")
@@ -33,127 +39,125 @@ public class ExpenseServiceTestExercises {
 	@InjectMocks
 	ExpenseService expenseService;
 	@Mock
-	ExpenseAuditLogMapper auditLogMapper;
+	ExpenseAuditLogWriter auditLogWriter;
 	@Mock
-	AuthenticationContext authenticationContext;
+	ExpenseTransitionEngine transitionEngine;
 	@Mock
-	ExpenseMapper expenseMapper;
+	ExpenseEventOutbox expenseEventOutbox;
 	@Mock
-	ApplicationEventPublisher publisher;
+	ExpenseSearchCountCache countCache;
 
 		@Test
 		@DisplayName("正常系：経費提出のテスト")
 		void 経費の提出() {
-			
+
 			Long userId = 123L;
-			Long expenseId = 123L;
-			Expense current = new Expense(
-					expenseId, userId,null,null,null,ExpenseStatus.DRAFT
-					,null,null,null,0);
-			Expense saved = new Expense(
-					expenseId, userId,null,null,null,ExpenseStatus.SUBMITTED
-					,null,null,null,0);
-			
-			ArgumentCaptor<Long> captor = ArgumentCaptor.forClass(Long.class);
-			//Given
-			
+			Long expenseId = 789L;
+			Expense submitted = expense(expenseId, userId, ExpenseStatus.SUBMITTED, 1);
+
+			//Given 下書きかつ本人のため遷移する
+			when(transitionEngine.apply(ExpenseTransition.SUBMIT, expenseId, null, userId))
+				.thenReturn(new Result(Outcome.APPLIED, submitted));
+
 			//when
-			when(authenticationContext.getCurrentUserId()).thenReturn(userId);
-			when(expenseMapper.findById(expenseId))
-				.thenReturn(current)
-				.thenReturn(saved);
-			when(expenseMapper.submitDraft(expenseId)).thenReturn(1);
-			
-			ExpenseResponse res = expenseService.submit(expenseId);
-
-
-			//Then
-			verify(expenseMapper).submitDraft(captor.capture());
-			verify(auditLogMapper).insert(any(ExpenseAuditLog.class));
-			
-	
-			assertEquals(123L, captor.getValue());
-			assertEquals(0, res.version());
+			ExpenseResponse res;
+			MDC.put(TraceIdFilter.TRACE_ID_KEY, "trace-submit");
+			try {
+				res = expenseService.submit(expenseId, userId);
+			}finally {
+				MDC.remove(TraceIdFilter.TRACE_ID_KEY);
+			}
+
+			//Then 遷移後の経費を返し、監査ログ・イベントを登録する
+			ArgumentCaptor<ExpenseEventMessage> captor = ArgumentCaptor.forClass(ExpenseEventMessage.class);
+			ArgumentCaptor<ExpenseAuditLog> auditLog = ArgumentCaptor.forClass(ExpenseAuditLog.class);
+			verify(expenseEventOutbox).append(captor.capture());
+			verify(auditLogWriter).write(auditLog.capture());
+			verify(countCache).invalidateAll();
+
+			//監査ログは提出者・遷移前後のステータス・トレースIDを記録する
+			assertEquals(expenseId, auditLog.getValue().getExpenseId());
+			assertEquals(userId, auditLog.getValue().getActorId());
+			assertEquals(ExpenseStatus.SUBMIT.toString(), auditLog.getValue().getAction());
+			assertEquals(ExpenseStatus.DRAFT.toString(), auditLog.getValue().getBeforeStatus());
+			assertEquals(ExpenseStatus.SUBMITTED.toString(), auditLog.getValue().getAfterStatus());
+			assertEquals("trace-submit", auditLog.getValue().getTraceId());
+			assertEquals("trace-submit", captor.getValue().getTraceId());
+
+			assertEquals(EventType.SUBMITTED, captor.getValue().getEventType());
+			assertEquals(expenseId, captor.getValue().getExpenseId());
+			assertEquals(userId, captor.getValue().getActorId());
+			assertEquals(userId, captor.getValue().getApplicantId());
+			assertEquals(1, res.version());
 			assertEquals(ExpenseStatus.SUBMITTED, res.status());
 		}
 
 		@Nested
 		@DisplayName("異常系：経費提出のテスト")
 		class SubmitExceptionTest{
-			
+
 			@Test
 			@DisplayName("経費が存在しない場合NoSuchElementExceptionをスロー")
 			void 経費が存在しない場合NoSuchElementExceptionをスロー() {
-				
+
 				//Given
 				Long userId = 123L;
 				Long invalidExpenseId = 999L;
-				
+
 				//when
-				when(expenseMapper.findById(invalidExpenseId)).thenReturn(null);
-				when(authenticationContext.getCurrentUserId()).thenReturn(userId);
-				
+				when(transitionEngine.apply(ExpenseTransition.SUBMIT, invalidExpenseId, null, userId))
+					.thenReturn(new Result(Outcome.NOT_FOUND, null));
 
 				//then
-				assertThatThrownBy(() -> expenseService.submit(invalidExpenseId))
+				assertThatThrownBy(() -> expenseService.submit(invalidExpenseId, userId))
 				.isInstanceOf(NoSuchElementException.class);
-				
-				verify(expenseMapper, never()).submitDraft(invalidExpenseId);
-				verify(auditLogMapper,never()).insert(any(ExpenseAuditLog.class)); 
-				verify(publisher, never()).publishEvent(any(ExpenseSubmittedEvent.class));
+
+				verifyNoInteractions(auditLogWriter, expenseEventOutbox, countCache);
 			}
-			
+
 			@DisplayName("本人以外が提出した場合にBusinessExceptionをスロー")
 			@Test
 			void 本人以外が提出した場合にBusinessExceptionをスロー() {
-				
-				//Given
+
+				//Given 下書きだが本人ではないため遷移しない
 				Long userId = 123L;
 				Long ownerId = 456L;
 				Long expenseId = 789L;
-				
-				Expense expense = new Expense(null,ownerId,null,null,null,null,null,null,null,null);
-				
-				//when
-				when(expenseMapper.findById(expenseId)).thenReturn(expense);
-				when(authenticationContext.getCurrentUserId()).thenReturn(userId);
-				
+
+				when(transitionEngine.apply(ExpenseTransition.SUBMIT, expenseId, null, userId))
+					.thenReturn(new Result(Outcome.INVALID_STATE, expense(expenseId, ownerId, ExpenseStatus.DRAFT, 0)));
+
 				//Then
-				
-				assertThatThrownBy(() -> expenseService.submit(expenseId))
-				.isInstanceOf(BusinessException.class);
-				
-				verify(expenseMapper, never()).submitDraft(anyLong());
-				verify(auditLogMapper,never()).insert(any(ExpenseAuditLog.class)); 
-				verify(publisher, never()).publishEvent(any(ExpenseSubmittedEvent.class));
-				
-				
+				assertThatThrownBy(() -> expenseService.submit(expenseId, userId))
+				.isInstanceOf(BusinessException.class)
+				.hasMessage("ステータスもしくは本人ではないため提出できません");
+
+				verifyNoInteractions(auditLogWriter, expenseEventOutbox, countCache);
 			}
-			@DisplayName("既に提出済みの場合にIllegalStateExceptionをスロー")
+
+			@DisplayName("既に提出済みの場合にBusinessExceptionをスロー")
 			@Test
-			void すでに提出済みの場合にIllegalStateExceptionをスロー() {
-				
+			void すでに提出済みの場合にBusinessExceptionをスロー() {
+
 				//Given
 				Long userId = 123L;
 				Long expenseId = 789L;
-				
-				Expense expense = new Expense(null, userId, null, null, null, ExpenseStatus.SUBMITTED, null, null, null, null);
-				
-				
-				//when
-				when(expenseMapper.findById(expenseId)).thenReturn(expense);
-				when(authenticationContext.getCurrentUserId()).thenReturn(userId);
-				
+
+				when(transitionEngine.apply(ExpenseTransition.SUBMIT, expenseId, null, userId))
+					.thenReturn(new Result(Outcome.INVALID_STATE, expense(expenseId, userId, ExpenseStatus.SUBMITTED, 1)));
+
 				//Then
-				
-				assertThatThrownBy(() -> expenseService.submit(expenseId))
-				.isInstanceOf(BusinessException.class);
-				
-				verify(expenseMapper, never()).submitDraft(anyLong());
-				verify(auditLogMapper,never()).insert(any(ExpenseAuditLog.class)); 
-				verify(publisher, never()).publishEvent(any(ExpenseSubmittedEvent.class));
-				
-				
+				assertThatThrownBy(() -> expenseService.submit(expenseId, userId))
+				.isInstanceOf(BusinessException.class)
+				.hasMessage("下書き以外提出できません");
+
+				verifyNoInteractions(auditLogWriter, expenseEventOutbox, countCache);
 			}
 		}
+
+		private Expense expense(Long id, Long applicantId, ExpenseStatus status, int version) {
+			LocalDateTime now = LocalDateTime.now();
+			return new Expense(id, applicantId, "交通費", BigDecimal.TEN, "JPY", status,
+					status == ExpenseStatus.DRAFT ? null : now, now, now, version);
+		}
 }
@@ -0,0 +1,148 @@
+package com.example.expenses.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.example.expenses.domain.Expense;
+import com.example.expenses.domain.ExpenseStatus;
+import com.example.expenses.domain.ExpenseTransition;
+import com.example.expenses.repository.ExpenseDailyRollupMapper;
+import com.example.expenses.repository.ExpenseMapper;
+import com.example.expenses.service.ExpenseTransitionEngine.Outcome;
+import com.example.expenses.service.ExpenseTransitionEngine.Result;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ExpenseTransitionEngineのユニットテスト")
+class ExpenseTransitionEngineTest {
+
+	@Mock
+	private ExpenseMapper expenseMapper;
+	@Mock
+	private ExpenseDailyRollupMapper rollupMapper;
+
+	@InjectMocks
+	private ExpenseTransitionEngine engine;
+
+	@Test
+	@DisplayName("更新できた場合はUPDATE後の経費を返す")
+	void 更新できた場合はUPDATE後の経費を返す() {
+
+		when(expenseMapper.transition(ExpenseTransition.APPROVE, 1L, 3, null)).thenReturn(1);
+		when(expenseMapper.findById(1L)).thenReturn(expense(ExpenseStatus.APPROVED, 4, 10L));
+
+		Result result = engine.apply(ExpenseTransition.APPROVE, 1L, 3, null);
+
+		assertThat(result.outcome()).isEqualTo(Outcome.APPLIED);
+		assertThat(result.expense().getStatus()).isEqualTo(ExpenseStatus.APPROVED);
+		assertThat(result.expense().getVersion()).isEqualTo(4);
+		//遷移した経費を日別集計に反映する
+		verify(rollupMapper).applyTransition(ExpenseTransition.APPROVE, List.of(1L));
+	}
+
+	@Test
+	@DisplayName("経費が存在しない")
+	void 経費が存在しない() {
+
+		when(expenseMapper.transition(ExpenseTransition.APPROVE, 1L, 3, null)).thenReturn(0);
+
+		assertThat(engine.apply(ExpenseTransition.APPROVE, 1L, 3, null).outcome()).isEqualTo(Outcome.NOT_FOUND);
+	}
+
+	@Test
+	@DisplayName("遷移元のステータスではない")
+	void 遷移元のステータスではない() {
+
+		when(expenseMapper.transition(ExpenseTransition.REJECT, 1L, 3, null)).thenReturn(0);
+		when(expenseMapper.findById(1L)).thenReturn(expense(ExpenseStatus.APPROVED, 3, 10L));
+
+		assertThat(engine.apply(ExpenseTransition.REJECT, 1L, 3, null).outcome()).isEqualTo(Outcome.INVALID_STATE);
+		verifyNoInteractions(rollupMapper);
+	}
+
+	@Test
+	@DisplayName("ステータスは正しいがバージョンが異なる")
+	void バージョンが異なる() {
+
+		when(expenseMapper.transition(ExpenseTransition.APPROVE, 1L, 3, null)).thenReturn(0);
+		when(expenseMapper.findById(1L)).thenReturn(expense(ExpenseStatus.SUBMITTED, 5, 10L));
+
+		assertThat(engine.apply(ExpenseTransition.APPROVE, 1L, 3, null).outcome()).isEqualTo(Outcome.VERSION_CONFLICT);
+	}
+
+	@Test
+	@DisplayName("本人以外の提出は遷移できない")
+	void 本人以外の提出は遷移できない() {
+
+		when(expenseMapper.transition(ExpenseTransition.SUBMIT, 1L, null, 99L)).thenReturn(0);
+		when(expenseMapper.findById(1L)).thenReturn(expense(ExpenseStatus.DRAFT, 0, 10L));
+
+		assertThat(engine.apply(ExpenseTransition.SUBMIT, 1L, null, 99L).outcome()).isEqualTo(Outcome.INVALID_STATE);
+	}
+
+	@Test
+	@DisplayName("一括遷移：遷移できる経費だけを1回のUPDATEで遷移させ、経費ごとの結果を返す")
+	void 一括遷移() {
+
+		Map<Long, Integer> versions = new LinkedHashMap<>();
+		versions.put(3L, 1);
+		versions.put(1L, 0);
+		versions.put(2L, 0);
+		versions.put(9L, 0);
+
+		Expense ok = expense(3L, ExpenseStatus.SUBMITTED, 1);
+		when(expenseMapper.lockByIds(versions.keySet())).thenReturn(List.of(
+				expense(1L, ExpenseStatus.APPROVED, 0),
+				expense(2L, ExpenseStatus.SUBMITTED, 4),
+				ok));
+		when(expenseMapper.transitionAll(ExpenseTransition.APPROVE, List.of(ok))).thenReturn(1);
+
+		Map<Long, Result> results = engine.applyAll(ExpenseTransition.APPROVE, versions);
+
+		assertThat(results.keySet()).containsExactly(3L, 1L, 2L, 9L);
+		assertThat(results.get(3L).outcome()).isEqualTo(Outcome.APPLIED);
+		assertThat(results.get(3L).expense().getStatus()).isEqualTo(ExpenseStatus.APPROVED);
+		assertThat(results.get(3L).expense().getVersion()).isEqualTo(2);
+		assertThat(results.get(1L).outcome()).isEqualTo(Outcome.INVALID_STATE);
+		assertThat(results.get(2L).outcome()).isEqualTo(Outcome.VERSION_CONFLICT);
+		assertThat(results.get(9L).outcome()).isEqualTo(Outcome.NOT_FOUND);
+		verify(rollupMapper).applyTransition(ExpenseTransition.APPROVE, List.of(3L));
+	}
+
+	@Test
+	@DisplayName("一括遷移：遷移できる経費がなければUPDATEしない")
+	void 一括遷移で対象がなければUPDATEしない() {
+
+		Map<Long, Integer> versions = Map.of(1L, 0);
+		when(expenseMapper.lockByIds(versions.keySet())).thenReturn(List.of(expense(1L, ExpenseStatus.DRAFT, 0)));
+
+		Map<Long, Result> results = engine.applyAll(ExpenseTransition.REJECT, versions);
+
+		assertThat(results.get(1L).outcome()).isEqualTo(Outcome.INVALID_STATE);
+		verify(expenseMapper, never()).transitionAll(any(), any());
+		verifyNoInteractions(rollupMapper);
+	}
+
+	private Expense expense(Long id, ExpenseStatus status, int version) {
+		LocalDateTime now = LocalDateTime.now();
+		return new Expense(id, 10L, "交通費", BigDecimal.TEN, "JPY", status, null, now, now, version);
+	}
+
+	private Expense expense(ExpenseStatus status, int version, Long applicantId) {
+		LocalDateTime now = LocalDateTime.now();
+		return new Expense(1L, applicantId, "交通費", BigDecimal.TEN, "JPY", status, null, now, now, version);
+	}
+}